@@ -0,0 +1,118 @@
+package com.clickhouse.benchmark.misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.clickhouse.benchmark.BaseState;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.ClickHouseStreamResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading numeric columns through {@link ClickHouseResponse#records()}
+ * and through the cursor along with typed accessors like
+ * {@link ClickHouseResponse#getInt(int)}. Run with {@code -prof gc} to compare
+ * allocation rate per operation, and use {@code -Drows=N} to change number of
+ * rows.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, timeUnit = TimeUnit.SECONDS, time = 1)
+@Measurement(iterations = 10, timeUnit = TimeUnit.SECONDS, time = 1)
+@Fork(value = 2)
+@Threads(value = -1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ResponseCursorBenchmark {
+    @State(Scope.Thread)
+    public static class CursorState extends BaseState {
+        public int rows;
+
+        public ClickHouseConfig config;
+        public List<ClickHouseColumn> columns;
+        public byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void setupSamples() throws IOException {
+            rows = Integer.getInteger("rows", 10000);
+
+            Map<ClickHouseOption, Serializable> options = new HashMap<>();
+            options.put(ClickHouseClientOption.FORMAT, ClickHouseFormat.RowBinary);
+            options.put(ClickHouseClientOption.REUSE_VALUE_WRAPPER, false);
+            config = new ClickHouseConfig(options, null, null, null);
+            columns = ClickHouseColumn.parse("a Int32, b Int64, c Nullable(Int64), d Float64");
+
+            ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ClickHouseOutputStream o = ClickHouseOutputStream.of(out)) {
+                for (int r = 0; r < rows; r++) {
+                    m.serialize(ClickHouseValues.newValue(config, columns.get(0)).update(r), config, columns.get(0),
+                            o);
+                    m.serialize(ClickHouseValues.newValue(config, columns.get(1)).update(r * 1000L), config,
+                            columns.get(1), o);
+                    m.serialize(ClickHouseValues.newValue(config, columns.get(2)).update(r % 2 == 0 ? null : r),
+                            config, columns.get(2), o);
+                    m.serialize(ClickHouseValues.newValue(config, columns.get(3)).update(r / 3D), config,
+                            columns.get(3), o);
+                }
+            }
+            bytes = out.toByteArray();
+        }
+
+        ClickHouseResponse newResponse() throws IOException {
+            return ClickHouseStreamResponse.of(config, ClickHouseInputStream.of(new ByteArrayInputStream(bytes),
+                    (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue()), columns);
+        }
+    }
+
+    @Benchmark
+    public long records(CursorState state) throws IOException {
+        long sum = 0L;
+        try (ClickHouseResponse response = state.newResponse()) {
+            for (ClickHouseRecord r : response.records()) {
+                sum += r.getValue(0).asInteger() + r.getValue(1).asLong() + r.getValue(2).asLong()
+                        + (long) r.getValue(3).asDouble();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cursor(CursorState state) throws IOException {
+        long sum = 0L;
+        try (ClickHouseResponse response = state.newResponse()) {
+            while (response.next()) {
+                sum += response.getInt(0) + response.getLong(1) + response.getLong(2)
+                        + (long) response.getDouble(3);
+            }
+        }
+        return sum;
+    }
+}
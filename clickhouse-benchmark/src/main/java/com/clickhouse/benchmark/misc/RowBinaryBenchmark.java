@@ -0,0 +1,156 @@
+package com.clickhouse.benchmark.misc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.clickhouse.benchmark.BaseState;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares deserialization of a wide table in RowBinary format, using either
+ * per-value lookup of deserializers (as what it used to be) or deserializers
+ * compiled once per response. Both read all {@link #ROWS} rows through
+ * {@link ClickHouseRowBinaryProcessor#records()}, and the score is rows per
+ * second. Use {@code -Dcolumns=N} to change the width of the table.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 10, timeUnit = TimeUnit.SECONDS, time = 1)
+@Measurement(iterations = 10, timeUnit = TimeUnit.SECONDS, time = 1)
+@Fork(value = 2)
+@Threads(value = -1)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RowBinaryBenchmark {
+    static final int ROWS = 10000;
+    static final String[] TYPES = new String[] { "Int32", "Nullable(String)", "Float64",
+            "LowCardinality(String)", "UInt64", "Nullable(Int16)", "Array(Int32)", "Tuple(UInt8, String)" };
+
+    @State(Scope.Thread)
+    public static class RowBinaryState extends BaseState {
+        public ClickHouseConfig config;
+        public List<ClickHouseColumn> columns;
+        public byte[] bytes;
+
+        private Object getSample(ClickHouseColumn column, int row) {
+            switch (column.getDataType()) {
+                case Int32:
+                    return row;
+                case String:
+                    return column.isNullable() && row % 3 == 0 ? null : "value" + (row % 100);
+                case Float64:
+                    return row / 3D;
+                case UInt64:
+                    return (long) row * 1000L;
+                case Int16:
+                    return row % 2 == 0 ? null : (short) row;
+                case Array:
+                    return new int[] { row, row + 1, row + 2 };
+                case Tuple: {
+                    List<Object> list = new ArrayList<>(2);
+                    list.add((short) (row % 128));
+                    list.add("t" + row);
+                    return list;
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported column: " + column);
+            }
+        }
+
+        @Setup(Level.Trial)
+        public void setupSamples() throws IOException {
+            int cols = Integer.getInteger("columns", 120);
+
+            config = new ClickHouseConfig();
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < cols; i++) {
+                builder.append('c').append(i).append(' ').append(TYPES[i % TYPES.length]).append(',');
+            }
+            builder.setLength(builder.length() - 1);
+            columns = ClickHouseColumn.parse(builder.toString());
+
+            ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ClickHouseOutputStream o = ClickHouseOutputStream.of(out)) {
+                for (int r = 0; r < ROWS; r++) {
+                    for (ClickHouseColumn c : columns) {
+                        ClickHouseValue v = ClickHouseValues.newValue(config, c).update(getSample(c, r));
+                        m.serialize(v, config, c, o);
+                    }
+                }
+            }
+            bytes = out.toByteArray();
+        }
+
+        ClickHouseInputStream newInput() {
+            return ClickHouseInputStream.of(new ByteArrayInputStream(bytes),
+                    (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue());
+        }
+    }
+
+    static int consume(ClickHouseRowBinaryProcessor p, Blackhole consumer) {
+        int count = 0;
+        for (ClickHouseRecord r : p.records()) {
+            consumer.consume(r);
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int lookup(RowBinaryState state, Blackhole consumer) throws IOException {
+        try (ClickHouseInputStream in = state.newInput()) {
+            return consume(new ClickHouseRowBinaryProcessor(state.config, in, null, state.columns, null) {
+                private ClickHouseDeserializer<ClickHouseValue>[] deserializers;
+
+                @Override
+                @SuppressWarnings("unchecked")
+                protected ClickHouseDeserializer<ClickHouseValue>[] getDeserializers() {
+                    if (deserializers == null) {
+                        // look up deserializer by data type for each value
+                        deserializers = new ClickHouseDeserializer[getColumns().size()];
+                        Arrays.fill(deserializers, getMappedFunctions());
+                    }
+                    return deserializers;
+                }
+            }, consumer);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int compiled(RowBinaryState state, Blackhole consumer) throws IOException {
+        try (ClickHouseInputStream in = state.newInput()) {
+            return consume(new ClickHouseRowBinaryProcessor(state.config, in, null, state.columns, null), consumer);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.clickhouse.client.brotli;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.decoder.BrotliInputStream;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+
+/**
+ * Codec for {@link ClickHouseCompression#BROTLI}, which requires
+ * {@code com.aayushatharva.brotli4j:brotli4j} along with native library of
+ * current platform. It's shipped separately from {@code clickhouse-client},
+ * because brotli4j has no stable module name to be required by a named module.
+ */
+public class BrotliCompressionCodec implements ClickHouseCompressionCodec {
+    static final int MAX_QUALITY = 11;
+
+    public BrotliCompressionCodec() {
+        // fail early when native library is not available
+        Brotli4jLoader.ensureAvailability();
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.BROTLI;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new BrotliInputStream(input);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        return new BrotliOutputStream(output,
+                level < 0 ? Encoder.Parameters.DEFAULT
+                        : new Encoder.Parameters().setQuality(Math.min(level, MAX_QUALITY)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.clickhouse.client.brotli;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class BrotliCompressionCodecTest {
+    @Test(groups = { "unit" })
+    public void testRoundTrip() throws IOException {
+        Assert.assertTrue(ClickHouseCompressionCodec.of(ClickHouseCompression.BROTLI) instanceof BrotliCompressionCodec,
+                "Should be loaded by ServiceLoader");
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append(i).append(",\"row ").append(i).append("\"\n");
+        }
+        byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        for (int level : new int[] { -1, 0, 3, 9, 20 }) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ClickHouseOutputStream out = ClickHouseOutputStream.of(compressed, 8192,
+                    ClickHouseCompression.BROTLI, level, null)) {
+                out.writeBytes(bytes);
+            }
+            Assert.assertTrue(compressed.size() < bytes.length, "Data should have been compressed");
+
+            try (ClickHouseInputStream in = ClickHouseInputStream.of(
+                    new ByteArrayInputStream(compressed.toByteArray()), 2048, ClickHouseCompression.BROTLI)) {
+                Assert.assertEquals(in.readAllBytes(), bytes);
+            }
+        }
+    }
+}
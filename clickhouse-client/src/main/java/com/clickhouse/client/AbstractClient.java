@@ -2,8 +2,10 @@ package com.clickhouse.client;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -13,10 +15,12 @@ import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseHealthCheckMethod;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.metrics.Metrics;
 
 /**
  * Base class for implementing a thread-safe ClickHouse client. It uses
- * {@link ReadWriteLock} to manage access to underlying connection.
+ * {@link ReadWriteLock} to manage lifecycle of the client, and a per-node
+ * registry to hand out connections concurrently.
  */
 public abstract class AbstractClient<T> implements ClickHouseClient {
     private static final Logger log = LoggerFactory.getLogger(AbstractClient.class);
@@ -25,8 +29,8 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
 
     private ExecutorService executor = null;
     private ClickHouseConfig config = null;
-    private ClickHouseNode server = null;
-    private T connection = null;
+    private volatile ClickHouseNode server = null;
+    private final Map<ClickHouseNode, T> connections = new ConcurrentHashMap<>();
 
     protected final ReadWriteLock lock = new ReentrantReadWriteLock();
 
@@ -49,6 +53,20 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
         return future;
     }
 
+    /**
+     * Records time elapsed for sending request and getting response from the
+     * given server.
+     *
+     * @param metrics   non-null metrics
+     * @param server    non-null server
+     * @param startTime start time in nanoseconds
+     */
+    protected void recordLatency(Metrics metrics, ClickHouseNode server, long startTime) {
+        if (metrics.isEnabled()) {
+            metrics.recordTime(Metrics.REQUEST_LATENCY, System.nanoTime() - startTime, "node", server.getBaseUri());
+        }
+    }
+
     /**
      * Gets executor service for this client.
      *
@@ -94,12 +112,14 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
      * Checks if the underlying connection can be reused. In general, new connection
      * will be created when {@code connection} is {@code null} or
      * {@code requestServer} is different from {@code currentServer} - the existing
-     * connection will be closed in the later case.
+     * connection will be closed in the later case. Since connections are managed
+     * per node, {@code currentServer} is the node that {@code connection} was
+     * created for.
      *
      * @param connection    existing connection which may or may not be null
      * @param requestServer non-null requested server, returned from previous call
      *                      of {@code request.getServer()}
-     * @param currentServer current server, same as {@code getServer()}
+     * @param currentServer server of the existing connection
      * @param request       non-null request
      * @return true if the connection should NOT be changed(e.g. requestServer is
      *         same as currentServer); false otherwise
@@ -179,23 +199,28 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
         lock.readLock().lock();
         try {
             ensureInitialized();
-            if (checkConnection(connection, newNode, server, request)) {
-                return connection;
+            server = newNode;
+
+            T current = connections.get(newNode);
+            if (checkConnection(current, newNode, newNode, request)) {
+                return current;
             }
-        } finally {
-            lock.readLock().unlock();
-        }
 
-        lock.writeLock().lock();
-        try {
-            server = newNode;
             log.debug("Connecting to: %s", newNode);
-            connection = newConnection(connection, server, request);
-            log.debug("Connection established: %s", connection);
-
-            return connection;
+            T newConn = newConnection(current, newNode, request);
+            log.debug("Connection established: %s", newConn);
+            while (current == null ? connections.putIfAbsent(newNode, newConn) != null
+                    : !connections.replace(newNode, current, newConn)) {
+                // lost the race - use the winner if it's reusable
+                current = connections.get(newNode);
+                if (checkConnection(current, newNode, newNode, request)) {
+                    closeConnection(newConn, false);
+                    return current;
+                }
+            }
+            return newConn;
         } finally {
-            lock.writeLock().unlock();
+            lock.readLock().unlock();
         }
     }
 
@@ -267,8 +292,14 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
                     config.getMetricRegistry().orElse(null));
             if (this.executor == null) { // only initialize once
                 int threads = config.getMaxThreadsPerClient();
-                this.executor = threads < 1 ? ClickHouseClient.getExecutorService()
-                        : ClickHouseUtils.newThreadPool(this, threads, config.getMaxQueuedRequests());
+                if (threads < 1) {
+                    this.executor = ClickHouseClient.getExecutorService();
+                } else if (ClickHouseClientBuilder.useVirtualThreads) {
+                    this.executor = ClickHouseUtils.newVirtualThreadPerTaskExecutor(this);
+                } else {
+                    this.executor = ClickHouseUtils.newThreadPool(this, threads, config.getMaxQueuedRequests(),
+                            this.config.getMetrics());
+                }
             }
 
             initialized = true;
@@ -282,20 +313,39 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
         // sealedRequest is an immutable copy of the original request
         final ClickHouseRequest<?> sealedRequest = request.seal();
 
+        final Metrics metrics = sealedRequest.getConfig().getMetrics();
         if (sealedRequest.getConfig().isAsync()) {
             final Object[] args = getAsyncExecArguments(sealedRequest);
             return CompletableFuture.supplyAsync(() -> {
+                final ClickHouseNode server = sealedRequest.getServer();
+                final long startTime = System.nanoTime();
+                boolean success = false;
+                server.startRequest();
                 try {
-                    return sendAsync(sealedRequest, args);
+                    ClickHouseResponse response = sendAsync(sealedRequest, args);
+                    success = true;
+                    return response;
                 } catch (ClickHouseException | IOException e) {
-                    throw new CompletionException(ClickHouseException.of(e, sealedRequest.getServer()));
+                    throw new CompletionException(ClickHouseException.of(e, server));
+                } finally {
+                    server.endRequest(System.nanoTime() - startTime, success);
+                    recordLatency(metrics, server, startTime);
                 }
             }, getExecutor());
         } else {
+            final ClickHouseNode server = sealedRequest.getServer();
+            final long startTime = System.nanoTime();
+            boolean success = false;
+            server.startRequest();
             try {
-                return CompletableFuture.completedFuture(send(sealedRequest));
+                ClickHouseResponse response = send(sealedRequest);
+                success = true;
+                return CompletableFuture.completedFuture(response);
             } catch (ClickHouseException | IOException e) {
-                return failedResponse(ClickHouseException.of(e, sealedRequest.getServer()));
+                return failedResponse(ClickHouseException.of(e, server));
+            } finally {
+                server.endRequest(System.nanoTime() - startTime, success);
+                recordLatency(metrics, server, startTime);
             }
         }
     }
@@ -315,10 +365,10 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
         try {
             server = null;
 
-            if (connection != null) {
-                closeConnection(connection, false);
-                connection = null;
+            for (T conn : connections.values()) {
+                closeConnection(conn, false);
             }
+            connections.clear();
 
             // avoid shutting down shared thread pool
             if (executor != null && config.getMaxThreadsPerClient() > 0 && !executor.isTerminated()) {
@@ -330,8 +380,8 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
         } finally {
             initialized = false;
             try {
-                if (connection != null) {
-                    closeConnection(connection, true);
+                for (T conn : connections.values()) {
+                    closeConnection(conn, true);
                 }
 
                 if (executor != null && config.getMaxThreadsPerClient() > 0) {
@@ -339,7 +389,7 @@ public abstract class AbstractClient<T> implements ClickHouseClient {
                 }
             } finally {
                 executor = null;
-                connection = null;
+                connections.clear();
                 lock.writeLock().unlock();
             }
         }
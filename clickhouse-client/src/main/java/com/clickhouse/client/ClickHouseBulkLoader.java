@@ -0,0 +1,484 @@
+package com.clickhouse.client;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.ClickHouseTabSeparatedProcessor;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Bulk loader splits input on row boundaries into chunks and inserts them
+ * concurrently into one or more nodes. Chunks are distributed among nodes in
+ * round-robin fashion, and a failed chunk will be retried on the next node
+ * until it runs out of retries. Number of chunks being inserted at the same
+ * time is bounded, so memory usage is roughly {@code chunkSize * (maxInFlight +
+ * 1)} regardless of input size.
+ *
+ * <p>
+ * Only formats that rows can be located by scanning for line break are
+ * supported, for example {@link ClickHouseFormat#TabSeparated},
+ * {@link ClickHouseFormat#TabSeparatedRaw} and their variants with header.
+ * Header, if any, will be sent along with each chunk. Since chunks are inserted
+ * in separate queries, the load is not atomic and a retried chunk may be
+ * inserted twice when the server failed after accepting the data, unless the
+ * table deduplicates inserted blocks.
+ */
+public class ClickHouseBulkLoader {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseBulkLoader.class);
+
+    /**
+     * Default chunk size in bytes.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+    /**
+     * Default maximum retries of each chunk.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 3;
+
+    /**
+     * Mutable and non-thread safe builder.
+     */
+    public static class Builder {
+        private final List<ClickHouseNode> nodes;
+
+        private ClickHouseNodes cluster;
+        private ClickHouseClient client;
+        private String table;
+        private ClickHouseFormat format;
+        private int chunkSize;
+        private int maxInFlight;
+        private int maxRetries;
+
+        protected Builder() {
+            this.nodes = new ArrayList<>();
+            this.format = ClickHouseFormat.TabSeparated;
+            this.chunkSize = DEFAULT_CHUNK_SIZE;
+            this.maxRetries = DEFAULT_MAX_RETRIES;
+        }
+
+        /**
+         * Sets client for sending chunks. When it's not set, a new client will be
+         * created and closed for each load.
+         *
+         * @param client client, null means create a new one for each load
+         * @return this builder
+         */
+        public Builder client(ClickHouseClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Sets managed nodes. Available nodes will be retrieved at the beginning of
+         * each load.
+         *
+         * @param nodes non-null managed nodes
+         * @return this builder
+         */
+        public Builder nodes(ClickHouseNodes nodes) {
+            this.cluster = ClickHouseChecker.nonNull(nodes, "Nodes");
+            this.nodes.clear();
+            return this;
+        }
+
+        /**
+         * Sets nodes to load data into.
+         *
+         * @param nodes non-empty nodes
+         * @return this builder
+         */
+        public Builder nodes(ClickHouseNode... nodes) {
+            if (nodes == null || nodes.length == 0) {
+                throw new IllegalArgumentException("At least one node is required");
+            }
+            this.cluster = null;
+            this.nodes.clear();
+            for (ClickHouseNode n : nodes) {
+                this.nodes.add(ClickHouseChecker.nonNull(n, "Node"));
+            }
+            return this;
+        }
+
+        /**
+         * Sets target table.
+         *
+         * @param table non-empty table name
+         * @return this builder
+         */
+        public Builder table(String table) {
+            this.table = ClickHouseChecker.nonBlank(table, "Table");
+            return this;
+        }
+
+        /**
+         * Sets input format.
+         *
+         * @param format non-null format, defaults to
+         *               {@link ClickHouseFormat#TabSeparated}
+         * @return this builder
+         */
+        public Builder format(ClickHouseFormat format) {
+            this.format = ClickHouseChecker.nonNull(format, "Format");
+            return this;
+        }
+
+        /**
+         * Sets approximate size of each chunk in bytes. A chunk will be larger than
+         * that when it contains a single row exceeding the size.
+         *
+         * @param chunkSize chunk size in bytes, zero or negative number means
+         *                  {@link #DEFAULT_CHUNK_SIZE}
+         * @return this builder
+         */
+        public Builder chunkSize(int chunkSize) {
+            this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of chunks being inserted at the same time.
+         *
+         * @param maxInFlight maximum in-flight chunks, zero or negative number means
+         *                    twice the number of nodes
+         * @return this builder
+         */
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets maximum retries of each chunk.
+         *
+         * @param maxRetries maximum retries, zero or negative number means no retry
+         * @return this builder
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries > 0 ? maxRetries : 0;
+            return this;
+        }
+
+        /**
+         * Creates a new bulk loader.
+         *
+         * @return non-null bulk loader
+         */
+        public ClickHouseBulkLoader build() {
+            if (table == null) {
+                throw new IllegalArgumentException("Non-null table is required");
+            } else if (cluster == null && nodes.isEmpty()) {
+                throw new IllegalArgumentException("At least one node is required");
+            } else if (ClickHouseTabSeparatedProcessor.newRowSplitter(format) == null) {
+                throw new IllegalArgumentException(
+                        ClickHouseUtils.format("Format %s cannot be split on row boundaries", format));
+            }
+
+            return new ClickHouseBulkLoader(this);
+        }
+    }
+
+    /**
+     * Gets a new builder.
+     *
+     * @return non-null builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A chunk of rows, which will be kept in memory until it's inserted.
+     */
+    static final class Chunk {
+        final long index;
+        final byte[] header;
+        final byte[] bytes;
+        final int length;
+
+        Chunk(long index, byte[] header, byte[] bytes, int length) {
+            this.index = index;
+            this.header = header;
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        ClickHouseInputStream newInput() {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+            return header == null ? ClickHouseInputStream.of(buffer)
+                    : ClickHouseInputStream.of(ByteBuffer.wrap(header), buffer);
+        }
+    }
+
+    /**
+     * State of one load.
+     */
+    final class Load {
+        final ClickHouseClient client;
+        final List<ClickHouseNode> targets;
+        final int permits;
+        final Semaphore inFlight;
+        final ClickHouseResponseSummary summary;
+        final AtomicReference<Throwable> error;
+
+        volatile ClickHouseNode failedNode;
+
+        Load(ClickHouseClient client, List<ClickHouseNode> targets) {
+            this.client = client;
+            this.targets = targets;
+            this.permits = maxInFlight > 0 ? maxInFlight : targets.size() * 2;
+            this.inFlight = new Semaphore(permits);
+            this.summary = new ClickHouseResponseSummary(null, null);
+            this.error = new AtomicReference<>();
+        }
+
+        void submit(Chunk chunk) throws InterruptedException {
+            inFlight.acquire();
+            send(chunk, 0);
+        }
+
+        void send(Chunk chunk, int attempt) {
+            final ClickHouseNode node = targets.get((int) ((chunk.index + attempt) % targets.size()));
+            try {
+                client.connect(node).write().table(table).format(format).option(ClickHouseClientOption.ASYNC, true)
+                        .data(chunk.newInput()).execute().whenComplete((r, e) -> {
+                            if (e == null) {
+                                try (ClickHouseResponse response = r) {
+                                    summary.add(response.getSummary());
+                                }
+                                inFlight.release();
+                            } else {
+                                retry(chunk, attempt, node, e);
+                            }
+                        });
+            } catch (Exception e) {
+                retry(chunk, attempt, node, e);
+            }
+        }
+
+        void retry(Chunk chunk, int attempt, ClickHouseNode node, Throwable e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (attempt < maxRetries && error.get() == null) {
+                log.debug("Failed to insert chunk #%d into %s(attempt %d), retrying: %s", chunk.index, node,
+                        attempt + 1, cause.getMessage());
+                send(chunk, attempt + 1);
+            } else {
+                fail(cause, node);
+                inFlight.release();
+            }
+        }
+
+        void fail(Throwable cause, ClickHouseNode node) {
+            if (error.compareAndSet(null, cause)) {
+                failedNode = node;
+            }
+        }
+
+        boolean hasFailed() {
+            return error.get() != null;
+        }
+
+        ClickHouseResponseSummary await() throws ClickHouseException {
+            try {
+                inFlight.acquire(permits);
+                inFlight.release(permits);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ClickHouseException.forCancellation(e, targets.get(0));
+            }
+
+            Throwable t = error.get();
+            if (t != null) {
+                throw ClickHouseException.of(t, failedNode);
+            }
+            summary.seal();
+            return summary;
+        }
+    }
+
+    private final ClickHouseNodes cluster;
+    private final List<ClickHouseNode> nodes;
+    private final ClickHouseClient client;
+    private final String table;
+    private final ClickHouseFormat format;
+    private final int chunkSize;
+    private final int maxInFlight;
+    private final int maxRetries;
+
+    protected ClickHouseBulkLoader(Builder builder) {
+        this.cluster = builder.cluster;
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(builder.nodes));
+        this.client = builder.client;
+        this.table = builder.table;
+        this.format = builder.format;
+        this.chunkSize = builder.chunkSize;
+        this.maxInFlight = builder.maxInFlight;
+        this.maxRetries = builder.maxRetries;
+    }
+
+    /**
+     * Gets nodes to load data into.
+     *
+     * @return non-empty list of nodes
+     */
+    protected List<ClickHouseNode> getTargets() {
+        List<ClickHouseNode> list = new ArrayList<>();
+        if (cluster != null) {
+            list.addAll(cluster.getNodes());
+            if (list.isEmpty()) {
+                list.add(cluster.apply(cluster.getNodeSelector()));
+            }
+        } else {
+            list.addAll(nodes);
+        }
+
+        for (int i = 0, len = list.size(); i < len; i++) {
+            // in case the protocol is ANY
+            list.set(i, list.get(i).probe());
+        }
+        return list;
+    }
+
+    /**
+     * Splits the given input into chunks and submits them for insertion.
+     *
+     * @param load  non-null load
+     * @param input non-null input
+     * @throws IOException          when failed to read input
+     * @throws InterruptedException when interrupted waiting for in-flight chunks
+     */
+    protected void split(Load load, ClickHouseInputStream input) throws IOException, InterruptedException {
+        final ClickHouseDataUpdater splitter = ClickHouseTabSeparatedProcessor.newRowSplitter(format);
+        int headerRows = format.hasHeader() ? (format.name().endsWith("WithNamesAndTypes") ? 2 : 1) : 0;
+        byte[] header = null;
+
+        byte[] buf = new byte[chunkSize];
+        int len = 0;
+        int scanned = 0;
+        int rowEnd = 0;
+        long index = 0L;
+        while (!load.hasFailed()) {
+            int n = input.read(buf, len, buf.length - len);
+            if (n < 0) {
+                break;
+            }
+            len += n;
+
+            while (scanned < len) {
+                int offset = splitter.update(buf, scanned, len);
+                if (offset < 0) {
+                    scanned = len;
+                    break;
+                }
+                scanned += offset;
+                if (headerRows > 0 && --headerRows == 0) {
+                    header = Arrays.copyOf(buf, scanned);
+                    len -= scanned;
+                    System.arraycopy(buf, scanned, buf, 0, len);
+                    scanned = 0;
+                } else if (headerRows == 0) {
+                    rowEnd = scanned;
+                }
+            }
+
+            if (len < buf.length) {
+                continue;
+            } else if (rowEnd > 0) {
+                load.submit(new Chunk(index++, header, buf, rowEnd));
+                int remain = len - rowEnd;
+                byte[] newBuf = new byte[remain < chunkSize ? chunkSize : buf.length];
+                System.arraycopy(buf, rowEnd, newBuf, 0, remain);
+                buf = newBuf;
+                len = remain;
+                scanned -= rowEnd;
+                rowEnd = 0;
+            } else if (buf.length > Integer.MAX_VALUE / 2) {
+                throw new IOException(ClickHouseUtils.format("Row #%d is too large to fit into a chunk", index));
+            } else {
+                // a single row(or header) is larger than chunk size
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+
+        if (len > 0 && !load.hasFailed()) {
+            load.submit(new Chunk(index, header, buf, len));
+        }
+    }
+
+    /**
+     * Loads data from the given input stream, which will be closed afterwards.
+     * It blocks until all chunks are inserted or one of them failed after
+     * retries.
+     *
+     * @param input non-null uncompressed input stream
+     * @return non-null summary aggregated from all chunks
+     * @throws ClickHouseException when failed to read input or insert data
+     */
+    public ClickHouseResponseSummary load(ClickHouseInputStream input) throws ClickHouseException {
+        if (input == null) {
+            throw new IllegalArgumentException("Non-null input is required");
+        }
+
+        List<ClickHouseNode> targets = getTargets();
+        ClickHouseClient c = client;
+        if (c == null) {
+            Set<ClickHouseProtocol> protocols = new LinkedHashSet<>();
+            for (ClickHouseNode n : targets) {
+                protocols.add(n.getProtocol());
+            }
+            c = ClickHouseClient.newInstance(protocols.toArray(new ClickHouseProtocol[0]));
+        }
+
+        Load load = new Load(c, targets);
+        try {
+            try (ClickHouseInputStream in = input) {
+                split(load, in);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw ClickHouseException.forCancellation(e, targets.get(0));
+            } catch (IOException e) {
+                load.fail(e, targets.get(0));
+            }
+            return load.await();
+        } finally {
+            if (client == null) {
+                c.close();
+            }
+        }
+    }
+
+    /**
+     * Loads data from the given file. Compressed file will be decompressed before
+     * splitting.
+     *
+     * @param file non-null file
+     * @return non-null summary aggregated from all chunks
+     * @throws ClickHouseException when failed to read the file or insert data
+     */
+    public ClickHouseResponseSummary load(ClickHouseFile file) throws ClickHouseException {
+        if (file == null || !file.isAvailable()) {
+            throw new IllegalArgumentException("Non-null file is required");
+        }
+
+        InputStream in;
+        try {
+            in = new FileInputStream(file.getFile());
+        } catch (IOException e) {
+            throw ClickHouseException.of(e, getTargets().get(0));
+        }
+        return load(ClickHouseInputStream.of(in, (int) ClickHouseClientOption.READ_BUFFER_SIZE.getDefaultValue(),
+                file.getCompressionAlgorithm()));
+    }
+}
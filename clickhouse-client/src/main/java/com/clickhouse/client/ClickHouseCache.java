@@ -45,6 +45,35 @@ public interface ClickHouseCache<K, V> {
      */
     V get(K key);
 
+    /**
+     * Gets number of times {@link #get(Object)} found the value in cache.
+     *
+     * @return number of cache hits, or zero when it's not tracked
+     */
+    default long getHitCount() {
+        return 0L;
+    }
+
+    /**
+     * Gets number of times {@link #get(Object)} had to load the value.
+     *
+     * @return number of cache misses, or zero when it's not tracked
+     */
+    default long getMissCount() {
+        return 0L;
+    }
+
+    /**
+     * Gets ratio of cache hits to requests.
+     *
+     * @return hit ratio between 0 and 1, or zero when there's no request
+     */
+    default double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total > 0L ? (double) hits / total : 0D;
+    }
+
     /**
      * Gets inner cache object to gain more access.
      *
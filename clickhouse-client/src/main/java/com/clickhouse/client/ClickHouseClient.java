@@ -24,6 +24,10 @@ import com.clickhouse.client.config.ClickHouseBufferingMode;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseDefaults;
 import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.metrics.Metrics;
+import com.clickhouse.client.stream.MeteredInputStream;
+import com.clickhouse.client.stream.MeteredOutputStream;
+import com.clickhouse.client.stream.ParallelLz4InputStream;
 
 /**
  * A unified interface defines Java client for ClickHouse. A client can only
@@ -80,8 +84,40 @@ public interface ClickHouseClient extends AutoCloseable {
                     ClickHouseCompression.NONE, postCloseAction);
         }
 
-        return ClickHouseOutputStream.of(output, config.getWriteBufferSize(), config.getRequestCompressAlgorithm(),
-                postCloseAction);
+        final Metrics metrics = config.getMetrics();
+        final ClickHouseCompression compression = config.getRequestCompressAlgorithm();
+        if (!metrics.isEnabled() || output == null || output instanceof ClickHouseOutputStream) {
+            return ClickHouseOutputStream.of(output, config.getWriteBufferSize(), compression,
+                    config.getRequestCompressLevel(), postCloseAction);
+        }
+
+        final MeteredOutputStream wire = new MeteredOutputStream(output);
+        if (compression == ClickHouseCompression.NONE) {
+            return ClickHouseOutputStream.of(wire, config.getWriteBufferSize(), compression, () -> {
+                metrics.increment(Metrics.BYTES_OUT, wire.getCount(), "compressed", "false");
+                if (postCloseAction != null) {
+                    postCloseAction.run();
+                }
+            });
+        }
+
+        // closing wrapped output stream only flushes, so compressed stream has to be
+        // closed explicitly
+        final ClickHouseOutputStream compressed = ClickHouseOutputStream.of(wire, config.getWriteBufferSize(),
+                compression, config.getRequestCompressLevel(), null);
+        final MeteredOutputStream uncompressed = new MeteredOutputStream(compressed);
+        return ClickHouseOutputStream.of(uncompressed, config.getWriteBufferSize(), ClickHouseCompression.NONE, () -> {
+            try {
+                compressed.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            metrics.increment(Metrics.BYTES_OUT, wire.getCount(), "compressed", "true");
+            metrics.increment(Metrics.BYTES_OUT, uncompressed.getCount(), "compressed", "false");
+            if (postCloseAction != null) {
+                postCloseAction.run();
+            }
+        });
     }
 
     /**
@@ -147,8 +183,40 @@ public interface ClickHouseClient extends AutoCloseable {
                     ClickHouseCompression.NONE, postCloseAction);
         }
 
-        return ClickHouseInputStream.of(input, config.getReadBufferSize(), config.getResponseCompressAlgorithm(),
-                postCloseAction);
+        final ClickHouseCompression compression = config.getResponseCompressAlgorithm();
+        if (input == null || input instanceof ClickHouseInputStream) {
+            return ClickHouseInputStream.of(input, config.getReadBufferSize(), compression, postCloseAction);
+        }
+
+        final Metrics metrics = config.getMetrics();
+        final MeteredInputStream wire = metrics.isEnabled() ? new MeteredInputStream(input) : null;
+        if (wire != null && compression == ClickHouseCompression.NONE) {
+            return ClickHouseInputStream.of(wire, config.getReadBufferSize(), compression, () -> {
+                metrics.increment(Metrics.BYTES_IN, wire.getCount(), "compressed", "false");
+                if (postCloseAction != null) {
+                    postCloseAction.run();
+                }
+            });
+        }
+
+        final InputStream raw = wire != null ? wire : input;
+        final Runnable action = wire != null ? null : postCloseAction;
+        final ClickHouseInputStream decompressed = compression == ClickHouseCompression.LZ4
+                && config.getReadAheadBlocks() > 0
+                        ? new ParallelLz4InputStream(null, raw, config.getReadAheadBlocks(), null, action)
+                        : ClickHouseInputStream.of(raw, config.getReadBufferSize(), compression, action);
+        if (wire == null) {
+            return decompressed;
+        }
+
+        final MeteredInputStream uncompressed = new MeteredInputStream(decompressed);
+        return ClickHouseInputStream.of(uncompressed, config.getReadBufferSize(), ClickHouseCompression.NONE, () -> {
+            metrics.increment(Metrics.BYTES_IN, wire.getCount(), "compressed", "true");
+            metrics.increment(Metrics.BYTES_IN, uncompressed.getCount(), "compressed", "false");
+            if (postCloseAction != null) {
+                postCloseAction.run();
+            }
+        });
     }
 
     /**
@@ -182,8 +250,8 @@ public interface ClickHouseClient extends AutoCloseable {
                     .createPipedOutputStream(config, null);
             wrappedInput = getResponseInputStream(config, decompressedStream.getInputStream(), postCloseAction);
             submit(() -> {
-                try (ClickHouseInputStream in = ClickHouseInputStream.of(input, config.getReadBufferSize(),
-                        config.getResponseCompressAlgorithm(), null); ClickHouseOutputStream out = decompressedStream) {
+                try (ClickHouseInputStream in = getResponseInputStream(config, input, null);
+                        ClickHouseOutputStream out = decompressedStream) {
                     in.pipe(out);
                 }
                 return null;
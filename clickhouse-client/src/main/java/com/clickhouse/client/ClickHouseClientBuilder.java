@@ -22,6 +22,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import com.clickhouse.client.config.ClickHouseOption;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.metrics.Metrics;
 import com.clickhouse.client.ClickHouseNode.Status;
 import com.clickhouse.client.config.ClickHouseDefaults;
 
@@ -111,9 +112,11 @@ public class ClickHouseClientBuilder {
         }
 
         ClickHouseResponse failover(ClickHouseRequest<?> sealedRequest, ClickHouseException exception, int times) {
+            final Metrics metrics = sealedRequest.getConfig().getMetrics();
             for (int i = 1; i <= times; i++) {
                 log.debug("Failover %d of %d due to: %s", i, times, exception.getCause(), null);
                 ClickHouseNode current = sealedRequest.getServer();
+                metrics.increment(Metrics.FAILOVER, 1L, "node", current.getBaseUri());
                 ClickHouseNodeManager manager = current.manager.get();
                 if (manager == null) {
                     log.debug("Cancel failover for unmanaged node: %s", current);
@@ -125,6 +128,7 @@ public class ClickHouseClientBuilder {
                     break;
                 }
                 current.update(Status.FAULTY);
+                metrics.increment(Metrics.NODE_FAULTY, 1L, "node", current.getBaseUri());
                 if (sealedRequest.isTransactional()) {
                     log.debug("Cancel failover for transactional context: %s", sealedRequest.getTransaction());
                     break;
@@ -225,11 +229,13 @@ public class ClickHouseClientBuilder {
         }
 
         ClickHouseResponse retry(ClickHouseRequest<?> sealedRequest, ClickHouseException exception, int times) {
+            final Metrics metrics = sealedRequest.getConfig().getMetrics();
             for (int i = 1; i <= times; i++) {
                 log.debug("Retry %d of %d due to: %s", i, times, exception.getMessage());
                 // TODO retry idempotent query
                 if (exception.getErrorCode() == ClickHouseException.ERROR_NETWORK) {
                     log.info("Retry request on %s due to connection issue", sealedRequest.getServer());
+                    metrics.increment(Metrics.RETRY, 1L, "node", sealedRequest.getServer().getBaseUri());
                     try {
                         return sendOnce(sealedRequest);
                     } catch (Exception exp) {
@@ -365,6 +371,10 @@ public class ClickHouseClientBuilder {
     // expose method to change default thread pool in runtime? JMX?
     static final ExecutorService defaultExecutor;
     static final ScheduledExecutorService defaultScheduler;
+    /**
+     * Whether virtual threads are enabled and supported by current JVM.
+     */
+    static final boolean useVirtualThreads;
 
     static {
         int maxSchedulers = (int) ClickHouseDefaults.MAX_SCHEDULER_THREADS.getEffectiveDefaultValue();
@@ -386,8 +396,18 @@ public class ClickHouseClientBuilder {
         }
 
         String prefix = "ClickHouseClientWorker";
-        defaultExecutor = ClickHouseUtils.newThreadPool(prefix, maxThreads, maxThreads * 2, maxRequests,
-                keepAliveTimeoutMs, false);
+        ExecutorService executor = null;
+        if ((boolean) ClickHouseDefaults.USE_VIRTUAL_THREADS.getEffectiveDefaultValue()) {
+            executor = ClickHouseUtils.newVirtualThreadPerTaskExecutor(prefix);
+            if (executor == null) {
+                LoggerFactory.getLogger(ClickHouseClientBuilder.class)
+                        .warn("Virtual threads are not supported by current JVM, use platform threads instead");
+            }
+        }
+        useVirtualThreads = executor != null;
+        defaultExecutor = useVirtualThreads ? executor
+                : ClickHouseUtils.newThreadPool(prefix, maxThreads, maxThreads * 2, maxRequests, keepAliveTimeoutMs,
+                        false);
         prefix = "ClickHouseClientScheduler";
         defaultScheduler = maxSchedulers == 1 ? Executors
                 .newSingleThreadScheduledExecutor(new ClickHouseThreadFactory(prefix))
@@ -0,0 +1,56 @@
+package com.clickhouse.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * This interface defines how to compress and decompress data stream using a
+ * specific compression algorithm. Implementations are discovered by
+ * {@link java.util.ServiceLoader}, and those failed to load(e.g. due to missing
+ * optional library) will be simply ignored.
+ */
+public interface ClickHouseCompressionCodec {
+    /**
+     * Gets codec for the given compression algorithm.
+     *
+     * @param compression non-null compression algorithm
+     * @return non-null codec
+     * @throws UnsupportedOperationException when no codec is available for the
+     *                                       given compression algorithm
+     */
+    static ClickHouseCompressionCodec of(ClickHouseCompression compression) {
+        ClickHouseCompressionCodec codec = ClickHouseCompressionCodecs.getCodec(compression);
+        if (codec == null) {
+            throw new UnsupportedOperationException("Unsupported compression algorithm: " + compression);
+        }
+        return codec;
+    }
+
+    /**
+     * Gets compression algorithm supported by this codec.
+     *
+     * @return non-null compression algorithm
+     */
+    ClickHouseCompression getAlgorithm();
+
+    /**
+     * Creates an input stream for decompressing data from the given input.
+     *
+     * @param input non-null input stream with compressed data
+     * @return non-null input stream for reading decompressed data
+     * @throws IOException when failed to create input stream
+     */
+    InputStream decompress(InputStream input) throws IOException;
+
+    /**
+     * Creates an output stream for compressing data into the given output.
+     *
+     * @param output non-null output stream to write compressed data
+     * @param level  compression level from 0 to 9(low to high), negative number
+     *               means default level of the codec
+     * @return non-null output stream for writing uncompressed data
+     * @throws IOException when failed to create output stream
+     */
+    OutputStream compress(OutputStream output, int level) throws IOException;
+}
@@ -0,0 +1,51 @@
+package com.clickhouse.client;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Registry of {@link ClickHouseCompressionCodec} loaded by
+ * {@link ServiceLoader}. When there are multiple codecs for the same
+ * compression algorithm, the first one wins.
+ */
+final class ClickHouseCompressionCodecs {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseCompressionCodecs.class);
+
+    private static final Map<ClickHouseCompression, ClickHouseCompressionCodec> codecs = load();
+
+    static Map<ClickHouseCompression, ClickHouseCompressionCodec> load() {
+        Map<ClickHouseCompression, ClickHouseCompressionCodec> map = new EnumMap<>(ClickHouseCompression.class);
+        Iterator<ClickHouseCompressionCodec> it = ServiceLoader
+                .load(ClickHouseCompressionCodec.class, ClickHouseCompressionCodecs.class.getClassLoader())
+                .iterator();
+        while (true) {
+            try {
+                if (!it.hasNext()) {
+                    break;
+                }
+                ClickHouseCompressionCodec codec = it.next();
+                if (codec != null && codec.getAlgorithm() != null) {
+                    map.putIfAbsent(codec.getAlgorithm(), codec);
+                }
+            } catch (ServiceConfigurationError | LinkageError e) {
+                // most likely optional library is not available
+                log.debug("Skip compression codec due to: %s", e.getMessage());
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    static ClickHouseCompressionCodec getCodec(ClickHouseCompression compression) {
+        return codecs.get(compression);
+    }
+
+    private ClickHouseCompressionCodecs() {
+    }
+}
@@ -19,6 +19,8 @@ import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseOption;
 import com.clickhouse.client.config.ClickHouseDefaults;
 import com.clickhouse.client.config.ClickHouseSslMode;
+import com.clickhouse.client.metrics.Metrics;
+import com.clickhouse.client.metrics.MetricsFactory;
 
 /**
  * An immutable class holding client-specific options like
@@ -174,8 +176,12 @@ public class ClickHouseConfig implements Serializable {
     private final ClickHouseFormat format;
     private final int maxBufferSize;
     private final int bufferSize;
+    private final int bufferPoolSize;
+    private final boolean bufferPoolDirect;
+    private final boolean bufferPoolLeakDetection;
     private final int bufferQueueVariation;
     private final int readBufferSize;
+    private final int readAheadBlocks;
     private final int writeBufferSize;
     private final int requestChunkSize;
     private final ClickHouseBufferingMode requestBuffering;
@@ -214,6 +220,7 @@ public class ClickHouseConfig implements Serializable {
     private final Map<ClickHouseOption, Serializable> options;
     private final ClickHouseCredentials credentials;
     private final transient Optional<Object> metricRegistry;
+    private final transient Metrics metrics;
 
     // node selector - pick only interested nodes from given list
     private final ClickHouseNodeSelector nodeSelector;
@@ -267,8 +274,12 @@ public class ClickHouseConfig implements Serializable {
         this.maxBufferSize = ClickHouseUtils.getBufferSize((int) getOption(ClickHouseClientOption.MAX_BUFFER_SIZE), -1,
                 -1);
         this.bufferSize = (int) getOption(ClickHouseClientOption.BUFFER_SIZE);
+        this.bufferPoolSize = (int) getOption(ClickHouseClientOption.BUFFER_POOL_SIZE);
+        this.bufferPoolDirect = (boolean) getOption(ClickHouseClientOption.BUFFER_POOL_DIRECT);
+        this.bufferPoolLeakDetection = (boolean) getOption(ClickHouseClientOption.BUFFER_POOL_LEAK_DETECTION);
         this.bufferQueueVariation = (int) getOption(ClickHouseClientOption.BUFFER_QUEUE_VARIATION);
         this.readBufferSize = (int) getOption(ClickHouseClientOption.READ_BUFFER_SIZE);
+        this.readAheadBlocks = (int) getOption(ClickHouseClientOption.READ_AHEAD_BLOCKS);
         this.writeBufferSize = (int) getOption(ClickHouseClientOption.WRITE_BUFFER_SIZE);
         this.requestChunkSize = (int) getOption(ClickHouseClientOption.REQUEST_CHUNK_SIZE);
         this.requestBuffering = (ClickHouseBufferingMode) getOption(ClickHouseClientOption.REQUEST_BUFFERING,
@@ -319,6 +330,7 @@ public class ClickHouseConfig implements Serializable {
             this.credentials = credentials;
         }
         this.metricRegistry = Optional.ofNullable(metricRegistry);
+        this.metrics = MetricsFactory.of(metricRegistry);
         this.nodeSelector = nodeSelector == null ? ClickHouseNodeSelector.EMPTY : nodeSelector;
     }
 
@@ -498,6 +510,35 @@ public class ClickHouseConfig implements Serializable {
         return bufferSize;
     }
 
+    /**
+     * Gets maximum number of buffers kept in each size class of the shared buffer
+     * pool.
+     *
+     * @return maximum number of pooled buffers per size class, zero means no
+     *         pooling
+     */
+    public int getBufferPoolSize() {
+        return bufferPoolSize > 0 ? bufferPoolSize : 0;
+    }
+
+    /**
+     * Checks whether direct buffers should be used in buffer pool.
+     *
+     * @return true if direct buffers should be used; false otherwise
+     */
+    public boolean isBufferPoolDirect() {
+        return bufferPoolDirect;
+    }
+
+    /**
+     * Checks whether leak detection is enabled for buffer pool.
+     *
+     * @return true if leak detection is enabled; false otherwise
+     */
+    public boolean isBufferPoolLeakDetection() {
+        return bufferPoolLeakDetection;
+    }
+
     /**
      * Gets number of times the buffer queue is filled up before
      * increasing capacity of buffer queue. Zero or negative value means the queue
@@ -518,6 +559,16 @@ public class ClickHouseConfig implements Serializable {
         return ClickHouseUtils.getBufferSize(readBufferSize, getBufferSize(), getMaxBufferSize());
     }
 
+    /**
+     * Gets number of compressed blocks to read ahead when decompressing server
+     * response.
+     *
+     * @return number of compressed blocks to read ahead, zero means no read-ahead
+     */
+    public int getReadAheadBlocks() {
+        return readAheadBlocks > 0 ? readAheadBlocks : 0;
+    }
+
     /**
      * Gets write buffer size in byte.
      *
@@ -703,6 +754,16 @@ public class ClickHouseConfig implements Serializable {
         return this.metricRegistry;
     }
 
+    /**
+     * Gets metrics for recording client metrics into {@link #getMetricRegistry()}.
+     *
+     * @return non-null metrics, {@link Metrics#NOOP} when there's no metric
+     *         registry
+     */
+    public Metrics getMetrics() {
+        return this.metrics != null ? this.metrics : Metrics.NOOP;
+    }
+
     public ClickHouseNodeSelector getNodeSelector() {
         return this.nodeSelector;
     }
@@ -11,6 +11,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
+import com.clickhouse.client.metrics.Metrics;
+
 /**
  * This defines a data processor for dealing with serialization and
  * deserialization of one or multiple {@link ClickHouseFormat}. Unlike
@@ -93,6 +95,27 @@ public abstract class ClickHouseDataProcessor {
         }
     }
 
+    /**
+     * Copies binary form of the given value into the given byte array. Only the
+     * first {@code target.length} bytes will be copied when the value is longer
+     * than that. Strings decoded from binary are copied as is, without converting
+     * to {@link String} or allocating a new byte array.
+     *
+     * @param value  non-null value
+     * @param target non-null byte array to copy into
+     * @return length of the value, which could be greater than
+     *         {@code target.length}, or -1 when the value is null
+     */
+    public static int copyBytes(ClickHouseValue value, byte[] target) {
+        if (value.isNullOrEmpty()) {
+            return -1;
+        }
+
+        byte[] bytes = value.asBinary();
+        System.arraycopy(bytes, 0, target, 0, Math.min(bytes.length, target.length));
+        return bytes.length;
+    }
+
     protected final ClickHouseConfig config;
     protected final ClickHouseInputStream input;
     protected final ClickHouseOutputStream output;
@@ -115,6 +138,29 @@ public abstract class ClickHouseDataProcessor {
      */
     // protected int writePosition;
 
+    /**
+     * Number of rows decoded but not yet reported to metrics.
+     */
+    private long decodedRows;
+    /**
+     * Whether all {@code templates} have been created.
+     */
+    private boolean templatesInitialized;
+    /**
+     * Whether the cursor is pointing to a row.
+     */
+    private boolean hasCurrentRow;
+
+    /**
+     * Reports number of decoded rows to metrics.
+     */
+    private void reportDecodedRows() {
+        if (decodedRows > 0L) {
+            config.getMetrics().increment(Metrics.ROWS_DECODED, decodedRows);
+            decodedRows = 0L;
+        }
+    }
+
     /**
      * Checks whether there's more to read from input stream.
      *
@@ -124,6 +170,7 @@ public abstract class ClickHouseDataProcessor {
     private boolean hasNext() throws UncheckedIOException {
         try {
             if (input.available() <= 0) {
+                reportDecodedRows();
                 input.close();
                 return false;
             }
@@ -142,10 +189,25 @@ public abstract class ClickHouseDataProcessor {
      * @throws UncheckedIOException   when failed to read data from input stream
      */
     private ClickHouseRecord nextRecord() throws NoSuchElementException, UncheckedIOException {
+        initTemplates();
         final ClickHouseRecord r = config.isReuseValueWrapper() ? currentRecord : currentRecord.copy();
+        fill(r);
+        return r;
+    }
+
+    /**
+     * This method calls {@link #readAndFill(ClickHouseRecord)} and resets
+     * {@code readPosition} to zero(first column).
+     *
+     * @param r non-null record to fill
+     * @throws NoSuchElementException when no more record to read
+     * @throws UncheckedIOException   when failed to read data from input stream
+     */
+    private void fill(ClickHouseRecord r) throws NoSuchElementException, UncheckedIOException {
         try {
             readAndFill(r);
             readPosition = 0;
+            decodedRows++;
         } catch (EOFException e) {
             if (readPosition == 0) { // end of the stream, which is fine
                 throw new NoSuchElementException("No more record");
@@ -159,7 +221,6 @@ public abstract class ClickHouseDataProcessor {
                             columns[readPosition]),
                     e);
         }
-        return r;
     }
 
     /**
@@ -180,6 +241,7 @@ public abstract class ClickHouseDataProcessor {
             readAndFill(value, column);
             if (++readPosition >= columns.length) {
                 readPosition = 0;
+                decodedRows++;
             }
         } catch (EOFException e) {
             if (readPosition == 0) { // end of the stream, which is fine
@@ -196,6 +258,22 @@ public abstract class ClickHouseDataProcessor {
         return value;
     }
 
+    /**
+     * Creates missing values in {@code templates}, which are shared with
+     * {@code currentRecord} but not created in advance when
+     * {@link ClickHouseConfig#isReuseValueWrapper()} is {@code false}.
+     */
+    private void initTemplates() {
+        if (!templatesInitialized) {
+            for (int i = 0, len = templates.length; i < len; i++) {
+                if (templates[i] == null) {
+                    templates[i] = ClickHouseValues.newValue(config, columns[i]);
+                }
+            }
+            templatesInitialized = true;
+        }
+    }
+
     /**
      * Factory method to create a record.
      *
@@ -329,6 +407,7 @@ public abstract class ClickHouseDataProcessor {
         // initWriter();
 
         this.readPosition = 0;
+        this.decodedRows = 0L;
         // this.writePosition = 0;
     }
 
@@ -373,6 +452,130 @@ public abstract class ClickHouseDataProcessor {
         return () -> values;
     }
 
+    /**
+     * Checks whether there's more row to read using {@link #nextRow()}.
+     *
+     * @return true if there's more row; false otherwise
+     * @throws UncheckedIOException when failed to access the input stream
+     */
+    public boolean hasNextRow() {
+        return input != null && columns.length > 0 && hasNext();
+    }
+
+    /**
+     * Moves cursor to next row by reading values into {@link #currentRow()}. Unlike
+     * {@link #records()}, the record is never copied regardless of
+     * {@link ClickHouseConfig#isReuseValueWrapper()}, so values of primitive types
+     * can be read without allocation. It's not supposed to be mixed with
+     * {@link #records()} and {@link #values()}.
+     *
+     * @return true if moved to next row; false when there's no more row
+     * @throws UncheckedIOException when failed to read data from input stream
+     */
+    public final boolean nextRow() {
+        hasCurrentRow = false;
+        if (!hasNextRow()) {
+            return false;
+        }
+
+        initTemplates();
+        try {
+            fill(currentRecord);
+        } catch (NoSuchElementException e) {
+            return false;
+        }
+        hasCurrentRow = true;
+        return true;
+    }
+
+    /**
+     * Gets current row of the cursor. The record and its values will be updated in
+     * place on next call of {@link #nextRow()}.
+     *
+     * @return non-null record
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    public final ClickHouseRecord currentRow() {
+        if (!hasCurrentRow) {
+            throw new IllegalStateException("No current row available");
+        }
+        return currentRecord;
+    }
+
+    /**
+     * Gets value at the given column of current row. Unlike
+     * {@code currentRow().getValue(index)}, it reads the template directly.
+     *
+     * @param index zero-based column index
+     * @return non-null value, which will be updated in place on next call of
+     *         {@link #nextRow()}
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    protected final ClickHouseValue currentValue(int index) {
+        if (!hasCurrentRow) {
+            throw new IllegalStateException("No current row available");
+        }
+        return templates[index];
+    }
+
+    /**
+     * Checks whether the value at the given column of current row is null.
+     *
+     * @param index zero-based column index
+     * @return true if the value is null; false otherwise
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    public boolean isNull(int index) {
+        return currentValue(index).isNullOrEmpty();
+    }
+
+    /**
+     * Gets value at the given column of current row as an integer.
+     *
+     * @param index zero-based column index
+     * @return integer value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    public int getInt(int index) {
+        return currentValue(index).asInteger();
+    }
+
+    /**
+     * Gets value at the given column of current row as a long.
+     *
+     * @param index zero-based column index
+     * @return long value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    public long getLong(int index) {
+        return currentValue(index).asLong();
+    }
+
+    /**
+     * Gets value at the given column of current row as a double.
+     *
+     * @param index zero-based column index
+     * @return double value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    public double getDouble(int index) {
+        return currentValue(index).asDouble();
+    }
+
+    /**
+     * Copies binary form of the value at the given column of current row into
+     * the given byte array.
+     *
+     * @param index  zero-based column index
+     * @param target non-null byte array to copy into
+     * @return length of the value, or -1 when the value is null
+     * @throws IllegalStateException when the cursor does not point to any row
+     * @see #copyBytes(ClickHouseValue, byte[])
+     */
+    public int getBytes(int index, byte[] target) {
+        return copyBytes(currentValue(index), target);
+    }
+
     /**
      * Reads deserialized value directly from input stream. Unlike
      * {@link #records()}, which reads multiple values at a time, this method will
@@ -7,10 +7,12 @@ import java.util.Map;
 import com.clickhouse.client.config.ClickHouseBufferingMode;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.config.ClickHouseDefaults;
+import com.clickhouse.client.data.ClickHouseNativeProcessor;
 import com.clickhouse.client.data.ClickHousePipedStream;
 import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
 import com.clickhouse.client.data.ClickHouseTabSeparatedProcessor;
 import com.clickhouse.client.stream.BlockingPipedOutputStream;
+import com.clickhouse.client.stream.BufferPool;
 import com.clickhouse.client.stream.CapacityPolicy;
 import com.clickhouse.client.stream.NonBlockingPipedOutputStream;
 
@@ -55,6 +57,8 @@ public class ClickHouseDataStreamFactory {
         ClickHouseDataProcessor processor = null;
         if (ClickHouseFormat.RowBinary == format || ClickHouseFormat.RowBinaryWithNamesAndTypes == format) {
             processor = new ClickHouseRowBinaryProcessor(config, input, output, columns, settings);
+        } else if (ClickHouseFormat.Native == format) {
+            processor = new ClickHouseNativeProcessor(config, input, output, columns, settings);
         } else if (ClickHouseFormat.TSVWithNames == format || ClickHouseFormat.TSVWithNamesAndTypes == format
                 || ClickHouseFormat.TabSeparatedWithNames == format
                 || ClickHouseFormat.TabSeparatedWithNamesAndTypes == format) {
@@ -147,16 +151,22 @@ public class ClickHouseDataStreamFactory {
      */
     public ClickHousePipedOutputStream createPipedOutputStream(ClickHouseConfig config, Runnable postCloseAction) {
         final int bufferSize = ClickHouseChecker.nonNull(config, "config").getWriteBufferSize();
+        final ClickHouseBufferingMode mode = config.getResponseBuffering();
         final boolean blocking;
         final int queue;
         final CapacityPolicy policy;
         final int timeout;
 
-        if (config.getResponseBuffering() == ClickHouseBufferingMode.PERFORMANCE) {
+        if (mode == ClickHouseBufferingMode.PERFORMANCE) {
             blocking = false;
             queue = 0;
             policy = null;
             timeout = 0; // questionable
+        } else if (mode == ClickHouseBufferingMode.ADAPTIVE) {
+            blocking = false;
+            queue = config.getMaxQueuedBuffers();
+            policy = CapacityPolicy.adaptiveCapacity(1, queue, config.getBufferQueueVariation());
+            timeout = config.getSocketTimeout();
         } else {
             blocking = config.isUseBlockingQueue();
             queue = config.getMaxQueuedBuffers();
@@ -164,9 +174,14 @@ public class ClickHouseDataStreamFactory {
                     : CapacityPolicy.linearDynamicCapacity(1, queue, config.getBufferQueueVariation());
             timeout = config.getSocketTimeout();
         }
+        final BufferPool pool = BufferPool.of(config.getBufferPoolSize(), config.isBufferPoolDirect(),
+                config.isBufferPoolLeakDetection());
         return blocking
-                ? new BlockingPipedOutputStream(bufferSize, queue, timeout, postCloseAction)
-                : new NonBlockingPipedOutputStream(bufferSize, queue, timeout, policy, postCloseAction);
+                ? new BlockingPipedOutputStream(bufferSize, queue, timeout, postCloseAction, config.getMetrics(),
+                        pool)
+                : new NonBlockingPipedOutputStream(bufferSize,
+                        mode == ClickHouseBufferingMode.ADAPTIVE ? config.getMaxBufferSize() : bufferSize, queue,
+                        timeout, policy, postCloseAction, config.getMetrics(), pool);
     }
 
     public ClickHousePipedOutputStream createPipedOutputStream(int bufferSize, int queueSize, int timeout,
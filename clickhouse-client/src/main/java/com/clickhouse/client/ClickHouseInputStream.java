@@ -11,8 +11,11 @@ import java.io.OutputStream;
 import java.io.UncheckedIOException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -20,7 +23,6 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
-import java.util.zip.GZIPInputStream;
 
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.stream.BlockingInputStream;
@@ -84,18 +86,17 @@ public abstract class ClickHouseInputStream extends InputStream {
                     : new WrappedInputStream(file, input, bufferSize, postCloseAction);
         } else {
             switch (compression) {
-                case GZIP:
+                case LZ4:
+                    chInput = new Lz4InputStream(file, input, postCloseAction);
+                    break;
+                default:
+                    ClickHouseCompressionCodec codec = ClickHouseCompressionCodec.of(compression);
                     try {
-                        chInput = new WrappedInputStream(file, new GZIPInputStream(input), bufferSize, postCloseAction);
+                        chInput = new WrappedInputStream(file, codec.decompress(input), bufferSize, postCloseAction);
                     } catch (IOException e) {
                         throw new IllegalArgumentException("Failed to wrap input stream", e);
                     }
                     break;
-                case LZ4:
-                    chInput = new Lz4InputStream(file, input, postCloseAction);
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Unsupported compression algorithm: " + compression);
             }
         }
         return chInput;
@@ -461,6 +462,38 @@ public abstract class ClickHouseInputStream extends InputStream {
         return count;
     }
 
+    /**
+     * Transfers content of the given file to output channel using
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}. When the
+     * channel is a socket or another file, data will be sent by the operating
+     * system without being copied into heap. Output channel will remain open.
+     *
+     * @param file   non-null file
+     * @param output non-null output channel, which will remain open
+     * @return transferred bytes
+     * @throws IOException when failed to read the file or write data into the
+     *                     channel
+     */
+    public static long transfer(File file, WritableByteChannel output) throws IOException {
+        if (file == null || output == null) {
+            throw new IllegalArgumentException("Non-null file and output channel are required");
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0L;
+            while (position < size) {
+                long count = channel.transferTo(position, size - position, output);
+                if (count <= 0L) {
+                    throw new IOException(ClickHouseUtils.format("Failed to transfer file [%s] (%d of %d bytes sent)",
+                            file, position, size));
+                }
+                position += count;
+            }
+            return position;
+        }
+    }
+
     public static File save(InputStream in, int bufferSize, int timeout) {
         return save(null, in, bufferSize, timeout, true);
     }
@@ -8,9 +8,11 @@ import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 import com.clickhouse.client.ClickHouseNode.Status;
+import com.clickhouse.client.config.ClickHouseClientOption;
 
 /**
  * Load balancing policy. In general, a policy is responsible for 3 things: 1)
@@ -97,6 +99,83 @@ public abstract class ClickHouseLoadBalancingPolicy implements Serializable {
         }
     }
 
+    static class LeastLatencyPolicy extends ClickHouseLoadBalancingPolicy {
+        static int getWeight(ClickHouseNode node) {
+            int weight = node.getWeight();
+            if (weight == ClickHouseNode.DEFAULT_WEIGHT) {
+                weight = (int) node.config.getOption(ClickHouseClientOption.SERVER_WEIGHT);
+            }
+            return weight < 1 ? 1 : weight;
+        }
+
+        static double getCost(ClickHouseNode node) {
+            long responseTime = node.getResponseTime();
+            int inflight = node.getInflightRequests();
+            return (responseTime < 0L ? 1D : responseTime + 1D) * (inflight < 0 ? 1 : inflight + 1)
+                    / getWeight(node);
+        }
+
+        @Override
+        protected boolean isLockFree() {
+            return true;
+        }
+
+        @Override
+        protected ClickHouseNode get(ClickHouseNodes manager, ClickHouseNodeSelector t) {
+            final ClickHouseNode[] nodes = manager.healthyNodes;
+            final boolean noSelector = t == null || t == ClickHouseNodeSelector.EMPTY;
+
+            int count = 0;
+            if (noSelector) {
+                count = nodes.length;
+            } else {
+                for (ClickHouseNode n : nodes) {
+                    if (t.match(n)) {
+                        count++;
+                    }
+                }
+            }
+
+            if (count == 0) {
+                // no healthy node, fall back to faulty nodes
+                manager.lock.readLock().lock();
+                try {
+                    return super.get(manager, t);
+                } finally {
+                    manager.lock.readLock().unlock();
+                }
+            } else if (count == 1) {
+                return nth(nodes, t, noSelector, 0);
+            }
+
+            // power of two choices
+            ThreadLocalRandom rand = ThreadLocalRandom.current();
+            int i = rand.nextInt(count);
+            int j = rand.nextInt(count - 1);
+            if (j >= i) {
+                j++;
+            }
+            ClickHouseNode n1 = nth(nodes, t, noSelector, i);
+            ClickHouseNode n2 = nth(nodes, t, noSelector, j);
+            return getCost(n2) < getCost(n1) ? n2 : n1;
+        }
+
+        private ClickHouseNode nth(ClickHouseNode[] nodes, ClickHouseNodeSelector t, boolean noSelector, int index) {
+            if (noSelector) {
+                return nodes[index];
+            }
+
+            int i = 0;
+            for (ClickHouseNode n : nodes) {
+                if (t.match(n) && i++ == index) {
+                    return n;
+                }
+            }
+            // should never happen
+            throw new IllegalStateException("Node index out of range: " + index);
+        }
+    }
+
     private static final long serialVersionUID = 1481796695764210324L;
     private static final Map<String, ClickHouseLoadBalancingPolicy> policies = new ConcurrentHashMap<>();
 
@@ -125,6 +204,11 @@ public abstract class ClickHouseLoadBalancingPolicy implements Serializable {
      * Policy to pick healthy node one after another based their order in the list.
      */
     public static final String ROUND_ROBIN = "roundRobin";
+    /**
+     * Policy to pick the less loaded one between two random healthy nodes, based
+     * on number of in-flight requests, smoothed response time and node weight.
+     */
+    public static final String LEAST_LATENCY = "least_latency";
 
     /**
      * Creates policy.
@@ -142,6 +226,8 @@ public abstract class ClickHouseLoadBalancingPolicy implements Serializable {
             policy = new RandomPolicy();
         } else if (ROUND_ROBIN.equalsIgnoreCase(name)) {
             policy = new RoundRobinPolicy();
+        } else if (LEAST_LATENCY.equalsIgnoreCase(name)) {
+            policy = new LeastLatencyPolicy();
         } else {
             try {
                 Class<?> clazz = ClickHouseLoadBalancingPolicy.class.getClassLoader().loadClass(name);
@@ -165,8 +251,9 @@ public abstract class ClickHouseLoadBalancingPolicy implements Serializable {
     /**
      * Gets or creates singleton load balancing policy.
      *
-     * @param name policy name, one of {@link #FIRST_ALIVE},{@link #RANDOM} and
-     *             {@link #ROUND_ROBIN}, or a fully qualified class name
+     * @param name policy name, one of {@link #FIRST_ALIVE}, {@link #RANDOM},
+     *             {@link #ROUND_ROBIN} and {@link #LEAST_LATENCY}, or a fully
+     *             qualified class name
      * @return non-null load balancing policy
      */
     public static ClickHouseLoadBalancingPolicy of(String name) {
@@ -204,6 +291,18 @@ public abstract class ClickHouseLoadBalancingPolicy implements Serializable {
         return QUERY_GET_OTHER_NODES;
     }
 
+    /**
+     * Checks whether {@link #get(ClickHouseNodes, ClickHouseNodeSelector)} can be
+     * called without holding the lock of node manager. When it's {@code true}, the
+     * policy should only read {@link ClickHouseNodes#healthyNodes}, or acquire the
+     * lock by itself. Defaults to {@code false}.
+     *
+     * @return true if the policy is lock-free on selection; false otherwise
+     */
+    protected boolean isLockFree() {
+        return false;
+    }
+
     /**
      * Gets next node available in the list.
      *
@@ -22,6 +22,7 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.WeakHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -925,6 +926,20 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
      * Last update time in milliseconds.
      */
     protected final AtomicLong lastUpdateTime;
+    /**
+     * Latency of last successful health check in nanoseconds, negative number
+     * means unknown.
+     */
+    protected final AtomicLong latency;
+    /**
+     * Number of requests sent to the node but not yet responded.
+     */
+    protected final AtomicInteger inflightRequests;
+    /**
+     * Exponentially weighted moving average of response time in nanoseconds,
+     * negative number means unknown.
+     */
+    protected final AtomicLong responseTime;
     // TODO: metrics
 
     // consolidated copy of credentials, options and tags
@@ -959,6 +974,9 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
             this.options = Collections.emptyMap();
         }
         this.lastUpdateTime = new AtomicLong(0L);
+        this.latency = new AtomicLong(-1L);
+        this.inflightRequests = new AtomicInteger(0);
+        this.responseTime = new AtomicLong(-1L);
         this.tags = tags == null || tags.isEmpty() ? Collections.emptySet()
                 : Collections.unmodifiableSet(new LinkedHashSet<>(tags));
 
@@ -989,6 +1007,41 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
         return newNode;
     }
 
+    /**
+     * Updates latency of the node, which is usually measured by health check.
+     *
+     * @param nanos latency in nanoseconds, negative number means unknown
+     */
+    protected void updateLatency(long nanos) {
+        latency.set(nanos < 0L ? -1L : nanos);
+        if (nanos >= 0L) {
+            // seed response time so that a new node won't get all the traffic
+            responseTime.compareAndSet(-1L, nanos);
+        }
+    }
+
+    /**
+     * Marks start of a request sent to the node.
+     */
+    protected void startRequest() {
+        inflightRequests.incrementAndGet();
+    }
+
+    /**
+     * Marks end of a request sent to the node, and updates response time when the
+     * request succeeded.
+     *
+     * @param nanos   elapsed time in nanoseconds
+     * @param success whether the request succeeded
+     */
+    protected void endRequest(long nanos, boolean success) {
+        inflightRequests.decrementAndGet();
+        if (success && nanos >= 0L) {
+            // alpha = 1/4
+            responseTime.getAndUpdate(v -> v < 0L ? nanos : v + ((nanos - v) >> 2));
+        }
+    }
+
     /**
      * Sets manager for this node.
      * 
@@ -1058,6 +1111,33 @@ public class ClickHouseNode implements Function<ClickHouseNodeSelector, ClickHou
         return host;
     }
 
+    /**
+     * Gets latency of last successful health check.
+     *
+     * @return latency in nanoseconds, negative number means unknown
+     */
+    public long getLatency() {
+        return latency.get();
+    }
+
+    /**
+     * Gets number of requests sent to the node but not yet responded.
+     *
+     * @return number of in-flight requests
+     */
+    public int getInflightRequests() {
+        return inflightRequests.get();
+    }
+
+    /**
+     * Gets exponentially weighted moving average of response time.
+     *
+     * @return response time in nanoseconds, negative number means unknown
+     */
+    public long getResponseTime() {
+        return responseTime.get();
+    }
+
     /**
      * Gets port of the node.
      *
@@ -2,6 +2,7 @@ package com.clickhouse.client;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
@@ -14,6 +15,8 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -317,6 +320,11 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
      * List of faulty nodes.
      */
     protected final LinkedList<ClickHouseNode> faultyNodes;
+    /**
+     * Copy of {@code nodes} for reading without holding the lock. It's refreshed
+     * whenever a node status is updated.
+     */
+    protected volatile ClickHouseNode[] healthyNodes; // NOSONAR
     /**
      * Reference holding future of scheduled discovery.
      */
@@ -363,6 +371,7 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
         this.lock = new ReentrantReadWriteLock();
         this.nodes = new LinkedList<>(); // usually just healthy nodes
         this.faultyNodes = new LinkedList<>();
+        this.healthyNodes = new ClickHouseNode[0];
 
         this.discoveryFuture = new AtomicReference<>(null);
         this.healthCheckFuture = new AtomicReference<>(null);
@@ -391,6 +400,20 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
                 (int) template.config.getOption(ClickHouseClientOption.HEALTH_CHECK_INTERVAL)));
     }
 
+    /**
+     * Gets or creates client for checking health of the given node. Clients are
+     * reused for nodes sharing same protocol and configuration.
+     *
+     * @param clients non-null clients created in current round of health check
+     * @param node    non-null node
+     * @return non-null client
+     */
+    static ClickHouseClient getHealthCheckClient(Map<List<Object>, ClickHouseClient> clients, ClickHouseNode node) {
+        return clients.computeIfAbsent(Arrays.asList(node.getProtocol(), node.config),
+                k -> ClickHouseClient.builder().agent(false).config(node.config)
+                        .nodeSelector(ClickHouseNodeSelector.of(node.getProtocol())).build());
+    }
+
     protected void queryClusterNodes(Collection<ClickHouseNode> seeds, Collection<ClickHouseNode> allNodes,
             Collection<ClickHouseNode> newHealthyNodes, Collection<ClickHouseNode> newFaultyNodes,
             Collection<ClickHouseNode> useless) {
@@ -509,6 +532,10 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
 
     @Override
     public ClickHouseNode apply(ClickHouseNodeSelector t) {
+        if (policy.isLockFree()) {
+            return policy.get(this, t);
+        }
+
         lock.readLock().lock();
         try {
             return policy.get(this, t);
@@ -535,13 +562,57 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
                 node.lastUpdateTime.set(System.currentTimeMillis());
             }
             policy.update(this, node, status);
+            healthyNodes = nodes.toArray(new ClickHouseNode[0]);
         } finally {
             lock.writeLock().unlock();
         }
     }
 
     /**
-     * Checks (faulty) node status.
+     * Checks status of the given node and updates its latency.
+     *
+     * @param node                   non-null node to check
+     * @param index                  index of the node in the list to check
+     * @param healthyNodeStartIndex  index of first healthy node in the list,
+     *                               negative number means there's no healthy node
+     * @param clients                non-null clients shared in current round of
+     *                               health check, which will be closed afterwards
+     * @return true if the node is alive; false otherwise
+     */
+    protected boolean check(ClickHouseNode node, int index, int healthyNodeStartIndex,
+            Map<List<Object>, ClickHouseClient> clients) {
+        boolean isAlive = false;
+        ClickHouseNode n = node;
+        try {
+            n = node.probe();
+            // probe is faster than ping but it cannot tell if the server works or not
+            long startTime = System.nanoTime();
+            isAlive = getHealthCheckClient(clients, n).ping(n, n.config.getConnectionTimeout());
+            if (isAlive) {
+                n.updateLatency(System.nanoTime() - startTime);
+            }
+        } catch (Exception e) {
+            // ignore
+        }
+        if (!n.equals(node)) {
+            update(n, Status.MANAGED);
+            update(node, Status.STANDALONE);
+        }
+
+        if (isAlive) {
+            if (healthyNodeStartIndex < 0 || index < healthyNodeStartIndex) {
+                update(n, Status.HEALTHY);
+            }
+        } else if (healthyNodeStartIndex >= index) {
+            update(n, Status.FAULTY);
+        }
+        return isAlive;
+    }
+
+    /**
+     * Checks (faulty) node status. Nodes are checked concurrently according to
+     * {@link ClickHouseClientOption#HEALTH_CHECK_PARALLELISM}, and clients used
+     * for health check are closed at the end.
      */
     public void check() {
         // exclusive access
@@ -568,40 +639,43 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
             lock.readLock().unlock();
         }
 
-        boolean hasFaultyNode = false;
-        int count = 0;
-        try {
-            for (ClickHouseNode node : list) {
-                ClickHouseNode n = node.probe();
-                // probe is faster than ping but it cannot tell if the server works or not
-                boolean isAlive = false;
-                try (ClickHouseClient client = ClickHouseClient.builder().agent(false).config(n.config)
-                        .nodeSelector(ClickHouseNodeSelector.of(n.getProtocol())).build()) {
-                    isAlive = client.ping(n, n.config.getConnectionTimeout());
-                } catch (Exception e) {
-                    // ignore
-                }
-                if (!n.equals(node)) {
-                    update(n, Status.MANAGED);
-                    update(node, Status.STANDALONE);
+        ClickHouseNode[] array = list.toArray(new ClickHouseNode[0]);
+        int parallelism = Math.min(array.length,
+                Math.max(1, (int) template.config.getOption(ClickHouseClientOption.HEALTH_CHECK_PARALLELISM)));
+        AtomicInteger next = new AtomicInteger(0);
+        AtomicBoolean hasFaultyNode = new AtomicBoolean(false);
+        final int startIndex = healthyNodeStartIndex;
+        Map<List<Object>, ClickHouseClient> clients = new ConcurrentHashMap<>();
+        Runnable worker = () -> {
+            for (int i; (i = next.getAndIncrement()) < array.length;) {
+                if (!check(array[i], i, startIndex, clients)) {
+                    hasFaultyNode.set(true);
                 }
+            }
+        };
 
-                if (isAlive) {
-                    if (healthyNodeStartIndex < 0 || count < healthyNodeStartIndex) {
-                        update(n, Status.HEALTHY);
-                    }
-                } else {
-                    hasFaultyNode = true;
-                    if (healthyNodeStartIndex >= count) {
-                        update(n, Status.FAULTY);
-                    }
-                }
-                count++;
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(parallelism);
+            for (int i = 1; i < parallelism; i++) {
+                futures.add(CompletableFuture.runAsync(worker, ClickHouseClient.getExecutorService()));
+            }
+            // current thread works as well so that there's always progress
+            worker.run();
+            for (CompletableFuture<Void> f : futures) {
+                f.join();
             }
         } catch (Exception e) {
             log.warn("Unexpected error occurred when checking node status", e);
         } finally {
-            if (checkAll || hasFaultyNode) {
+            for (ClickHouseClient client : clients.values()) {
+                try {
+                    client.close();
+                } catch (Exception e) {
+                    log.debug("Failed to close health check client", e);
+                }
+            }
+
+            if (checkAll || hasFaultyNode.get()) {
                 scheduleHealthCheck();
             }
         }
@@ -749,6 +823,20 @@ public class ClickHouseNodes implements ClickHouseNodeManager {
         }));
     }
 
+    /**
+     * Stops scheduled tasks for node discovery and health check.
+     */
+    public void shutdown() {
+        ScheduledFuture<?> future = discoveryFuture.getAndSet(null);
+        if (future != null) {
+            future.cancel(true);
+        }
+        future = healthCheckFuture.getAndSet(null);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
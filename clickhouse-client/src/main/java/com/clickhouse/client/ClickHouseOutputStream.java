@@ -7,9 +7,9 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.zip.GZIPOutputStream;
 
 import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.stream.CompressedOutputStream;
 import com.clickhouse.client.stream.EmptyOutputStream;
 import com.clickhouse.client.stream.Lz4OutputStream;
 import com.clickhouse.client.stream.WrappedOutputStream;
@@ -43,19 +43,18 @@ public abstract class ClickHouseOutputStream extends OutputStream {
             chOutput = new WrappedOutputStream(file, output, bufferSize, postCloseAction);
         } else {
             switch (compression) {
-                case GZIP:
+                case LZ4:
+                    chOutput = new Lz4OutputStream(file, output, bufferSize, postCloseAction);
+                    break;
+                default:
+                    ClickHouseCompressionCodec codec = ClickHouseCompressionCodec.of(compression);
                     try {
-                        chOutput = new WrappedOutputStream(file, new GZIPOutputStream(output), bufferSize,
+                        chOutput = new CompressedOutputStream(file, output, codec, compressionLevel, bufferSize,
                                 postCloseAction);
                     } catch (IOException e) {
-                        throw new IllegalArgumentException("Failed to wrap input stream", e);
+                        throw new IllegalArgumentException("Failed to wrap output stream", e);
                     }
                     break;
-                case LZ4:
-                    chOutput = new Lz4OutputStream(file, output, bufferSize, postCloseAction);
-                    break;
-                default:
-                    throw new UnsupportedOperationException("Unsupported compression algorithm: " + compression);
             }
         }
         return chOutput;
@@ -133,6 +132,27 @@ public abstract class ClickHouseOutputStream extends OutputStream {
      */
     public static ClickHouseOutputStream of(OutputStream output, int bufferSize, ClickHouseCompression compression,
             Runnable postCloseAction) {
+        return of(output, bufferSize, compression, -1, postCloseAction);
+    }
+
+    /**
+     * Wraps the given output stream.
+     *
+     * @param output           output stream
+     * @param bufferSize       buffer size which is always greater than
+     *                         zero(usually 8192 or larger)
+     * @param compression      compression algorithm, null or
+     *                         {@link ClickHouseCompression#NONE} means no
+     *                         compression
+     * @param compressionLevel compression level from 0 to 9(low to high),
+     *                         negative number means default level
+     * @param postCloseAction  custom action will be performed right after closing
+     *                         the output stream
+     * @return wrapped output, or the same output if it's instance of
+     *         {@link ClickHouseOutputStream}
+     */
+    public static ClickHouseOutputStream of(OutputStream output, int bufferSize, ClickHouseCompression compression,
+            int compressionLevel, Runnable postCloseAction) {
         final ClickHouseOutputStream chOutput;
         if (output == null) {
             chOutput = EmptyOutputStream.INSTANCE;
@@ -141,7 +161,7 @@ public abstract class ClickHouseOutputStream extends OutputStream {
                     ? (ClickHouseOutputStream) output
                     : new WrappedOutputStream(null, output, bufferSize, postCloseAction);
         } else {
-            chOutput = wrap(null, output, bufferSize, postCloseAction, compression, 0);
+            chOutput = wrap(null, output, bufferSize, postCloseAction, compression, compressionLevel);
         }
         return chOutput;
     }
@@ -1,11 +1,24 @@
 package com.clickhouse.client;
 
+import com.clickhouse.client.metrics.Metrics;
+
 /**
  * SPSC(Single-producer single-consumer) channel for streaming.
  */
 public abstract class ClickHousePipedOutputStream extends ClickHouseOutputStream {
+    /**
+     * Metrics for recording number of queued buffers.
+     */
+    protected final Metrics metrics;
+
     protected ClickHousePipedOutputStream(Runnable postCloseAction) {
+        this(postCloseAction, null);
+    }
+
+    protected ClickHousePipedOutputStream(Runnable postCloseAction, Metrics metrics) {
         super(null, postCloseAction);
+
+        this.metrics = metrics != null ? metrics : Metrics.NOOP;
     }
 
     /**
@@ -27,6 +27,8 @@ import com.clickhouse.client.config.ClickHouseClientOption;
  * first {@link ClickHouseRecord}</li>
  * <li>use {@link #getInputStream()} or {@link #pipe(OutputStream, int)} if you
  * prefer to handle stream instead of deserialized data</li>
+ * <li>use {@link #next()} along with typed accessors like {@link #getInt(int)}
+ * to read deserialized data row by row without allocating wrappers</li>
  * </ul>
  */
 public interface ClickHouseResponse extends AutoCloseable, Serializable {
@@ -54,6 +56,16 @@ public interface ClickHouseResponse extends AutoCloseable, Serializable {
             return Collections.emptyList();
         }
 
+        @Override
+        public boolean hasNext() {
+            return false;
+        }
+
+        @Override
+        public boolean next() {
+            return false;
+        }
+
         @Override
         public void close() {
             // do nothing
@@ -114,6 +126,107 @@ public interface ClickHouseResponse extends AutoCloseable, Serializable {
      */
     Iterable<ClickHouseRecord> records();
 
+    /**
+     * Checks whether the cursor can be moved to next row. Cursor state is kept by
+     * the implementation, so the default implementation simply throws
+     * {@link UnsupportedOperationException}.
+     *
+     * @return true if there's more row; false otherwise
+     * @throws UncheckedIOException          when failed to read data(e.g.
+     *                                       deserialization)
+     * @throws UnsupportedOperationException when cursor is not supported
+     */
+    default boolean hasNext() {
+        throw new UnsupportedOperationException("Cursor is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Moves cursor to next row. Unlike {@link #records()}, the current record and
+     * its values may be updated in place regardless of
+     * {@link ClickHouseConfig#isReuseValueWrapper()}, so that typed accessors like
+     * {@link #getInt(int)} can read data without allocating wrappers; use
+     * {@link ClickHouseRecord#copy()} to keep a row. It's not supposed to be mixed
+     * with {@link #records()} or {@link #stream()}.
+     *
+     * @return true if moved to next row; false when there's no more row
+     * @throws UncheckedIOException          when failed to read data(e.g.
+     *                                       deserialization)
+     * @throws UnsupportedOperationException when cursor is not supported
+     */
+    default boolean next() {
+        throw new UnsupportedOperationException("Cursor is not supported by " + getClass().getName());
+    }
+
+    /**
+     * Gets current row of the cursor. Please don't hold the record, because it
+     * will be overwritten on next call of {@link #next()}.
+     *
+     * @return non-null record
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default ClickHouseRecord currentRecord() {
+        throw new IllegalStateException("No current row available");
+    }
+
+    /**
+     * Checks whether the value at the given column of current row is null.
+     *
+     * @param index zero-based column index
+     * @return true if the value is null; false otherwise
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default boolean isNull(int index) {
+        return currentRecord().getValue(index).isNullOrEmpty();
+    }
+
+    /**
+     * Gets value at the given column of current row as an integer.
+     *
+     * @param index zero-based column index
+     * @return integer value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default int getInt(int index) {
+        return currentRecord().getValue(index).asInteger();
+    }
+
+    /**
+     * Gets value at the given column of current row as a long.
+     *
+     * @param index zero-based column index
+     * @return long value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default long getLong(int index) {
+        return currentRecord().getValue(index).asLong();
+    }
+
+    /**
+     * Gets value at the given column of current row as a double.
+     *
+     * @param index zero-based column index
+     * @return double value, zero when it's null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default double getDouble(int index) {
+        return currentRecord().getValue(index).asDouble();
+    }
+
+    /**
+     * Copies binary form of the value at the given column of current row into
+     * the given byte array. Only the first {@code target.length} bytes will be
+     * copied when the value is longer than that.
+     *
+     * @param index  zero-based column index
+     * @param target non-null byte array to copy into
+     * @return length of the value, which could be greater than
+     *         {@code target.length}, or -1 when the value is null
+     * @throws IllegalStateException when the cursor does not point to any row
+     */
+    default int getBytes(int index, byte[] target) {
+        return ClickHouseDataProcessor.copyBytes(currentRecord().getValue(index), target);
+    }
+
     /**
      * Pipes the contents of this response into the given output stream. Keep in
      * mind that it's caller's responsibility to flush and close the output stream.
@@ -70,6 +70,22 @@ public class ClickHouseResponseSummary implements Serializable {
             return read_rows == 0L && read_bytes == 0L && total_rows_to_read == 0L && written_rows == 0L
                     && written_bytes == 0L;
         }
+
+        /**
+         * Adds up this and the given progress.
+         *
+         * @param progress progress to add, null is treated as empty
+         * @return new progress, or this object when the given progress is empty
+         */
+        public Progress add(Progress progress) {
+            if (progress == null || progress.isEmpty()) {
+                return this;
+            }
+
+            return new Progress(read_rows + progress.read_rows, read_bytes + progress.read_bytes,
+                    total_rows_to_read + progress.total_rows_to_read, written_rows + progress.written_rows,
+                    written_bytes + progress.written_bytes);
+        }
     }
 
     /**
@@ -127,6 +143,21 @@ public class ClickHouseResponseSummary implements Serializable {
         public boolean isEmpty() {
             return rows == 0L && blocks == 0L && allocated_bytes == 0L && !applied_limit && rows_before_limit == 0L;
         }
+
+        /**
+         * Adds up this and the given statistics.
+         *
+         * @param stats statistics to add, null is treated as empty
+         * @return new statistics, or this object when the given statistics is empty
+         */
+        public Statistics add(Statistics stats) {
+            if (stats == null || stats.isEmpty()) {
+                return this;
+            }
+
+            return new Statistics(rows + stats.rows, blocks + stats.blocks, allocated_bytes + stats.allocated_bytes,
+                    applied_limit || stats.applied_limit, rows_before_limit + stats.rows_before_limit);
+        }
     }
 
     private final AtomicReference<Progress> progress;
@@ -212,6 +243,26 @@ public class ClickHouseResponseSummary implements Serializable {
         }
     }
 
+    /**
+     * Adds progress and statistics of the given summary to this one, which is
+     * useful for aggregating summaries of multiple queries.
+     *
+     * @param summary summary to add, null value will be simply ignored
+     */
+    public void add(ClickHouseResponseSummary summary) {
+        if (sealed) {
+            throw new IllegalStateException(ERROR_CANNOT_UPDATE);
+        }
+
+        if (summary != null) {
+            Progress p = summary.getProgress();
+            Statistics s = summary.getStatistics();
+            this.progress.accumulateAndGet(p, Progress::add);
+            this.stats.accumulateAndGet(s, Statistics::add);
+            this.updates.addAndGet(summary.getUpdateCount());
+        }
+    }
+
     /**
      * Gets current progress of the query.
      *
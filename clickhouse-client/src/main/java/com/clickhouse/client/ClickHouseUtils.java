@@ -31,13 +31,17 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+import com.clickhouse.client.metrics.Metrics;
+
 public final class ClickHouseUtils {
     private static final String HOME_DIR;
 
@@ -168,8 +172,34 @@ public final class ClickHouseUtils {
         return newThreadPool(owner, maxThreads, 0, maxRequests, 0L, true);
     }
 
+    public static ExecutorService newThreadPool(Object owner, int maxThreads, int maxRequests, Metrics metrics) {
+        return newThreadPool(owner, maxThreads, 0, maxRequests, 0L, true, metrics);
+    }
+
     public static ExecutorService newThreadPool(Object owner, int coreThreads, int maxThreads, int maxRequests,
             long keepAliveTimeoutMs, boolean allowCoreThreadTimeout) {
+        return newThreadPool(owner, coreThreads, maxThreads, maxRequests, keepAliveTimeoutMs, allowCoreThreadTimeout,
+                null);
+    }
+
+    /**
+     * Creates a new thread pool. When {@code metrics} is enabled, size of the task
+     * queue will be recorded as {@link Metrics#EXECUTOR_QUEUE_SIZE} each time a
+     * task is submitted.
+     *
+     * @param owner                  owner of the thread pool, usually a client
+     *                               instance or a prefix of thread name
+     * @param coreThreads            core threads
+     * @param maxThreads             maximum threads
+     * @param maxRequests            maximum queued requests, zero or negative
+     *                               number means no limit
+     * @param keepAliveTimeoutMs     keep alive timeout in milliseconds
+     * @param allowCoreThreadTimeout whether core threads may time out or not
+     * @param metrics                optional metrics
+     * @return non-null thread pool
+     */
+    public static ExecutorService newThreadPool(Object owner, int coreThreads, int maxThreads, int maxRequests,
+            long keepAliveTimeoutMs, boolean allowCoreThreadTimeout, Metrics metrics) {
         BlockingQueue<Runnable> queue = maxRequests > 0 ? new ArrayBlockingQueue<>(maxRequests)
                 : new LinkedBlockingQueue<>();
         if (coreThreads < 2) {
@@ -182,14 +212,60 @@ public final class ClickHouseUtils {
             keepAliveTimeoutMs = allowCoreThreadTimeout ? 1000L : 0L;
         }
 
-        ThreadPoolExecutor pool = new ThreadPoolExecutor(coreThreads, maxThreads, keepAliveTimeoutMs,
-                TimeUnit.MILLISECONDS, queue, new ClickHouseThreadFactory(owner), new ThreadPoolExecutor.AbortPolicy());
+        ThreadPoolExecutor pool;
+        if (metrics != null && metrics.isEnabled()) {
+            final String name = owner instanceof String ? (String) owner
+                    : (owner != null ? owner.getClass().getSimpleName() : "");
+            pool = new ThreadPoolExecutor(coreThreads, maxThreads, keepAliveTimeoutMs, TimeUnit.MILLISECONDS, queue,
+                    new ClickHouseThreadFactory(owner), new ThreadPoolExecutor.AbortPolicy()) {
+                @Override
+                public void execute(Runnable command) {
+                    super.execute(command);
+                    metrics.record(Metrics.EXECUTOR_QUEUE_SIZE, getQueue().size(), "executor", name);
+                }
+            };
+        } else {
+            pool = new ThreadPoolExecutor(coreThreads, maxThreads, keepAliveTimeoutMs, TimeUnit.MILLISECONDS, queue,
+                    new ClickHouseThreadFactory(owner), new ThreadPoolExecutor.AbortPolicy());
+        }
         if (allowCoreThreadTimeout) {
             pool.allowCoreThreadTimeOut(true);
         }
         return pool;
     }
 
+    /**
+     * Creates a new executor which starts a new virtual thread for each task.
+     * Virtual threads are only available on Java 21 or above, so reflection is
+     * used here to stay compatible with Java 8.
+     *
+     * @param owner owner of the executor, usually a client instance or a prefix
+     *              of thread name
+     * @return executor, or null when virtual threads are not supported by current
+     *         JVM
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor(Object owner) {
+        String prefix = "";
+        if (owner instanceof String) {
+            prefix = ((String) owner).trim();
+        } else if (owner != null) {
+            prefix = new StringBuilder().append(owner.getClass().getSimpleName()).append('@').append(owner.hashCode())
+                    .toString();
+        }
+
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // not supported, or it's still a preview feature
+            return null;
+        }
+    }
+
     public static boolean isCloseBracket(char ch) {
         return ch == ')' || ch == ']' || ch == '}';
     }
@@ -33,7 +33,7 @@ public class CaffeineCache<K, V> implements ClickHouseCache<K, V> {
 
     protected CaffeineCache(int capacity, long expireSeconds, Function<K, V> loadFunc) {
         this.cache = Caffeine.newBuilder().maximumSize(capacity).expireAfterAccess(expireSeconds, TimeUnit.SECONDS)
-                .build();
+                .recordStats().build();
         this.loadFunc = Objects.requireNonNull(loadFunc, "Non-null load function is required");
     }
 
@@ -42,6 +42,16 @@ public class CaffeineCache<K, V> implements ClickHouseCache<K, V> {
         return cache.get(key, loadFunc);
     }
 
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
     @Override
     public <T> T unwrap(Class<T> clazz) {
         return Objects.requireNonNull(clazz, "Non-null class is required").cast(cache);
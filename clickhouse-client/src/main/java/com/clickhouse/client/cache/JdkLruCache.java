@@ -4,6 +4,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 import com.clickhouse.client.ClickHouseCache;
@@ -43,6 +44,8 @@ public class JdkLruCache<K, V> implements ClickHouseCache<K, V> {
 
     private final Map<K, V> cache;
     private final Function<K, V> loadFunc;
+    private final LongAdder requests;
+    private final LongAdder misses;
 
     protected JdkLruCache(Map<K, V> cache, Function<K, V> loadFunc) {
         if (cache == null || loadFunc == null) {
@@ -50,11 +53,27 @@ public class JdkLruCache<K, V> implements ClickHouseCache<K, V> {
         }
         this.cache = Collections.synchronizedMap(cache);
         this.loadFunc = loadFunc;
+        this.requests = new LongAdder();
+        this.misses = new LongAdder();
     }
 
     @Override
     public V get(K key) {
-        return cache.computeIfAbsent(key, loadFunc);
+        requests.increment();
+        return cache.computeIfAbsent(key, k -> {
+            misses.increment();
+            return loadFunc.apply(k);
+        });
+    }
+
+    @Override
+    public long getHitCount() {
+        return requests.sum() - misses.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
     }
 
     @Override
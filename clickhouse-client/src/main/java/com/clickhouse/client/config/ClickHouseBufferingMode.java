@@ -4,8 +4,6 @@ package com.clickhouse.client.config;
  * Supported buffering mode for dealing with request and response.
  */
 public enum ClickHouseBufferingMode {
-    // TODO Adaptive / Dynamic
-
     /**
      * Resource-efficient mode provides reasonable performance with least CPU and
      * memory usage, which makes it ideal as default mode. Only buffer size is
@@ -21,5 +19,14 @@ public enum ClickHouseBufferingMode {
      * Performance mode provides best performance at the cost of more CPU and much
      * much more memory usage - almost everything is loaded into working memory.
      */
-    PERFORMANCE
+    PERFORMANCE,
+    /**
+     * Adaptive mode starts with the configured buffer size and a short queue,
+     * just like {@link #CUSTOM}, but adjusts both at runtime according to
+     * observed chunk sizes and how fast the reader keeps up with the writer.
+     * Buffer size never exceeds max buffer size, and queue length never exceeds
+     * max queued buffers, so small queries stay light while large streams get
+     * close to {@link #PERFORMANCE} mode.
+     */
+    ADAPTIVE
 }
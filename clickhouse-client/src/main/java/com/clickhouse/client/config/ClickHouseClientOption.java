@@ -29,7 +29,7 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      * Load balancing policy.
      */
     LOAD_BALANCING_POLICY("load_balancing_policy", "",
-            "Load balancing policy, can be one of '', 'firstAlive', 'random', 'roundRobin', or full qualified class name implementing ClickHouseLoadBalancingPolicy."),
+            "Load balancing policy, can be one of '', 'firstAlive', 'random', 'roundRobin', 'least_latency', or full qualified class name implementing ClickHouseLoadBalancingPolicy."),
     /**
      * Load balancing tags for filtering out nodes.
      */
@@ -68,11 +68,35 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      */
     CHECK_ALL_NODES("check_all_nodes", false,
             "Whether to perform health check against all nodes or just faulty ones."),
+    /**
+     * Maximum number of nodes can be checked concurrently during health check.
+     */
+    HEALTH_CHECK_PARALLELISM("health_check_parallelism", 8,
+            "Maximum number of nodes can be checked concurrently during health check, zero or negative value is treated as one."),
     /**
      * Default buffer size in byte for both request and response. It will be reset
      * to {@link #MAX_BUFFER_SIZE} if it's too large.
      */
     BUFFER_SIZE("buffer_size", 8192, "Default buffer size in byte for both request and response."),
+    /**
+     * Maximum number of buffers kept in each size class of the shared buffer pool,
+     * which is used by piped streams to recycle buffers instead of allocating new
+     * ones. Zero or negative value means no pooling.
+     */
+    BUFFER_POOL_SIZE("buffer_pool_size", 0,
+            "Maximum number of buffers kept in each size class of the shared buffer pool for piped streams, zero or negative value means no pooling."),
+    /**
+     * Whether to use direct buffers in buffer pool. It only works when
+     * {@link #BUFFER_POOL_SIZE} is greater than zero.
+     */
+    BUFFER_POOL_DIRECT("buffer_pool_direct", false,
+            "Whether to use direct buffers in buffer pool, only works when buffer_pool_size is greater than zero."),
+    /**
+     * Whether to track buffers acquired from the buffer pool and log the ones
+     * never returned. It's slow and should be only used for debugging.
+     */
+    BUFFER_POOL_LEAK_DETECTION("buffer_pool_leak_detection", false,
+            "Whether to track buffers acquired from the buffer pool and log the ones never returned, only for debugging."),
     /**
      * Number of times the buffer queue is filled up before increasing capacity of
      * buffer queue. Zero or negative value means the queue length is fixed.
@@ -86,6 +110,13 @@ public enum ClickHouseClientOption implements ClickHouseOption {
      */
     READ_BUFFER_SIZE("read_buffer_size", 0,
             "Read buffer size in byte, zero or negative value means same as buffer_size"),
+    /**
+     * Number of compressed blocks to read ahead when decompressing server
+     * response. Blocks read ahead will be verified and decompressed in a small
+     * worker pool. It only works for {@link ClickHouseCompression#LZ4} for now.
+     */
+    READ_AHEAD_BLOCKS("read_ahead_blocks", 0,
+            "Number of compressed blocks to read ahead and decompress in parallel, zero or negative value means no read-ahead. Only works for LZ4."),
     /**
      * Write buffer size in byte. It's mainly for output stream(e.g. writing data
      * into request). Its value defaults to {@link #BUFFER_SIZE}, and it will
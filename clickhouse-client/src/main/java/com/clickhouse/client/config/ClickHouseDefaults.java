@@ -85,6 +85,11 @@ public enum ClickHouseDefaults implements ClickHouseOption {
      * Max threads.
      */
     MAX_THREADS("max_threads", 0, "Maximum size of shared thread pool, 0 or negative number means same as CPU cores."),
+    /**
+     * Whether to use virtual threads for executors.
+     */
+    USE_VIRTUAL_THREADS("use_virtual_threads", false,
+            "Whether to use virtual threads(requires Java 21 or above) instead of platform threads for executing requests, including shared thread pool and the ones created per client. Both max_threads and max_threads_per_client will be ignored when it's enabled."),
     /**
      * Max requests.
      */
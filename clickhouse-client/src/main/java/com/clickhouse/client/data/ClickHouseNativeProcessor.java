@@ -0,0 +1,948 @@
+package com.clickhouse.client.data;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseRenameMethod;
+
+/**
+ * Data processor for handling {@link ClickHouseFormat#Native} format. Unlike
+ * {@link ClickHouseRowBinaryProcessor}, which deserializes values one by one,
+ * this processor decodes a whole block at a time - columns of fixed-length
+ * numbers are read into primitive arrays, and records are filled from the
+ * decoded block afterwards. Use {@link #blocks()} to access decoded columns
+ * directly without materializing {@link ClickHouseValue} for each row.
+ */
+public class ClickHouseNativeProcessor extends ClickHouseDataProcessor {
+    static final String KEYWORD_LOW_CARDINALITY = "LowCardinality(";
+    static final String KEYWORD_NULLABLE = "Nullable(";
+
+    static final long LOW_CARDINALITY_VERSION = 1L;
+    static final long LOW_CARDINALITY_GLOBAL_DICTIONARY = 1L << 8;
+    static final long LOW_CARDINALITY_INDEX_TYPE_MASK = 0xFFL;
+
+    static final int KIND_OBJECT = 0;
+    static final int KIND_BYTE = 1;
+    static final int KIND_SHORT = 2;
+    static final int KIND_INT = 3;
+    static final int KIND_LONG = 4;
+    static final int KIND_FLOAT = 5;
+    static final int KIND_DOUBLE = 6;
+
+    /**
+     * A decoded block of {@link ClickHouseFormat#Native} data. Data of each column
+     * is either a primitive array({@code byte[]}, {@code short[]}, {@code int[]},
+     * {@code long[]}, {@code float[]} or {@code double[]}) or {@code Object[]},
+     * depending on data type of the column.
+     */
+    public static final class Block {
+        private final ClickHouseColumn[] columns;
+        private final int rows;
+        private final Object[] data;
+        private final boolean[][] nulls;
+        private final int[] kinds;
+
+        Block(ClickHouseColumn[] columns, int rows, Object[] data, boolean[][] nulls) {
+            this.columns = columns;
+            this.rows = rows;
+            this.data = data;
+            this.nulls = nulls;
+
+            int len = data.length;
+            this.kinds = new int[len];
+            for (int i = 0; i < len; i++) {
+                Object d = data[i];
+                if (d instanceof byte[]) {
+                    kinds[i] = KIND_BYTE;
+                } else if (d instanceof short[]) {
+                    kinds[i] = KIND_SHORT;
+                } else if (d instanceof int[]) {
+                    kinds[i] = KIND_INT;
+                } else if (d instanceof long[]) {
+                    kinds[i] = KIND_LONG;
+                } else if (d instanceof float[]) {
+                    kinds[i] = KIND_FLOAT;
+                } else if (d instanceof double[]) {
+                    kinds[i] = KIND_DOUBLE;
+                } else {
+                    kinds[i] = KIND_OBJECT;
+                }
+            }
+        }
+
+        /**
+         * Gets number of columns in the block.
+         *
+         * @return number of columns
+         */
+        public int getColumnCount() {
+            return columns.length;
+        }
+
+        /**
+         * Gets number of rows in the block.
+         *
+         * @return number of rows
+         */
+        public int getRowCount() {
+            return rows;
+        }
+
+        /**
+         * Gets column at the given index.
+         *
+         * @param index zero-based column index
+         * @return non-null column
+         */
+        public ClickHouseColumn getColumn(int index) {
+            return columns[index];
+        }
+
+        /**
+         * Gets decoded data of the given column. It's a primitive array for
+         * non-nullable numbers(e.g. {@code int[]} for {@code Int32} and {@code long[]}
+         * for {@code UInt32}), and {@code Object[]} for everything else. For nullable
+         * numbers, the primitive array contains default value at where it's null, so
+         * please use {@link #isNull(int, int)} to check.
+         *
+         * @param index zero-based column index
+         * @return non-null array
+         */
+        public Object getColumnData(int index) {
+            return data[index];
+        }
+
+        /**
+         * Checks whether the value at the given position is null.
+         *
+         * @param column zero-based column index
+         * @param row    zero-based row index
+         * @return true if the value is null; false otherwise
+         */
+        public boolean isNull(int column, int row) {
+            boolean[] n = nulls[column];
+            return n != null ? n[row] : (kinds[column] == KIND_OBJECT && ((Object[]) data[column])[row] == null);
+        }
+
+        /**
+         * Gets value at the given position as an object.
+         *
+         * @param column zero-based column index
+         * @param row    zero-based row index
+         * @return nullable value
+         */
+        public Object getObject(int column, int row) {
+            if (isNull(column, row)) {
+                return null;
+            }
+
+            Object d = data[column];
+            switch (kinds[column]) {
+                case KIND_BYTE:
+                    return ((byte[]) d)[row];
+                case KIND_SHORT:
+                    return ((short[]) d)[row];
+                case KIND_INT:
+                    return ((int[]) d)[row];
+                case KIND_LONG:
+                    return ((long[]) d)[row];
+                case KIND_FLOAT:
+                    return ((float[]) d)[row];
+                case KIND_DOUBLE:
+                    return ((double[]) d)[row];
+                default:
+                    return ((Object[]) d)[row];
+            }
+        }
+
+        /**
+         * Updates the given value using data at the given position.
+         *
+         * @param value  non-null value to update
+         * @param column zero-based column index
+         * @param row    zero-based row index
+         * @return updated value
+         */
+        public ClickHouseValue update(ClickHouseValue value, int column, int row) {
+            boolean[] n = nulls[column];
+            if (n != null && n[row]) {
+                return value.resetToNullOrEmpty();
+            }
+
+            Object d = data[column];
+            switch (kinds[column]) {
+                case KIND_BYTE:
+                    return value.update(((byte[]) d)[row]);
+                case KIND_SHORT:
+                    return value.update(((short[]) d)[row]);
+                case KIND_INT:
+                    return value.update(((int[]) d)[row]);
+                case KIND_LONG:
+                    return value.update(((long[]) d)[row]);
+                case KIND_FLOAT:
+                    return value.update(((float[]) d)[row]);
+                case KIND_DOUBLE:
+                    return value.update(((double[]) d)[row]);
+                default:
+                    return value.update(((Object[]) d)[row]);
+            }
+        }
+    }
+
+    static final class BlocksIterator implements Iterator<Block> {
+        private final ClickHouseNativeProcessor processor;
+
+        BlocksIterator(ClickHouseNativeProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return processor.hasMoreRows();
+        }
+
+        @Override
+        public Block next() {
+            if (!processor.hasMoreRows()) {
+                throw new NoSuchElementException("No more block");
+            }
+
+            Block b = processor.currentBlock;
+            processor.currentRow = b.rows;
+            return b;
+        }
+    }
+
+    static final class RecordsIterator implements Iterator<ClickHouseRecord> {
+        private final ClickHouseNativeProcessor processor;
+
+        RecordsIterator(ClickHouseNativeProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return processor.hasMoreRows();
+        }
+
+        @Override
+        public ClickHouseRecord next() {
+            if (!processor.hasMoreRows()) {
+                throw new NoSuchElementException("No more record");
+            }
+
+            ClickHouseRecord r = processor.config.isReuseValueWrapper() ? processor.currentRecord
+                    : processor.currentRecord.copy();
+            processor.readAndFill(r);
+            return r;
+        }
+    }
+
+    static final class ValuesIterator implements Iterator<ClickHouseValue> {
+        private final ClickHouseNativeProcessor processor;
+
+        ValuesIterator(ClickHouseNativeProcessor processor) {
+            this.processor = processor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return processor.hasMoreRows();
+        }
+
+        @Override
+        public ClickHouseValue next() {
+            if (!processor.hasMoreRows()) {
+                throw new NoSuchElementException("No more value");
+            }
+
+            int index = processor.readPosition;
+            ClickHouseColumn column = processor.columns[index];
+            ClickHouseValue value = processor.config.isReuseValueWrapper() ? processor.templates[index]
+                    : ClickHouseValues.newValue(processor.config, column);
+            processor.readAndFill(value, column);
+            if (++processor.readPosition >= processor.columns.length) {
+                processor.readPosition = 0;
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Gets base column by removing {@code LowCardinality} and {@code Nullable}
+     * from the given column.
+     *
+     * @param column non-null column
+     * @return non-null base column, which is neither nullable nor low cardinality
+     */
+    static ClickHouseColumn getBaseColumn(ClickHouseColumn column) {
+        if (!column.isNullable() && !column.isLowCardinality()) {
+            return column;
+        }
+
+        String type = column.getOriginalTypeName();
+        if (type.startsWith(KEYWORD_LOW_CARDINALITY) && type.endsWith(")")) {
+            type = type.substring(KEYWORD_LOW_CARDINALITY.length(), type.length() - 1);
+        }
+        if (type.startsWith(KEYWORD_NULLABLE) && type.endsWith(")")) {
+            type = type.substring(KEYWORD_NULLABLE.length(), type.length() - 1);
+        }
+        return ClickHouseColumn.of(column.getColumnName(), type);
+    }
+
+    // initialize in readColumns()
+    private Block currentBlock;
+    private int currentRow;
+
+    /**
+     * Reads next block from input stream.
+     *
+     * @param expectedColumns columns we already know, could be null
+     * @return next block, or null when reached end of the stream
+     * @throws IOException when failed to read block from input stream
+     */
+    protected Block readBlock(ClickHouseColumn[] expectedColumns) throws IOException {
+        if (input.available() <= 0) {
+            input.close();
+            return null;
+        }
+
+        int columnCount = input.readVarInt();
+        int rowCount = input.readVarInt();
+        if (expectedColumns != null && expectedColumns.length != columnCount) {
+            throw new IOException(ClickHouseUtils.format("Expect %d columns but we got %d",
+                    expectedColumns.length, columnCount));
+        }
+
+        ClickHouseRenameMethod m = (ClickHouseRenameMethod) config
+                .getOption(ClickHouseClientOption.RENAME_RESPONSE_COLUMN);
+        ClickHouseColumn[] cols = expectedColumns != null ? expectedColumns : new ClickHouseColumn[columnCount];
+        Object[] data = new Object[columnCount];
+        boolean[][] nulls = new boolean[columnCount][];
+        for (int i = 0; i < columnCount; i++) {
+            String name = input.readUnicodeString();
+            String type = input.readUnicodeString();
+            ClickHouseColumn column = expectedColumns != null ? expectedColumns[i]
+                    : ClickHouseColumn.of(m.rename(name), type);
+            cols[i] = column;
+            if (rowCount > 0) { // nothing, not even the prefix, for empty block
+                readStatePrefix(column);
+            }
+
+            if (column.isLowCardinality()) {
+                Object[] values = readLowCardinality(column, rowCount);
+                if (column.isNullable()) {
+                    boolean[] n = new boolean[rowCount];
+                    for (int j = 0; j < rowCount; j++) {
+                        n[j] = values[j] == null;
+                    }
+                    nulls[i] = n;
+                }
+                data[i] = values;
+            } else if (column.isNullable()) {
+                boolean[] n = readNullMap(rowCount);
+                Object values = readValues(getBaseColumn(column), rowCount);
+                if (values instanceof Object[]) {
+                    Object[] objs = (Object[]) values;
+                    for (int j = 0; j < rowCount; j++) {
+                        if (n[j]) {
+                            objs[j] = null;
+                        }
+                    }
+                }
+                nulls[i] = n;
+                data[i] = values;
+            } else {
+                data[i] = readValues(column, rowCount);
+            }
+        }
+        return new Block(cols, rowCount, data, nulls);
+    }
+
+    /**
+     * Reads serialization state prefix of the given column. In Native format,
+     * prefixes of all nested streams, for example version of each
+     * {@code LowCardinality} inside {@code Array}, {@code Map} or {@code Tuple},
+     * are written before the data of the column, including offsets of arrays.
+     *
+     * @param column non-null column
+     * @throws IOException when failed to read prefix from input stream
+     */
+    protected void readStatePrefix(ClickHouseColumn column) throws IOException {
+        if (column.isLowCardinality()) {
+            long version = BinaryStreamUtils.readInt64(input);
+            if (version != LOW_CARDINALITY_VERSION) {
+                throw new IOException("Unsupported version of LowCardinality serialization: " + version);
+            }
+            return;
+        }
+
+        switch (column.getDataType()) {
+            case Map:
+                readStatePrefix(column.getKeyInfo());
+                readStatePrefix(column.getValueInfo());
+                break;
+            case Array:
+            case Nested:
+            case SimpleAggregateFunction:
+            case Tuple:
+                for (ClickHouseColumn c : column.getNestedColumns()) {
+                    readStatePrefix(c);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    protected boolean[] readNullMap(int rows) throws IOException {
+        boolean[] nulls = new boolean[rows];
+        byte[] bytes = input.readBytes(rows);
+        for (int i = 0; i < rows; i++) {
+            nulls[i] = bytes[i] != 0;
+        }
+        return nulls;
+    }
+
+    protected long[] readOffsets(int rows) throws IOException {
+        return input.readBuffer(rows * 8).asLongArray();
+    }
+
+    /**
+     * Reads values of the given column, which must be neither nullable nor low
+     * cardinality.
+     *
+     * @param column non-null column
+     * @param rows   number of rows
+     * @return primitive array for numbers, and {@code Object[]} for others
+     * @throws IOException when failed to read values from input stream
+     */
+    protected Object readValues(ClickHouseColumn column, int rows) throws IOException {
+        switch (column.getDataType()) {
+            case Int8:
+                return input.readBytes(rows);
+            case UInt8: {
+                byte[] bytes = input.readBytes(rows);
+                short[] values = new short[rows];
+                for (int i = 0; i < rows; i++) {
+                    values[i] = (short) (0xFF & bytes[i]);
+                }
+                return values;
+            }
+            case Int16:
+                return input.readBuffer(rows * 2).asShortArray();
+            case UInt16:
+                return input.readBuffer(rows * 2).asUnsignedShortArray();
+            case Int32:
+                return input.readBuffer(rows * 4).asIntegerArray();
+            case UInt32:
+                return input.readBuffer(rows * 4).asUnsignedIntegerArray();
+            case IntervalYear:
+            case IntervalQuarter:
+            case IntervalMonth:
+            case IntervalWeek:
+            case IntervalDay:
+            case IntervalHour:
+            case IntervalMinute:
+            case IntervalSecond:
+            case Int64:
+            case UInt64:
+                return input.readBuffer(rows * 8).asLongArray();
+            case Float32:
+                return input.readBuffer(rows * 4).asFloatArray();
+            case Float64:
+                return input.readBuffer(rows * 8).asDoubleArray();
+            case Nothing:
+                input.readBytes(rows);
+                return new Object[rows];
+            case SimpleAggregateFunction:
+                return readObjects(column.getNestedColumns().get(0), rows);
+            case Array:
+                return readArrays(column, rows);
+            case Map:
+                return readMaps(column, rows);
+            case Nested:
+                return readNested(column, rows);
+            case Tuple:
+                return readTuples(column, rows);
+            case Point:
+            case Ring:
+            case Polygon:
+            case MultiPolygon:
+                return readGeometries(column.getDataType(), rows);
+            default:
+                break;
+        }
+
+        ClickHouseDeserializer<ClickHouseValue> d = ClickHouseRowBinaryProcessor.getMappedFunctions().compile(column);
+        Object[] values = new Object[rows];
+        ClickHouseValue ref = null;
+        for (int i = 0; i < rows; i++) {
+            ref = d.deserialize(ref, config, column, input);
+            values[i] = ref.asObject();
+        }
+        return values;
+    }
+
+    /**
+     * Reads values of the given column as objects.
+     *
+     * @param column non-null column
+     * @param rows   number of rows
+     * @return non-null array of objects
+     * @throws IOException when failed to read values from input stream
+     */
+    protected Object[] readObjects(ClickHouseColumn column, int rows) throws IOException {
+        if (column.isLowCardinality()) {
+            return readLowCardinality(column, rows);
+        }
+
+        boolean[] nulls = column.isNullable() ? readNullMap(rows) : null;
+        ClickHouseColumn baseColumn = getBaseColumn(column);
+        Object[] values = toObjects(baseColumn, readValues(baseColumn, rows));
+        if (nulls != null) {
+            for (int i = 0; i < rows; i++) {
+                if (nulls[i]) {
+                    values[i] = null;
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads values of low cardinality column, not including the state prefix,
+     * which should have been read by {@link #readStatePrefix(ClickHouseColumn)}.
+     *
+     * @param column non-null low cardinality column
+     * @param rows   number of rows
+     * @return non-null array of objects
+     * @throws IOException when failed to read values from input stream
+     */
+    protected Object[] readLowCardinality(ClickHouseColumn column, int rows) throws IOException {
+        if (rows < 1) { // nothing is written for empty column, e.g. empty arrays
+            return ClickHouseValues.EMPTY_OBJECT_ARRAY;
+        }
+
+        long flags = BinaryStreamUtils.readInt64(input);
+        if ((flags & LOW_CARDINALITY_GLOBAL_DICTIONARY) != 0L) {
+            throw new IOException("Global dictionary of LowCardinality is not supported");
+        }
+
+        ClickHouseColumn baseColumn = getBaseColumn(column);
+        int keyCount = (int) BinaryStreamUtils.readInt64(input);
+        Object[] keys = toObjects(baseColumn, readValues(baseColumn, keyCount));
+        int count = (int) BinaryStreamUtils.readInt64(input);
+        if (count != rows) {
+            throw new IOException(ClickHouseUtils.format("Expect %d rows but we got %d", rows, count));
+        }
+
+        final int indexType = (int) (flags & LOW_CARDINALITY_INDEX_TYPE_MASK);
+        final long[] indexes;
+        switch (indexType) {
+            case 0: {
+                byte[] bytes = input.readBytes(rows);
+                indexes = new long[rows];
+                for (int i = 0; i < rows; i++) {
+                    indexes[i] = 0xFF & bytes[i];
+                }
+                break;
+            }
+            case 1: {
+                int[] values = input.readBuffer(rows * 2).asUnsignedShortArray();
+                indexes = new long[rows];
+                for (int i = 0; i < rows; i++) {
+                    indexes[i] = values[i];
+                }
+                break;
+            }
+            case 2:
+                indexes = input.readBuffer(rows * 4).asUnsignedIntegerArray();
+                break;
+            case 3:
+                indexes = input.readBuffer(rows * 8).asLongArray();
+                break;
+            default:
+                throw new IOException("Unsupported index type of LowCardinality: " + indexType);
+        }
+
+        boolean nullable = column.isNullable();
+        Object[] values = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            int index = (int) indexes[i];
+            values[i] = nullable && index == 0 ? null : keys[index];
+        }
+        return values;
+    }
+
+    protected Object[] readArrays(ClickHouseColumn column, int rows) throws IOException {
+        long[] offsets = readOffsets(rows);
+        int total = rows > 0 ? (int) offsets[rows - 1] : 0;
+
+        ClickHouseColumn nestedColumn = column.getNestedColumns().get(0);
+        ClickHouseColumn baseColumn = column.getArrayBaseColumn();
+        Class<?> javaClass = baseColumn.getPrimitiveClass();
+        int level = column.getArrayNestedLevel();
+
+        Object[] arrays = new Object[rows];
+        if (level > 1 || nestedColumn.isNullable() || nestedColumn.isLowCardinality() || !javaClass.isPrimitive()) {
+            Object[] elements = readObjects(nestedColumn, total);
+            for (int i = 0, start = 0; i < rows; i++) {
+                int end = (int) offsets[i];
+                int length = end - start;
+                Object[] array = baseColumn.isNullable() || baseColumn.isLowCardinality()
+                        ? ClickHouseValues.createObjectArray(baseColumn.getObjectClass(), length, level)
+                        : (Object[]) ClickHouseValues.createPrimitiveArray(javaClass, length, level);
+                System.arraycopy(elements, start, array, 0, length);
+                arrays[i] = array;
+                start = end;
+            }
+        } else {
+            Object elements = readValues(nestedColumn, total);
+            boolean isObjectArray = elements instanceof Object[];
+            for (int i = 0, start = 0; i < rows; i++) {
+                int end = (int) offsets[i];
+                if (isObjectArray) {
+                    int length = end - start;
+                    Object[] array = ClickHouseValues.createObjectArray(baseColumn.getObjectClass(), length, 1);
+                    System.arraycopy(elements, start, array, 0, length);
+                    arrays[i] = array;
+                } else {
+                    arrays[i] = copyOfRange(elements, start, end);
+                }
+                start = end;
+            }
+        }
+        return arrays;
+    }
+
+    protected Object[] readMaps(ClickHouseColumn column, int rows) throws IOException {
+        long[] offsets = readOffsets(rows);
+        int total = rows > 0 ? (int) offsets[rows - 1] : 0;
+
+        Object[] keys = readObjects(column.getKeyInfo(), total);
+        Object[] vals = readObjects(column.getValueInfo(), total);
+        Object[] maps = new Object[rows];
+        for (int i = 0, start = 0; i < rows; i++) {
+            int end = (int) offsets[i];
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (int j = start; j < end; j++) {
+                map.put(keys[j], vals[j]);
+            }
+            maps[i] = map;
+            start = end;
+        }
+        return maps;
+    }
+
+    protected Object[] readNested(ClickHouseColumn column, int rows) throws IOException {
+        long[] offsets = readOffsets(rows);
+        int total = rows > 0 ? (int) offsets[rows - 1] : 0;
+
+        List<ClickHouseColumn> nestedColumns = column.getNestedColumns();
+        int count = nestedColumns.size();
+        Object[][] elements = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            elements[i] = readObjects(nestedColumns.get(i), total);
+        }
+
+        Object[] values = new Object[rows];
+        for (int i = 0, start = 0; i < rows; i++) {
+            int end = (int) offsets[i];
+            Object[][] nvalues = new Object[count][];
+            for (int j = 0; j < count; j++) {
+                nvalues[j] = Arrays.copyOfRange(elements[j], start, end);
+            }
+            values[i] = nvalues;
+            start = end;
+        }
+        return values;
+    }
+
+    protected Object[] readTuples(ClickHouseColumn column, int rows) throws IOException {
+        List<ClickHouseColumn> nestedColumns = column.getNestedColumns();
+        int count = nestedColumns.size();
+        Object[][] elements = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            elements[i] = readObjects(nestedColumns.get(i), rows);
+        }
+
+        Object[] tuples = new Object[rows];
+        for (int i = 0; i < rows; i++) {
+            List<Object> tuple = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                tuple.add(elements[j][i]);
+            }
+            tuples[i] = tuple;
+        }
+        return tuples;
+    }
+
+    protected Object[] readGeometries(ClickHouseDataType type, int rows) throws IOException {
+        final ClickHouseDataType elementType;
+        final int level;
+        switch (type) {
+            case Point: {
+                double[] x = input.readBuffer(rows * 8).asDoubleArray();
+                double[] y = input.readBuffer(rows * 8).asDoubleArray();
+                Object[] points = new Object[rows];
+                for (int i = 0; i < rows; i++) {
+                    points[i] = new double[] { x[i], y[i] };
+                }
+                return points;
+            }
+            case Ring:
+                elementType = ClickHouseDataType.Point;
+                level = 2;
+                break;
+            case Polygon:
+                elementType = ClickHouseDataType.Ring;
+                level = 3;
+                break;
+            case MultiPolygon:
+                elementType = ClickHouseDataType.Polygon;
+                level = 4;
+                break;
+            default:
+                throw new IllegalArgumentException(ERROR_UNKNOWN_DATA_TYPE + type);
+        }
+
+        long[] offsets = readOffsets(rows);
+        int total = rows > 0 ? (int) offsets[rows - 1] : 0;
+        Object[] elements = readGeometries(elementType, total);
+        Object[] values = new Object[rows];
+        for (int i = 0, start = 0; i < rows; i++) {
+            int end = (int) offsets[i];
+            int length = end - start;
+            Object[] array = (Object[]) ClickHouseValues.createPrimitiveArray(double.class, length, level);
+            System.arraycopy(elements, start, array, 0, length);
+            values[i] = array;
+            start = end;
+        }
+        return values;
+    }
+
+    protected Object[] toObjects(ClickHouseColumn column, Object values) {
+        if (values instanceof Object[]) {
+            return (Object[]) values;
+        }
+
+        ClickHouseValue v = ClickHouseValues.newValue(config, column);
+        Object[] objects;
+        if (values instanceof byte[]) {
+            byte[] array = (byte[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else if (values instanceof short[]) {
+            short[] array = (short[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else if (values instanceof int[]) {
+            int[] array = (int[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else if (values instanceof long[]) {
+            long[] array = (long[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else if (values instanceof float[]) {
+            float[] array = (float[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else if (values instanceof double[]) {
+            double[] array = (double[]) values;
+            objects = new Object[array.length];
+            for (int i = 0, len = array.length; i < len; i++) {
+                objects[i] = v.update(array[i]).asObject();
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported values: " + values);
+        }
+        return objects;
+    }
+
+    static Object copyOfRange(Object array, int from, int to) {
+        if (array instanceof byte[]) {
+            return Arrays.copyOfRange((byte[]) array, from, to);
+        } else if (array instanceof short[]) {
+            return Arrays.copyOfRange((short[]) array, from, to);
+        } else if (array instanceof int[]) {
+            return Arrays.copyOfRange((int[]) array, from, to);
+        } else if (array instanceof long[]) {
+            return Arrays.copyOfRange((long[]) array, from, to);
+        } else if (array instanceof float[]) {
+            return Arrays.copyOfRange((float[]) array, from, to);
+        } else if (array instanceof double[]) {
+            return Arrays.copyOfRange((double[]) array, from, to);
+        }
+        throw new IllegalArgumentException("Unsupported array: " + array);
+    }
+
+    /**
+     * Checks whether there's more row to read. Next block will be loaded
+     * automatically when all rows in current block have been consumed.
+     *
+     * @return true if there's more; false otherwise
+     * @throws UncheckedIOException when failed to read data from input stream
+     */
+    boolean hasMoreRows() throws UncheckedIOException {
+        try {
+            while (currentBlock == null || currentRow >= currentBlock.rows) {
+                Block block = readBlock(columns);
+                if (block == null) {
+                    return false;
+                }
+                currentBlock = block;
+                currentRow = 0;
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected ClickHouseRecord createRecord() {
+        for (int i = 0, len = columns.length; i < len; i++) {
+            if (templates[i] == null) {
+                templates[i] = ClickHouseValues.newValue(config, columns[i]);
+            }
+        }
+        return new ClickHouseSimpleRecord(getColumns(), templates);
+    }
+
+    @Override
+    protected Iterator<ClickHouseRecord> initRecords() {
+        return new RecordsIterator(this);
+    }
+
+    @Override
+    protected Iterator<ClickHouseValue> initValues() {
+        return new ValuesIterator(this);
+    }
+
+    @Override
+    public boolean hasNextRow() {
+        return columns.length > 0 && hasMoreRows();
+    }
+
+    @Override
+    protected void readAndFill(ClickHouseRecord r) {
+        Block b = currentBlock;
+        int row = currentRow++;
+        for (int i = 0, len = columns.length; i < len; i++) {
+            b.update(r.getValue(i), i, row);
+        }
+    }
+
+    @Override
+    protected void readAndFill(ClickHouseValue value, ClickHouseColumn column) {
+        if (!hasMoreRows()) {
+            throw new UncheckedIOException(new EOFException());
+        }
+
+        currentBlock.update(value, readPosition, currentRow);
+        if (readPosition + 1 >= columns.length) {
+            currentRow++;
+        }
+    }
+
+    @Override
+    protected List<ClickHouseColumn> readColumns() throws IOException {
+        Block block;
+        try {
+            block = readBlock(null);
+        } catch (EOFException e) {
+            // no result returned
+            return Collections.emptyList();
+        }
+        if (block == null) {
+            return Collections.emptyList();
+        }
+
+        currentBlock = block;
+        currentRow = 0;
+        return Arrays.asList(block.columns);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param config   non-null confinguration contains information like format
+     * @param input    non-null input stream for deserialization
+     * @param output   output stream, which is not used as serialization is not
+     *                 supported
+     * @param columns  nullable columns
+     * @param settings nullable settings
+     * @throws IOException              when failed to read columns from input
+     *                                  stream
+     * @throws IllegalArgumentException when {@code input} is null, because
+     *                                  writing is not supported
+     */
+    public ClickHouseNativeProcessor(ClickHouseConfig config, ClickHouseInputStream input,
+            ClickHouseOutputStream output, List<ClickHouseColumn> columns, Map<String, Object> settings)
+            throws IOException {
+        super(config, checkInput(input), output, columns, settings);
+    }
+
+    private static ClickHouseInputStream checkInput(ClickHouseInputStream input) {
+        if (input == null) {
+            throw new IllegalArgumentException(
+                    "Serializing values in Native format is not supported, please use RowBinary instead");
+        }
+        return input;
+    }
+
+    /**
+     * Returns an iterable collection of decoded blocks. It shares the same input
+     * stream with {@link #records()} and {@link #values()}, so please use only one
+     * of them.
+     *
+     * @return non-null iterable blocks
+     * @throws UncheckedIOException when failed to access the input stream
+     */
+    public final Iterable<Block> blocks() {
+        if (input == null) {
+            return Collections.emptyList();
+        }
+
+        return () -> new BlocksIterator(this);
+    }
+
+    @Override
+    public void write(ClickHouseValue value, ClickHouseColumn column) throws IOException {
+        throw new UnsupportedOperationException("Native format is column-oriented and not supported for writing");
+    }
+}
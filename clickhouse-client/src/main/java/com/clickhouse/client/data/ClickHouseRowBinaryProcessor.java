@@ -102,14 +102,16 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         }
 
         private ClickHouseValue readArray(ClickHouseValue ref, ClickHouseConfig config, ClickHouseColumn nestedColumn,
-                ClickHouseColumn baseColumn, ClickHouseInputStream input, int length, int level) throws IOException {
+                ClickHouseColumn baseColumn, ClickHouseInputStream input, int length, int level,
+                ClickHouseDeserializer<ClickHouseValue> nestedFunc, ClickHouseDeserializer<ClickHouseValue> baseFunc)
+                throws IOException {
             Class<?> javaClass = baseColumn.getPrimitiveClass();
             if (level > 1 || baseColumn.isNullable() || !javaClass.isPrimitive()) {
                 Object[] array = baseColumn.isNullable()
                         ? ClickHouseValues.createObjectArray(baseColumn.getObjectClass(), length, level)
                         : (Object[]) ClickHouseValues.createPrimitiveArray(javaClass, length, level);
                 for (int i = 0; i < length; i++) {
-                    array[i] = deserialize(null, config, nestedColumn, input).asObject();
+                    array[i] = nestedFunc.deserialize(null, config, nestedColumn, input).asObject();
                 }
                 ref.update(array);
             } else {
@@ -119,7 +121,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                     if (baseColumn.getDataType().getByteLength() != 2) {
                         short[] array = new short[length];
                         for (int i = 0; i < length; i++) {
-                            array[i] = deserialize(null, config, baseColumn, input).asShort();
+                            array[i] = baseFunc.deserialize(null, config, baseColumn, input).asShort();
                         }
                         ref.update(array);
                     } else {
@@ -129,7 +131,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                     if (baseColumn.getDataType().getByteLength() != 4) {
                         int[] array = new int[length];
                         for (int i = 0; i < length; i++) {
-                            array[i] = deserialize(null, config, baseColumn, input).asInteger();
+                            array[i] = baseFunc.deserialize(null, config, baseColumn, input).asInteger();
                         }
                         ref.update(array);
                     } else {
@@ -139,7 +141,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                     if (baseColumn.getDataType().getByteLength() != 8) {
                         long[] array = new long[length];
                         for (int i = 0; i < length; i++) {
-                            array[i] = deserialize(null, config, baseColumn, input).asLong();
+                            array[i] = baseFunc.deserialize(null, config, baseColumn, input).asLong();
                         }
                         ref.update(array);
                     } else {
@@ -367,7 +369,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
                     r = ClickHouseValues.newValue(f, c);
                 }
                 return readArray(r, f, c.getNestedColumns().get(0), c.getArrayBaseColumn(), i, length,
-                        c.getArrayNestedLevel());
+                        c.getArrayNestedLevel(), this, this);
             }, this::writeArray, ClickHouseDataType.Array);
             buildMappings(deserializers, serializers, (r, f, c, i) -> {
                 Map<Object, Object> map = new LinkedHashMap<>();
@@ -466,6 +468,130 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
             return func.deserialize(ref, config, column, input);
         }
 
+        /**
+         * Compiles deserializer for the given column. Unlike
+         * {@link #deserialize(ClickHouseValue, ClickHouseConfig, ClickHouseColumn, ClickHouseInputStream)},
+         * nullability, data type and nested columns are resolved only once, so the
+         * returned deserializer should be reused for all values of the column.
+         *
+         * @param column non-null column
+         * @return non-null deserializer, which only works for the given column
+         */
+        @SuppressWarnings("unchecked")
+        public ClickHouseDeserializer<ClickHouseValue> compile(ClickHouseColumn column) {
+            final ClickHouseDeserializer<ClickHouseValue> func;
+            switch (column.getDataType()) {
+                case AggregateFunction:
+                    func = aggDeserializers.getOrDefault(column.getAggregateFunction(),
+                            ClickHouseDeserializer.NOT_SUPPORTED);
+                    break;
+                case SimpleAggregateFunction: {
+                    ClickHouseColumn nestedCol = column.getNestedColumns().get(0);
+                    ClickHouseDeserializer<ClickHouseValue> nestedFunc = compile(nestedCol);
+                    func = (r, f, c, i) -> nestedFunc.deserialize(r, f, nestedCol, i);
+                    break;
+                }
+                case Array: {
+                    ClickHouseColumn nestedCol = column.getNestedColumns().get(0);
+                    ClickHouseColumn baseCol = column.getArrayBaseColumn();
+                    int level = column.getArrayNestedLevel();
+                    ClickHouseDeserializer<ClickHouseValue> nestedFunc = compile(nestedCol);
+                    ClickHouseDeserializer<ClickHouseValue> baseFunc = baseCol == nestedCol ? nestedFunc
+                            : compile(baseCol);
+                    func = (r, f, c, i) -> {
+                        int length = i.readVarInt();
+                        if (r == null) {
+                            r = ClickHouseValues.newValue(f, c);
+                        }
+                        return readArray(r, f, nestedCol, baseCol, i, length, level, nestedFunc, baseFunc);
+                    };
+                    break;
+                }
+                case Map: {
+                    ClickHouseColumn keyCol = column.getKeyInfo();
+                    ClickHouseColumn valCol = column.getValueInfo();
+                    ClickHouseDeserializer<ClickHouseValue> keyFunc = compile(keyCol);
+                    ClickHouseDeserializer<ClickHouseValue> valFunc = compile(valCol);
+                    func = (r, f, c, i) -> {
+                        Map<Object, Object> map = new LinkedHashMap<>();
+                        for (int k = 0, len = i.readVarInt(); k < len; k++) {
+                            map.put(keyFunc.deserialize(null, f, keyCol, i).asObject(),
+                                    valFunc.deserialize(null, f, valCol, i).asObject());
+                        }
+                        return ClickHouseMapValue.of(map, keyCol.getObjectClass(), valCol.getObjectClass());
+                    };
+                    break;
+                }
+                case Nested: {
+                    List<ClickHouseColumn> nestedCols = column.getNestedColumns();
+                    ClickHouseColumn[] cols = nestedCols.toArray(new ClickHouseColumn[0]);
+                    ClickHouseDeserializer<ClickHouseValue>[] funcs = compile(cols);
+                    func = (r, f, c, i) -> {
+                        Object[][] values = new Object[cols.length][];
+                        for (int l = 0; l < cols.length; l++) {
+                            int k = i.readVarInt();
+                            Object[] nvalues = new Object[k];
+                            for (int j = 0; j < k; j++) {
+                                nvalues[j] = funcs[l].deserialize(null, f, cols[l], i).asObject();
+                            }
+                            values[l] = nvalues;
+                        }
+                        return ClickHouseNestedValue.of(r, nestedCols, values);
+                    };
+                    break;
+                }
+                case Tuple: {
+                    ClickHouseColumn[] cols = column.getNestedColumns().toArray(new ClickHouseColumn[0]);
+                    ClickHouseDeserializer<ClickHouseValue>[] funcs = compile(cols);
+                    func = (r, f, c, i) -> {
+                        List<Object> tupleValues = new ArrayList<>(cols.length);
+                        for (int k = 0; k < cols.length; k++) {
+                            tupleValues.add(funcs[k].deserialize(null, f, cols[k], i).asObject());
+                        }
+                        return ClickHouseTupleValue.of(r, tupleValues);
+                    };
+                    break;
+                }
+                default: {
+                    ClickHouseDeserializer<ClickHouseValue> mapped = (ClickHouseDeserializer<ClickHouseValue>) deserializers
+                            .get(column.getDataType());
+                    if (mapped == null) {
+                        // fail on read as what deserialize() does
+                        String message = ERROR_UNKNOWN_DATA_TYPE + column.getDataType().name();
+                        mapped = (r, f, c, i) -> {
+                            throw new IllegalArgumentException(message);
+                        };
+                    }
+                    func = mapped;
+                    break;
+                }
+            }
+
+            // LowCardinality is transparent in RowBinary so only nullable needs a wrapper
+            return column.isNullable() ? (r, f, c, i) -> {
+                if (BinaryStreamUtils.readNull(i)) {
+                    return r == null ? ClickHouseValues.newValue(f, c) : r.resetToNullOrEmpty();
+                }
+                return func.deserialize(r, f, c, i);
+            } : func;
+        }
+
+        /**
+         * Compiles deserializers for the given columns.
+         *
+         * @param columns non-null columns
+         * @return non-null deserializers in the same order of the columns
+         * @see #compile(ClickHouseColumn)
+         */
+        @SuppressWarnings("unchecked")
+        public ClickHouseDeserializer<ClickHouseValue>[] compile(ClickHouseColumn[] columns) {
+            ClickHouseDeserializer<ClickHouseValue>[] funcs = new ClickHouseDeserializer[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                funcs[i] = compile(columns[i]);
+            }
+            return funcs;
+        }
+
         @SuppressWarnings("unchecked")
         public void serialize(ClickHouseValue value, ClickHouseConfig config, ClickHouseColumn column,
                 ClickHouseOutputStream output) throws IOException {
@@ -491,6 +617,21 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         return MappedFunctions.instance;
     }
 
+    private ClickHouseDeserializer<ClickHouseValue>[] deserializers;
+
+    /**
+     * Gets deserializers compiled for all columns. It's lazily initialized as
+     * columns are not available until the super class is constructed.
+     *
+     * @return non-null deserializers in the same order of the columns
+     */
+    protected ClickHouseDeserializer<ClickHouseValue>[] getDeserializers() {
+        if (deserializers == null) {
+            deserializers = getMappedFunctions().compile(columns);
+        }
+        return deserializers;
+    }
+
     @Override
     protected ClickHouseRecord createRecord() {
         return new ClickHouseSimpleRecord(getColumns(), templates);
@@ -498,7 +639,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
 
     @Override
     protected void readAndFill(ClickHouseRecord r) throws IOException {
-        MappedFunctions m = getMappedFunctions();
+        ClickHouseDeserializer<ClickHouseValue>[] d = getDeserializers();
         int p = readPosition;
         ClickHouseColumn[] c = columns;
         ClickHouseConfig f = config;
@@ -506,7 +647,7 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
         ClickHouseValue[] t = templates;
         try {
             for (int len = c.length; p < len; p++) {
-                ClickHouseValue n = m.deserialize(r.getValue(p), f, c[p], i);
+                ClickHouseValue n = d[p].deserialize(r.getValue(p), f, c[p], i);
                 if (n != t[p]) {
                     t[p] = n;
                 }
@@ -518,7 +659,11 @@ public class ClickHouseRowBinaryProcessor extends ClickHouseDataProcessor {
 
     @Override
     protected void readAndFill(ClickHouseValue value, ClickHouseColumn column) throws IOException {
-        ClickHouseValue v = getMappedFunctions().deserialize(value, config, column, input);
+        int p = readPosition;
+        // column could be anything when it's specified in read(value, column)
+        ClickHouseValue v = p < columns.length && column == columns[p]
+                ? getDeserializers()[p].deserialize(value, config, column, input)
+                : getMappedFunctions().deserialize(value, config, column, input);
         if (v != value) {
             templates[readPosition] = v;
         }
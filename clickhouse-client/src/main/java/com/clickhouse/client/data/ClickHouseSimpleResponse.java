@@ -2,6 +2,7 @@ package com.clickhouse.client.data;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -133,6 +134,8 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
     private final List<ClickHouseRecord> records;
     private final ClickHouseResponseSummary summary;
 
+    private transient Iterator<ClickHouseRecord> cursor;
+    private transient ClickHouseRecord current;
     private boolean isClosed;
 
     protected ClickHouseSimpleResponse(List<ClickHouseColumn> columns, List<ClickHouseRecord> records,
@@ -177,6 +180,33 @@ public class ClickHouseSimpleResponse implements ClickHouseResponse {
         return records;
     }
 
+    @Override
+    public boolean hasNext() {
+        if (cursor == null) {
+            cursor = records.iterator();
+        }
+        return cursor.hasNext();
+    }
+
+    @Override
+    public boolean next() {
+        if (hasNext()) {
+            current = cursor.next();
+            return true;
+        }
+
+        current = null;
+        return false;
+    }
+
+    @Override
+    public ClickHouseRecord currentRecord() {
+        if (current == null) {
+            throw new IllegalStateException("No current row available");
+        }
+        return current;
+    }
+
     @Override
     public void close() {
         // nothing to close
@@ -123,6 +123,21 @@ public class ClickHouseStreamResponse implements ClickHouseResponse {
         }
     }
 
+    protected ClickHouseDataProcessor getProcessor() {
+        if (processor == null) {
+            throw new UnsupportedOperationException(
+                    "No data processor available for deserialization, please consider to use getInputStream instead");
+        }
+        return processor;
+    }
+
+    private ClickHouseDataProcessor getCurrentProcessor() {
+        if (processor == null) {
+            throw new IllegalStateException("No current row available");
+        }
+        return processor;
+    }
+
     @Override
     public List<ClickHouseColumn> getColumns() {
         return columns;
@@ -144,11 +159,46 @@ public class ClickHouseStreamResponse implements ClickHouseResponse {
 
     @Override
     public Iterable<ClickHouseRecord> records() {
-        if (processor == null) {
-            throw new UnsupportedOperationException(
-                    "No data processor available for deserialization, please consider to use getInputStream instead");
-        }
+        return getProcessor().records();
+    }
 
-        return processor.records();
+    @Override
+    public boolean hasNext() {
+        return getProcessor().hasNextRow();
+    }
+
+    @Override
+    public boolean next() {
+        return getProcessor().nextRow();
+    }
+
+    @Override
+    public ClickHouseRecord currentRecord() {
+        return getCurrentProcessor().currentRow();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return getCurrentProcessor().isNull(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return getCurrentProcessor().getInt(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return getCurrentProcessor().getLong(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getCurrentProcessor().getDouble(index);
+    }
+
+    @Override
+    public int getBytes(int index, byte[] target) {
+        return getCurrentProcessor().getBytes(index, target);
     }
 }
@@ -13,6 +13,7 @@ import com.clickhouse.client.ClickHouseByteBuffer;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataUpdater;
 import com.clickhouse.client.ClickHouseDeserializer;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseInputStream;
@@ -211,6 +212,47 @@ public class ClickHouseTabSeparatedProcessor extends ClickHouseDataProcessor {
         return array;
     }
 
+    /**
+     * Creates a new function for locating end of current row, which can be used
+     * to split data in the given format on row boundaries. The function is
+     * stateful, and it should be fed with consecutive bytes. It returns number of
+     * bytes until end of row(including row delimiter), or -1 when end of row
+     * was not found in given range.
+     *
+     * @param format data format
+     * @return new row splitter, or null when rows in the format cannot be located
+     *         by scanning for row delimiter(e.g. CSV with quoted line breaks)
+     */
+    public static ClickHouseDataUpdater newRowSplitter(ClickHouseFormat format) {
+        if (format == null) {
+            return null;
+        }
+
+        final TextHandler textHandler;
+        switch (format) {
+            case TSV:
+            case TSVWithNames:
+            case TSVWithNamesAndTypes:
+            case TabSeparated:
+            case TabSeparatedWithNames:
+            case TabSeparatedWithNamesAndTypes:
+                textHandler = new TextHandler('\t', '\n', '\\');
+                break;
+            case TSVRaw:
+            case TSVRawWithNames:
+            case TSVRawWithNamesAndTypes:
+            case TabSeparatedRaw:
+            case TabSeparatedRawWithNames:
+            case TabSeparatedRawWithNamesAndTypes:
+            case LineAsString:
+                textHandler = new TextHandler('\n');
+                break;
+            default:
+                return null;
+        }
+        return textHandler::readLine;
+    }
+
     public static MappedFunctions getMappedFunctions(ClickHouseFormat format) {
         return cachedFuncs.computeIfAbsent(format, MappedFunctions::new);
     }
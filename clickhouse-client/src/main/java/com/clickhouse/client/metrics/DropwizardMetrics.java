@@ -0,0 +1,46 @@
+package com.clickhouse.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.codahale.metrics.MetricRegistry;
+
+/**
+ * Adaptor of Dropwizard metric registry. As tag is not supported, values of
+ * tags will be appended to metric name.
+ */
+public class DropwizardMetrics implements Metrics {
+    private final MetricRegistry registry;
+
+    static String getName(String name, String... tags) {
+        int len = tags != null ? tags.length / 2 : 0;
+        if (len == 0) {
+            return name;
+        }
+
+        String[] values = new String[len];
+        for (int i = 0; i < len; i++) {
+            values[i] = tags[i * 2 + 1];
+        }
+        return MetricRegistry.name(name, values);
+    }
+
+    public DropwizardMetrics(MetricRegistry registry) {
+        this.registry = ClickHouseChecker.nonNull(registry, "MetricRegistry");
+    }
+
+    @Override
+    public void increment(String name, long amount, String... tags) {
+        registry.counter(getName(name, tags)).inc(amount);
+    }
+
+    @Override
+    public void record(String name, long amount, String... tags) {
+        registry.histogram(getName(name, tags)).update(amount);
+    }
+
+    @Override
+    public void recordTime(String name, long nanos, String... tags) {
+        registry.timer(getName(name, tags)).update(nanos, TimeUnit.NANOSECONDS);
+    }
+}
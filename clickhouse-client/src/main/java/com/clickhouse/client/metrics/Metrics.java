@@ -0,0 +1,91 @@
+package com.clickhouse.client.metrics;
+
+/**
+ * Unified interface for recording client metrics. Besides the built-in
+ * bindings of Micrometer and Dropwizard, a custom implementation can be passed
+ * to {@code ClickHouseClientBuilder.metricRegistry(Object)} directly.
+ *
+ * <p>
+ * Tags are passed in as key-value pairs, for example
+ * {@code record(name, 1L, "node", "localhost:8123")}.
+ */
+public interface Metrics {
+    /**
+     * No-op metrics, which is used when there's no metric registry.
+     */
+    static final Metrics NOOP = new NoopMetrics();
+
+    /**
+     * Request latency in nanoseconds, tagged by {@code node}.
+     */
+    static final String REQUEST_LATENCY = "clickhouse.client.request.latency";
+    /**
+     * Bytes received from server, tagged by {@code compressed}.
+     */
+    static final String BYTES_IN = "clickhouse.client.bytes.in";
+    /**
+     * Bytes sent to server, tagged by {@code compressed}.
+     */
+    static final String BYTES_OUT = "clickhouse.client.bytes.out";
+    /**
+     * Number of rows decoded from server response.
+     */
+    static final String ROWS_DECODED = "clickhouse.client.rows.decoded";
+    /**
+     * Number of tasks waiting in thread pool, tagged by {@code executor}.
+     */
+    static final String EXECUTOR_QUEUE_SIZE = "clickhouse.client.executor.queue.size";
+    /**
+     * Number of buffers queued in piped stream.
+     */
+    static final String PIPED_QUEUE_SIZE = "clickhouse.client.piped.queue.size";
+    /**
+     * Number of failover attempts, tagged by {@code node}.
+     */
+    static final String FAILOVER = "clickhouse.client.failover";
+    /**
+     * Number of retry attempts, tagged by {@code node}.
+     */
+    static final String RETRY = "clickhouse.client.retry";
+    /**
+     * Number of times a node was marked as faulty, tagged by {@code node}.
+     */
+    static final String NODE_FAULTY = "clickhouse.client.node.faulty";
+
+    /**
+     * Checks whether metrics should be recorded or not. Instrumented code may skip
+     * expensive computation when it's disabled.
+     *
+     * @return true if metrics should be recorded; false otherwise
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Increases a counter.
+     *
+     * @param name   non-null metric name
+     * @param amount amount to add
+     * @param tags   optional key-value pairs
+     */
+    void increment(String name, long amount, String... tags);
+
+    /**
+     * Records a sample into distribution(histogram).
+     *
+     * @param name   non-null metric name
+     * @param amount sample value
+     * @param tags   optional key-value pairs
+     */
+    void record(String name, long amount, String... tags);
+
+    /**
+     * Records elapsed time.
+     *
+     * @param name  non-null metric name
+     * @param nanos elapsed time in nanoseconds
+     * @param tags  optional key-value pairs
+     */
+    void recordTime(String name, long nanos, String... tags);
+}
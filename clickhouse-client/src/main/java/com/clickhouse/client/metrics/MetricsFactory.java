@@ -0,0 +1,49 @@
+package com.clickhouse.client.metrics;
+
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Factory class to create {@link Metrics} from metric registry.
+ */
+@SuppressWarnings("squid:S1181")
+public final class MetricsFactory {
+    private static final Logger log = LoggerFactory.getLogger(MetricsFactory.class);
+
+    /**
+     * Gets metrics for the given metric registry.
+     *
+     * @param registry metric registry, which could be an instance of
+     *                 {@link Metrics}, Micrometer {@code MeterRegistry},
+     *                 Dropwizard {@code MetricRegistry} or null
+     * @return non-null metrics, {@link Metrics#NOOP} when the registry is null or
+     *         not supported
+     */
+    public static Metrics of(Object registry) {
+        if (registry == null) {
+            return Metrics.NOOP;
+        } else if (registry instanceof Metrics) {
+            return (Metrics) registry;
+        }
+
+        try {
+            if (registry instanceof io.micrometer.core.instrument.MeterRegistry) {
+                return new MicrometerMetrics((io.micrometer.core.instrument.MeterRegistry) registry);
+            }
+        } catch (Throwable ignore) { // micrometer is not available
+        }
+
+        try {
+            if (registry instanceof com.codahale.metrics.MetricRegistry) {
+                return new DropwizardMetrics((com.codahale.metrics.MetricRegistry) registry);
+            }
+        } catch (Throwable ignore) { // dropwizard is not available
+        }
+
+        log.debug("Unsupported metric registry [%s], metrics will be discarded", registry.getClass().getName());
+        return Metrics.NOOP;
+    }
+
+    private MetricsFactory() {
+    }
+}
@@ -0,0 +1,36 @@
+package com.clickhouse.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.clickhouse.client.ClickHouseChecker;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Adaptor of Micrometer meter registry.
+ */
+public class MicrometerMetrics implements Metrics {
+    private final MeterRegistry registry;
+
+    public MicrometerMetrics(MeterRegistry registry) {
+        this.registry = ClickHouseChecker.nonNull(registry, "MeterRegistry");
+    }
+
+    @Override
+    public void increment(String name, long amount, String... tags) {
+        registry.counter(name, tags).increment(amount);
+    }
+
+    @Override
+    public void record(String name, long amount, String... tags) {
+        DistributionSummary.builder(name).tags(tags).register(registry).record(amount);
+    }
+
+    @Override
+    public void recordTime(String name, long nanos, String... tags) {
+        Timer.builder(name).tags(tags).publishPercentileHistogram().register(registry).record(nanos,
+                TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,26 @@
+package com.clickhouse.client.metrics;
+
+/**
+ * Metrics does nothing.
+ */
+final class NoopMetrics implements Metrics {
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void increment(String name, long amount, String... tags) {
+        // do nothing
+    }
+
+    @Override
+    public void record(String name, long amount, String... tags) {
+        // do nothing
+    }
+
+    @Override
+    public void recordTime(String name, long nanos, String... tags) {
+        // do nothing
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Provides metrics classes.
+ */
+package com.clickhouse.client.metrics;
@@ -6,7 +6,10 @@ import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import com.clickhouse.client.ClickHouseByteBuffer;
 import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseDataUpdater;
+import com.clickhouse.client.ClickHouseOutputStream;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
@@ -20,12 +23,45 @@ public class BlockingInputStream extends AbstractByteBufferInputStream {
 
     private final BlockingQueue<ByteBuffer> queue;
     private final int timeout;
+    private final BufferPool pool;
+
+    private boolean retainBuffer;
+
+    private void recycleBuffer() {
+        ByteBuffer b = buffer;
+        if (pool != null && b != null && b != ClickHouseByteBuffer.EMPTY_BUFFER) {
+            if (retainBuffer) {
+                pool.detach(b);
+            } else {
+                pool.release(b);
+            }
+        }
+    }
 
     public BlockingInputStream(BlockingQueue<ByteBuffer> queue, int timeout, Runnable postCloseAction) {
+        this(queue, timeout, postCloseAction, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param queue           non-null blocking queue
+     * @param timeout         read timeout in milliseconds, zero or negative number
+     *                        means no timeout
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the input stream
+     * @param pool            optional buffer pool for returning consumed buffers
+     *                        back to the writer
+     */
+    public BlockingInputStream(BlockingQueue<ByteBuffer> queue, int timeout, Runnable postCloseAction,
+            BufferPool pool) {
         super(null, null, postCloseAction);
 
         this.queue = ClickHouseChecker.nonNull(queue, "Queue");
         this.timeout = timeout > 0 ? timeout : 0;
+        this.pool = pool;
+
+        this.retainBuffer = false;
     }
 
     @Override
@@ -50,6 +86,7 @@ public class BlockingInputStream extends AbstractByteBufferInputStream {
                 b = queue.take();
             }
 
+            recycleBuffer();
             buffer = b;
             int remain = b.remaining();
             if (remain > 0 && copyTo != null) {
@@ -69,4 +106,47 @@ public class BlockingInputStream extends AbstractByteBufferInputStream {
             throw new IOException("Thread was interrupted when getting next buffer from queue", e);
         }
     }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            recycleBuffer();
+        } finally {
+            super.close();
+        }
+    }
+
+    @Override
+    public long pipe(ClickHouseOutputStream output) throws IOException {
+        if (pool == null) {
+            return super.pipe(output);
+        }
+
+        // output stream may keep reference of the byte arrays
+        retainBuffer = true;
+        try {
+            return super.pipe(output);
+        } finally {
+            retainBuffer = false;
+        }
+    }
+
+    @Override
+    public ClickHouseByteBuffer readCustom(ClickHouseDataUpdater reader) throws IOException {
+        if (pool == null) {
+            return super.readCustom(reader);
+        }
+
+        // returned byte buffer may reference multiple buffers
+        retainBuffer = true;
+        try {
+            return super.readCustom(reader);
+        } finally {
+            retainBuffer = false;
+        }
+    }
 }
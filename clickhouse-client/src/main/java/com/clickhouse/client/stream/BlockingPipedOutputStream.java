@@ -15,6 +15,7 @@ import com.clickhouse.client.ClickHouseOutputStream;
 import com.clickhouse.client.ClickHousePipedOutputStream;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.metrics.Metrics;
 
 /**
  * A combination of {@link java.io.PipedOutputStream} and
@@ -27,11 +28,39 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
 
     private final int bufferSize;
     private final int timeout;
+    private final BufferPool pool;
 
     private ByteBuffer buffer;
 
+    private ByteBuffer allocateBuffer(int size) {
+        return pool != null ? pool.acquire(size) : ByteBuffer.allocate(size);
+    }
+
     public BlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, Runnable postCloseAction) {
-        super(postCloseAction);
+        this(bufferSize, queueLength, timeout, postCloseAction, null);
+    }
+
+    public BlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, Runnable postCloseAction,
+            Metrics metrics) {
+        this(bufferSize, queueLength, timeout, postCloseAction, metrics, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param bufferSize      buffer size
+     * @param queueLength     maximum number of buffers in queue, zero or negative
+     *                        number means unbounded
+     * @param timeout         timeout in milliseconds, zero or negative number means
+     *                        no timeout
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the output stream
+     * @param metrics         optional metrics
+     * @param pool            optional buffer pool, null means no recycling
+     */
+    public BlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, Runnable postCloseAction,
+            Metrics metrics, BufferPool pool) {
+        super(postCloseAction, metrics);
 
         // DisruptorBlockingQueue? Did not see much difference here...
         this.queue = queueLength <= 0 ? new LinkedBlockingQueue<>() : new ArrayBlockingQueue<>(queueLength);
@@ -41,8 +70,9 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
                 (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue(),
                 (int) ClickHouseClientOption.MAX_BUFFER_SIZE.getDefaultValue());
         this.timeout = timeout;
+        this.pool = pool;
 
-        this.buffer = ByteBuffer.allocate(this.bufferSize);
+        this.buffer = allocateBuffer(this.bufferSize);
     }
 
     private void updateBuffer(boolean allocateNewBuffer) throws IOException {
@@ -55,7 +85,7 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
         updateBuffer(b);
 
         if (allocateNewBuffer) {
-            buffer = ByteBuffer.allocate(bufferSize);
+            buffer = allocateBuffer(bufferSize);
         }
     }
 
@@ -72,11 +102,14 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
             Thread.currentThread().interrupt();
             throw new IOException("Thread was interrupted when putting buffer into queue", e);
         }
+        if (metrics.isEnabled()) {
+            metrics.record(Metrics.PIPED_QUEUE_SIZE, queue.size());
+        }
     }
 
     @Override
     public ClickHouseInputStream getInputStream(Runnable postCloseAction) {
-        return new BlockingInputStream(queue, timeout, postCloseAction);
+        return new BlockingInputStream(queue, timeout, postCloseAction, pool);
     }
 
     @Override
@@ -87,6 +120,8 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
 
         if (buffer.position() > 0) {
             updateBuffer(false);
+        } else if (pool != null) {
+            pool.release(buffer);
         }
 
         buffer = ClickHouseByteBuffer.EMPTY_BUFFER;
@@ -133,7 +168,15 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
         if (b.position() > 0) {
             updateBuffer(true);
         }
-        updateBuffer(ByteBuffer.wrap(bytes, offset, length));
+        if (pool != null) {
+            // the reader recycles whatever it gets, so never hand over foreign arrays
+            ByteBuffer copy = pool.acquire(length);
+            copy.put(bytes, offset, length);
+            ((Buffer) copy).flip();
+            updateBuffer(copy);
+        } else {
+            updateBuffer(ByteBuffer.wrap(bytes, offset, length));
+        }
 
         return this;
     }
@@ -168,7 +211,7 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
                 length = 0;
             } else if (b.position() == 0) {
                 // buffer = ByteBuffer.wrap(bytes, offset, length);
-                buffer = ByteBuffer.allocate(length);
+                buffer = allocateBuffer(length);
                 buffer.put(bytes, offset, length);
                 updateBuffer(false);
                 buffer = b;
@@ -194,14 +237,16 @@ public class BlockingPipedOutputStream extends ClickHousePipedOutputStream {
         do {
             position = buffer.position();
             int limit = buffer.limit();
-            byte[] bytes;
             if (buffer.hasArray()) {
-                bytes = buffer.array();
+                int offset = buffer.arrayOffset();
+                written = writer.update(buffer.array(), offset + position, offset + limit);
             } else {
-                bytes = new byte[limit - position];
-                buffer.get(bytes);
+                // e.g. direct buffer from pool
+                byte[] bytes = new byte[limit - position];
+                written = writer.update(bytes, 0, bytes.length);
+                buffer.put(bytes, 0, written < 0 ? bytes.length : written);
+                ((Buffer) buffer).position(position);
             }
-            written = writer.update(bytes, position, limit);
             if (written < 0) {
                 ((Buffer) buffer).position(limit);
                 updateBuffer(true);
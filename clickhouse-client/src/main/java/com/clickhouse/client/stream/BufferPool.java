@@ -0,0 +1,354 @@
+package com.clickhouse.client.stream;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Bounded and thread-safe pool of buffers, which are grouped by size classes
+ * (power of 2, from {@code 2^MIN_SIZE_CLASS} to {@code 2^MAX_SIZE_CLASS}). It's
+ * mainly used by piped streams so that the reader can return consumed buffers
+ * to the writer instead of allocating new ones for each flush.
+ *
+ * <p>
+ * Only buffers acquired from the pool should be released back into the pool,
+ * and they should not be accessed afterwards. Buffers and byte arrays are
+ * pooled separately, and direct buffers are only used when the pool was created
+ * for that.
+ */
+public final class BufferPool {
+    private static final Logger log = LoggerFactory.getLogger(BufferPool.class);
+
+    static final int MIN_SIZE_CLASS = 9; // 512 bytes
+    static final int MAX_SIZE_CLASS = 24; // 16MB
+
+    private static final Map<String, BufferPool> pools = new ConcurrentHashMap<>();
+
+    static final class TrackedBuffer extends WeakReference<Object> {
+        final int capacity;
+        final Throwable acquiredAt;
+
+        TrackedBuffer(Object buffer, int capacity, ReferenceQueue<Object> queue) {
+            super(buffer, queue);
+            this.capacity = capacity;
+            this.acquiredAt = new Throwable("Buffer acquired at");
+        }
+    }
+
+    /**
+     * Tracks buffers acquired from the pool and reports the ones garbage
+     * collected without being returned.
+     */
+    static final class LeakDetector {
+        private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+        // identity hash code -> tracked buffers
+        private final Map<Integer, List<TrackedBuffer>> tracked = new HashMap<>();
+        private final AtomicInteger leaks = new AtomicInteger();
+
+        synchronized void track(Object buffer, int capacity) {
+            tracked.computeIfAbsent(System.identityHashCode(buffer), k -> new LinkedList<>())
+                    .add(new TrackedBuffer(buffer, capacity, queue));
+            report();
+        }
+
+        synchronized boolean untrack(Object buffer) {
+            Integer key = System.identityHashCode(buffer);
+            List<TrackedBuffer> list = tracked.get(key);
+            if (list == null) {
+                return false;
+            }
+
+            boolean found = false;
+            for (Iterator<TrackedBuffer> it = list.iterator(); it.hasNext();) {
+                if (it.next().get() == buffer) {
+                    it.remove();
+                    found = true;
+                    break;
+                }
+            }
+            if (list.isEmpty()) {
+                tracked.remove(key);
+            }
+            return found;
+        }
+
+        synchronized void report() {
+            Reference<?> ref;
+            while ((ref = queue.poll()) != null) {
+                TrackedBuffer t = (TrackedBuffer) ref;
+                for (List<TrackedBuffer> list : tracked.values()) {
+                    if (list.remove(t)) {
+                        leaks.incrementAndGet();
+                        log.warn("Buffer(capacity=%d) was garbage collected without being returned to pool",
+                                t.capacity, t.acquiredAt);
+                        break;
+                    }
+                }
+            }
+            tracked.values().removeIf(List::isEmpty);
+        }
+
+        synchronized int getTrackedCount() {
+            int count = 0;
+            for (List<TrackedBuffer> list : tracked.values()) {
+                count += list.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Gets shared buffer pool.
+     *
+     * @param maxBuffers  maximum number of buffers kept in each size class, zero
+     *                    or negative number means no pooling
+     * @param direct      whether to use direct buffers
+     * @param detectLeaks whether to track buffers for leak detection
+     * @return shared buffer pool, or null when {@code maxBuffers} is less than 1
+     */
+    public static BufferPool of(int maxBuffers, boolean direct, boolean detectLeaks) {
+        if (maxBuffers < 1) {
+            return null;
+        }
+
+        return pools.computeIfAbsent(new StringBuilder().append(maxBuffers).append(',').append(direct).append(',')
+                .append(detectLeaks).toString(), k -> new BufferPool(maxBuffers, direct, detectLeaks));
+    }
+
+    /**
+     * Gets index of size class for the given capacity.
+     *
+     * @param capacity capacity
+     * @return index of size class, or -1 when the capacity cannot be pooled
+     */
+    static int indexOf(int capacity) {
+        if (capacity < 1 || capacity > (1 << MAX_SIZE_CLASS)) {
+            return -1;
+        }
+
+        int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        return bits < MIN_SIZE_CLASS ? 0 : bits - MIN_SIZE_CLASS;
+    }
+
+    /**
+     * Gets index of size class which exactly matches the given capacity.
+     *
+     * @param capacity capacity
+     * @return index of size class, or -1 when there's no exact match
+     */
+    static int exactIndexOf(int capacity) {
+        return Integer.bitCount(capacity) == 1 && capacity >= (1 << MIN_SIZE_CLASS) ? indexOf(capacity) : -1;
+    }
+
+    private final int maxBuffers;
+    private final boolean direct;
+
+    private final Queue<ByteBuffer>[] buffers;
+    private final AtomicInteger[] bufferCounts;
+    private final Queue<byte[]>[] arrays;
+    private final AtomicInteger[] arrayCounts;
+
+    private final LeakDetector detector;
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public BufferPool(int maxBuffers, boolean direct, boolean detectLeaks) {
+        if (maxBuffers < 1) {
+            throw new IllegalArgumentException("Maximum number of buffers must be greater than zero");
+        }
+
+        this.maxBuffers = maxBuffers;
+        this.direct = direct;
+
+        int len = MAX_SIZE_CLASS - MIN_SIZE_CLASS + 1;
+        this.buffers = new Queue[len];
+        this.bufferCounts = new AtomicInteger[len];
+        this.arrays = new Queue[len];
+        this.arrayCounts = new AtomicInteger[len];
+        for (int i = 0; i < len; i++) {
+            this.buffers[i] = new ConcurrentLinkedQueue<>();
+            this.bufferCounts[i] = new AtomicInteger();
+            this.arrays[i] = new ConcurrentLinkedQueue<>();
+            this.arrayCounts[i] = new AtomicInteger();
+        }
+
+        this.detector = detectLeaks ? new LeakDetector() : null;
+    }
+
+    /**
+     * Checks whether direct buffers are used in this pool.
+     *
+     * @return true if direct buffers are used; false otherwise
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Gets a buffer from the pool, or allocates a new one when the pool is empty.
+     * Capacity of the buffer may be larger than requested, but its limit is
+     * always set to {@code capacity}.
+     *
+     * @param capacity minimum capacity of the buffer
+     * @return non-null buffer with position 0 and limit {@code capacity}
+     */
+    public ByteBuffer acquire(int capacity) {
+        int index = indexOf(capacity);
+        ByteBuffer b = null;
+        if (index >= 0 && (b = buffers[index].poll()) != null) {
+            bufferCounts[index].decrementAndGet();
+        }
+        if (b == null) {
+            int size = index >= 0 ? 1 << (index + MIN_SIZE_CLASS) : capacity;
+            b = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+        }
+        ((Buffer) b).clear();
+        ((Buffer) b).limit(capacity);
+
+        if (detector != null) {
+            detector.track(b, b.capacity());
+        }
+        return b;
+    }
+
+    /**
+     * Gets a byte array from the pool, or allocates a new one when the pool is
+     * empty. Unlike {@link #acquire(int)}, length of the byte array always equals
+     * to {@code length}, so only power of 2 will be pooled.
+     *
+     * @param length length of the byte array
+     * @return non-null byte array
+     */
+    public byte[] acquireArray(int length) {
+        int index = exactIndexOf(length);
+        if (index < 0) {
+            return new byte[length];
+        }
+
+        byte[] bytes = arrays[index].poll();
+        if (bytes != null) {
+            arrayCounts[index].decrementAndGet();
+        } else {
+            bytes = new byte[length];
+        }
+
+        if (detector != null) {
+            detector.track(bytes, length);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns buffer into the pool. Nothing will happen when the buffer is not
+     * acquired from a pool or the size class is full.
+     *
+     * @param buffer buffer acquired from {@link #acquire(int)}
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || buffer == ClickHouseByteBuffer.EMPTY_BUFFER) {
+            return;
+        } else if (detector != null) {
+            detector.untrack(buffer);
+        }
+
+        int index = exactIndexOf(buffer.capacity());
+        if (index < 0 || buffer.isDirect() != direct || buffer.isReadOnly()) {
+            return;
+        }
+
+        if (bufferCounts[index].incrementAndGet() <= maxBuffers) {
+            buffers[index].offer(buffer);
+        } else {
+            bufferCounts[index].decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns byte array into the pool. Nothing will happen when the byte array
+     * is not acquired from a pool or the size class is full.
+     *
+     * @param bytes byte array acquired from {@link #acquireArray(int)}
+     */
+    public void release(byte[] bytes) {
+        if (bytes == null || bytes == ClickHouseByteBuffer.EMPTY_BYTES) {
+            return;
+        } else if (detector != null) {
+            detector.untrack(bytes);
+        }
+
+        int index = exactIndexOf(bytes.length);
+        if (index < 0) {
+            return;
+        }
+
+        if (arrayCounts[index].incrementAndGet() <= maxBuffers) {
+            arrays[index].offer(bytes);
+        } else {
+            arrayCounts[index].decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops tracking the given buffer or byte array, which is handed over to
+     * someone else and will never be returned to the pool.
+     *
+     * @param buffer buffer or byte array acquired from the pool
+     */
+    public void detach(Object buffer) {
+        if (detector != null && buffer != null) {
+            detector.untrack(buffer);
+        }
+    }
+
+    /**
+     * Gets number of buffers and byte arrays available in the pool.
+     *
+     * @return number of pooled buffers
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (int i = 0, len = buffers.length; i < len; i++) {
+            count += bufferCounts[i].get() + arrayCounts[i].get();
+        }
+        return count;
+    }
+
+    /**
+     * Gets number of buffers acquired but not yet returned. It's always zero when
+     * leak detection is disabled.
+     *
+     * @return number of buffers in use
+     */
+    public int getTrackedCount() {
+        return detector != null ? detector.getTrackedCount() : 0;
+    }
+
+    /**
+     * Gets number of buffers garbage collected without being returned. It's
+     * always zero when leak detection is disabled.
+     *
+     * @return number of leaked buffers
+     */
+    public int getLeakCount() {
+        if (detector == null) {
+            return 0;
+        }
+
+        detector.report();
+        return detector.leaks.get();
+    }
+}
@@ -0,0 +1,41 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+
+/**
+ * Codec for {@link ClickHouseCompression#BZ2}, which requires optional
+ * {@code org.apache.commons:commons-compress}. Compression level is used as
+ * block size.
+ */
+public class Bz2CompressionCodec implements ClickHouseCompressionCodec {
+    public Bz2CompressionCodec() {
+        // fail early when commons-compress is not available
+        BZip2CompressorOutputStream.class.getName();
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.BZ2;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new BZip2CompressorInputStream(input, true);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        int blockSize = level < 0 ? BZip2CompressorOutputStream.MAX_BLOCKSIZE
+                : Math.max(BZip2CompressorOutputStream.MIN_BLOCKSIZE,
+                        Math.min(level, BZip2CompressorOutputStream.MAX_BLOCKSIZE));
+        return new BZip2CompressorOutputStream(output, blockSize);
+    }
+}
@@ -44,6 +44,58 @@ public interface CapacityPolicy {
         }
     }
 
+    /**
+     * Capacity policy doubles the capacity when the queue has been full for
+     * {@code variation} consecutive times, meaning the reader falls behind, and
+     * halves it (no less than initial size) when the queue has been found empty
+     * for {@code variation} consecutive times, meaning the reader keeps up.
+     */
+    static class AdaptiveCapacity implements CapacityPolicy {
+        private volatile int capacity;
+        private volatile int full;
+        private volatile int idle;
+
+        private final int minSize;
+        private final int maxSize;
+        private final int variation;
+
+        protected AdaptiveCapacity(int initialSize, int maxSize, int variation) {
+            this.minSize = initialSize < 1 ? 1 : initialSize;
+            this.capacity = this.minSize;
+            this.full = 0;
+            this.idle = 0;
+
+            this.maxSize = maxSize < 1 ? Integer.MAX_VALUE : Math.max(maxSize, this.minSize);
+            this.variation = variation < 1 ? 100 : variation;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        @Override
+        public boolean ensureCapacity(int current) {
+            if (current < capacity) {
+                full = 0;
+                if (current > 0 || capacity <= minSize) {
+                    idle = 0;
+                } else if (++idle >= variation) {
+                    idle = 0;
+                    capacity = Math.max(capacity >> 1, minSize);
+                }
+                return true;
+            }
+
+            idle = 0;
+            if (capacity < maxSize && ++full >= variation) {
+                full = 0;
+                capacity = capacity > maxSize >> 1 ? maxSize : capacity << 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
     static CapacityPolicy fixedCapacity(int capacity) {
         return new FixedCapacity(capacity);
     }
@@ -52,5 +104,9 @@ public interface CapacityPolicy {
         return new LinearDynamicCapacity(initialSize, maxSize, variation);
     }
 
+    static CapacityPolicy adaptiveCapacity(int initialSize, int maxSize, int variation) {
+        return new AdaptiveCapacity(initialSize, maxSize, variation);
+    }
+
     boolean ensureCapacity(int current);
 }
@@ -0,0 +1,82 @@
+package com.clickhouse.client.stream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+import com.clickhouse.client.ClickHouseFile;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.config.ClickHouseClientOption;
+
+/**
+ * Wrapper of compressing output stream created by
+ * {@link ClickHouseCompressionCodec}. Unlike {@link WrappedOutputStream},
+ * compression will be finished on close, while the underlying output stream
+ * remains open.
+ */
+public class CompressedOutputStream extends AbstractByteArrayOutputStream {
+    static final class UnclosableOutputStream extends FilterOutputStream {
+        UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    private final OutputStream output;
+
+    @Override
+    protected void flushBuffer(byte[] bytes, int offset, int length) throws IOException {
+        output.write(bytes, offset, length);
+    }
+
+    public CompressedOutputStream(ClickHouseFile file, OutputStream stream, ClickHouseCompressionCodec codec,
+            int compressionLevel, int bufferSize, Runnable postCloseAction) throws IOException {
+        super(file, ClickHouseUtils.getBufferSize(bufferSize,
+                (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue(),
+                (int) ClickHouseClientOption.MAX_BUFFER_SIZE.getDefaultValue()), postCloseAction);
+
+        output = ClickHouseChecker.nonNull(codec, "Codec").compress(
+                new UnclosableOutputStream(ClickHouseChecker.nonNull(stream, "OutputStream")), compressionLevel);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+
+        if (position > 0) {
+            flushBuffer();
+        }
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            if (position > 0) {
+                flushBuffer();
+            }
+            // write trailer if any
+            output.close();
+        } finally {
+            closed = true;
+            if (postCloseAction != null) {
+                postCloseAction.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+
+/**
+ * Codec for {@link ClickHouseCompression#DEFLATE}(zlib format) based on
+ * {@code java.util.zip}.
+ */
+public class DeflateCompressionCodec implements ClickHouseCompressionCodec {
+    static final class DeflateOutputStream extends DeflaterOutputStream {
+        DeflateOutputStream(OutputStream out, Deflater deflater) {
+            super(out, deflater);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    static final class InflateInputStream extends InflaterInputStream {
+        InflateInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.DEFLATE;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new InflateInputStream(input, new Inflater());
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        return new DeflateOutputStream(output,
+                new Deflater(level < 0 ? Deflater.DEFAULT_COMPRESSION : Math.min(level, Deflater.BEST_COMPRESSION)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+
+/**
+ * Codec for {@link ClickHouseCompression#GZIP} based on {@code java.util.zip}.
+ */
+public class GzipCompressionCodec implements ClickHouseCompressionCodec {
+    static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.GZIP;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new GZIPInputStream(input);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        return level < 0 ? new GZIPOutputStream(output)
+                : new LeveledGZIPOutputStream(output, Math.min(level, Deflater.BEST_COMPRESSION));
+    }
+}
@@ -0,0 +1,39 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.tukaani.xz.LZMA2Options;
+import org.tukaani.xz.XZInputStream;
+import org.tukaani.xz.XZOutputStream;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+
+/**
+ * Codec for {@link ClickHouseCompression#LZMA}, which requires optional
+ * {@code org.tukaani:xz}. Same as ClickHouse, data is stored in xz format.
+ */
+public class LzmaCompressionCodec implements ClickHouseCompressionCodec {
+    public LzmaCompressionCodec() {
+        // fail early when xz is not available
+        XZOutputStream.class.getName();
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.LZMA;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new XZInputStream(input);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        return new XZOutputStream(output, new LZMA2Options(level < 0 ? LZMA2Options.PRESET_DEFAULT
+                : Math.min(level, LZMA2Options.PRESET_MAX)));
+    }
+}
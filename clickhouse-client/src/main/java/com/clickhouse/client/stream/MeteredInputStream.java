@@ -0,0 +1,59 @@
+package com.clickhouse.client.stream;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream counts bytes being read or skipped from underlying input stream.
+ */
+public class MeteredInputStream extends FilterInputStream {
+    private long count;
+
+    public MeteredInputStream(InputStream in) {
+        super(in);
+
+        this.count = 0L;
+    }
+
+    /**
+     * Gets number of bytes read or skipped so far.
+     *
+     * @return number of bytes read or skipped
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            count += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0L) {
+            count += skipped;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package com.clickhouse.client.stream;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream counts bytes being written into underlying output stream.
+ */
+public class MeteredOutputStream extends FilterOutputStream {
+    private long count;
+
+    public MeteredOutputStream(OutputStream out) {
+        super(out);
+
+        this.count = 0L;
+    }
+
+    /**
+     * Gets number of bytes written so far.
+     *
+     * @return number of bytes written
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+}
@@ -18,18 +18,49 @@ public class NonBlockingInputStream extends ClickHouseInputStream {
 
     private final AdaptiveQueue<byte[]> queue;
     private final int timeout;
+    private final BufferPool pool;
 
     private byte[] buffer;
     private int position;
+    private boolean retainBuffer;
+
+    private void recycleBuffer() {
+        byte[] b = buffer;
+        if (pool != null && b != null && b != ClickHouseByteBuffer.EMPTY_BYTES) {
+            if (retainBuffer) {
+                pool.detach(b);
+            } else {
+                pool.release(b);
+            }
+        }
+    }
 
     public NonBlockingInputStream(AdaptiveQueue<byte[]> queue, int timeout, Runnable postCloseAction) {
+        this(queue, timeout, postCloseAction, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param queue           non-null queue
+     * @param timeout         read timeout in milliseconds, zero or negative number
+     *                        means no timeout
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the input stream
+     * @param pool            optional buffer pool for returning consumed byte
+     *                        arrays back to the writer
+     */
+    public NonBlockingInputStream(AdaptiveQueue<byte[]> queue, int timeout, Runnable postCloseAction,
+            BufferPool pool) {
         super(null, null, postCloseAction);
 
         this.queue = ClickHouseChecker.nonNull(queue, "Queue");
         this.timeout = timeout > 0 ? timeout : 0;
+        this.pool = pool;
 
         this.buffer = null;
         this.position = 0;
+        this.retainBuffer = false;
     }
 
     @Override
@@ -65,6 +96,7 @@ public class NonBlockingInputStream extends ClickHouseInputStream {
             }
         }
 
+        recycleBuffer();
         buffer = b;
         position = 0;
         int remain = b.length;
@@ -89,8 +121,12 @@ public class NonBlockingInputStream extends ClickHouseInputStream {
         if (closed) {
             return;
         }
-        buffer = ClickHouseByteBuffer.EMPTY_BYTES;
-        super.close();
+        try {
+            recycleBuffer();
+        } finally {
+            buffer = ClickHouseByteBuffer.EMPTY_BYTES;
+            super.close();
+        }
     }
 
     @Override
@@ -106,22 +142,28 @@ public class NonBlockingInputStream extends ClickHouseInputStream {
         if (output == null || output.isClosed()) {
             return count;
         }
-        ensureOpen();
-
-        byte[] b = buffer;
-        int l = b.length;
-        int p = position;
-        int remain = l - p;
-        if (remain > 0) {
-            output.transferBytes(b, p, remain);
-            count += remain;
-            while ((remain = updateBuffer()) > 0) {
-                b = buffer;
-                output.transferBytes(b, 0, remain);
+        // output stream may keep reference of the byte arrays
+        retainBuffer = true;
+        try {
+            ensureOpen();
+
+            byte[] b = buffer;
+            int l = b.length;
+            int p = position;
+            int remain = l - p;
+            if (remain > 0) {
+                output.transferBytes(b, p, remain);
                 count += remain;
+                while ((remain = updateBuffer()) > 0) {
+                    b = buffer;
+                    output.transferBytes(b, 0, remain);
+                    count += remain;
+                }
             }
+            close();
+        } finally {
+            retainBuffer = false;
         }
-        close();
         return count;
     }
 
@@ -210,31 +252,37 @@ public class NonBlockingInputStream extends ClickHouseInputStream {
         int offset = position;
         int length = 0;
         boolean more = true;
-        while (more) {
-            int limit = buffer.length;
-            int remain = limit - position;
-            if (remain < 1) {
-                closeQuietly();
-                more = false;
-            } else {
-                int read = reader.update(buffer, position, limit);
-                if (read == -1) {
-                    length += remain;
-                    position = limit;
-                    list.add(buffer);
-                    if (updateBuffer() < 1) {
-                        closeQuietly();
-                        more = false;
-                    }
+        // returned byte buffer may reference multiple byte arrays
+        retainBuffer = true;
+        try {
+            while (more) {
+                int limit = buffer.length;
+                int remain = limit - position;
+                if (remain < 1) {
+                    closeQuietly();
+                    more = false;
                 } else {
-                    if (read > 0) {
-                        length += read;
-                        position += read;
+                    int read = reader.update(buffer, position, limit);
+                    if (read == -1) {
+                        length += remain;
+                        position = limit;
                         list.add(buffer);
+                        if (updateBuffer() < 1) {
+                            closeQuietly();
+                            more = false;
+                        }
+                    } else {
+                        if (read > 0) {
+                            length += read;
+                            position += read;
+                            list.add(buffer);
+                        }
+                        more = false;
                     }
-                    more = false;
                 }
             }
+        } finally {
+            retainBuffer = false;
         }
         return byteBuffer.update(list, offset, length);
     }
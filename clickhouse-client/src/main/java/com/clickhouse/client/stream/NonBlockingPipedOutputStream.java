@@ -9,6 +9,7 @@ import com.clickhouse.client.ClickHouseOutputStream;
 import com.clickhouse.client.ClickHousePipedOutputStream;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.metrics.Metrics;
 
 /**
  * A combination of {@link java.io.PipedOutputStream} and
@@ -17,13 +18,22 @@ import com.clickhouse.client.config.ClickHouseClientOption;
  * reader are on two separate threads.
  */
 public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
+    /**
+     * Number of consecutive full buffers before doubling buffer size.
+     */
+    static final int GROW_THRESHOLD = 4;
+
     protected final AdaptiveQueue<byte[]> queue;
 
-    protected final int bufferSize;
+    protected final int minBufferSize;
+    protected final int maxBufferSize;
     protected final int timeout;
     protected final byte[][] buckets;
+    protected final BufferPool pool;
 
+    protected int bufferSize;
     protected int current;
+    protected int fullBuffers;
 
     protected byte[] buffer;
     protected int position;
@@ -31,9 +41,11 @@ public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
     private byte[] allocateBuffer() {
         position = 0;
         byte[] b;
-        if (buckets.length - queue.size() > 1) {
+        if (pool != null) {
+            b = pool.acquireArray(bufferSize);
+        } else if (buckets.length - queue.size() > 1) {
             b = buckets[current];
-            if (b == null) {
+            if (b == null || b.length != bufferSize) {
                 b = new byte[bufferSize];
                 buckets[current] = b;
             }
@@ -47,7 +59,46 @@ public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
         return b;
     }
 
+    /**
+     * Adjusts buffer size according to how the current buffer is being sent:
+     * doubles it after a few consecutive full buffers, and halves it when a
+     * buffer is flushed while mostly empty. Nothing changes when
+     * {@link #minBufferSize} equals to {@link #maxBufferSize}.
+     */
+    private void adjustBufferSize() {
+        if (minBufferSize >= maxBufferSize) {
+            return;
+        }
+
+        if (position >= buffer.length) {
+            if (++fullBuffers >= GROW_THRESHOLD && bufferSize < maxBufferSize) {
+                fullBuffers = 0;
+                bufferSize = bufferSize > maxBufferSize >> 1 ? maxBufferSize : bufferSize << 1;
+            }
+        } else {
+            fullBuffers = 0;
+            if (position <= bufferSize >> 2 && bufferSize > minBufferSize) {
+                bufferSize = Math.max(bufferSize >> 1, minBufferSize);
+            }
+        }
+    }
+
     private void updateBuffer(boolean allocateNewBuffer) throws IOException {
+        adjustBufferSize();
+
+        if (pool != null) {
+            if (position < buffer.length) {
+                // partially filled buffer is copied so it can be reused right away
+                updateBuffer(buffer, 0, position);
+                position = 0;
+            } else {
+                offer(buffer);
+                buffer = allocateNewBuffer ? allocateBuffer() : ClickHouseByteBuffer.EMPTY_BYTES;
+                position = 0;
+            }
+            return;
+        }
+
         updateBuffer(buffer, 0, position);
 
         if (allocateNewBuffer) {
@@ -59,13 +110,20 @@ public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
 
     private void updateBuffer(byte[] bytes, int offset, int length) throws IOException {
         byte[] b;
-        if (length < buffer.length) {
+        if (pool != null) {
+            // the reader recycles whatever it gets, so always hand over a copy
+            b = pool.acquireArray(length);
+            System.arraycopy(bytes, offset, b, 0, length);
+        } else if (length < buffer.length) {
             b = new byte[length];
             System.arraycopy(bytes, offset, b, 0, length);
         } else {
             b = bytes;
         }
+        offer(b);
+    }
 
+    private void offer(byte[] b) throws IOException {
         AdaptiveQueue<byte[]> q = queue;
         long t = timeout;
         long startTime = t < 1L ? 0L : System.currentTimeMillis();
@@ -76,28 +134,80 @@ public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
                 throw new IOException(ClickHouseUtils.format("Write timed out after %d ms", t));
             }
         }
+        if (metrics.isEnabled()) {
+            metrics.record(Metrics.PIPED_QUEUE_SIZE, q.size());
+        }
     }
 
     public NonBlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, CapacityPolicy policy,
             Runnable postCloseAction) {
-        super(postCloseAction);
+        this(bufferSize, queueLength, timeout, policy, postCloseAction, null);
+    }
+
+    public NonBlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, CapacityPolicy policy,
+            Runnable postCloseAction, Metrics metrics) {
+        this(bufferSize, queueLength, timeout, policy, postCloseAction, metrics, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param bufferSize      buffer size
+     * @param queueLength     number of buffers can be reused when there's no pool
+     * @param timeout         timeout in milliseconds, zero or negative number means
+     *                        no timeout
+     * @param policy          optional capacity policy of the queue
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the output stream
+     * @param metrics         optional metrics
+     * @param pool            optional buffer pool, which replaces the fixed buckets
+     */
+    public NonBlockingPipedOutputStream(int bufferSize, int queueLength, int timeout, CapacityPolicy policy,
+            Runnable postCloseAction, Metrics metrics, BufferPool pool) {
+        this(bufferSize, bufferSize, queueLength, timeout, policy, postCloseAction, metrics, pool);
+    }
+
+    /**
+     * Creates a piped output stream, whose buffer size is adjusted at runtime
+     * between {@code bufferSize} and {@code maxBufferSize}, according to observed
+     * chunk sizes.
+     *
+     * @param bufferSize      initial and minimum buffer size
+     * @param maxBufferSize   maximum buffer size, same as {@code bufferSize} means
+     *                        fixed buffer size
+     * @param queueLength     number of buffers can be reused when there's no pool
+     * @param timeout         timeout in milliseconds, zero or negative number means
+     *                        no timeout
+     * @param policy          optional capacity policy of the queue
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the output stream
+     * @param metrics         optional metrics
+     * @param pool            optional buffer pool, which replaces the fixed buckets
+     */
+    public NonBlockingPipedOutputStream(int bufferSize, int maxBufferSize, int queueLength, int timeout,
+            CapacityPolicy policy, Runnable postCloseAction, Metrics metrics, BufferPool pool) {
+        super(postCloseAction, metrics);
 
         this.queue = new AdaptiveQueue<>(policy);
 
-        // may need an initialBufferSize and a monitor to update bufferSize in runtime
         this.bufferSize = ClickHouseUtils.getBufferSize(bufferSize,
                 (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue(),
                 (int) ClickHouseClientOption.MAX_BUFFER_SIZE.getDefaultValue());
+        this.minBufferSize = this.bufferSize;
+        this.maxBufferSize = Math.max(this.bufferSize, ClickHouseUtils.getBufferSize(maxBufferSize,
+                this.bufferSize, (int) ClickHouseClientOption.MAX_BUFFER_SIZE.getDefaultValue()));
+        this.fullBuffers = 0;
         this.timeout = timeout;
-        this.buckets = queueLength < 2 ? new byte[0][] : new byte[queueLength][];
+        this.buckets = queueLength < 2 || pool != null ? new byte[0][] : new byte[queueLength][];
+        this.pool = pool;
 
-        this.current = queueLength < 2 ? -1 : 0;
+        this.current = buckets.length == 0 ? -1 : 0;
         this.buffer = allocateBuffer();
     }
 
     @Override
     public ClickHouseInputStream getInputStream(Runnable postCloseAction) {
-        return new NonBlockingInputStream(queue, timeout, postCloseAction);
+        return new NonBlockingInputStream(queue, timeout, postCloseAction, pool);
     }
 
     @Override
@@ -111,6 +221,9 @@ public class NonBlockingPipedOutputStream extends ClickHousePipedOutputStream {
                 updateBuffer(false);
             }
         } finally {
+            if (pool != null) {
+                pool.release(buffer);
+            }
             queue.add(buffer = ClickHouseByteBuffer.EMPTY_BYTES);
             for (int i = 0, len = buckets.length; i < len; i++) {
                 buckets[i] = null;
@@ -0,0 +1,262 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseDataUpdater;
+import com.clickhouse.client.ClickHouseFile;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.ClickHouseCityHash;
+
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Reader from clickhouse in lz4, which reads ahead a few compressed blocks and
+ * verifies as well as decompresses them in a small worker pool. Blocks are
+ * always returned in the same order as they were read from the underlying
+ * input stream.
+ */
+public class ParallelLz4InputStream extends AbstractByteArrayInputStream {
+    private static final LZ4Factory factory = LZ4Factory.fastestInstance();
+
+    static final class WorkerPool {
+        static final ExecutorService executor = ClickHouseUtils.newThreadPool("ClickHouseLz4Worker",
+                Math.max(2, Runtime.getRuntime().availableProcessors()), 0);
+
+        private WorkerPool() {
+        }
+    }
+
+    static final class Block {
+        final byte[] data;
+        final int length;
+
+        Block(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private final LZ4FastDecompressor decompressor;
+    private final InputStream stream;
+    private final ExecutorService executor;
+    private final int readAheadBlocks;
+    private final byte[] header;
+
+    private final Deque<Future<Block>> pendingBlocks;
+    private final Queue<byte[]> compressedPool;
+    private final Queue<byte[]> decompressedPool;
+
+    private boolean eof;
+    private boolean retainBuffer;
+
+    static byte[] acquire(Queue<byte[]> pool, int size) {
+        byte[] bytes;
+        while ((bytes = pool.poll()) != null) {
+            if (bytes.length >= size) {
+                return bytes;
+            }
+        }
+        return new byte[size];
+    }
+
+    private boolean readFully(byte[] b, int off, int len) throws IOException {
+        int n = 0;
+        while (n < len) {
+            int count = stream.read(b, off + n, len - n);
+            if (count < 0) {
+                if (n == 0) {
+                    return false;
+                }
+                throw new IOException(ClickHouseUtils.format(ERROR_INCOMPLETE_READ, n, len));
+            }
+            n += count;
+        }
+
+        return true;
+    }
+
+    private Block decompress(byte[] block, long checksumLow, long checksumHigh) throws IOException {
+        try {
+            // 4 bytes - size of the compressed data including 9 bytes of the header
+            int compressedSizeWithHeader = BinaryStreamUtils.toInt32(block, 1);
+            // 4 bytes - size of uncompressed data
+            int uncompressedSize = BinaryStreamUtils.toInt32(block, 5);
+            long[] real = ClickHouseCityHash.cityHash128(block, 0, compressedSizeWithHeader);
+            if (real[0] != checksumLow || real[1] != checksumHigh) {
+                throw new IOException("Checksum doesn't match: corrupted data.");
+            }
+
+            byte[] buf = acquire(decompressedPool, uncompressedSize);
+            decompressor.decompress(block, 9, buf, 0, uncompressedSize);
+            return new Block(buf, uncompressedSize);
+        } finally {
+            compressedPool.offer(block);
+        }
+    }
+
+    /**
+     * Reads compressed blocks from the underlying input stream until there are
+     * {@code readAheadBlocks} blocks pending or end of the stream is reached.
+     *
+     * @throws IOException when failed to read compressed block
+     */
+    private void readAhead() throws IOException {
+        while (!eof && pendingBlocks.size() < readAheadBlocks) {
+            // checksum(16 bytes) + 1 magic byte + header(8 bytes)
+            if (!readFully(header, 0, Lz4InputStream.HEADER_LENGTH)) {
+                eof = true;
+                break;
+            } else if (header[16] != Lz4InputStream.MAGIC) {
+                // 1 byte - 0x82 (shows this is LZ4)
+                throw new IOException(ClickHouseUtils.format("Magic is not correct - expect [%d] but got [%d]",
+                        Lz4InputStream.MAGIC, header[16]));
+            }
+
+            int compressedSizeWithHeader = BinaryStreamUtils.toInt32(header, 17);
+            int offset = 9;
+            final byte[] block = acquire(compressedPool, compressedSizeWithHeader);
+            System.arraycopy(header, 16, block, 0, offset);
+            // compressed data: compressed_size - 9 bytes
+            if (!readFully(block, offset, compressedSizeWithHeader - offset)) {
+                throw new IOException(
+                        ClickHouseUtils.format(ERROR_INCOMPLETE_READ, 0, compressedSizeWithHeader - offset));
+            }
+
+            final long checksumLow = BinaryStreamUtils.toInt64(header, 0);
+            final long checksumHigh = BinaryStreamUtils.toInt64(header, 8);
+            pendingBlocks.add(executor.submit(() -> decompress(block, checksumLow, checksumHigh)));
+        }
+    }
+
+    private void cancelPendingBlocks() {
+        Future<Block> f;
+        while ((f = pendingBlocks.poll()) != null) {
+            f.cancel(false);
+        }
+    }
+
+    @Override
+    protected int updateBuffer() throws IOException {
+        if (!retainBuffer && buffer != ClickHouseByteBuffer.EMPTY_BYTES) {
+            decompressedPool.offer(buffer);
+        }
+        buffer = ClickHouseByteBuffer.EMPTY_BYTES;
+        position = 0;
+
+        readAhead();
+        Future<Block> future = pendingBlocks.poll();
+        if (future == null) {
+            return limit = 0;
+        }
+
+        final Block block;
+        try {
+            block = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelPendingBlocks();
+            throw new InterruptedIOException("Interrupted while waiting for decompressed block");
+        } catch (ExecutionException e) {
+            cancelPendingBlocks();
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to decompress block", cause != null ? cause : e);
+        }
+
+        // keep workers busy while the block is being consumed
+        readAhead();
+
+        buffer = block.data;
+        if (copyTo != null) {
+            copyTo.write(buffer, 0, block.length);
+        }
+        return limit = block.length;
+    }
+
+    public ParallelLz4InputStream(InputStream stream, int readAheadBlocks) {
+        this(null, stream, readAheadBlocks, null, null);
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param file            optional file
+     * @param stream          non-null input stream
+     * @param readAheadBlocks maximum number of compressed blocks to read ahead,
+     *                        must be greater than zero
+     * @param executor        optional executor for verifying and decompressing
+     *                        blocks, null means the shared worker pool
+     * @param postCloseAction custom action will be performed right after closing
+     *                        the input stream
+     */
+    public ParallelLz4InputStream(ClickHouseFile file, InputStream stream, int readAheadBlocks,
+            ExecutorService executor, Runnable postCloseAction) {
+        super(file, null, postCloseAction);
+
+        this.decompressor = factory.fastDecompressor();
+        this.stream = ClickHouseChecker.nonNull(stream, "InputStream");
+        this.executor = executor != null ? executor : WorkerPool.executor;
+        this.readAheadBlocks = ClickHouseChecker.between(readAheadBlocks, "ReadAheadBlocks", 1, Integer.MAX_VALUE);
+        this.header = new byte[Lz4InputStream.HEADER_LENGTH];
+
+        this.pendingBlocks = new ArrayDeque<>(readAheadBlocks);
+        this.compressedPool = new ConcurrentLinkedQueue<>();
+        this.decompressedPool = new ConcurrentLinkedQueue<>();
+
+        this.eof = false;
+        this.retainBuffer = false;
+    }
+
+    @Override
+    public ClickHouseByteBuffer readCustom(ClickHouseDataUpdater reader) throws IOException {
+        // returned byte buffer may reference multiple blocks
+        retainBuffer = true;
+        try {
+            return super.readCustom(reader);
+        } finally {
+            retainBuffer = false;
+        }
+    }
+
+    @Override
+    public long pipe(ClickHouseOutputStream output) throws IOException {
+        // output may keep reference of transferred blocks, for instance piped
+        // output stream without buffer pool, so they must not be recycled
+        retainBuffer = true;
+        try {
+            return super.pipe(output);
+        } finally {
+            retainBuffer = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                cancelPendingBlocks();
+                stream.close();
+            } finally {
+                compressedPool.clear();
+                decompressedPool.clear();
+                super.close();
+            }
+        }
+    }
+}
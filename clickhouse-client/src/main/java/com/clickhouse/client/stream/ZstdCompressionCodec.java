@@ -0,0 +1,40 @@
+package com.clickhouse.client.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseCompressionCodec;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+
+/**
+ * Codec for {@link ClickHouseCompression#ZSTD}, which requires optional
+ * {@code com.github.luben:zstd-jni}.
+ */
+public class ZstdCompressionCodec implements ClickHouseCompressionCodec {
+    static final int DEFAULT_LEVEL = 3;
+    static final int MAX_LEVEL = 22;
+
+    public ZstdCompressionCodec() {
+        // fail early when native library is not available
+        Native.load();
+    }
+
+    @Override
+    public ClickHouseCompression getAlgorithm() {
+        return ClickHouseCompression.ZSTD;
+    }
+
+    @Override
+    public InputStream decompress(InputStream input) throws IOException {
+        return new ZstdInputStream(input);
+    }
+
+    @Override
+    public OutputStream compress(OutputStream output, int level) throws IOException {
+        return new ZstdOutputStream(output, level < 0 ? DEFAULT_LEVEL : Math.min(level, MAX_LEVEL));
+    }
+}
@@ -7,16 +7,30 @@ module com.clickhouse.client {
     exports com.clickhouse.client.data;
     exports com.clickhouse.client.data.array;
     exports com.clickhouse.client.logging;
+    exports com.clickhouse.client.metrics;
 
     requires static java.logging;
     requires static com.google.gson;
     requires static com.github.benmanes.caffeine;
+    requires static com.codahale.metrics;
+    requires static com.github.luben.zstd_jni;
+    requires static micrometer.core;
+    requires static org.apache.commons.compress;
     requires static org.dnsjava;
     requires static org.lz4.java;
     requires static org.slf4j;
     requires static org.roaringbitmap;
+    requires static org.tukaani.xz;
+
+    provides com.clickhouse.client.ClickHouseCompressionCodec with
+        com.clickhouse.client.stream.Bz2CompressionCodec,
+        com.clickhouse.client.stream.DeflateCompressionCodec,
+        com.clickhouse.client.stream.GzipCompressionCodec,
+        com.clickhouse.client.stream.LzmaCompressionCodec,
+        com.clickhouse.client.stream.ZstdCompressionCodec;
 
     uses com.clickhouse.client.ClickHouseClient;
+    uses com.clickhouse.client.ClickHouseCompressionCodec;
     uses com.clickhouse.client.ClickHouseDataStreamFactory;
     uses com.clickhouse.client.ClickHouseDnsResolver;
     uses com.clickhouse.client.ClickHouseSslContextProvider;
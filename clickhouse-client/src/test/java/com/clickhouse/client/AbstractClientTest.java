@@ -1,10 +1,18 @@
 package com.clickhouse.client;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -195,10 +203,55 @@ public class AbstractClientTest {
         Assert.assertEquals(conn1, new Object[] { req1.getConfig(), req1.getServer() });
         Assert.assertTrue(latch.await(5000L, TimeUnit.MILLISECONDS));
         Assert.assertTrue(client.isInitialized());
-        Assert.assertNull(conn1[0]);
-        Assert.assertNull(conn1[1]);
+        // connection of the other node remains open
+        Assert.assertEquals(conn1, new Object[] { req1.getConfig(), req1.getServer() });
+        Assert.assertTrue(client.getConnection(req1) == conn1);
         Object[] conn2 = client.getConnection(req2);
         Assert.assertTrue(conn1 != conn2);
         Assert.assertEquals(conn2, new Object[] { req2.getConfig(), req2.getServer() });
+        Assert.assertEquals(client.getServer(), req2.getServer());
+
+        client.close();
+        Assert.assertNull(conn1[0]);
+        Assert.assertNull(conn2[0]);
+    }
+
+    @Test(groups = { "unit" })
+    public void testConcurrentGetConnection() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+        SimpleClient client = new SimpleClient() {
+            @Override
+            protected Object[] newConnection(Object[] connection, ClickHouseNode server,
+                    ClickHouseRequest<?> request) {
+                counter.incrementAndGet();
+                return super.newConnection(connection, server, request);
+            }
+        };
+        client.init(new ClickHouseConfig());
+        ClickHouseRequest<?> req1 = client.connect(ClickHouseNode.builder().build());
+        ClickHouseRequest<?> req2 = client
+                .connect(ClickHouseNode.of("127.0.0.1", ClickHouseProtocol.POSTGRESQL, 9100, "test"));
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object[]>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * 10; i++) {
+                ClickHouseRequest<?> req = i % 2 == 0 ? req1 : req2;
+                futures.add(executor.submit(() -> client.getConnection(req)));
+            }
+            Set<Object[]> conns = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Object[]> f : futures) {
+                Object[] conn = f.get(5000L, TimeUnit.MILLISECONDS);
+                Assert.assertNotNull(conn[1]);
+                conns.add(conn);
+            }
+            // one connection per node, regardless of concurrent access
+            Assert.assertEquals(conns.size(), 2);
+            Assert.assertTrue(counter.get() >= 2);
+        } finally {
+            executor.shutdownNow();
+            client.close();
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.clickhouse.client;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.clickhouse.client.ClickHouseResponseSummary.Progress;
+import com.clickhouse.client.ClickHouseResponseSummary.Statistics;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseBulkLoaderTest {
+    /**
+     * Fake client keeping inserted chunks, and failing the first attempt of
+     * chunks containing the given row.
+     */
+    static class FakeClient implements ClickHouseClient {
+        private final ClickHouseConfig config = new ClickHouseConfig();
+        private final String failedRow;
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        final Map<String, String> chunks = new ConcurrentHashMap<>();
+        final List<ClickHouseNode> nodes = Collections.synchronizedList(new ArrayList<>());
+
+        FakeClient(String failedRow) {
+            this.failedRow = failedRow;
+        }
+
+        @Override
+        public boolean accept(ClickHouseProtocol protocol) {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<ClickHouseResponse> execute(ClickHouseRequest<?> request) {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            ClickHouseNode node = request.getServer();
+            return CompletableFuture.supplyAsync(() -> {
+                try (ClickHouseInputStream in = request.getInputStream().get()) {
+                    String chunk = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    if (failedRow != null && chunk.contains(failedRow) && failures.compareAndSet(0, 1)) {
+                        throw new IllegalStateException("Failed to insert into " + node);
+                    }
+                    nodes.add(node);
+                    chunks.put(chunk, node.getHost());
+                    int rows = chunk.split("\n").length;
+                    return ClickHouseSimpleResponse.of(config, ClickHouseColumn.parse("x String"), new Object[0][],
+                            new ClickHouseResponseSummary(new Progress(0L, 0L, 0L, rows, chunk.length()),
+                                    new Statistics(0L, 1L, 0L, false, 0L)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public ClickHouseConfig getConfig() {
+            return config;
+        }
+
+        @Override
+        public void close() {
+            // nothing to close
+        }
+    }
+
+    private String generateRows(int count) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(i).append('\t').append("row\\\n").append(i).append('\n');
+        }
+        return builder.toString();
+    }
+
+    @Test(groups = { "unit" })
+    public void testBuilder() {
+        ClickHouseNode node = ClickHouseNode.of("localhost");
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseBulkLoader.builder().build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseBulkLoader.builder().table("t").build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseBulkLoader.builder().nodes());
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ClickHouseBulkLoader.builder().nodes(node).table("t").format(ClickHouseFormat.CSV).build());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseBulkLoader.builder().nodes(node)
+                .table("t").format(ClickHouseFormat.RowBinary).build());
+        Assert.assertNotNull(ClickHouseBulkLoader.builder().nodes(node).table("t").build());
+    }
+
+    @Test(groups = { "unit" })
+    public void testLoad() throws Exception {
+        ClickHouseNode n1 = ClickHouseNode.of("node1");
+        ClickHouseNode n2 = ClickHouseNode.of("node2");
+        FakeClient client = new FakeClient("\n150\t");
+        String data = generateRows(1000);
+        ClickHouseResponseSummary summary = ClickHouseBulkLoader.builder().client(client).nodes(n1, n2).table("t")
+                .chunkSize(1000).maxInFlight(3).build().load(ClickHouseInputStream.of(data));
+
+        Assert.assertTrue(client.chunks.size() > 10, "Should have been split into many chunks");
+        Assert.assertTrue(client.maxInFlight.get() <= 3, "Too many in-flight chunks: " + client.maxInFlight.get());
+        Assert.assertEquals(client.failures.get(), 1);
+        Assert.assertTrue(client.chunks.containsValue("node1"));
+        Assert.assertTrue(client.chunks.containsValue("node2"));
+
+        int rows = 0;
+        int length = 0;
+        for (String chunk : client.chunks.keySet()) {
+            Assert.assertTrue(chunk.endsWith("\n"), "Chunk should end with a complete row");
+            Assert.assertTrue(chunk.matches("^\\d+\\t[\\s\\S]*"), "Chunk should start with a complete row");
+            rows += chunk.split("\n").length;
+            length += chunk.length();
+        }
+        Assert.assertEquals(length, data.length());
+        Assert.assertEquals(summary.getWrittenRows(), rows);
+        Assert.assertEquals(summary.getWrittenBytes(), data.length());
+        Assert.assertEquals(summary.getStatistics().getBlocks(), client.chunks.size());
+    }
+
+    @Test(groups = { "unit" })
+    public void testLoadWithHeader() throws Exception {
+        FakeClient client = new FakeClient(null);
+        String header = "a\tb\nInt32\tString\n";
+        String data = header + generateRows(100);
+        ClickHouseBulkLoader.builder().client(client).nodes(ClickHouseNode.of("localhost")).table("t")
+                .format(ClickHouseFormat.TSVWithNamesAndTypes).chunkSize(10).build()
+                .load(ClickHouseInputStream.of(data));
+
+        int length = 0;
+        for (String chunk : client.chunks.keySet()) {
+            Assert.assertTrue(chunk.startsWith(header), "Chunk should start with header");
+            length += chunk.length() - header.length();
+        }
+        Assert.assertEquals(length, data.length() - header.length());
+    }
+
+    @Test(groups = { "unit" })
+    public void testLoadFailure() throws Exception {
+        FakeClient client = new FakeClient("\n50\t");
+        ClickHouseBulkLoader loader = ClickHouseBulkLoader.builder().client(client)
+                .nodes(ClickHouseNode.of("localhost")).table("t").chunkSize(100).maxRetries(0).build();
+        ClickHouseException e = Assert.expectThrows(ClickHouseException.class,
+                () -> loader.load(ClickHouseInputStream.of(generateRows(1000))));
+        Assert.assertTrue(e.getMessage().contains("Failed to insert"), e.getMessage());
+    }
+}
@@ -3,9 +3,18 @@ package com.clickhouse.client;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.clickhouse.client.ClickHouseRequest.Mutation;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.metrics.Metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 public class ClickHouseClientTest {
     @Test(groups = { "unit" })
@@ -32,6 +41,33 @@ public class ClickHouseClientTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testStreamMetrics() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.COMPRESS, true);
+        options.put(ClickHouseClientOption.DECOMPRESS, true);
+        ClickHouseConfig config = new ClickHouseConfig(options, null, null, registry);
+
+        byte[] bytes = new byte[10000];
+        ByteArrayOutputStream bas = new ByteArrayOutputStream();
+        try (ClickHouseOutputStream chOut = ClickHouseClient.getRequestOutputStream(config, bas, null)) {
+            chOut.write(bytes);
+        }
+        Assert.assertEquals(registry.get(Metrics.BYTES_OUT).tag("compressed", "false").counter().count(), 10000D);
+        Assert.assertEquals(registry.get(Metrics.BYTES_OUT).tag("compressed", "true").counter().count(),
+                (double) bas.size());
+        Assert.assertTrue(bas.size() < bytes.length);
+
+        try (ClickHouseInputStream chIn = ClickHouseClient.getResponseInputStream(config,
+                new ByteArrayInputStream(bas.toByteArray()), null)) {
+            Assert.assertEquals(chIn.readAllBytes(), bytes);
+        }
+        Assert.assertEquals(registry.get(Metrics.BYTES_IN).tag("compressed", "false").counter().count(), 10000D);
+        Assert.assertEquals(registry.get(Metrics.BYTES_IN).tag("compressed", "true").counter().count(),
+                (double) bas.size());
+    }
+
     @Test(groups = { "unit" })
     public void testQuery() throws Exception {
         ClickHouseClient client = ClickHouseClient.builder().build();
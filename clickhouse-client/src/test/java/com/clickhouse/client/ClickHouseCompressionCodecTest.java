@@ -0,0 +1,64 @@
+package com.clickhouse.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ClickHouseCompressionCodecTest {
+    @DataProvider(name = "compressionProvider")
+    private Object[][] getCompressions() {
+        return new Object[][] { { ClickHouseCompression.BZ2 }, { ClickHouseCompression.DEFLATE },
+                { ClickHouseCompression.GZIP }, { ClickHouseCompression.LZMA }, { ClickHouseCompression.ZSTD } };
+    }
+
+    @Test(dataProvider = "compressionProvider", groups = { "unit" })
+    public void testRoundTrip(ClickHouseCompression compression) throws IOException {
+        if (ClickHouseCompressionCodecs.getCodec(compression) == null) {
+            throw new SkipException("Skip as codec of " + compression + " is not available");
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            builder.append(i).append(",\"row ").append(i).append("\"\n");
+        }
+        byte[] bytes = builder.toString().getBytes(StandardCharsets.UTF_8);
+
+        for (int level : new int[] { -1, 0, 3, 9 }) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ClickHouseOutputStream out = ClickHouseOutputStream.of(compressed, 8192, compression, level, null)) {
+                out.writeBytes(bytes);
+            }
+            if (level != 0) { // could be store only
+                Assert.assertTrue(compressed.size() < bytes.length, "Data should have been compressed");
+            }
+
+            try (ClickHouseInputStream in = ClickHouseInputStream.of(
+                    new ByteArrayInputStream(compressed.toByteArray()), 2048, compression)) {
+                Assert.assertEquals(in.readAllBytes(), bytes);
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testBuiltInCodecs() {
+        Assert.assertEquals(ClickHouseCompressionCodec.of(ClickHouseCompression.DEFLATE).getAlgorithm(),
+                ClickHouseCompression.DEFLATE);
+        Assert.assertEquals(ClickHouseCompressionCodec.of(ClickHouseCompression.GZIP).getAlgorithm(),
+                ClickHouseCompression.GZIP);
+        // optional libraries are on test classpath
+        Assert.assertNotNull(ClickHouseCompressionCodecs.getCodec(ClickHouseCompression.BZ2));
+        Assert.assertNotNull(ClickHouseCompressionCodecs.getCodec(ClickHouseCompression.LZMA));
+        Assert.assertNotNull(ClickHouseCompressionCodecs.getCodec(ClickHouseCompression.ZSTD));
+
+        Assert.assertThrows(UnsupportedOperationException.class,
+                () -> ClickHouseCompressionCodec.of(ClickHouseCompression.ZIP));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> ClickHouseInputStream
+                .of(new ByteArrayInputStream(new byte[0]), 2048, ClickHouseCompression.ZIP));
+    }
+}
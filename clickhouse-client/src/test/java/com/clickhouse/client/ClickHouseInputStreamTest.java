@@ -3,9 +3,13 @@ package com.clickhouse.client;
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
@@ -23,6 +27,24 @@ public class ClickHouseInputStreamTest {
         return new BufferedInputStream(new ByteArrayInputStream(bytes));
     }
 
+    @Test(groups = { "unit" })
+    public void testTransferFile() throws IOException {
+        byte[] bytes = new byte[100000];
+        new Random().nextBytes(bytes);
+        File src = File.createTempFile("transfer_", ".src");
+        src.deleteOnExit();
+        Files.write(src.toPath(), bytes);
+        File dst = File.createTempFile("transfer_", ".dst");
+        dst.deleteOnExit();
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseInputStream.transfer(src, null));
+        try (FileChannel channel = FileChannel.open(dst.toPath(), StandardOpenOption.WRITE)) {
+            Assert.assertEquals(ClickHouseInputStream.transfer(src, channel), bytes.length);
+            Assert.assertTrue(channel.isOpen());
+        }
+        Assert.assertEquals(Files.readAllBytes(dst.toPath()), bytes);
+    }
+
     @Test(groups = { "unit" })
     public void testNullEmptyOrClosedInput() throws IOException {
         ClickHouseInputStream empty = ClickHouseInputStream
@@ -60,6 +60,8 @@ public class ClickHouseLoadBalancingPolicyTest {
                 ClickHouseLoadBalancingPolicy.of(ClickHouseLoadBalancingPolicy.RANDOM));
         Assert.assertEquals(ClickHouseLoadBalancingPolicy.of("RoundRobin"),
                 ClickHouseLoadBalancingPolicy.of(ClickHouseLoadBalancingPolicy.ROUND_ROBIN));
+        Assert.assertEquals(ClickHouseLoadBalancingPolicy.of("LEAST_LATENCY"),
+                ClickHouseLoadBalancingPolicy.of(ClickHouseLoadBalancingPolicy.LEAST_LATENCY));
         // custom policy
         Assert.assertEquals(ClickHouseLoadBalancingPolicy.of(CustomPolicy.class.getName()),
                 ClickHouseLoadBalancingPolicy.of(CustomPolicy.class.getName()));
@@ -354,4 +356,105 @@ public class ClickHouseLoadBalancingPolicyTest {
             }
         }
     }
+
+    @Test(dataProvider = "nodeSelectorProvider", groups = { "unit" })
+    public void testLeastLatency(ClickHouseNodeSelector nodeSelector) throws Exception {
+        int size = 5;
+        int requests = 500;
+        int len = size * requests;
+        int tag = nodeSelector != null && nodeSelector.getPreferredTags().size() > 0
+                ? Integer.parseInt(nodeSelector.getPreferredTags().iterator().next())
+                : -1;
+
+        ClickHouseNodes nodes = createNodes(size, ClickHouseLoadBalancingPolicy.LEAST_LATENCY);
+        Assert.assertTrue(nodes.policy.isLockFree());
+
+        // multi-thread
+        CountDownLatch latch = new CountDownLatch(len);
+        List<ClickHouseNode> results = Collections.synchronizedList(new ArrayList<>(len));
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        for (int i = 0; i < len; i++) {
+            executor.execute(() -> {
+                ClickHouseNode node = nodes.apply(nodeSelector);
+                node.startRequest();
+                results.add(node);
+                node.endRequest(1000L, true);
+                latch.countDown();
+            });
+        }
+
+        if (!latch.await(MAX_WAIT_SECONDS, TimeUnit.SECONDS)) {
+            Assert.fail("Failed to complete operation within " + MAX_WAIT_SECONDS
+                    + " seconds - check exception log to see what's going on");
+        }
+        int[] counters = new int[size];
+        for (int i = 0; i < len; i++) {
+            counters[results.get(i).getPort() - 1] += 1;
+        }
+        for (int i = 0; i < size; i++) {
+            if (tag == -1) {
+                Assert.assertTrue(counters[i] > 0, "All nodes should have been touched");
+            } else if (i == tag) {
+                Assert.assertEquals(counters[i], len);
+            } else {
+                Assert.assertEquals(counters[i], 0);
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testLeastLatencyCost() {
+        int size = 4;
+        int len = 1000;
+        ClickHouseNodes nodes = createNodes(size, ClickHouseLoadBalancingPolicy.LEAST_LATENCY);
+        for (ClickHouseNode node : nodes.nodes) {
+            Assert.assertEquals(node.getInflightRequests(), 0);
+            Assert.assertEquals(node.getResponseTime(), -1L);
+            node.startRequest();
+            Assert.assertEquals(node.getInflightRequests(), 1);
+            node.endRequest(1000L, false);
+            Assert.assertEquals(node.getResponseTime(), -1L);
+            node.startRequest();
+            node.endRequest(1000L, true);
+            Assert.assertEquals(node.getInflightRequests(), 0);
+            Assert.assertEquals(node.getResponseTime(), 1000L);
+        }
+
+        ClickHouseNode slow = nodes.nodes.get(0);
+        for (int i = 0; i < 20; i++) {
+            slow.endRequest(1000000L, true);
+        }
+        Assert.assertTrue(slow.getResponseTime() > 900000L);
+        ClickHouseNode busy = nodes.nodes.get(1);
+        for (int i = 0; i < 100; i++) {
+            busy.startRequest();
+        }
+
+        int[] counters = new int[size];
+        for (int i = 0; i < len; i++) {
+            counters[nodes.apply(null).getPort() - 1] += 1;
+        }
+        // the slow one and the busy one are never picked, unless paired with each other
+        Assert.assertTrue(counters[0] + counters[1] < len / 4, "Slow or busy node should be avoided");
+        Assert.assertTrue(counters[2] > len / 4 && counters[3] > len / 4, "Idle nodes should be preferred");
+
+        // weight
+        ClickHouseNode heavy = ClickHouseNode.builder(nodes.nodes.get(2)).weight(1000).build();
+        ClickHouseNode light = nodes.nodes.get(2);
+        light.startRequest();
+        heavy.startRequest();
+        Assert.assertTrue(ClickHouseLoadBalancingPolicy.LeastLatencyPolicy
+                .getCost(heavy) < ClickHouseLoadBalancingPolicy.LeastLatencyPolicy.getCost(light));
+        Assert.assertEquals(ClickHouseLoadBalancingPolicy.LeastLatencyPolicy.getWeight(ClickHouseNode.builder()
+                .addOption(ClickHouseClientOption.SERVER_WEIGHT.getKey(), "3").build()), 3);
+        Assert.assertEquals(ClickHouseLoadBalancingPolicy.LeastLatencyPolicy
+                .getWeight(ClickHouseNode.builder().weight(-1).build()), 1);
+
+        // no healthy node
+        for (ClickHouseNode node : new ArrayList<>(nodes.nodes)) {
+            nodes.update(node, Status.FAULTY);
+        }
+        Assert.assertEquals(nodes.healthyNodes.length, 0);
+        Assert.assertNotNull(nodes.apply(null));
+    }
 }
@@ -1,14 +1,19 @@
 package com.clickhouse.client;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.clickhouse.client.ClickHouseNode.Status;
 import com.clickhouse.client.config.ClickHouseClientOption;
@@ -524,4 +529,67 @@ public class ClickHouseNodesTest {
             Assert.assertEquals(nodes.faultyNodes.size(), 0);
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testParallelHealthCheck() {
+        List<ClickHouseNode> list = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            list.add(ClickHouseNode.of("http://n" + i + "?health_check_parallelism=3"));
+        }
+        AtomicInteger running = new AtomicInteger(0);
+        AtomicInteger maxRunning = new AtomicInteger(0);
+        Set<ClickHouseNode> checked = Collections.synchronizedSet(new HashSet<>());
+        ClickHouseNodes nodes = new ClickHouseNodes(list) {
+            @Override
+            protected boolean check(ClickHouseNode node, int index, int healthyNodeStartIndex,
+                    Map<List<Object>, ClickHouseClient> clients) {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(100L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                checked.add(node);
+                update(node, index % 2 == 0 ? Status.HEALTHY : Status.FAULTY);
+                return index % 2 == 0;
+            }
+        };
+        for (ClickHouseNode n : list) {
+            nodes.update(n, Status.FAULTY);
+        }
+        Assert.assertEquals(nodes.faultyNodes.size(), 8);
+
+        nodes.check();
+        Assert.assertEquals(checked.size(), 8);
+        Assert.assertTrue(maxRunning.get() > 1 && maxRunning.get() <= 3, "Should check nodes concurrently");
+        Assert.assertEquals(nodes.nodes.size(), 4);
+        Assert.assertEquals(nodes.faultyNodes.size(), 4);
+    }
+
+    @Test(groups = { "unit" })
+    public void testHealthCheckClient() {
+        ClickHouseNode node = ClickHouseNode.of("http://a");
+        Assert.assertEquals(node.getLatency(), -1L);
+        node.updateLatency(1000L);
+        Assert.assertEquals(node.getLatency(), 1000L);
+        node.updateLatency(-5L);
+        Assert.assertEquals(node.getLatency(), -1L);
+
+        Map<List<Object>, ClickHouseClient> clients = new HashMap<>();
+        ClickHouseClient client = ClickHouseNodes.getHealthCheckClient(clients, node);
+        Assert.assertTrue(client == ClickHouseNodes.getHealthCheckClient(clients, ClickHouseNode.of("http://b")),
+                "Client should be reused");
+        Assert.assertEquals(clients.size(), 1);
+        client.close();
+
+        // health check clients are closed after each round, so a deserialized
+        // manager has nothing to restore
+        ClickHouseNodes nodes = new ClickHouseNodes(Collections.singletonList(node));
+        nodes.check();
+        nodes.shutdown();
+        nodes.shutdown();
+    }
 }
@@ -0,0 +1,97 @@
+package com.clickhouse.client;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseResponseTest {
+    static class RecordsOnlyResponse implements ClickHouseResponse {
+        private final ClickHouseResponse response;
+
+        RecordsOnlyResponse(ClickHouseResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public List<ClickHouseColumn> getColumns() {
+            return response.getColumns();
+        }
+
+        @Override
+        public ClickHouseResponseSummary getSummary() {
+            return response.getSummary();
+        }
+
+        @Override
+        public ClickHouseInputStream getInputStream() {
+            return null;
+        }
+
+        @Override
+        public Iterable<ClickHouseRecord> records() {
+            return response.records();
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+
+        @Override
+        public boolean isClosed() {
+            return response.isClosed();
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testDefaultCursor() {
+        ClickHouseResponse response = new RecordsOnlyResponse(ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                ClickHouseColumn.parse("a Nullable(Int32), b String"),
+                new Object[][] { new Object[] { 1, "x" }, new Object[] { null, "y" } }));
+        // no hidden state is kept for responses without cursor support
+        Assert.assertThrows(UnsupportedOperationException.class, () -> response.hasNext());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> response.next());
+        Assert.assertThrows(IllegalStateException.class, () -> response.currentRecord());
+        Assert.assertThrows(IllegalStateException.class, () -> response.getInt(0));
+
+        int count = 0;
+        for (ClickHouseRecord r : response.records()) {
+            Assert.assertNotNull(r.getValue(1).asString());
+            count++;
+        }
+        Assert.assertEquals(count, 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testSimpleResponseCursor() {
+        ClickHouseResponse response = ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                ClickHouseColumn.parse("a Nullable(Int32), b String"),
+                new Object[][] { new Object[] { 1, "x" }, new Object[] { null, "y" } });
+        Assert.assertThrows(IllegalStateException.class, () -> response.currentRecord());
+
+        Assert.assertTrue(response.hasNext());
+        Assert.assertTrue(response.next());
+        Assert.assertEquals(response.getInt(0), 1);
+        byte[] target = new byte[2];
+        Assert.assertEquals(response.getBytes(1, target), 1);
+        Assert.assertEquals(target, new byte[] { 0x78, 0 });
+
+        Assert.assertTrue(response.next());
+        Assert.assertTrue(response.isNull(0));
+        Assert.assertEquals(response.getBytes(0, target), -1);
+        Assert.assertEquals(response.currentRecord().getValue(1).asString(), "y");
+
+        Assert.assertFalse(response.hasNext());
+        Assert.assertFalse(response.next());
+        Assert.assertThrows(IllegalStateException.class, () -> response.currentRecord());
+
+        ClickHouseResponse empty = ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                Arrays.asList(ClickHouseColumn.of("a", "String")), new Object[0][]);
+        Assert.assertFalse(empty.hasNext());
+        Assert.assertFalse(empty.next());
+    }
+}
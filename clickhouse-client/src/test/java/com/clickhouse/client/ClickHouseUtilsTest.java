@@ -8,6 +8,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -179,6 +180,26 @@ public class ClickHouseUtilsTest {
                 newArgs.length());
     }
 
+    @Test(groups = { "unit" })
+    public void testNewVirtualThreadPerTaskExecutor() throws Exception {
+        // Runtime.version() is not available in JDK 8
+        String version = System.getProperty("java.specification.version");
+        int feature = Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+        ExecutorService executor = ClickHouseUtils.newVirtualThreadPerTaskExecutor("test-");
+        if (executor == null) {
+            // virtual thread is a preview feature in JDK 19 and 20
+            Assert.assertTrue(feature < 21, "Virtual thread should be supported in JDK " + feature);
+            return;
+        }
+
+        try {
+            String name = executor.submit(() -> Thread.currentThread().getName()).get();
+            Assert.assertTrue(name.startsWith("test-"), "Unexpected thread name: " + name);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test(groups = { "unit" })
     public void testSkipSingleLineComment() {
         String args = "select 1 -- select one\n union all select 2 -- select two--";
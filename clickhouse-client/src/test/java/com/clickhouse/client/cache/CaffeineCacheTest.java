@@ -41,5 +41,11 @@ public class CaffeineCacheTest {
         m.clear();
         m.put("D", "D");
         Assert.assertEquals(c.asMap(), m);
+
+        Assert.assertEquals(cache.getHitCount(), 0L);
+        Assert.assertEquals(cache.getMissCount(), 4L);
+        Assert.assertEquals(cache.get("D"), "D");
+        Assert.assertEquals(cache.getHitCount(), 1L);
+        Assert.assertEquals(cache.getHitRatio(), 0.2D);
     }
 }
@@ -36,5 +36,11 @@ public class JdkLruCacheTest {
         m.remove("A");
         m.put("D", "D");
         Assert.assertEquals(map, m);
+
+        Assert.assertEquals(cache.getHitCount(), 0L);
+        Assert.assertEquals(cache.getMissCount(), 4L);
+        Assert.assertEquals(cache.get("D"), "D");
+        Assert.assertEquals(cache.getHitCount(), 1L);
+        Assert.assertEquals(cache.getHitRatio(), 0.2D);
     }
 }
@@ -0,0 +1,227 @@
+package com.clickhouse.client.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataStreamFactory;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseClientOption;
+
+public class ClickHouseNativeProcessorTest {
+    private static void writeHeader(ByteArrayOutputStream out, String name, String type) throws IOException {
+        BinaryStreamUtils.writeString(out, name);
+        BinaryStreamUtils.writeString(out, type);
+    }
+
+    private static void writeLowCardinality(ByteArrayOutputStream out, String[] keys, int... indexes)
+            throws IOException {
+        BinaryStreamUtils.writeInt64(out, 1L); // version
+        writeLowCardinalityData(out, keys, indexes);
+    }
+
+    private static void writeLowCardinalityData(ByteArrayOutputStream out, String[] keys, int... indexes)
+            throws IOException {
+        BinaryStreamUtils.writeInt64(out, 1L << 9); // UInt8 index with additional keys
+        BinaryStreamUtils.writeInt64(out, keys.length);
+        for (String k : keys) {
+            BinaryStreamUtils.writeString(out, k);
+        }
+        BinaryStreamUtils.writeInt64(out, indexes.length);
+        for (int i : indexes) {
+            out.write(i);
+        }
+    }
+
+    /**
+     * Generates two blocks for
+     * {@code a Int32, s Nullable(String), l LowCardinality(Nullable(String)), arr Array(UInt8)}.
+     */
+    private static byte[] generateBlocks() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // block #1: 2 rows
+        BinaryStreamUtils.writeVarInt(out, 4);
+        BinaryStreamUtils.writeVarInt(out, 2);
+        writeHeader(out, "a", "Int32");
+        BinaryStreamUtils.writeInt32(out, 1);
+        BinaryStreamUtils.writeInt32(out, -1);
+        writeHeader(out, "s", "Nullable(String)");
+        out.write(new byte[] { 0, 1 });
+        BinaryStreamUtils.writeString(out, "x");
+        BinaryStreamUtils.writeString(out, "");
+        writeHeader(out, "l", "LowCardinality(Nullable(String))");
+        writeLowCardinality(out, new String[] { "", "b" }, 1, 0);
+        writeHeader(out, "arr", "Array(UInt8)");
+        BinaryStreamUtils.writeInt64(out, 2L);
+        BinaryStreamUtils.writeInt64(out, 3L);
+        out.write(new byte[] { 1, 2, (byte) 0xFF });
+
+        // block #2: 1 row
+        BinaryStreamUtils.writeVarInt(out, 4);
+        BinaryStreamUtils.writeVarInt(out, 1);
+        writeHeader(out, "a", "Int32");
+        BinaryStreamUtils.writeInt32(out, 2);
+        writeHeader(out, "s", "Nullable(String)");
+        out.write(0);
+        BinaryStreamUtils.writeString(out, "y");
+        writeHeader(out, "l", "LowCardinality(Nullable(String))");
+        writeLowCardinality(out, new String[] { "", "c" }, 1);
+        writeHeader(out, "arr", "Array(UInt8)");
+        BinaryStreamUtils.writeInt64(out, 0L);
+        return out.toByteArray();
+    }
+
+    private ClickHouseNativeProcessor newProcessor(byte[] bytes) throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.FORMAT, ClickHouseFormat.Native), null, null, null);
+        ClickHouseDataProcessor processor = ClickHouseDataStreamFactory.getInstance().getProcessor(config,
+                ClickHouseInputStream.of(bytes), null, null, null);
+        Assert.assertTrue(processor instanceof ClickHouseNativeProcessor);
+        return (ClickHouseNativeProcessor) processor;
+    }
+
+    @Test(groups = { "unit" })
+    public void testEmptyResponse() throws IOException {
+        ClickHouseNativeProcessor p = newProcessor(new byte[0]);
+        Assert.assertEquals(p.getColumns().size(), 0);
+        Assert.assertFalse(p.records().iterator().hasNext());
+        Assert.assertFalse(p.blocks().iterator().hasNext());
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadRecords() throws IOException {
+        ClickHouseNativeProcessor p = newProcessor(generateBlocks());
+        Assert.assertEquals(p.getColumns().size(), 4);
+        Assert.assertEquals(p.getColumns().get(2).getColumnName(), "l");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (ClickHouseRecord r : p.records()) {
+            Object[] row = new Object[r.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = r.getValue(i).asObject();
+            }
+            rows.add(row);
+        }
+        Assert.assertEquals(rows.size(), 3);
+        Assert.assertEquals(rows.get(0), new Object[] { 1, "x", "b", new short[] { 1, 2 } });
+        Assert.assertEquals(rows.get(1), new Object[] { -1, null, null, new short[] { 255 } });
+        Assert.assertEquals(rows.get(2), new Object[] { 2, "y", "c", new short[0] });
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadValues() throws IOException {
+        ClickHouseNativeProcessor p = newProcessor(generateBlocks());
+        List<Object> values = new ArrayList<>();
+        for (ClickHouseValue v : p.values()) {
+            values.add(v.isNullOrEmpty() ? null : v.asString());
+        }
+        Assert.assertEquals(values, Arrays.asList("1", "x", "b", "[1, 2]", "-1", null, null, "[255]", "2", "y",
+                "c", null));
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadBlocks() throws IOException {
+        ClickHouseNativeProcessor p = newProcessor(generateBlocks());
+        int count = 0;
+        long sum = 0L;
+        for (ClickHouseNativeProcessor.Block b : p.blocks()) {
+            Assert.assertEquals(b.getColumnCount(), 4);
+            Assert.assertTrue(b.getColumnData(0) instanceof int[]);
+            int[] a = (int[]) b.getColumnData(0);
+            for (int i = 0; i < b.getRowCount(); i++) {
+                sum += a[i];
+            }
+            count += b.getRowCount();
+        }
+        Assert.assertEquals(count, 3);
+        Assert.assertEquals(sum, 2L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadComplexTypes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 3);
+        BinaryStreamUtils.writeVarInt(out, 2);
+        writeHeader(out, "t", "Tuple(UInt16, Nullable(Float64))");
+        out.write(new byte[] { 1, 0, 2, 0 });
+        out.write(new byte[] { 0, 1 });
+        BinaryStreamUtils.writeFloat64(out, 1.5D);
+        BinaryStreamUtils.writeFloat64(out, 0D);
+        writeHeader(out, "m", "Map(String, Int32)");
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeString(out, "k");
+        BinaryStreamUtils.writeInt32(out, 3);
+        writeHeader(out, "p", "Point");
+        BinaryStreamUtils.writeFloat64(out, 1D);
+        BinaryStreamUtils.writeFloat64(out, 2D);
+        BinaryStreamUtils.writeFloat64(out, 3D);
+        BinaryStreamUtils.writeFloat64(out, 4D);
+
+        ClickHouseNativeProcessor p = newProcessor(out.toByteArray());
+        ClickHouseNativeProcessor.Block b = p.blocks().iterator().next();
+        Assert.assertEquals(b.getRowCount(), 2);
+        Assert.assertEquals(b.getObject(0, 0), Arrays.asList(1, 1.5D));
+        Assert.assertEquals(b.getObject(0, 1), Arrays.asList(2, null));
+        Assert.assertEquals(((Map<?, ?>) b.getObject(1, 0)).get("k"), 3);
+        Assert.assertTrue(((Map<?, ?>) b.getObject(1, 1)).isEmpty());
+        Assert.assertEquals(b.getObject(2, 0), new double[] { 1D, 3D });
+        Assert.assertEquals(b.getObject(2, 1), new double[] { 2D, 4D });
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadNestedLowCardinality() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryStreamUtils.writeVarInt(out, 3);
+        BinaryStreamUtils.writeVarInt(out, 2);
+        // prefix, offsets and then data
+        writeHeader(out, "a", "Array(LowCardinality(String))");
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeInt64(out, 2L);
+        BinaryStreamUtils.writeInt64(out, 3L);
+        writeLowCardinalityData(out, new String[] { "", "x", "y" }, 1, 2, 1);
+        writeHeader(out, "m", "Map(LowCardinality(String), String)");
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeInt64(out, 1L);
+        writeLowCardinalityData(out, new String[] { "", "k" }, 1);
+        BinaryStreamUtils.writeString(out, "v");
+        // prefixes of all elements go first
+        writeHeader(out, "t", "Tuple(LowCardinality(String), LowCardinality(String))");
+        BinaryStreamUtils.writeInt64(out, 1L);
+        BinaryStreamUtils.writeInt64(out, 1L);
+        writeLowCardinalityData(out, new String[] { "", "a", "b" }, 1, 2);
+        writeLowCardinalityData(out, new String[] { "", "c" }, 1, 1);
+
+        ClickHouseNativeProcessor p = newProcessor(out.toByteArray());
+        ClickHouseNativeProcessor.Block b = p.blocks().iterator().next();
+        Assert.assertEquals(b.getRowCount(), 2);
+        Assert.assertEquals(b.getObject(0, 0), new String[] { "x", "y" });
+        Assert.assertEquals(b.getObject(0, 1), new String[] { "x" });
+        Assert.assertEquals(((Map<?, ?>) b.getObject(1, 0)).get("k"), "v");
+        Assert.assertTrue(((Map<?, ?>) b.getObject(1, 1)).isEmpty());
+        Assert.assertEquals(b.getObject(2, 0), Arrays.asList("a", "c"));
+        Assert.assertEquals(b.getObject(2, 1), Arrays.asList("b", "c"));
+    }
+
+    @Test(groups = { "unit" })
+    public void testWriteNotSupported() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig(
+                Collections.singletonMap(ClickHouseClientOption.FORMAT, ClickHouseFormat.Native), null, null, null);
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseDataStreamFactory.getInstance()
+                .getProcessor(config, null, ClickHouseOutputStream.of(new ByteArrayOutputStream()), null, null));
+    }
+}
@@ -2,10 +2,13 @@ package com.clickhouse.client.data;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,8 +16,13 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
 import com.clickhouse.client.data.array.ClickHouseByteArrayValue;
 import com.clickhouse.client.data.array.ClickHouseShortArrayValue;
 
@@ -337,4 +345,103 @@ public class ClickHouseRowBinaryProcessorTest {
                 BinaryStreamUtilsTest.generateBytes(1, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0,
                         0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 0x05, 0xa8, 0xc0));
     }
+
+    @Test(groups = { "unit" })
+    public void testCompiledDeserializer() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        Object[][] samples = new Object[][] {
+                { "Nullable(UInt8)", new int[] { 1 } },
+                { "Nullable(UInt8)", new int[] { 0, 5 } },
+                { "LowCardinality(Nullable(String))", new int[] { 0, 1, 0x61 } },
+                { "SimpleAggregateFunction(any, Nullable(Int8))", new int[] { 0, 3 } },
+                { "Array(Nullable(Int8))", new int[] { 2, 0, 1, 1 } },
+                { "Array(UInt32)", new int[] { 1, 2, 0, 0, 0 } },
+                { "Array(Array(UInt8))", new int[] { 1, 2, 1, 2 } },
+                { "Array(Map(String, Tuple(Nullable(UInt8), UInt16)))",
+                        new int[] { 1, 3, 1, 0x61, 1, 3, 0, 1, 0x62, 0, 1, 2, 0, 1, 0x63, 0, 2, 1, 0 } },
+                { "Nested(n1 UInt8, n2 Nullable(String), n3 Int16)", new int[] { 1, 1, 1, 0, 1, 0x32, 1, 3, 0 } },
+                { "Tuple(UInt8, String)", new int[] { 1, 1, 0x61 } }, };
+        for (Object[] sample : samples) {
+            ClickHouseColumn column = ClickHouseColumn.of("a", (String) sample[0]);
+            int[] bytes = (int[]) sample[1];
+            ClickHouseValue expected = ClickHouseRowBinaryProcessor.getMappedFunctions().deserialize(null, config,
+                    column, BinaryStreamUtilsTest.generateInput(bytes));
+            ClickHouseValue actual = ClickHouseRowBinaryProcessor.getMappedFunctions().compile(column)
+                    .deserialize(null, config, column, BinaryStreamUtilsTest.generateInput(bytes));
+            Assert.assertEquals(actual.getClass(), expected.getClass(), column.getOriginalTypeName());
+            Assert.assertEquals(actual.asObject(), expected.asObject(), column.getOriginalTypeName());
+        }
+
+        ClickHouseColumn column = ClickHouseColumn.of("a", "Object('json')");
+        Assert.assertThrows(IllegalArgumentException.class, () -> ClickHouseRowBinaryProcessor.getMappedFunctions()
+                .compile(column).deserialize(null, config, column, BinaryStreamUtilsTest.generateInput(1)));
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadRecords() throws IOException {
+        ClickHouseConfig config = new ClickHouseConfig();
+        ClickHouseRowBinaryProcessor p = new ClickHouseRowBinaryProcessor(config,
+                BinaryStreamUtilsTest.generateInput(1, 0, 1, 0x61, 1, 0, 2, 1, 0, 1, 0x62, 0),
+                null, ClickHouseColumn.parse("a UInt8, b Nullable(String), c Array(Nullable(Int8))"), null);
+        int count = 0;
+        for (ClickHouseRecord r : p.records()) {
+            if (count++ == 0) {
+                Assert.assertEquals(r.getValue(0).asObject(), (short) 1);
+                Assert.assertEquals(r.getValue(1).asObject(), "a");
+                Assert.assertEquals(r.getValue(2).asObject(), new Byte[] { (byte) 2 });
+            } else {
+                Assert.assertEquals(r.getValue(0).asObject(), (short) 1);
+                Assert.assertEquals(r.getValue(1).asObject(), "b");
+                Assert.assertEquals(r.getValue(2).asObject(), new Byte[0]);
+            }
+        }
+        Assert.assertEquals(count, 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testCursor() throws IOException {
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.put(ClickHouseClientOption.FORMAT, ClickHouseFormat.RowBinary);
+        options.put(ClickHouseClientOption.REUSE_VALUE_WRAPPER, false);
+        ClickHouseConfig config = new ClickHouseConfig(options, null, null, null);
+        int[] bytes = new int[] { 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0xF8, 0x3F, 2, 0x61, 0x62, 0xFF, 0xFF, 0xFF,
+                0xFF, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Int32, b Nullable(Int64), c Float64, d String");
+        ClickHouseResponse response = ClickHouseStreamResponse.of(config, BinaryStreamUtilsTest.generateInput(bytes),
+                columns);
+        Assert.assertThrows(IllegalStateException.class, () -> response.getInt(0));
+        Assert.assertTrue(response.hasNext());
+        Assert.assertTrue(response.next());
+        ClickHouseRecord r = response.currentRecord();
+        Assert.assertEquals(response.getInt(0), 1);
+        Assert.assertTrue(response.isNull(1));
+        Assert.assertEquals(response.getLong(1), 0L);
+        Assert.assertEquals(response.getDouble(2), 1.5D);
+        byte[] target = new byte[1];
+        Assert.assertEquals(response.getBytes(3, target), 2);
+        Assert.assertEquals(target, new byte[] { 0x61 });
+
+        Assert.assertTrue(response.next());
+        // same record and values are updated in place
+        Assert.assertTrue(response.currentRecord() == r);
+        Assert.assertEquals(response.getInt(0), -1);
+        Assert.assertFalse(response.isNull(1));
+        Assert.assertEquals(response.getLong(1), 5L);
+        Assert.assertEquals(response.getDouble(2), 0D);
+        Assert.assertEquals(response.getBytes(3, target), 0);
+
+        Assert.assertFalse(response.hasNext());
+        Assert.assertFalse(response.next());
+        Assert.assertThrows(IllegalStateException.class, () -> response.currentRecord());
+
+        // records are copied when value wrapper is not reused
+        List<ClickHouseRecord> list = new ArrayList<>();
+        for (ClickHouseRecord rec : ClickHouseStreamResponse
+                .of(config, BinaryStreamUtilsTest.generateInput(bytes), columns).records()) {
+            list.add(rec);
+        }
+        Assert.assertEquals(list.size(), 2);
+        Assert.assertEquals(list.get(0).getValue(0).asInteger(), 1);
+        Assert.assertEquals(list.get(1).getValue(0).asInteger(), -1);
+    }
 }
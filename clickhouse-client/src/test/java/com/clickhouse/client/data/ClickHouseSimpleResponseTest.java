@@ -114,4 +114,34 @@ public class ClickHouseSimpleResponseTest {
             i++;
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testCursor() {
+        Assert.assertFalse(ClickHouseResponse.EMPTY.hasNext());
+        Assert.assertFalse(ClickHouseResponse.EMPTY.next());
+        Assert.assertThrows(IllegalStateException.class, () -> ClickHouseResponse.EMPTY.currentRecord());
+
+        ClickHouseResponse resp = ClickHouseSimpleResponse.of(config,
+                ClickHouseColumn.parse("a Nullable(Int32), b UInt64, c String"),
+                new Object[][] { new Object[] { null, 1L, "ccc1" }, new Object[] { 2, 3L, null } });
+        Assert.assertThrows(IllegalStateException.class, () -> resp.currentRecord());
+        Assert.assertTrue(resp.hasNext());
+        Assert.assertTrue(resp.next());
+        Assert.assertTrue(resp.isNull(0));
+        Assert.assertEquals(resp.getInt(0), 0);
+        Assert.assertEquals(resp.getLong(1), 1L);
+        Assert.assertEquals(resp.getDouble(1), 1D);
+        byte[] bytes = new byte[10];
+        Assert.assertEquals(resp.getBytes(2, bytes), 4);
+        Assert.assertEquals(new String(bytes, 0, 4), "ccc1");
+
+        Assert.assertTrue(resp.next());
+        Assert.assertFalse(resp.isNull(0));
+        Assert.assertEquals(resp.getInt(0), 2);
+        Assert.assertEquals(resp.getLong(1), 3L);
+        Assert.assertEquals(resp.getBytes(2, bytes), -1);
+        Assert.assertFalse(resp.hasNext());
+        Assert.assertFalse(resp.next());
+        Assert.assertThrows(IllegalStateException.class, () -> resp.currentRecord());
+    }
 }
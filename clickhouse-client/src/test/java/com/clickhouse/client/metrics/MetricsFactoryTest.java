@@ -0,0 +1,66 @@
+package com.clickhouse.client.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class MetricsFactoryTest {
+    @Test(groups = { "unit" })
+    public void testOf() {
+        Assert.assertEquals(MetricsFactory.of(null), Metrics.NOOP);
+        Assert.assertFalse(Metrics.NOOP.isEnabled());
+        Assert.assertEquals(MetricsFactory.of(new Object()), Metrics.NOOP);
+
+        Metrics metrics = new DropwizardMetrics(new MetricRegistry());
+        Assert.assertTrue(MetricsFactory.of(metrics) == metrics);
+
+        Assert.assertTrue(MetricsFactory.of(new SimpleMeterRegistry()) instanceof MicrometerMetrics);
+        Assert.assertTrue(MetricsFactory.of(new MetricRegistry()) instanceof DropwizardMetrics);
+    }
+
+    @Test(groups = { "unit" })
+    public void testMicrometer() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics metrics = MetricsFactory.of(registry);
+        Assert.assertTrue(metrics.isEnabled());
+
+        metrics.increment(Metrics.BYTES_IN, 3L, "compressed", "false");
+        metrics.increment(Metrics.BYTES_IN, 5L, "compressed", "false");
+        metrics.increment(Metrics.BYTES_IN, 2L, "compressed", "true");
+        Assert.assertEquals(registry.get(Metrics.BYTES_IN).tag("compressed", "false").counter().count(), 8D);
+        Assert.assertEquals(registry.get(Metrics.BYTES_IN).tag("compressed", "true").counter().count(), 2D);
+
+        metrics.record(Metrics.PIPED_QUEUE_SIZE, 3L);
+        metrics.record(Metrics.PIPED_QUEUE_SIZE, 5L);
+        Assert.assertEquals(registry.get(Metrics.PIPED_QUEUE_SIZE).summary().count(), 2L);
+        Assert.assertEquals(registry.get(Metrics.PIPED_QUEUE_SIZE).summary().max(), 5D);
+
+        metrics.recordTime(Metrics.REQUEST_LATENCY, TimeUnit.MILLISECONDS.toNanos(3L), "node", "a");
+        Assert.assertEquals(registry.get(Metrics.REQUEST_LATENCY).tag("node", "a").timer().count(), 1L);
+        Assert.assertEquals(
+                registry.get(Metrics.REQUEST_LATENCY).tag("node", "a").timer().totalTime(TimeUnit.MILLISECONDS), 3D);
+    }
+
+    @Test(groups = { "unit" })
+    public void testDropwizard() {
+        MetricRegistry registry = new MetricRegistry();
+        Metrics metrics = MetricsFactory.of(registry);
+        Assert.assertTrue(metrics.isEnabled());
+
+        metrics.increment(Metrics.ROWS_DECODED, 7L);
+        metrics.increment(Metrics.FAILOVER, 1L, "node", "a");
+        Assert.assertEquals(registry.counter(Metrics.ROWS_DECODED).getCount(), 7L);
+        Assert.assertEquals(registry.counter(Metrics.FAILOVER + ".a").getCount(), 1L);
+
+        metrics.record(Metrics.EXECUTOR_QUEUE_SIZE, 3L, "executor", "b");
+        Assert.assertEquals(registry.histogram(Metrics.EXECUTOR_QUEUE_SIZE + ".b").getCount(), 1L);
+
+        metrics.recordTime(Metrics.REQUEST_LATENCY, 1000L, "node", "c");
+        Assert.assertEquals(registry.timer(Metrics.REQUEST_LATENCY + ".c").getCount(), 1L);
+    }
+}
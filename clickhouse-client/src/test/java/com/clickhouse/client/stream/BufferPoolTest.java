@@ -0,0 +1,177 @@
+package com.clickhouse.client.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataStreamFactory;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHousePipedOutputStream;
+import com.clickhouse.client.config.ClickHouseClientOption;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class BufferPoolTest {
+    @DataProvider(name = "pools")
+    private Object[][] getPools() {
+        return new Object[][] { { false }, { true } };
+    }
+
+    private byte[] generateBytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private byte[] roundTrip(ClickHousePipedOutputStream out, byte[] bytes, int chunkSize) throws Exception {
+        CompletableFuture<byte[]> future = CompletableFuture.supplyAsync(() -> {
+            try (ClickHouseInputStream in = out.getInputStream()) {
+                return in.readAllBytes();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        try (ClickHousePipedOutputStream o = out) {
+            for (int i = 0; i < bytes.length; i += chunkSize) {
+                o.writeBytes(bytes, i, Math.min(chunkSize, bytes.length - i));
+                if (i % (chunkSize * 3) == 0) {
+                    o.flush();
+                }
+            }
+            // foreign byte array should be copied before sending to the reader
+            o.transferBytes(bytes, 0, 10);
+        }
+        return future.get();
+    }
+
+    @Test(groups = { "unit" })
+    public void testIndexOf() {
+        Assert.assertEquals(BufferPool.indexOf(0), -1);
+        Assert.assertEquals(BufferPool.indexOf(1), 0);
+        Assert.assertEquals(BufferPool.indexOf(512), 0);
+        Assert.assertEquals(BufferPool.indexOf(513), 1);
+        Assert.assertEquals(BufferPool.indexOf(8192), 4);
+        Assert.assertEquals(BufferPool.indexOf(1 << BufferPool.MAX_SIZE_CLASS),
+                BufferPool.MAX_SIZE_CLASS - BufferPool.MIN_SIZE_CLASS);
+        Assert.assertEquals(BufferPool.indexOf((1 << BufferPool.MAX_SIZE_CLASS) + 1), -1);
+
+        Assert.assertEquals(BufferPool.exactIndexOf(1), -1);
+        Assert.assertEquals(BufferPool.exactIndexOf(512), 0);
+        Assert.assertEquals(BufferPool.exactIndexOf(1000), -1);
+        Assert.assertEquals(BufferPool.exactIndexOf(1024), 1);
+    }
+
+    @Test(groups = { "unit" })
+    public void testAcquireAndRelease() {
+        Assert.assertNull(BufferPool.of(0, false, false));
+        Assert.assertTrue(BufferPool.of(1, false, false) == BufferPool.of(1, false, false));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new BufferPool(0, false, false));
+
+        BufferPool pool = new BufferPool(2, false, false);
+        ByteBuffer b1 = pool.acquire(1000);
+        Assert.assertEquals(b1.capacity(), 1024);
+        Assert.assertEquals(b1.limit(), 1000);
+        Assert.assertEquals(b1.position(), 0);
+        b1.put((byte) 1);
+        pool.release(b1);
+        Assert.assertEquals(pool.getPooledCount(), 1);
+
+        ByteBuffer b2 = pool.acquire(1024);
+        Assert.assertTrue(b2 == b1);
+        Assert.assertEquals(b2.position(), 0);
+        Assert.assertEquals(b2.limit(), 1024);
+        Assert.assertEquals(pool.getPooledCount(), 0);
+
+        // not pooled
+        pool.release(ByteBuffer.allocate(1000));
+        pool.release(ByteBuffer.allocateDirect(1024));
+        Assert.assertEquals(pool.getPooledCount(), 0);
+
+        // bounded
+        for (int i = 0; i < 5; i++) {
+            pool.release(ByteBuffer.allocate(2048));
+            pool.release(new byte[2048]);
+        }
+        Assert.assertEquals(pool.getPooledCount(), 4);
+
+        byte[] bytes = pool.acquireArray(2048);
+        Assert.assertEquals(bytes.length, 2048);
+        Assert.assertEquals(pool.getPooledCount(), 3);
+        Assert.assertEquals(pool.acquireArray(1000).length, 1000);
+        Assert.assertEquals(pool.getPooledCount(), 3);
+
+        pool = new BufferPool(1, true, false);
+        Assert.assertTrue(pool.isDirect());
+        Assert.assertTrue(pool.acquire(100).isDirect());
+    }
+
+    @Test(groups = { "unit" })
+    public void testLeakDetection() {
+        BufferPool pool = new BufferPool(2, false, true);
+        ByteBuffer b = pool.acquire(4096);
+        byte[] bytes = pool.acquireArray(4096);
+        Assert.assertEquals(pool.getTrackedCount(), 2);
+        pool.release(b);
+        pool.detach(bytes);
+        Assert.assertEquals(pool.getTrackedCount(), 0);
+        Assert.assertEquals(pool.getLeakCount(), 0);
+
+        Assert.assertNotNull(pool.acquireArray(1024));
+        Assert.assertEquals(pool.getTrackedCount(), 1);
+        for (int i = 0; i < 10 && pool.getLeakCount() == 0; i++) {
+            System.gc(); // NOSONAR
+        }
+        Assert.assertTrue(pool.getLeakCount() <= 1);
+    }
+
+    @Test(dataProvider = "pools", groups = { "unit" })
+    public void testBlockingPipedStream(boolean direct) throws Exception {
+        BufferPool pool = new BufferPool(4, direct, true);
+        byte[] bytes = generateBytes(100000);
+        byte[] expected = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, expected, 0, bytes.length);
+        System.arraycopy(bytes, 0, expected, bytes.length, 10);
+
+        for (int chunkSize : new int[] { 1, 100, 1024, 5000 }) {
+            Assert.assertEquals(roundTrip(new BlockingPipedOutputStream(1024, 2, 10000, null, null, pool), bytes,
+                    chunkSize), expected);
+        }
+        Assert.assertTrue(pool.getPooledCount() > 0);
+        Assert.assertEquals(pool.getTrackedCount(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testNonBlockingPipedStream() throws Exception {
+        BufferPool pool = new BufferPool(4, false, true);
+        byte[] bytes = generateBytes(100000);
+        byte[] expected = new byte[bytes.length + 10];
+        System.arraycopy(bytes, 0, expected, 0, bytes.length);
+        System.arraycopy(bytes, 0, expected, bytes.length, 10);
+
+        for (int chunkSize : new int[] { 100, 1024, 5000 }) {
+            Assert.assertEquals(roundTrip(new NonBlockingPipedOutputStream(1024, 2, 10000,
+                    CapacityPolicy.fixedCapacity(2), null, null, pool), bytes, chunkSize), expected);
+        }
+        Assert.assertTrue(pool.getPooledCount() > 0);
+        Assert.assertEquals(pool.getTrackedCount(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPoolOption() {
+        ClickHouseConfig config = new ClickHouseConfig();
+        Assert.assertEquals(config.getBufferPoolSize(), 0);
+        Assert.assertFalse(config.isBufferPoolDirect());
+        Assert.assertFalse(config.isBufferPoolLeakDetection());
+
+        config = new ClickHouseConfig(Collections.singletonMap(ClickHouseClientOption.BUFFER_POOL_SIZE, 8), null,
+                null, null);
+        Assert.assertEquals(config.getBufferPoolSize(), 8);
+        Assert.assertNotNull(ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config, null));
+    }
+}
@@ -0,0 +1,62 @@
+package com.clickhouse.client.stream;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CapacityPolicyTest {
+    @Test(groups = { "unit" })
+    public void testFixedCapacity() {
+        CapacityPolicy policy = CapacityPolicy.fixedCapacity(2);
+        Assert.assertTrue(policy.ensureCapacity(1));
+        Assert.assertFalse(policy.ensureCapacity(2));
+
+        policy = CapacityPolicy.fixedCapacity(0);
+        Assert.assertTrue(policy.ensureCapacity(Integer.MAX_VALUE));
+    }
+
+    @Test(groups = { "unit" })
+    public void testAdaptiveCapacity() {
+        CapacityPolicy.AdaptiveCapacity policy = (CapacityPolicy.AdaptiveCapacity) CapacityPolicy
+                .adaptiveCapacity(1, 5, 2);
+        Assert.assertEquals(policy.getCapacity(), 1);
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertFalse(policy.ensureCapacity(1));
+        Assert.assertTrue(policy.ensureCapacity(1));
+        Assert.assertEquals(policy.getCapacity(), 2);
+
+        // full -> doubled until max size
+        Assert.assertFalse(policy.ensureCapacity(2));
+        Assert.assertTrue(policy.ensureCapacity(2));
+        Assert.assertEquals(policy.getCapacity(), 4);
+        Assert.assertFalse(policy.ensureCapacity(4));
+        Assert.assertTrue(policy.ensureCapacity(4));
+        Assert.assertEquals(policy.getCapacity(), 5);
+        Assert.assertFalse(policy.ensureCapacity(5));
+        Assert.assertFalse(policy.ensureCapacity(5));
+        Assert.assertEquals(policy.getCapacity(), 5);
+
+        // partially filled queue does not change anything
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(policy.ensureCapacity(3));
+        }
+        Assert.assertEquals(policy.getCapacity(), 5);
+
+        // empty -> halved until initial size
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertEquals(policy.getCapacity(), 2);
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertTrue(policy.ensureCapacity(1));
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertEquals(policy.getCapacity(), 2, "Should only shrink after consecutive empty queue");
+        Assert.assertTrue(policy.ensureCapacity(0));
+        Assert.assertEquals(policy.getCapacity(), 1);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(policy.ensureCapacity(0));
+        }
+        Assert.assertEquals(policy.getCapacity(), 1);
+
+        policy = (CapacityPolicy.AdaptiveCapacity) CapacityPolicy.adaptiveCapacity(0, 0, 0);
+        Assert.assertEquals(policy.getCapacity(), 1);
+    }
+}
@@ -12,6 +12,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.ClickHouseInputStream;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -207,6 +208,50 @@ public class NonBlockingPipedOutputStreamTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testAdaptiveBufferSize() throws Exception {
+        NonBlockingPipedOutputStream stream = new NonBlockingPipedOutputStream(4, 32, 3, 0, null, null, null, null);
+        Assert.assertEquals(stream.bufferSize, 4);
+        Assert.assertEquals(stream.buffer.length, 4);
+
+        byte[] bytes = new byte[200];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        try (ClickHouseInputStream in = stream.getInputStream()) {
+            stream.write(bytes, 0, 4 * NonBlockingPipedOutputStream.GROW_THRESHOLD);
+            Assert.assertEquals(stream.bufferSize, 8);
+            Assert.assertEquals(stream.buffer.length, 8);
+
+            stream.write(bytes, 4 * NonBlockingPipedOutputStream.GROW_THRESHOLD,
+                    bytes.length - 4 * NonBlockingPipedOutputStream.GROW_THRESHOLD);
+            Assert.assertEquals(stream.bufferSize, 32, "Should never exceed max buffer size");
+            stream.flush();
+            Assert.assertEquals(stream.bufferSize, 32);
+
+            stream.write(1);
+            stream.flush();
+            Assert.assertEquals(stream.bufferSize, 16);
+            stream.write(2);
+            stream.flush();
+            stream.write(3);
+            stream.flush();
+            Assert.assertEquals(stream.bufferSize, 4, "Should never go below initial buffer size");
+            stream.close();
+
+            Assert.assertEquals(in.readBytes(bytes.length), bytes);
+            Assert.assertEquals(in.read(), 1);
+            Assert.assertEquals(in.read(), 2);
+            Assert.assertEquals(in.read(), 3);
+            Assert.assertEquals(in.read(), -1);
+        }
+
+        stream = new NonBlockingPipedOutputStream(4, 3, 0, null, null);
+        stream.write(bytes);
+        Assert.assertEquals(stream.bufferSize, 4, "Buffer size should be fixed by default");
+        stream.close();
+    }
+
     @Test(groups = { "unit" })
     public void testPipedStream() throws Exception {
         final int timeout = 10000;
@@ -0,0 +1,118 @@
+package com.clickhouse.client.stream;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHousePipedOutputStream;
+import com.clickhouse.client.config.ClickHouseClientOption;
+
+public class ParallelLz4InputStreamTest {
+    private byte[] generateBytes(String prefix, int samples, int blockSize, StringBuilder builder)
+            throws IOException {
+        builder.setLength(0);
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream();
+                Lz4OutputStream lz4Out = new Lz4OutputStream(out, blockSize, null)) {
+            for (int i = 0; i < samples; i++) {
+                String s = prefix + i;
+                lz4Out.write(s.getBytes(StandardCharsets.UTF_8));
+                builder.append(s);
+            }
+            lz4Out.flush();
+            return out.toByteArray();
+        }
+    }
+
+    @DataProvider(name = "samples")
+    private Object[][] getSamples() {
+        return new Object[][] { { "", 0, 1 }, { "test", 100000, 1 }, { "test", 100000, 4 },
+                { "萌萌哒", 1024 * 1024, 8 }, { "1😂2萌🥘", 250000, 3 } };
+    };
+
+    @Test(dataProvider = "samples", groups = { "unit" })
+    public void testRead(String prefix, int samples, int readAheadBlocks) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        // small blocks to make sure there are many of them
+        byte[] bytes = generateBytes(prefix, samples, 4096, builder);
+        try (InputStream in = new ByteArrayInputStream(bytes);
+                ParallelLz4InputStream lz4In = new ParallelLz4InputStream(in, readAheadBlocks)) {
+            Assert.assertEquals(new String(lz4In.readAllBytes(), StandardCharsets.UTF_8), builder.toString());
+        }
+
+        try (InputStream in = new ByteArrayInputStream(bytes);
+                ParallelLz4InputStream lz4In = new ParallelLz4InputStream(in, readAheadBlocks);
+                ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            int result = 0;
+            while ((result = lz4In.read()) != -1) {
+                out.write(result);
+            }
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), builder.toString());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testPipe() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        byte[] bytes = generateBytes("pipe", 100000, 4096, builder);
+        // without buffer pool, piped streams keep reference of the transferred bytes
+        ClickHousePipedOutputStream[] streams = new ClickHousePipedOutputStream[] {
+                new BlockingPipedOutputStream(1024, 0, 0, null),
+                new NonBlockingPipedOutputStream(1024, 0, 0, null, null) };
+        for (ClickHousePipedOutputStream out : streams) {
+            try (ParallelLz4InputStream lz4In = new ParallelLz4InputStream(new ByteArrayInputStream(bytes), 4)) {
+                lz4In.pipe(out);
+            }
+            out.close();
+            try (ClickHouseInputStream in = out.getInputStream()) {
+                Assert.assertEquals(new String(in.readAllBytes(), StandardCharsets.UTF_8), builder.toString());
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testCorruptedData() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        byte[] bytes = generateBytes("corrupted", 10000, 1024, builder);
+        bytes[bytes.length - 1] = (byte) (bytes[bytes.length - 1] + 1);
+        try (ParallelLz4InputStream lz4In = new ParallelLz4InputStream(new ByteArrayInputStream(bytes), 4)) {
+            Assert.assertThrows(IOException.class, () -> lz4In.readAllBytes());
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> new ParallelLz4InputStream(new ByteArrayInputStream(bytes), 0));
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadAheadOption() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        byte[] bytes = generateBytes("option", 10000, 1024, builder);
+
+        ClickHouseConfig config = new ClickHouseConfig();
+        Assert.assertEquals(config.getReadAheadBlocks(), 0);
+        try (ClickHouseInputStream in = ClickHouseClient.getResponseInputStream(config,
+                new ByteArrayInputStream(bytes), null)) {
+            Assert.assertTrue(in instanceof Lz4InputStream);
+            Assert.assertEquals(new String(in.readAllBytes(), StandardCharsets.UTF_8), builder.toString());
+        }
+
+        config = new ClickHouseConfig(Collections.singletonMap(ClickHouseClientOption.READ_AHEAD_BLOCKS, 4),
+                null, null, null);
+        Assert.assertEquals(config.getReadAheadBlocks(), 4);
+        try (ClickHouseInputStream in = ClickHouseClient.getResponseInputStream(config,
+                new ByteArrayInputStream(bytes), null)) {
+            Assert.assertTrue(in instanceof ParallelLz4InputStream);
+            Assert.assertEquals(new String(in.readAllBytes(), StandardCharsets.UTF_8), builder.toString());
+        }
+    }
+}
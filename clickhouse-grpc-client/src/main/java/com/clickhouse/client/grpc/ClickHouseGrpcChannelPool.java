@@ -0,0 +1,179 @@
+package com.clickhouse.client.grpc;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.grpc.config.ClickHouseGrpcOption;
+import com.clickhouse.client.grpc.impl.ClickHouseGrpc;
+
+/**
+ * Managed channel backed by a fixed number of sub-channels to the same server.
+ * Calls are distributed among sub-channels in a round-robin fashion, and stubs
+ * are created only once for the whole pool.
+ */
+public class ClickHouseGrpcChannelPool extends ManagedChannel {
+    /**
+     * Creates a channel pool according to
+     * {@link ClickHouseGrpcOption#CHANNEL_POOL_SIZE}.
+     *
+     * @param config non-null configuration
+     * @param server non-null server
+     * @return channel pool
+     */
+    public static ClickHouseGrpcChannelPool of(ClickHouseConfig config, ClickHouseNode server) {
+        int size = (int) ClickHouseChecker.nonNull(config, "config").getOption(ClickHouseGrpcOption.CHANNEL_POOL_SIZE);
+        ManagedChannel[] channels = new ManagedChannel[size < 1 ? 1 : size];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = ClickHouseGrpcChannelFactory.getFactory(config, server).create();
+        }
+        return new ClickHouseGrpcChannelPool(channels);
+    }
+
+    private final ManagedChannel[] channels;
+    private final AtomicInteger index;
+
+    private final ClickHouseGrpc.ClickHouseStub stub;
+    private final ClickHouseGrpc.ClickHouseBlockingStub blockingStub;
+
+    protected ClickHouseGrpcChannelPool(ManagedChannel... channels) {
+        if (channels == null || channels.length == 0) {
+            throw new IllegalArgumentException("At least one channel is required");
+        }
+        this.channels = channels;
+        this.index = new AtomicInteger();
+
+        this.stub = ClickHouseGrpc.newStub(this);
+        this.blockingStub = ClickHouseGrpc.newBlockingStub(this);
+    }
+
+    /**
+     * Gets next sub-channel.
+     *
+     * @return non-null sub-channel
+     */
+    protected ManagedChannel next() {
+        return channels.length == 1 ? channels[0]
+                : channels[Math.floorMod(index.getAndIncrement(), channels.length)];
+    }
+
+    /**
+     * Gets number of sub-channels.
+     *
+     * @return number of sub-channels
+     */
+    public int size() {
+        return channels.length;
+    }
+
+    /**
+     * Gets cached async stub.
+     *
+     * @return non-null async stub
+     */
+    public ClickHouseGrpc.ClickHouseStub getStub() {
+        return stub;
+    }
+
+    /**
+     * Gets cached blocking stub.
+     *
+     * @return non-null blocking stub
+     */
+    public ClickHouseGrpc.ClickHouseBlockingStub getBlockingStub() {
+        return blockingStub;
+    }
+
+    @Override
+    public <Q, R> ClientCall<Q, R> newCall(MethodDescriptor<Q, R> methodDescriptor, CallOptions callOptions) {
+        return next().newCall(methodDescriptor, callOptions);
+    }
+
+    @Override
+    public String authority() {
+        return channels[0].authority();
+    }
+
+    /**
+     * Gets the best state among all sub-channels, in the order of
+     * {@link ConnectivityState#READY}, {@link ConnectivityState#CONNECTING},
+     * {@link ConnectivityState#IDLE}, {@link ConnectivityState#TRANSIENT_FAILURE}
+     * and {@link ConnectivityState#SHUTDOWN}.
+     */
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+        ConnectivityState state = ConnectivityState.SHUTDOWN;
+        for (ManagedChannel c : channels) {
+            ConnectivityState s = c.getState(requestConnection);
+            if (s == ConnectivityState.READY) {
+                return s;
+            } else if (s == ConnectivityState.CONNECTING || (s == ConnectivityState.IDLE
+                    && state != ConnectivityState.CONNECTING)
+                    || (s == ConnectivityState.TRANSIENT_FAILURE && state == ConnectivityState.SHUTDOWN)) {
+                state = s;
+            }
+        }
+        return state;
+    }
+
+    @Override
+    public ManagedChannel shutdown() {
+        for (ManagedChannel c : channels) {
+            c.shutdown();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        for (ManagedChannel c : channels) {
+            if (!c.isShutdown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        for (ManagedChannel c : channels) {
+            if (!c.isTerminated()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ManagedChannel shutdownNow() {
+        for (ManagedChannel c : channels) {
+            c.shutdownNow();
+        }
+        return this;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ManagedChannel c : channels) {
+            if (!c.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append('(').append(authority())
+                .append(", size=").append(channels.length).append(')').toString();
+    }
+}
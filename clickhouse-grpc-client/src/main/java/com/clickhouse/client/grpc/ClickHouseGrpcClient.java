@@ -47,7 +47,13 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
 
     static final List<ClickHouseProtocol> SUPPORTED = Collections.singletonList(ClickHouseProtocol.GRPC);
 
-    protected static QueryInfo convert(ClickHouseRequest<?> request) {
+    /**
+     * Creates a builder of query info for the given request, without input data.
+     *
+     * @param request non-null request
+     * @return builder of query info
+     */
+    protected static Builder newQueryInfoBuilder(ClickHouseRequest<?> request) {
         ClickHouseConfig config = request.getConfig();
         ClickHouseNode server = request.getServer();
         ClickHouseCredentials credentials = server.getCredentials(config);
@@ -79,22 +85,16 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
         ClickHouseCompression outputCompression = config.getResponseCompressAlgorithm();
         builder.setOutputCompressionType(outputCompression.encoding());
 
-        // builder.setNextQueryInfo(true);
         for (Entry<String, Object> s : request.getSettings().entrySet()) {
             builder.putSettings(s.getKey(), String.valueOf(s.getValue()));
         }
 
         ClickHouseCompression inputCompression = config.getRequestCompressAlgorithm();
-        Optional<ClickHouseInputStream> input = request.getInputStream();
-        if (input.isPresent()) {
+        if (request.hasInputStream()) {
             builder.setInputCompressionType(inputCompression.encoding());
-            try {
-                builder.setInputData(ByteString.readFrom(input.get()));
-            } catch (IOException e) {
-                throw new CompletionException(ClickHouseException.of(e, server));
-            }
         }
 
+        // external tables can only be sent along with the first query info
         List<ClickHouseExternalTable> externalTables = request.getExternalTables();
         if (!externalTables.isEmpty()) {
             for (ClickHouseExternalTable external : externalTables) {
@@ -142,12 +142,100 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
 
         log.debug("Query: %s", sql);
 
-        return builder.setQuery(sql).build();
+        return builder.setQuery(sql);
+    }
+
+    /**
+     * Converts the given request to one query info, with all input data loaded
+     * into memory. Use {@link #fill(ClickHouseRequest, StreamObserver)} for
+     * streaming input data in chunks.
+     *
+     * @param request non-null request
+     * @return query info
+     */
+    protected static QueryInfo convert(ClickHouseRequest<?> request) {
+        Builder builder = newQueryInfoBuilder(request);
+        Optional<ClickHouseInputStream> input = request.getInputStream();
+        if (input.isPresent()) {
+            try {
+                builder.setInputData(ByteString.readFrom(input.get()));
+            } catch (IOException e) {
+                throw new CompletionException(ClickHouseException.of(e, request.getServer()));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads up to {@code chunk.length} bytes from the given input stream.
+     *
+     * @param input non-null input stream
+     * @param chunk non-null byte array
+     * @return number of bytes read, less than {@code chunk.length} means end of
+     *         the stream has been reached
+     * @throws IOException when failed to read data from input stream
+     */
+    static int readChunk(ClickHouseInputStream input, byte[] chunk) throws IOException {
+        int offset = 0;
+        int length = chunk.length;
+        while (offset < length) {
+            int read = input.read(chunk, offset, length - offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+        }
+        return offset;
+    }
+
+    /**
+     * Gets async stub for the given channel.
+     *
+     * @param channel non-null channel
+     * @return async stub, which is cached when the channel is a
+     *         {@link ClickHouseGrpcChannelPool}
+     */
+    protected static ClickHouseGrpc.ClickHouseStub getStub(ManagedChannel channel) {
+        return channel instanceof ClickHouseGrpcChannelPool ? ((ClickHouseGrpcChannelPool) channel).getStub()
+                : ClickHouseGrpc.newStub(channel);
+    }
+
+    /**
+     * Gets blocking stub for the given channel.
+     *
+     * @param channel non-null channel
+     * @return blocking stub, which is cached when the channel is a
+     *         {@link ClickHouseGrpcChannelPool}
+     */
+    protected static ClickHouseGrpc.ClickHouseBlockingStub getBlockingStub(ManagedChannel channel) {
+        return channel instanceof ClickHouseGrpcChannelPool ? ((ClickHouseGrpcChannelPool) channel).getBlockingStub()
+                : ClickHouseGrpc.newBlockingStub(channel);
+    }
+
+    @Override
+    protected boolean checkConnection(ManagedChannel connection, ClickHouseNode requestServer,
+            ClickHouseNode currentServer, ClickHouseRequest<?> request) {
+        return super.checkConnection(connection, requestServer, currentServer, request) && !connection.isShutdown();
     }
 
     @Override
     protected boolean checkHealth(ClickHouseNode server, int timeout) {
-        return true;
+        try {
+            ClickHouseRequest<?> request = connect(server).query("SELECT 1");
+            ClickHouseGrpc.ClickHouseBlockingStub stub = getBlockingStub(getConnection(request));
+            if (timeout > 0) {
+                stub = stub.withDeadlineAfter(timeout, TimeUnit.MILLISECONDS);
+            }
+            Result result = stub.executeQuery(convert(request));
+            if (result.hasException()) {
+                log.debug("Health check failed on [%s] due to: %s", server, result.getException().getDisplayText());
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("Health check failed on [%s] due to: %s", server, e.getMessage());
+            return false;
+        }
     }
 
     @Override
@@ -171,30 +259,79 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
             closeConnection(connection, false);
         }
 
-        return ClickHouseGrpcChannelFactory.getFactory(request.getConfig(), server).create();
+        return ClickHouseGrpcChannelPool.of(request.getConfig(), server);
     }
 
     protected void fill(ClickHouseRequest<?> request, StreamObserver<QueryInfo> observer) {
+        fill(request, observer, null);
+    }
+
+    /**
+     * Sends the given request using one or more query info. Input data, if any,
+     * is split into chunks of {@link ClickHouseConfig#getRequestChunkSize()}
+     * bytes, and each chunk is sent only when the request stream is ready, so
+     * memory usage stays constant regardless of size of the input.
+     *
+     * @param request          non-null request
+     * @param observer         non-null request observer
+     * @param responseObserver optional response observer for flow control
+     */
+    protected void fill(ClickHouseRequest<?> request, StreamObserver<QueryInfo> observer,
+            ClickHouseStreamObserver responseObserver) {
+        Builder builder = null;
         try {
-            observer.onNext(convert(request));
-        } finally {
-            observer.onCompleted();
+            builder = newQueryInfoBuilder(request);
+            Optional<ClickHouseInputStream> input = request.getInputStream();
+            if (!input.isPresent()) {
+                observer.onNext(builder.build());
+            } else {
+                ClickHouseConfig config = request.getConfig();
+                int timeout = config.getSocketTimeout();
+                byte[] chunk = new byte[config.getRequestChunkSize() > 0 ? config.getRequestChunkSize()
+                        : config.getWriteBufferSize()];
+                ClickHouseInputStream in = input.get();
+                boolean hasMore;
+                do {
+                    int length = readChunk(in, chunk);
+                    hasMore = length == chunk.length;
+                    if (responseObserver != null && !responseObserver.awaitReady(timeout)) {
+                        break;
+                    }
+                    observer.onNext(builder.setInputData(ByteString.copyFrom(chunk, 0, length))
+                            .setNextQueryInfo(hasMore).build());
+                    builder = QueryInfo.newBuilder();
+                } while (hasMore);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            observer.onError(e);
+            throw new CompletionException(ClickHouseException.of(e, request.getServer()));
+        } catch (IOException e) {
+            observer.onError(e);
+            throw new CompletionException(ClickHouseException.of(e, request.getServer()));
+        } catch (RuntimeException e) {
+            if (builder != null) {
+                observer.onError(e);
+            } else {
+                observer.onCompleted();
+            }
+            throw e;
         }
+        observer.onCompleted();
     }
 
     @Override
     protected Object[] getAsyncExecArguments(ClickHouseRequest<?> sealedRequest) {
-        // reuse stub?
-        ClickHouseGrpc.ClickHouseStub stub = ClickHouseGrpc.newStub(getConnection(sealedRequest));
+        ClickHouseGrpc.ClickHouseStub stub = getStub(getConnection(sealedRequest));
 
         final ClickHouseStreamObserver responseObserver = new ClickHouseStreamObserver(sealedRequest.getConfig(),
                 sealedRequest.getServer(), sealedRequest.getOutputStream().orElse(null));
         final StreamObserver<QueryInfo> requestObserver = stub.executeQueryWithStreamIO(responseObserver);
 
         if (sealedRequest.hasInputStream()) {
-            getExecutor().execute(() -> fill(sealedRequest, requestObserver));
+            getExecutor().execute(() -> fill(sealedRequest, requestObserver, responseObserver));
         } else {
-            fill(sealedRequest, requestObserver);
+            fill(sealedRequest, requestObserver, responseObserver);
         }
 
         return new Object[] { requestObserver, responseObserver };
@@ -233,9 +370,14 @@ public class ClickHouseGrpcClient extends AbstractClient<ManagedChannel> {
 
     @Override
     protected ClickHouseResponse send(ClickHouseRequest<?> sealedRequest) throws ClickHouseException, IOException {
+        if (sealedRequest.hasInputStream()) {
+            // stream input data in chunks instead of loading everything into memory
+            return sendAsync(sealedRequest, getAsyncExecArguments(sealedRequest));
+        }
+
         final ManagedChannel channel = getConnection(sealedRequest);
 
-        ClickHouseGrpc.ClickHouseBlockingStub stub = ClickHouseGrpc.newBlockingStub(channel);
+        ClickHouseGrpc.ClickHouseBlockingStub stub = getBlockingStub(channel);
 
         Result result = stub.executeQuery(convert(sealedRequest));
 
@@ -5,10 +5,13 @@ import java.io.UncheckedIOException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import io.grpc.Status;
 import io.grpc.StatusException;
-import io.grpc.stub.StreamObserver;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 
 import com.clickhouse.client.ClickHouseCompression;
 import com.clickhouse.client.ClickHouseConfig;
@@ -23,12 +26,13 @@ import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.grpc.impl.Exception;
 import com.clickhouse.client.grpc.impl.LogEntry;
 import com.clickhouse.client.grpc.impl.Progress;
+import com.clickhouse.client.grpc.impl.QueryInfo;
 import com.clickhouse.client.grpc.impl.Result;
 import com.clickhouse.client.grpc.impl.Stats;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
 
-public class ClickHouseStreamObserver implements StreamObserver<Result> {
+public class ClickHouseStreamObserver implements ClientResponseObserver<QueryInfo, Result> {
     private static final Logger log = LoggerFactory.getLogger(ClickHouseStreamObserver.class);
 
     private final ClickHouseNode server;
@@ -43,6 +47,10 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
 
     private final AtomicReference<IOException> errorRef;
 
+    private final ReentrantLock readyLock;
+    private final Condition readyCondition;
+    private volatile ClientCallStreamObserver<QueryInfo> requestStream;
+
     protected ClickHouseStreamObserver(ClickHouseConfig config, ClickHouseNode server, ClickHouseOutputStream output) {
         this.server = server;
 
@@ -69,6 +77,19 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
         this.summary = new ClickHouseResponseSummary(null, null);
 
         this.errorRef = new AtomicReference<>(null);
+
+        this.readyLock = new ReentrantLock();
+        this.readyCondition = readyLock.newCondition();
+        this.requestStream = null;
+    }
+
+    protected void notifyReady() {
+        readyLock.lock();
+        try {
+            readyCondition.signalAll();
+        } finally {
+            readyLock.unlock();
+        }
     }
 
     protected void checkClosed() {
@@ -143,6 +164,52 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
         return errorRef.get();
     }
 
+    /**
+     * Waits until the request stream is able to accept more messages without
+     * excessive buffering, according to gRPC flow control.
+     *
+     * @param timeout timeout in milliseconds, zero or negative number means no
+     *                timeout
+     * @return true if the request stream is ready; false if the query has been
+     *         completed
+     * @throws InterruptedException when thread was interrupted
+     * @throws IOException          when timed out
+     */
+    public boolean awaitReady(long timeout) throws InterruptedException, IOException {
+        ClientCallStreamObserver<QueryInfo> s = requestStream;
+        if (s == null) {
+            return !isCompleted();
+        }
+
+        long nanos = timeout > 0L ? TimeUnit.MILLISECONDS.toNanos(timeout) : 0L;
+        readyLock.lock();
+        try {
+            while (!s.isReady()) {
+                if (isCompleted()) {
+                    return false;
+                }
+
+                if (timeout <= 0L) {
+                    readyCondition.await();
+                } else if (nanos <= 0L) {
+                    throw new IOException(
+                            ClickHouseUtils.format("Timed out after waiting %d ms for sending data", timeout));
+                } else {
+                    nanos = readyCondition.awaitNanos(nanos);
+                }
+            }
+        } finally {
+            readyLock.unlock();
+        }
+        return !isCompleted();
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<QueryInfo> requestStream) {
+        this.requestStream = requestStream;
+        requestStream.setOnReadyHandler(this::notifyReady);
+    }
+
     @Override
     public void onNext(Result value) {
         try {
@@ -180,6 +247,7 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
         } finally {
             startLatch.countDown();
             finishLatch.countDown();
+            notifyReady();
         }
     }
 
@@ -195,6 +263,7 @@ public class ClickHouseStreamObserver implements StreamObserver<Result> {
         } finally {
             startLatch.countDown();
             finishLatch.countDown();
+            notifyReady();
 
             try {
                 stream.close();
@@ -9,6 +9,11 @@ import com.clickhouse.client.config.ClickHouseOption;
  * gRPC client options.
  */
 public enum ClickHouseGrpcOption implements ClickHouseOption {
+    /**
+     * Number of channels per server.
+     */
+    CHANNEL_POOL_SIZE("channel_pool_size", 1,
+            "Number of channels per server, requests are distributed among them in a round-robin fashion to spread HTTP/2 stream load. Zero or negative number is same as one."),
     /**
      * Flow control window.
      */
@@ -0,0 +1,66 @@
+package com.clickhouse.client.grpc;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.grpc.config.ClickHouseGrpcOption;
+
+public class ClickHouseGrpcChannelPoolTest {
+    @Test(groups = { "unit" })
+    public void testRoundRobin() throws Exception {
+        ManagedChannel[] channels = new ManagedChannel[3];
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = ManagedChannelBuilder.forAddress("localhost", 9100).usePlaintext().build();
+        }
+
+        ClickHouseGrpcChannelPool pool = new ClickHouseGrpcChannelPool(channels);
+        Assert.assertEquals(pool.size(), 3);
+        Assert.assertEquals(pool.authority(), "localhost:9100");
+        Assert.assertTrue(pool.getStub() == pool.getStub(), "Stub should be cached");
+        Assert.assertTrue(pool.getBlockingStub() == pool.getBlockingStub(), "Stub should be cached");
+        Assert.assertTrue(ClickHouseGrpcClient.getStub(pool) == pool.getStub());
+        Assert.assertTrue(ClickHouseGrpcClient.getBlockingStub(pool) == pool.getBlockingStub());
+
+        for (int i = 0; i < channels.length * 2; i++) {
+            Assert.assertTrue(pool.next() == channels[i % channels.length]);
+        }
+        Assert.assertEquals(pool.getState(false), ConnectivityState.IDLE);
+
+        Assert.assertFalse(pool.isShutdown());
+        pool.shutdown();
+        Assert.assertTrue(pool.isShutdown());
+        for (ManagedChannel c : channels) {
+            Assert.assertTrue(c.isShutdown());
+        }
+        Assert.assertTrue(pool.awaitTermination(5L, TimeUnit.SECONDS));
+        Assert.assertTrue(pool.isTerminated());
+        Assert.assertEquals(pool.getState(false), ConnectivityState.SHUTDOWN);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ClickHouseGrpcChannelPool());
+    }
+
+    @Test(groups = { "unit" })
+    public void testPoolSize() {
+        ClickHouseNode server = ClickHouseNode.of("localhost", ClickHouseProtocol.GRPC, 9100, null);
+        ClickHouseGrpcChannelPool pool = ClickHouseGrpcChannelPool.of(new ClickHouseConfig(), server);
+        Assert.assertEquals(pool.size(), 1);
+        pool.shutdownNow();
+
+        pool = ClickHouseGrpcChannelPool.of(
+                new ClickHouseConfig(Collections.singletonMap(ClickHouseGrpcOption.CHANNEL_POOL_SIZE, 4), null, null,
+                        null),
+                server);
+        Assert.assertEquals(pool.size(), 4);
+        pool.shutdownNow();
+    }
+}
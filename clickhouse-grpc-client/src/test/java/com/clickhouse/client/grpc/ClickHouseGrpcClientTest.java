@@ -7,10 +7,14 @@ import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseResponseSummary;
@@ -19,6 +23,9 @@ import com.clickhouse.client.ClientIntegrationTest;
 import com.clickhouse.client.config.ClickHouseClientOption;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.grpc.impl.QueryInfo;
+
+import io.grpc.stub.StreamObserver;
 
 public class ClickHouseGrpcClientTest extends ClientIntegrationTest {
     @Override
@@ -76,6 +83,65 @@ public class ClickHouseGrpcClientTest extends ClientIntegrationTest {
 
     }
 
+    @Test(groups = { "unit" })
+    public void testChunkedInput() {
+        List<QueryInfo> list = new ArrayList<>();
+        StreamObserver<QueryInfo> observer = new StreamObserver<QueryInfo>() {
+            @Override
+            public void onNext(QueryInfo value) {
+                list.add(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                Assert.fail("Should not fail", t);
+            }
+
+            @Override
+            public void onCompleted() {
+                list.add(null);
+            }
+        };
+
+        try (ClickHouseGrpcClient client = new ClickHouseGrpcClient();
+                ClickHouseClient c = ClickHouseClient.newInstance()) {
+            ClickHouseRequest<?> request = c.connect(ClickHouseNode.of("localhost"))
+                    .option(ClickHouseClientOption.REQUEST_CHUNK_SIZE, 3).query("select 1");
+            client.fill(request, observer);
+            Assert.assertEquals(list.size(), 2);
+            Assert.assertEquals(list.get(0).getQuery(), "select 1");
+            Assert.assertFalse(list.get(0).getNextQueryInfo());
+            Assert.assertNull(list.get(1));
+
+            list.clear();
+            request = c.connect(ClickHouseNode.of("localhost")).option(ClickHouseClientOption.REQUEST_CHUNK_SIZE, 3)
+                    .write().query("insert into t format CSV").data(ClickHouseInputStream.of("1\n2\n3\n4\n"));
+            client.fill(request, observer);
+            Assert.assertEquals(list.size(), 4);
+            Assert.assertEquals(list.get(0).getQuery(), "insert into t format CSV");
+            Assert.assertEquals(list.get(0).getInputData().toStringUtf8(), "1\n2");
+            Assert.assertTrue(list.get(0).getNextQueryInfo());
+            Assert.assertEquals(list.get(1).getQuery(), "", "Only the first query info should contain query");
+            Assert.assertEquals(list.get(1).getInputData().toStringUtf8(), "\n3\n");
+            Assert.assertTrue(list.get(1).getNextQueryInfo());
+            Assert.assertEquals(list.get(2).getInputData().toStringUtf8(), "4\n");
+            Assert.assertFalse(list.get(2).getNextQueryInfo());
+            Assert.assertNull(list.get(3));
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testCheckHealth() {
+        ClickHouseGrpcClient client = new ClickHouseGrpcClient();
+        client.init(new ClickHouseConfig());
+        try {
+            ClickHouseNode server = ClickHouseNode.of("localhost", ClickHouseProtocol.GRPC, 1, null);
+            Assert.assertFalse(client.checkHealth(server, 1000), "Should fail when nothing listens on the port");
+        } finally {
+            client.close();
+        }
+    }
+
     @Test(groups = { "integration" })
     @Override
     public void testSessionLock() {
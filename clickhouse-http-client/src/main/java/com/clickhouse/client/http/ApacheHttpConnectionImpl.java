@@ -0,0 +1,390 @@
+package com.clickhouse.client.http;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.ClickHouseSslContextProvider;
+import com.clickhouse.client.config.ClickHouseSslMode;
+import com.clickhouse.client.data.ClickHouseExternalTable;
+import com.clickhouse.client.http.config.ClickHouseHttpOption;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.HttpURLConnection;
+import java.net.ProxySelector;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.DefaultHostnameVerifier;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * HTTP connection based on Apache HttpClient 4.5, which works in JDK 8. Unlike
+ * {@link HttpUrlConnectionImpl}, the connection is reusable and it owns a
+ * bounded pool of keep-alive connections to the server, which is closed along
+ * with the connection. The pool is tuned by
+ * {@link ClickHouseHttpOption#CONNECTION_POOL_MAX_PER_ROUTE},
+ * {@link ClickHouseHttpOption#CONNECTION_POOL_IDLE_TIMEOUT} and
+ * {@link ClickHouseHttpOption#CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY}.
+ */
+public class ApacheHttpConnectionImpl extends ClickHouseHttpConnection {
+    private static final Logger log = LoggerFactory.getLogger(ApacheHttpConnectionImpl.class);
+
+    /**
+     * Request body, which is written into the connection on demand.
+     */
+    static final class RequestEntity extends AbstractHttpEntity {
+        private final ClickHouseConfig config;
+        private final byte[] boundary;
+        private final byte[] sqlBytes;
+        private final List<ClickHouseExternalTable> tables;
+        private final ClickHouseInputStream data;
+        private final File file;
+
+        RequestEntity(ClickHouseConfig config, byte[] boundary, byte[] sqlBytes, List<ClickHouseExternalTable> tables,
+                ClickHouseInputStream data) {
+            this.config = config;
+            this.boundary = boundary;
+            this.sqlBytes = sqlBytes;
+            this.tables = tables;
+            this.data = data;
+            // query is already in url, so the file is the whole request body
+            this.file = boundary == null && data != null && data.getUnderlyingFile().isAvailable()
+                    ? data.getUnderlyingFile().getFile()
+                    : null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            if (file != null) {
+                return file.length();
+            } else if (boundary == null && data == null && !config.isRequestCompressed()) {
+                return sqlBytes.length;
+            }
+            // chunked
+            return -1L;
+        }
+
+        @Override
+        public InputStream getContent() {
+            throw new UnsupportedOperationException("Request body can only be written into output stream");
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            if (file != null) {
+                try (InputStream in = new FileInputStream(file)) {
+                    ClickHouseInputStream.pipe(in, outStream, config.getWriteBufferSize());
+                } finally {
+                    data.close();
+                }
+                return;
+            }
+
+            try (ClickHouseOutputStream out = data != null && data.getUnderlyingFile().isAvailable()
+                    ? ClickHouseOutputStream.of(outStream, config.getWriteBufferSize())
+                    : (data != null || boundary != null
+                            ? ClickHouseClient.getAsyncRequestOutputStream(config, outStream, null)
+                            : ClickHouseClient.getRequestOutputStream(config, outStream, null))) {
+                writeContent(out, boundary, sqlBytes, tables, data, config);
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * Response body. Closing it before reaching end of the stream closes the
+     * underlying connection, instead of reading remaining data to keep it alive.
+     */
+    static final class ResponseInputStream extends FilterInputStream {
+        private final CloseableHttpResponse response;
+
+        ResponseInputStream(InputStream in, CloseableHttpResponse response) {
+            super(in);
+            this.response = response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            // connection has been released back to the pool at end of the stream
+            response.close();
+        }
+    }
+
+    static RequestConfig newRequestConfig(int connectTimeout, int socketTimeout) {
+        return RequestConfig.custom().setConnectTimeout(connectTimeout).setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(socketTimeout).build();
+    }
+
+    private final PoolingHttpClientConnectionManager manager;
+    private final CloseableHttpClient client;
+    private final int idleTimeout;
+
+    private ClickHouseHttpResponse buildResponse(ClickHouseConfig config, CloseableHttpResponse r,
+            ClickHouseOutputStream output, Runnable postCloseAction) throws IOException {
+        String displayName = getResponseHeader(r, "X-ClickHouse-Server-Display-Name", server.getHost());
+        String queryId = getResponseHeader(r, "X-ClickHouse-Query-Id", "");
+        String summary = getResponseHeader(r, "X-ClickHouse-Summary", "{}");
+
+        ClickHouseConfig c = config;
+        ClickHouseFormat format = c.getFormat();
+        TimeZone timeZone = c.getServerTimeZone();
+        boolean hasOutputFile = output != null && output.getUnderlyingFile().isAvailable();
+        boolean hasQueryResult = false;
+        // queryId, format and timeZone are only available for queries
+        if (!ClickHouseChecker.isNullOrEmpty(queryId)) {
+            String value = getResponseHeader(r, "X-ClickHouse-Format", "");
+            if (!ClickHouseChecker.isNullOrEmpty(value)) {
+                format = ClickHouseFormat.valueOf(value);
+                hasQueryResult = true;
+            }
+            value = getResponseHeader(r, "X-ClickHouse-Timezone", "");
+            timeZone = !ClickHouseChecker.isNullOrEmpty(value) ? TimeZone.getTimeZone(value)
+                    : timeZone;
+        }
+
+        HttpEntity entity = r.getEntity();
+        final InputStream body = new ResponseInputStream(
+                entity != null ? entity.getContent() : ClickHouseInputStream.empty(), r);
+        final InputStream source;
+        final Runnable action;
+        if (output != null) {
+            source = ClickHouseInputStream.empty();
+            action = () -> {
+                try (InputStream in = body; OutputStream o = output) {
+                    ClickHouseInputStream.pipe(in, o, c.getWriteBufferSize());
+                    if (postCloseAction != null) {
+                        postCloseAction.run();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to redirect response to given output stream", e);
+                }
+            };
+        } else {
+            source = body;
+            action = postCloseAction;
+        }
+        return new ClickHouseHttpResponse(this,
+                hasOutputFile ? ClickHouseInputStream.of(source, c.getReadBufferSize(), action)
+                        : (hasQueryResult ? ClickHouseClient.getAsyncResponseInputStream(c, source, action)
+                                : ClickHouseClient.getResponseInputStream(c, source, action)),
+                displayName, queryId, summary, format, timeZone);
+    }
+
+    private String getResponseHeader(CloseableHttpResponse r, String header, String defaultValue) {
+        Header h = r.getFirstHeader(header);
+        return h != null ? h.getValue() : defaultValue;
+    }
+
+    private void checkResponse(ClickHouseConfig config, CloseableHttpResponse r) throws IOException {
+        if (r.getStatusLine().getStatusCode() != HttpURLConnection.HTTP_OK) {
+            String errorCode = getResponseHeader(r, "X-ClickHouse-Exception-Code", "");
+            String serverName = getResponseHeader(r, "X-ClickHouse-Server-Display-Name", "");
+
+            HttpEntity entity = r.getEntity();
+            if (entity == null) {
+                throw new ConnectException(r.getStatusLine().toString());
+            }
+
+            String errorMsg;
+            byte[] bytes = EntityUtils.toByteArray(entity);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    ClickHouseClient.getResponseInputStream(config, new ByteArrayInputStream(bytes), null),
+                    StandardCharsets.UTF_8))) {
+                StringBuilder builder = new StringBuilder();
+                while ((errorMsg = reader.readLine()) != null) {
+                    builder.append(errorMsg).append('\n');
+                }
+                errorMsg = builder.toString();
+            } catch (IOException e) {
+                log.debug("Failed to read error message[code=%s] from server [%s] due to: %s", errorCode, serverName,
+                        e.getMessage());
+                errorMsg = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            throw new IOException(errorMsg);
+        }
+    }
+
+    private CloseableHttpResponse execute(HttpRequestBase request) throws IOException {
+        if (idleTimeout > 0) {
+            // evict on demand instead of starting a thread for each pool
+            manager.closeExpiredConnections();
+            manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            return client.execute(request);
+        } catch (ConnectTimeoutException e) {
+            throw new ConnectException(e.getMessage());
+        }
+    }
+
+    protected ApacheHttpConnectionImpl(ClickHouseNode server, ClickHouseRequest<?> request, ExecutorService executor)
+            throws IOException {
+        super(server, request);
+
+        RegistryBuilder<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory());
+        if (config.isSsl()) {
+            SSLContext sslContext = ClickHouseSslContextProvider.getProvider().getSslContext(SSLContext.class, config)
+                    .orElseThrow(() -> new SSLException("Failed to create SSL context"));
+            HostnameVerifier verifier = config.getSslMode() == ClickHouseSslMode.STRICT
+                    ? new DefaultHostnameVerifier()
+                    : NoopHostnameVerifier.INSTANCE;
+            registry.register("https", new SSLConnectionSocketFactory(sslContext, verifier));
+        }
+
+        int maxPerRoute = Math.max(1, (int) config.getOption(ClickHouseHttpOption.CONNECTION_POOL_MAX_PER_ROUTE));
+        manager = new PoolingHttpClientConnectionManager(registry.build());
+        // one route per server
+        manager.setMaxTotal(maxPerRoute);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+        manager.setValidateAfterInactivity(
+                (int) config.getOption(ClickHouseHttpOption.CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY));
+        manager.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(config.getSocketTimeout()).build());
+        idleTimeout = (int) config.getOption(ClickHouseHttpOption.CONNECTION_POOL_IDLE_TIMEOUT);
+
+        HttpClientBuilder builder = HttpClients.custom().setConnectionManager(manager)
+                .setDefaultRequestConfig(newRequestConfig(config.getConnectionTimeout(), config.getSocketTimeout()))
+                // compression and retry are handled by the client
+                .disableContentCompression().disableAutomaticRetries().disableCookieManagement()
+                .disableAuthCaching();
+        if (!config.isUseNoProxy()) {
+            builder.setRoutePlanner(new SystemDefaultRoutePlanner(ProxySelector.getDefault()));
+        }
+        if (!(boolean) config.getOption(ClickHouseHttpOption.KEEP_ALIVE)) {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+        client = builder.build();
+    }
+
+    /**
+     * Gets the underlying connection pool.
+     *
+     * @return non-null connection pool
+     */
+    PoolingHttpClientConnectionManager getConnectionManager() {
+        return manager;
+    }
+
+    @Override
+    protected ClickHouseHttpResponse post(String sql, ClickHouseInputStream data, List<ClickHouseExternalTable> tables,
+            ClickHouseOutputStream output, String url, Map<String, String> headers, ClickHouseConfig config,
+            Runnable postCloseAction) throws IOException {
+        ClickHouseConfig c = config == null ? this.config : config;
+        HttpPost post = new HttpPost(ClickHouseChecker.isNullOrEmpty(url) ? this.url : url);
+        post.setConfig(newRequestConfig(c.getConnectionTimeout(), c.getSocketTimeout()));
+
+        byte[] boundary = null;
+        if (tables != null && !tables.isEmpty()) {
+            String uuid = UUID.randomUUID().toString();
+            post.setHeader("Content-Type", "multipart/form-data; boundary=".concat(uuid));
+            boundary = uuid.getBytes(StandardCharsets.US_ASCII);
+        } else {
+            post.setHeader("Content-Type", "text/plain; charset=UTF-8");
+        }
+        headers = mergeHeaders(headers);
+        if (headers != null && !headers.isEmpty()) {
+            for (Entry<String, String> header : headers.entrySet()) {
+                post.setHeader(header.getKey(), header.getValue());
+            }
+        }
+
+        final boolean hasFile = data != null && data.getUnderlyingFile().isAvailable();
+        post.setEntity(new RequestEntity(c, boundary, hasFile ? new byte[0] : sql.getBytes(StandardCharsets.UTF_8),
+                tables, data));
+
+        CloseableHttpResponse r = execute(post);
+        try {
+            checkResponse(c, r);
+            return buildResponse(c, r, output, postCloseAction);
+        } catch (IOException | RuntimeException e) {
+            r.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean ping(int timeout) {
+        String response = (String) config.getOption(ClickHouseHttpOption.DEFAULT_RESPONSE);
+        String url = getBaseUrl().concat("ping");
+        HttpGet get = new HttpGet(url);
+        get.setConfig(newRequestConfig(timeout, timeout));
+        try (CloseableHttpResponse r = execute(get)) {
+            HttpEntity entity = r.getEntity();
+            // fully read content so that the connection can be reused
+            String content = entity != null ? EntityUtils.toString(entity, StandardCharsets.UTF_8) : "";
+            return r.getStatusLine().getStatusCode() == HttpURLConnection.HTTP_OK && response.equals(content);
+        } catch (IOException e) {
+            log.debug("Failed to ping url %s due to: %s", url, e.getMessage());
+        }
+
+        return false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.debug("Failed to close connection pool due to: %s", e.getMessage());
+        }
+    }
+}
@@ -116,12 +116,13 @@ public class ClickHouseHttpClient extends AbstractClient<ClickHouseHttpConnectio
         if (conn.isReusable()) {
             ClickHouseNode server = sealedRequest.getServer();
             httpResponse = conn.post(sql, sealedRequest.getInputStream().orElse(null),
-                    sealedRequest.getExternalTables(),
+                    sealedRequest.getExternalTables(), sealedRequest.getOutputStream().orElse(null),
                     ClickHouseHttpConnection.buildUrl(server.getBaseUri(), sealedRequest),
                     ClickHouseHttpConnection.createDefaultHeaders(config, server), config, postAction);
         } else {
             httpResponse = conn.post(sql, sealedRequest.getInputStream().orElse(null),
-                    sealedRequest.getExternalTables(), null, null, config, postAction);
+                    sealedRequest.getExternalTables(), sealedRequest.getOutputStream().orElse(null), null, null,
+                    config, postAction);
         }
         return ClickHouseStreamResponse.of(httpResponse.getConfig(sealedRequest), httpResponse.getInputStream(),
                 sealedRequest.getSettings(), null, httpResponse.summary);
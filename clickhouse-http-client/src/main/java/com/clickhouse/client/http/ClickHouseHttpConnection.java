@@ -26,6 +26,18 @@ import com.clickhouse.client.data.ClickHouseExternalTable;
 import com.clickhouse.client.http.config.ClickHouseHttpOption;
 
 public abstract class ClickHouseHttpConnection implements AutoCloseable {
+    private static final byte[] HEADER_CONTENT_DISPOSITION = "Content-Disposition: form-data; name=\""
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER_OCTET_STREAM = "Content-Type: application/octet-stream\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER_BINARY_ENCODING = "Content-Transfer-Encoding: binary\r\n\r\n"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] SUFFIX_QUERY = "query\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX_FORMAT = "_format\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX_STRUCTURE = "_structure\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SUFFIX_FILENAME = "\"; filename=\"".getBytes(StandardCharsets.US_ASCII);
+
     private static StringBuilder appendQueryParameter(StringBuilder builder, String key, String value) {
         return builder.append(urlEncode(key, StandardCharsets.UTF_8)).append('=')
                 .append(urlEncode(value, StandardCharsets.UTF_8)).append('&');
@@ -153,6 +165,73 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
         return builder.toString();
     }
 
+    /**
+     * Writes query, external tables and data into the given output stream as
+     * request body. When {@code boundary} is not null, query and external tables
+     * are written as multipart form data, otherwise query is followed by data
+     * separated by a new line.
+     *
+     * @param out      non-null output stream of request body
+     * @param boundary optional boundary for multipart form data
+     * @param sqlBytes non-null query in bytes, could be empty
+     * @param tables   optional external tables, only used along with boundary
+     * @param data     optional input stream for batch updating
+     * @param config   non-null configuration
+     * @throws IOException when failed to write request body
+     */
+    static void writeContent(ClickHouseOutputStream out, byte[] boundary, byte[] sqlBytes,
+            List<ClickHouseExternalTable> tables, ClickHouseInputStream data, ClickHouseConfig config)
+            throws IOException {
+        if (boundary != null) {
+            byte[] linePrefix = new byte[] { '\r', '\n', '-', '-' };
+            byte[] lineSuffix = new byte[] { '\r', '\n' };
+            out.writeBytes(linePrefix);
+            out.writeBytes(boundary);
+            out.writeBytes(lineSuffix);
+            out.writeBytes(HEADER_CONTENT_DISPOSITION);
+            out.writeBytes(SUFFIX_QUERY);
+            out.writeBytes(sqlBytes);
+            for (ClickHouseExternalTable t : tables) {
+                byte[] tableName = t.getName().getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < 3; i++) {
+                    out.writeBytes(linePrefix);
+                    out.writeBytes(boundary);
+                    out.writeBytes(lineSuffix);
+                    out.writeBytes(HEADER_CONTENT_DISPOSITION);
+                    out.writeBytes(tableName);
+                    if (i == 0) {
+                        out.writeBytes(SUFFIX_FORMAT);
+                        out.writeBytes(t.getFormat().name().getBytes(StandardCharsets.US_ASCII));
+                    } else if (i == 1) {
+                        out.writeBytes(SUFFIX_STRUCTURE);
+                        out.writeBytes(t.getStructure().getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        out.writeBytes(SUFFIX_FILENAME);
+                        out.writeBytes(tableName);
+                        out.writeBytes(new byte[] { '"', '\r', '\n' });
+                        break;
+                    }
+                }
+                out.writeBytes(HEADER_OCTET_STREAM);
+                out.writeBytes(HEADER_BINARY_ENCODING);
+                ClickHouseInputStream.pipe(t.getContent(), out, config.getWriteBufferSize());
+            }
+            out.writeBytes(linePrefix);
+            out.writeBytes(boundary);
+            out.writeBytes(new byte[] { '-', '-' });
+            out.writeBytes(lineSuffix);
+        } else {
+            out.writeBytes(sqlBytes);
+            if (data != null && data.available() > 0) {
+                // append \n
+                if (sqlBytes.length > 0 && sqlBytes[sqlBytes.length - 1] != (byte) '\n') {
+                    out.write(10);
+                }
+                ClickHouseInputStream.pipe(data, out, config.getWriteBufferSize());
+            }
+        }
+    }
+
     protected static Map<String, String> createDefaultHeaders(ClickHouseConfig config, ClickHouseNode server) {
         Map<String, String> map = new LinkedHashMap<>();
         // add customer headers
@@ -263,6 +342,9 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
      * @param query           non-blank query
      * @param data            optionally input stream for batch updating
      * @param tables          optionally external tables for query
+     * @param output          optionally output stream for redirecting response,
+     *                        which is request-specific and may differ from
+     *                        {@link #output} when the connection is reusable
      * @param url             optionally url
      * @param headers         optionally request headers
      * @param config          optionally configuration
@@ -272,8 +354,8 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
      *                     to respond
      */
     protected abstract ClickHouseHttpResponse post(String query, ClickHouseInputStream data,
-            List<ClickHouseExternalTable> tables, String url, Map<String, String> headers, ClickHouseConfig config,
-            Runnable postCloseAction) throws IOException;
+            List<ClickHouseExternalTable> tables, ClickHouseOutputStream output, String url,
+            Map<String, String> headers, ClickHouseConfig config, Runnable postCloseAction) throws IOException;
 
     /**
      * Checks whether the connection is reusable or not. This method will be called
@@ -298,36 +380,36 @@ public abstract class ClickHouseHttpConnection implements AutoCloseable {
     public abstract boolean ping(int timeout);
 
     public ClickHouseHttpResponse update(String query) throws IOException {
-        return post(query, null, null, null, null, null, null);
+        return post(query, null, null, output, null, null, null, null);
     }
 
     public ClickHouseHttpResponse update(String query, Map<String, String> headers) throws IOException {
-        return post(query, null, null, null, headers, null, null);
+        return post(query, null, null, output, null, headers, null, null);
     }
 
     public ClickHouseHttpResponse update(String query, ClickHouseInputStream data) throws IOException {
-        return post(query, data, null, null, null, null, null);
+        return post(query, data, null, output, null, null, null, null);
     }
 
     public ClickHouseHttpResponse update(String query, ClickHouseInputStream data, Map<String, String> headers)
             throws IOException {
-        return post(query, data, null, null, headers, null, null);
+        return post(query, data, null, output, null, headers, null, null);
     }
 
     public ClickHouseHttpResponse query(String query) throws IOException {
-        return post(query, null, null, null, null, null, null);
+        return post(query, null, null, output, null, null, null, null);
     }
 
     public ClickHouseHttpResponse query(String query, Map<String, String> headers) throws IOException {
-        return post(query, null, null, null, headers, null, null);
+        return post(query, null, null, output, null, headers, null, null);
     }
 
     public ClickHouseHttpResponse query(String query, List<ClickHouseExternalTable> tables) throws IOException {
-        return post(query, null, tables, null, null, null, null);
+        return post(query, null, tables, output, null, null, null, null);
     }
 
     public ClickHouseHttpResponse query(String query, List<ClickHouseExternalTable> tables, Map<String, String> headers)
             throws IOException {
-        return post(query, null, tables, null, headers, null, null);
+        return post(query, null, tables, output, null, headers, null, null);
     }
 }
@@ -5,10 +5,23 @@ import java.util.concurrent.ExecutorService;
 
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.http.config.ClickHouseHttpOption;
+import com.clickhouse.client.http.config.HttpConnectionProvider;
 
 public abstract class ClickHouseHttpConnectionFactory {
     public static ClickHouseHttpConnection createConnection(ClickHouseNode server, ClickHouseRequest<?> request,
             ExecutorService executor) throws IOException {
-        return new HttpUrlConnectionImpl(server, request, executor);
+        HttpConnectionProvider provider = (HttpConnectionProvider) request.getConfig()
+                .getOption(ClickHouseHttpOption.CONNECTION_PROVIDER);
+
+        try {
+            return provider == HttpConnectionProvider.APACHE_HTTP_CLIENT
+                    ? new ApacheHttpConnectionImpl(server, request, executor)
+                    : new HttpUrlConnectionImpl(server, request, executor);
+        } catch (IOException e) {
+            throw e;
+        } catch (Throwable t) {
+            return new HttpUrlConnectionImpl(server, request, executor);
+        }
     }
 }
@@ -0,0 +1,347 @@
+package com.clickhouse.client.http;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseUtils;
+
+/**
+ * Minimal HTTP/1.1 connection for uploading a file, which is sent from file
+ * system straight to the socket using {@link FileChannel#transferTo}, instead
+ * of being copied into heap like {@link HttpURLConnection} does. As TLS cannot
+ * be layered over a socket channel, it only works for plain connections
+ * without proxy. The socket is closed along with the response.
+ */
+final class FileUploadConnection extends HttpURLConnection {
+    /**
+     * Response body in chunked transfer encoding.
+     */
+    static final class ChunkedInputStream extends InputStream {
+        private final InputStream in;
+
+        private long remaining;
+        private boolean started;
+        private boolean eof;
+
+        ChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (started) {
+                readLine(in); // CRLF after previous chunk
+            }
+            started = true;
+
+            String line = readLine(in);
+            int index = line.indexOf(';');
+            try {
+                remaining = Long.parseLong((index < 0 ? line : line.substring(0, index)).trim(), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid chunk size: " + line);
+            }
+            if (remaining == 0L) {
+                // skip trailers
+                while (!readLine(in).isEmpty()) {
+                    // continue
+                }
+                eof = true;
+            }
+            return !eof;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return read(bytes, 0, 1) < 0 ? -1 : 0xFF & bytes[0];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            } else if (eof || (remaining == 0L && !nextChunk())) {
+                return -1;
+            }
+
+            int count = in.read(b, off, (int) Math.min(len, remaining));
+            if (count < 0) {
+                throw new EOFException("Reached end of stream before completing the chunk");
+            }
+            remaining -= count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Response body with known length.
+     */
+    static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0L) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0L) {
+                return -1;
+            }
+            int count = in.read(b, off, (int) Math.min(len, remaining));
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), remaining);
+        }
+    }
+
+    static String readLine(InputStream in) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new EOFException("Reached end of stream before end of line");
+            } else if (b != '\r') {
+                builder.append((char) b);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Checks if the given url can be used for zero-copy file upload.
+     *
+     * @param config non-null configuration
+     * @param url    non-null url
+     * @return true if it's a plain HTTP url without proxy; false otherwise
+     */
+    static boolean isSupported(ClickHouseConfig config, String url) {
+        if (config.isSsl() || !url.startsWith("http:")) {
+            return false;
+        } else if (config.isUseNoProxy()) {
+            return true;
+        }
+
+        ProxySelector selector = ProxySelector.getDefault();
+        if (selector == null) {
+            return true;
+        }
+        try {
+            List<Proxy> proxies = selector.select(new URI(url));
+            return proxies.isEmpty() || proxies.get(0).type() == Proxy.Type.DIRECT;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private final File file;
+    private final Map<String, String> responseHeaders;
+
+    private SocketChannel channel;
+    private InputStream responseBody;
+
+    FileUploadConnection(URL url, File file) {
+        super(url);
+
+        this.file = file;
+        this.responseHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    private void writeRequestHead(Map<String, List<String>> headers, long length) throws IOException {
+        URL u = getURL();
+        String path = u.getFile();
+        StringBuilder builder = new StringBuilder().append("POST ").append(path.isEmpty() ? "/" : path)
+                .append(" HTTP/1.1\r\nHost: ").append(u.getHost());
+        if (u.getPort() >= 0) {
+            builder.append(':').append(u.getPort());
+        }
+        builder.append("\r\nContent-Length: ").append(length).append("\r\nConnection: close\r\n");
+        for (Entry<String, List<String>> header : headers.entrySet()) {
+            for (String value : header.getValue()) {
+                builder.append(header.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        builder.append("\r\n");
+
+        ByteBuffer buffer = ByteBuffer.wrap(builder.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void readResponseHead() throws IOException {
+        InputStream in = new BufferedInputStream(channel.socket().getInputStream());
+        String line = readLine(in);
+        // HTTP/1.1 200 OK
+        String[] parts = line.split(" ", 3);
+        if (parts.length < 2 || !parts[0].startsWith("HTTP/")) {
+            throw new IOException("Invalid status line: " + line);
+        }
+        try {
+            responseCode = Integer.parseInt(parts[1]);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid status line: " + line);
+        }
+        responseMessage = parts.length > 2 ? parts[2] : "";
+
+        while (!(line = readLine(in)).isEmpty()) {
+            int index = line.indexOf(':');
+            if (index > 0) {
+                responseHeaders.put(line.substring(0, index).trim(), line.substring(index + 1).trim());
+            }
+        }
+
+        String length = responseHeaders.get("Content-Length");
+        if ("chunked".equalsIgnoreCase(responseHeaders.get("Transfer-Encoding"))) {
+            responseBody = new ChunkedInputStream(in);
+        } else if (length != null) {
+            responseBody = new BoundedInputStream(in, Long.parseLong(length));
+        } else {
+            // server closes the connection at the end
+            responseBody = in;
+        }
+    }
+
+    @Override
+    public void connect() throws IOException {
+        if (connected) {
+            return;
+        }
+
+        URL u = getURL();
+        SocketChannel ch = SocketChannel.open();
+        try {
+            Socket socket = ch.socket();
+            socket.setSoTimeout(getReadTimeout());
+            socket.connect(new InetSocketAddress(u.getHost(), u.getPort() < 0 ? u.getDefaultPort() : u.getPort()),
+                    getConnectTimeout());
+        } catch (IOException e) {
+            ch.close();
+            throw e;
+        }
+        channel = ch;
+        connected = true;
+    }
+
+    /**
+     * Sends the file as request body and reads response headers.
+     *
+     * @throws IOException when failed to send the file or read the response
+     */
+    public void send() throws IOException {
+        // request properties are no longer accessible once connected
+        Map<String, List<String>> headers = getRequestProperties();
+        connect();
+
+        long length = file.length();
+        try {
+            writeRequestHead(headers, length);
+            long count = ClickHouseInputStream.transfer(file, channel);
+            if (count != length) {
+                throw new IOException(ClickHouseUtils.format("Expect %d bytes from file [%s] but got %d", length,
+                        file, count));
+            }
+            readResponseHead();
+        } catch (IOException | RuntimeException e) {
+            disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        return responseHeaders.get(name);
+    }
+
+    @Override
+    public int getResponseCode() {
+        return responseCode;
+    }
+
+    @Override
+    public String getResponseMessage() {
+        return responseMessage;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (responseBody == null) {
+            throw new IOException("No response available");
+        }
+
+        final InputStream in = responseBody;
+        return new FilterInputStream(in) {
+            @Override
+            public void close() throws IOException {
+                disconnect();
+            }
+        };
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return responseCode >= HTTP_BAD_REQUEST ? responseBody : null;
+    }
+
+    @Override
+    public void disconnect() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+}
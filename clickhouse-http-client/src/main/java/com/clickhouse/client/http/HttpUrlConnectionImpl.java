@@ -20,6 +20,8 @@ import com.clickhouse.client.logging.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -42,33 +44,32 @@ import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 
+/**
+ * HTTP connection based on {@link HttpURLConnection}. Sockets are not managed
+ * here but by the keep-alive cache of JDK, which takes back a socket once the
+ * response is fully read and closed. The cache is tuned by system properties
+ * {@code http.keepAlive} (defaults to {@code true}) and
+ * {@code http.maxConnections}, which is maximum number of idle sockets kept
+ * per destination (defaults to 5). Please use
+ * {@link com.clickhouse.client.http.config.HttpConnectionProvider#APACHE_HTTP_CLIENT}
+ * for a bounded connection pool.
+ */
 public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
     private static final Logger log = LoggerFactory.getLogger(HttpUrlConnectionImpl.class);
 
-    private static final byte[] HEADER_CONTENT_DISPOSITION = "Content-Disposition: form-data; name=\""
-            .getBytes(StandardCharsets.US_ASCII);
-    private static final byte[] HEADER_OCTET_STREAM = "Content-Type: application/octet-stream\r\n"
-            .getBytes(StandardCharsets.US_ASCII);
-    private static final byte[] HEADER_BINARY_ENCODING = "Content-Transfer-Encoding: binary\r\n\r\n"
-            .getBytes(StandardCharsets.US_ASCII);
-
-    private static final byte[] SUFFIX_QUERY = "query\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
-    private static final byte[] SUFFIX_FORMAT = "_format\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
-    private static final byte[] SUFFIX_STRUCTURE = "_structure\"\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
-    private static final byte[] SUFFIX_FILENAME = "\"; filename=\"".getBytes(StandardCharsets.US_ASCII);
-
     private final HttpURLConnection conn;
 
-    private ClickHouseHttpResponse buildResponse(Runnable postCloseAction) throws IOException {
+    private ClickHouseHttpResponse buildResponse(HttpURLConnection conn, ClickHouseOutputStream output,
+            Runnable postCloseAction) throws IOException {
         // X-ClickHouse-Server-Display-Name: xxx
         // X-ClickHouse-Query-Id: xxx
         // X-ClickHouse-Format: RowBinaryWithNamesAndTypes
         // X-ClickHouse-Timezone: UTC
         // X-ClickHouse-Summary:
         // {"read_rows":"0","read_bytes":"0","written_rows":"0","written_bytes":"0","total_rows_to_read":"0"}
-        String displayName = getResponseHeader("X-ClickHouse-Server-Display-Name", server.getHost());
-        String queryId = getResponseHeader("X-ClickHouse-Query-Id", "");
-        String summary = getResponseHeader("X-ClickHouse-Summary", "{}");
+        String displayName = getResponseHeader(conn, "X-ClickHouse-Server-Display-Name", server.getHost());
+        String queryId = getResponseHeader(conn, "X-ClickHouse-Query-Id", "");
+        String summary = getResponseHeader(conn, "X-ClickHouse-Summary", "{}");
 
         ClickHouseConfig c = config;
         ClickHouseFormat format = c.getFormat();
@@ -77,12 +78,12 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         boolean hasQueryResult = false;
         // queryId, format and timeZone are only available for queries
         if (!ClickHouseChecker.isNullOrEmpty(queryId)) {
-            String value = getResponseHeader("X-ClickHouse-Format", "");
+            String value = getResponseHeader(conn, "X-ClickHouse-Format", "");
             if (!ClickHouseChecker.isNullOrEmpty(value)) {
                 format = ClickHouseFormat.valueOf(value);
                 hasQueryResult = true;
             }
-            value = getResponseHeader("X-ClickHouse-Timezone", "");
+            value = getResponseHeader(conn, "X-ClickHouse-Timezone", "");
             timeZone = !ClickHouseChecker.isNullOrEmpty(value) ? TimeZone.getTimeZone(value)
                     : timeZone;
         }
@@ -143,7 +144,7 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         return newConn;
     }
 
-    private String getResponseHeader(String header, String defaultValue) {
+    private String getResponseHeader(HttpURLConnection conn, String header, String defaultValue) {
         String value = conn.getHeaderField(header);
         return value != null ? value : defaultValue;
     }
@@ -207,10 +208,67 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         return false;
     }
 
+    /**
+     * Sends content of the underlying file as request body. Since length of the
+     * file is known in advance, fixed-length streaming is used instead of chunked
+     * transfer encoding, and the file is written straight into the connection
+     * without going through another layer of buffering.
+     *
+     * @param config non-null configuration
+     * @param data   non-null input stream backed by a file
+     * @throws IOException when failed to read the file or send request
+     */
+    private void postFile(ClickHouseConfig config, ClickHouseInputStream data) throws IOException {
+        File file = data.getUnderlyingFile().getFile();
+        long length = file.length();
+        conn.setFixedLengthStreamingMode(length);
+        try (InputStream in = new FileInputStream(file); OutputStream out = conn.getOutputStream()) {
+            long count = ClickHouseInputStream.pipe(in, out, config.getWriteBufferSize());
+            if (count != length) {
+                throw new IOException(ClickHouseUtils.format("Expect %d bytes from file [%s] but got %d", length,
+                        file, count));
+            }
+        } finally {
+            data.close();
+        }
+    }
+
+    /**
+     * Sends content of the underlying file as request body using zero-copy
+     * transfer, over a dedicated plain connection.
+     *
+     * @param config          non-null configuration
+     * @param data            non-null input stream backed by a file
+     * @param headers         optional request headers
+     * @param output          optional output stream for redirecting response
+     * @param postCloseAction optional post close action
+     * @return non-null response
+     * @throws IOException when failed to read the file or send request
+     */
+    private ClickHouseHttpResponse postFile(ClickHouseConfig config, ClickHouseInputStream data,
+            Map<String, String> headers, ClickHouseOutputStream output, Runnable postCloseAction)
+            throws IOException {
+        FileUploadConnection upload = new FileUploadConnection(new URL(url), data.getUnderlyingFile().getFile());
+        upload.setConnectTimeout(config.getConnectionTimeout());
+        upload.setReadTimeout(config.getSocketTimeout());
+        upload.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
+        setHeaders(upload, headers);
+        try {
+            upload.send();
+            checkResponse(upload);
+            return buildResponse(upload, output, postCloseAction);
+        } catch (IOException | RuntimeException e) {
+            upload.disconnect();
+            throw e;
+        } finally {
+            data.close();
+        }
+    }
+
     @Override
     protected ClickHouseHttpResponse post(String sql, ClickHouseInputStream data, List<ClickHouseExternalTable> tables,
-            String url, Map<String, String> headers, ClickHouseConfig config, Runnable postCloseAction)
-            throws IOException {
+            ClickHouseOutputStream output, String url, Map<String, String> headers, ClickHouseConfig config,
+            Runnable postCloseAction) throws IOException {
         Charset charset = StandardCharsets.US_ASCII;
         byte[] boundary = null;
         if (tables != null && !tables.isEmpty()) {
@@ -225,70 +283,31 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         ClickHouseConfig c = config;
         final boolean hasFile = data != null && data.getUnderlyingFile().isAvailable();
         final boolean hasInput = data != null || boundary != null;
-        if (hasInput) {
+        final byte[] sqlBytes = hasFile ? new byte[0] : sql.getBytes(StandardCharsets.UTF_8);
+        if (hasFile && boundary == null) {
+            // query is already in url, so the file is the whole request body
+            if (FileUploadConnection.isSupported(c, this.url)) {
+                return postFile(c, data, headers, output, postCloseAction);
+            }
+            postFile(c, data);
+            checkResponse(conn);
+            return buildResponse(conn, output, postCloseAction);
+        } else if (hasInput) {
             conn.setChunkedStreamingMode(config.getRequestChunkSize());
-        } else {
-            // TODO conn.setFixedLengthStreamingMode(contentLength);
+        } else if (!c.isRequestCompressed()) {
+            conn.setFixedLengthStreamingMode(sqlBytes.length);
         }
         try (ClickHouseOutputStream out = hasFile
                 ? ClickHouseOutputStream.of(conn.getOutputStream(), config.getWriteBufferSize())
                 : (hasInput
                         ? ClickHouseClient.getAsyncRequestOutputStream(config, conn.getOutputStream(), null) // latch::countDown)
                         : ClickHouseClient.getRequestOutputStream(c, conn.getOutputStream(), null))) {
-            byte[] sqlBytes = hasFile ? new byte[0] : sql.getBytes(StandardCharsets.UTF_8);
-            if (boundary != null) {
-                byte[] linePrefix = new byte[] { '\r', '\n', '-', '-' };
-                byte[] lineSuffix = new byte[] { '\r', '\n' };
-                out.writeBytes(linePrefix);
-                out.writeBytes(boundary);
-                out.writeBytes(lineSuffix);
-                out.writeBytes(HEADER_CONTENT_DISPOSITION);
-                out.writeBytes(SUFFIX_QUERY);
-                out.writeBytes(sqlBytes);
-                for (ClickHouseExternalTable t : tables) {
-                    byte[] tableName = t.getName().getBytes(StandardCharsets.UTF_8);
-                    for (int i = 0; i < 3; i++) {
-                        out.writeBytes(linePrefix);
-                        out.writeBytes(boundary);
-                        out.writeBytes(lineSuffix);
-                        out.writeBytes(HEADER_CONTENT_DISPOSITION);
-                        out.writeBytes(tableName);
-                        if (i == 0) {
-                            out.writeBytes(SUFFIX_FORMAT);
-                            out.writeBytes(t.getFormat().name().getBytes(charset));
-                        } else if (i == 1) {
-                            out.writeBytes(SUFFIX_STRUCTURE);
-                            out.writeBytes(t.getStructure().getBytes(StandardCharsets.UTF_8));
-                        } else {
-                            out.writeBytes(SUFFIX_FILENAME);
-                            out.writeBytes(tableName);
-                            out.writeBytes(new byte[] { '"', '\r', '\n' });
-                            break;
-                        }
-                    }
-                    out.writeBytes(HEADER_OCTET_STREAM);
-                    out.writeBytes(HEADER_BINARY_ENCODING);
-                    ClickHouseInputStream.pipe(t.getContent(), out, c.getWriteBufferSize());
-                }
-                out.writeBytes(linePrefix);
-                out.writeBytes(boundary);
-                out.writeBytes(new byte[] { '-', '-' });
-                out.writeBytes(lineSuffix);
-            } else {
-                out.writeBytes(sqlBytes);
-                if (data != null && data.available() > 0) {
-                    // append \n
-                    if (sqlBytes.length > 0 && sqlBytes[sqlBytes.length - 1] != (byte) '\n') {
-                        out.write(10);
-                    }
-                    ClickHouseInputStream.pipe(data, out, c.getWriteBufferSize());
-                }
-            }
+            writeContent(out, boundary, sqlBytes, tables, data, c);
         }
 
         checkResponse(conn);
 
-        return buildResponse(postCloseAction);
+        return buildResponse(conn, output, postCloseAction);
     }
 
     @Override
@@ -305,11 +324,14 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
             checkResponse(c);
 
             int size = 12;
-            try (ByteArrayOutputStream out = new ByteArrayOutputStream(size)) {
-                ClickHouseInputStream.pipe(c.getInputStream(), out, size);
+            try (InputStream in = c.getInputStream(); ByteArrayOutputStream out = new ByteArrayOutputStream(size)) {
+                ClickHouseInputStream.pipe(in, out, size);
 
-                c.disconnect();
-                c = null;
+                // disconnect() closes an idle socket of the same destination in
+                // keep-alive cache, while closing fully read stream gives it back
+                if (isKeepAlive()) {
+                    c = null;
+                }
                 return response.equals(new String(out.toByteArray(), StandardCharsets.UTF_8));
             }
         } catch (IOException e) {
@@ -323,8 +345,15 @@ public class HttpUrlConnectionImpl extends ClickHouseHttpConnection {
         return false;
     }
 
+    private boolean isKeepAlive() {
+        return (boolean) config.getOption(ClickHouseHttpOption.KEEP_ALIVE);
+    }
+
     @Override
     public void close() {
-        conn.disconnect();
+        // response stream, if any, is closed along with the response
+        if (!isKeepAlive()) {
+            conn.disconnect();
+        }
     }
 }
@@ -0,0 +1,114 @@
+package com.clickhouse.client.http;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Blocking queue of response buffers, which signals demand to the producer
+ * only when the consumer has drained the queue below {@code maxBuffers}. At
+ * most one request is outstanding at a time, so number of queued buffers never
+ * exceeds {@code maxBuffers} plus buffers delivered in one batch, no matter how
+ * slow the consumer is. Since the capacity is governed by demand, the queue
+ * itself is unbounded, which also guarantees the end-of-stream marker can
+ * always be added.
+ */
+final class ResponseBufferQueue extends LinkedBlockingQueue<ByteBuffer> {
+    private static final long serialVersionUID = 2946402318498475214L;
+
+    private final int maxBuffers;
+    private final AtomicBoolean requested;
+
+    private transient volatile LongConsumer demand;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxBuffers maximum number of buffers to keep in the queue, zero or
+     *                   negative number means no limit
+     */
+    ResponseBufferQueue(int maxBuffers) {
+        super();
+
+        this.maxBuffers = maxBuffers;
+        this.requested = new AtomicBoolean();
+    }
+
+    /**
+     * Requests one more batch of buffers when there's room in the queue and no
+     * request is outstanding.
+     */
+    private void requestMore() {
+        LongConsumer d = demand;
+        if (d != null && size() < maxBuffers && requested.compareAndSet(false, true)) {
+            d.accept(1L);
+        }
+    }
+
+    /**
+     * Starts signaling demand using the given function, which is usually
+     * {@code Subscription::request}.
+     *
+     * @param demand non-null function to request more batches of buffers
+     */
+    void start(LongConsumer demand) {
+        if (maxBuffers < 1) {
+            demand.accept(Long.MAX_VALUE);
+        } else {
+            this.demand = demand;
+            requestMore();
+        }
+    }
+
+    /**
+     * Stops signaling demand to the producer.
+     */
+    void stop() {
+        demand = null;
+    }
+
+    /**
+     * Adds a batch of buffers delivered by the producer, and requests the next
+     * one if the queue is not yet full.
+     *
+     * @param batch non-null batch of buffers
+     */
+    void deliver(List<ByteBuffer> batch) {
+        addAll(batch);
+        requested.set(false);
+        requestMore();
+    }
+
+    /**
+     * Checks whether the producer has been asked for more buffers.
+     *
+     * @return true if there's an outstanding request; false otherwise
+     */
+    boolean isRequested() {
+        return requested.get();
+    }
+
+    @Override
+    public ByteBuffer poll() {
+        ByteBuffer b = super.poll();
+        requestMore();
+        return b;
+    }
+
+    @Override
+    public ByteBuffer poll(long timeout, TimeUnit unit) throws InterruptedException {
+        ByteBuffer b = super.poll(timeout, unit);
+        requestMore();
+        return b;
+    }
+
+    @Override
+    public ByteBuffer take() throws InterruptedException {
+        ByteBuffer b = super.take();
+        requestMore();
+        return b;
+    }
+}
@@ -13,7 +13,27 @@ public enum ClickHouseHttpOption implements ClickHouseOption {
      * HTTP connection provider.
      */
     CONNECTION_PROVIDER("http_connection_provider", HttpConnectionProvider.HTTP_URL_CONNECTION,
-            "HTTP connection provider. HTTP_CLIENT is only supported in JDK 11 or above."),
+            "HTTP connection provider. HTTP_CLIENT is only supported in JDK 11 or above, and APACHE_HTTP_CLIENT requires Apache HttpClient 4.5 in classpath."),
+    /**
+     * Idle timeout in milliseconds, after which pooled connection will be evicted.
+     * It should be less than {@code keep_alive_timeout} on server. Only works for
+     * {@link HttpConnectionProvider#APACHE_HTTP_CLIENT}.
+     */
+    CONNECTION_POOL_IDLE_TIMEOUT("http_connection_pool_idle_timeout", 2000,
+            "Idle timeout in milliseconds, after which pooled connection will be evicted, only works for APACHE_HTTP_CLIENT."),
+    /**
+     * Maximum number of pooled connections per server. Only works for
+     * {@link HttpConnectionProvider#APACHE_HTTP_CLIENT}.
+     */
+    CONNECTION_POOL_MAX_PER_ROUTE("http_connection_pool_max_per_route", 10,
+            "Maximum number of pooled connections per server, only works for APACHE_HTTP_CLIENT."),
+    /**
+     * Period of inactivity in milliseconds after which pooled connection will be
+     * validated before being borrowed. Zero or negative number disables
+     * validation. Only works for {@link HttpConnectionProvider#APACHE_HTTP_CLIENT}.
+     */
+    CONNECTION_POOL_VALIDATE_AFTER_INACTIVITY("http_connection_pool_validate_after_inactivity", 1000,
+            "Period of inactivity in milliseconds after which pooled connection will be validated before being borrowed, zero or negative number disables validation, only works for APACHE_HTTP_CLIENT."),
     /**
      * Custom HTTP headers.
      */
@@ -28,7 +48,10 @@ public enum ClickHouseHttpOption implements ClickHouseOption {
     DEFAULT_RESPONSE("http_server_default_response", "Ok.\n",
             "Default server response, which is used for validating connection."),
     /**
-     * Whether to enable keep-alive or not.
+     * Whether to enable keep-alive or not. For
+     * {@link HttpConnectionProvider#HTTP_URL_CONNECTION}, idle sockets are cached
+     * by JDK, which can be tuned by system properties {@code http.keepAlive} and
+     * {@code http.maxConnections}.
      */
     KEEP_ALIVE("http_keep_alive", true, "Whether to use keep-alive or not"),
     /**
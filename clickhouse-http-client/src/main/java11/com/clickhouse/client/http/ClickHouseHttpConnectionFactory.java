@@ -15,6 +15,9 @@ public abstract class ClickHouseHttpConnectionFactory {
                 .getOption(ClickHouseHttpOption.CONNECTION_PROVIDER);
 
         try {
+            if (provider == HttpConnectionProvider.APACHE_HTTP_CLIENT) {
+                return new ApacheHttpConnectionImpl(server, request, executor);
+            }
             return provider == null || provider == HttpConnectionProvider.HTTP_URL_CONNECTION
                     ? new HttpUrlConnectionImpl(server, request, executor)
                     : new HttpClientConnectionImpl(server, request, executor);
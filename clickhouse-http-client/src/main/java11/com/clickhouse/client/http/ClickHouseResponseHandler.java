@@ -5,31 +5,45 @@ import java.io.InputStream;
 import java.net.http.HttpResponse.BodySubscriber;
 import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Flow.Subscription;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.clickhouse.client.ClickHouseByteBuffer;
 import com.clickhouse.client.ClickHouseInputStream;
 
+/**
+ * Body subscriber exposing response as an input stream. Buffers are requested
+ * from {@link java.net.http.HttpClient} only when the input stream has room
+ * for more, so a slow reader holds at most {@code queueLength} buffers in
+ * memory instead of the whole response.
+ */
 public class ClickHouseResponseHandler implements BodySubscriber<InputStream> {
     // An immutable ByteBuffer sentinel to mark that the last byte was received.
     private static final List<ByteBuffer> LAST_LIST = List.of(ClickHouseByteBuffer.EMPTY_BUFFER);
 
-    private final BlockingQueue<ByteBuffer> buffers;
+    private final ResponseBufferQueue buffers;
     private final ClickHouseInputStream in;
     private final AtomicBoolean subscribed;
 
+    private volatile Subscription subscription;
+
     ClickHouseResponseHandler(int queueLength, int timeout) {
-        buffers = queueLength > 1 ? new ArrayBlockingQueue<>(queueLength) : new LinkedBlockingQueue<>();
-        in = ClickHouseInputStream.of(buffers, timeout);
+        buffers = new ResponseBufferQueue(queueLength);
+        in = ClickHouseInputStream.of(buffers, timeout, this::cancel);
         subscribed = new AtomicBoolean();
     }
 
+    private void cancel() {
+        buffers.stop();
+        Subscription s = subscription;
+        if (s != null) {
+            subscription = null;
+            s.cancel();
+        }
+    }
+
     @Override
     public void onSubscribe(Subscription s) {
         try {
@@ -40,7 +54,8 @@ public class ClickHouseResponseHandler implements BodySubscriber<InputStream> {
                     s.cancel();
                     return;
                 }
-                s.request(Long.MAX_VALUE);
+                subscription = s;
+                buffers.start(s::request);
             }
         } catch (Throwable t) {
             try {
@@ -56,10 +71,7 @@ public class ClickHouseResponseHandler implements BodySubscriber<InputStream> {
     @Override
     public void onNext(List<ByteBuffer> item) {
         try {
-            if (!buffers.addAll(item)) {
-                // should never happen
-                throw new IllegalStateException("Queue is full");
-            }
+            buffers.deliver(item);
         } catch (Throwable t) {
             try {
                 in.close();
@@ -73,6 +85,7 @@ public class ClickHouseResponseHandler implements BodySubscriber<InputStream> {
 
     @Override
     public void onError(Throwable throwable) {
+        buffers.stop();
         buffers.offer(ClickHouseByteBuffer.EMPTY_BUFFER);
     }
 
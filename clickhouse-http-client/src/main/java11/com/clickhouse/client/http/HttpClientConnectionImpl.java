@@ -81,7 +81,7 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
     private final HttpRequest pingRequest;
 
     private ClickHouseHttpResponse buildResponse(ClickHouseConfig config, HttpResponse<InputStream> r,
-            Runnable postAction) throws IOException {
+            ClickHouseOutputStream output, Runnable postAction) throws IOException {
         HttpHeaders headers = r.headers();
         String displayName = headers.firstValue("X-ClickHouse-Server-Display-Name").orElse(server.getHost());
         String queryId = headers.firstValue("X-ClickHouse-Query-Id").orElse("");
@@ -206,8 +206,8 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
     }
 
     private ClickHouseHttpResponse postStream(ClickHouseConfig config, HttpRequest.Builder reqBuilder, String boundary,
-            String sql, ClickHouseInputStream data, List<ClickHouseExternalTable> tables, Runnable postAction)
-            throws IOException {
+            String sql, ClickHouseInputStream data, List<ClickHouseExternalTable> tables, ClickHouseOutputStream output,
+            Runnable postAction) throws IOException {
         final boolean hasFile = data != null && data.getUnderlyingFile().isAvailable();
         ClickHousePipedOutputStream stream = ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config,
                 null);
@@ -273,12 +273,29 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
             }
         }
 
-        return buildResponse(config, r, postAction);
+        return buildResponse(config, r, output, postAction);
+    }
+
+    private ClickHouseHttpResponse postFile(ClickHouseConfig config, HttpRequest.Builder reqBuilder,
+            ClickHouseInputStream data, ClickHouseOutputStream output, Runnable postAction) throws IOException {
+        try {
+            // file is read by the client itself and sent with known length
+            return postBody(config, reqBuilder,
+                    HttpRequest.BodyPublishers.ofFile(data.getUnderlyingFile().getFile().toPath()), output,
+                    postAction);
+        } finally {
+            data.close();
+        }
     }
 
     private ClickHouseHttpResponse postString(ClickHouseConfig config, HttpRequest.Builder reqBuilder, String sql,
-            Runnable postAction) throws IOException {
-        reqBuilder.POST(HttpRequest.BodyPublishers.ofString(sql));
+            ClickHouseOutputStream output, Runnable postAction) throws IOException {
+        return postBody(config, reqBuilder, HttpRequest.BodyPublishers.ofString(sql), output, postAction);
+    }
+
+    private ClickHouseHttpResponse postBody(ClickHouseConfig config, HttpRequest.Builder reqBuilder,
+            HttpRequest.BodyPublisher body, ClickHouseOutputStream output, Runnable postAction) throws IOException {
+        reqBuilder.POST(body);
         HttpResponse<InputStream> r;
         try {
             r = postRequest(reqBuilder.build()).get();
@@ -293,12 +310,13 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
                 throw new IOException("Failed to post query", cause);
             }
         }
-        return buildResponse(config, r, postAction);
+        return buildResponse(config, r, output, postAction);
     }
 
     @Override
     protected ClickHouseHttpResponse post(String sql, ClickHouseInputStream data, List<ClickHouseExternalTable> tables,
-            String url, Map<String, String> headers, ClickHouseConfig config, Runnable postAction) throws IOException {
+            ClickHouseOutputStream output, String url, Map<String, String> headers, ClickHouseConfig config,
+            Runnable postAction) throws IOException {
         ClickHouseConfig c = config == null ? this.config : config;
         HttpRequest.Builder reqBuilder = HttpRequest.newBuilder()
                 .uri(URI.create(ClickHouseChecker.isNullOrEmpty(url) ? this.url : url))
@@ -318,8 +336,13 @@ public class HttpClientConnectionImpl extends ClickHouseHttpConnection {
             }
         }
 
-        return boundary != null || data != null ? postStream(c, reqBuilder, boundary, sql, data, tables, postAction)
-                : postString(c, reqBuilder, sql, postAction);
+        if (boundary == null && data != null && data.getUnderlyingFile().isAvailable()) {
+            // query is already in url, so the file is the whole request body
+            return postFile(c, reqBuilder, data, output, postAction);
+        }
+        return boundary != null || data != null
+                ? postStream(c, reqBuilder, boundary, sql, data, tables, output, postAction)
+                : postString(c, reqBuilder, sql, output, postAction);
     }
 
     @Override
@@ -7,6 +7,8 @@ module com.clickhouse.client.http {
     requires java.net.http;
 
     requires static com.google.gson;
+    requires static org.apache.httpcomponents.httpclient;
+    requires static org.apache.httpcomponents.httpcore;
 
     requires transitive com.clickhouse.client;
 }
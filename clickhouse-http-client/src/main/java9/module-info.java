@@ -5,6 +5,8 @@ module com.clickhouse.client.http {
     provides com.clickhouse.client.ClickHouseClient with com.clickhouse.client.http.ClickHouseHttpClient;
 
     requires static com.google.gson;
+    requires static org.apache.httpcomponents.httpclient;
+    requires static org.apache.httpcomponents.httpcore;
 
     requires transitive com.clickhouse.client;
 }
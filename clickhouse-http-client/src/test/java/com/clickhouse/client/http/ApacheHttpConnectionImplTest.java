@@ -0,0 +1,88 @@
+package com.clickhouse.client.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.http.config.ClickHouseHttpOption;
+import com.clickhouse.client.http.config.HttpConnectionProvider;
+import com.sun.net.httpserver.HttpServer;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class ApacheHttpConnectionImplTest {
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private HttpServer httpServer;
+
+    @BeforeClass(groups = { "unit" })
+    public void startServer() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] bytes = "Ok.\n".getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        httpServer.start();
+    }
+
+    @AfterClass(groups = { "unit" })
+    public void stopServer() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+    }
+
+    private ApacheHttpConnectionImpl newConnection(int idleTimeout) throws IOException {
+        ClickHouseNode server = ClickHouseNode.builder().host("localhost")
+                .port(ClickHouseProtocol.HTTP, httpServer.getAddress().getPort()).build();
+        ClickHouseRequest<?> request = ClickHouseClient.newInstance().connect(server)
+                .option(ClickHouseHttpOption.CONNECTION_PROVIDER, HttpConnectionProvider.APACHE_HTTP_CLIENT)
+                .option(ClickHouseHttpOption.CONNECTION_POOL_MAX_PER_ROUTE, 3)
+                .option(ClickHouseHttpOption.CONNECTION_POOL_IDLE_TIMEOUT, idleTimeout);
+        ClickHouseHttpConnection conn = ClickHouseHttpConnectionFactory.createConnection(server, request, null);
+        Assert.assertTrue(conn instanceof ApacheHttpConnectionImpl, "Should use pooled connection");
+        Assert.assertTrue(conn.isReusable());
+        return (ApacheHttpConnectionImpl) conn;
+    }
+
+    @Test(groups = { "unit" })
+    public void testConnectionReuse() throws IOException {
+        clientPorts.clear();
+        try (ApacheHttpConnectionImpl conn = newConnection(0)) {
+            Assert.assertEquals(conn.getConnectionManager().getTotalStats().getMax(), 3);
+            for (int i = 0; i < 5; i++) {
+                Assert.assertTrue(conn.ping(1000));
+            }
+            Assert.assertEquals(clientPorts.size(), 1, "Should reuse pooled socket");
+            Assert.assertEquals(conn.getConnectionManager().getTotalStats().getAvailable(), 1);
+            Assert.assertEquals(conn.getConnectionManager().getTotalStats().getLeased(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testIdleEviction() throws Exception {
+        clientPorts.clear();
+        try (ApacheHttpConnectionImpl conn = newConnection(50)) {
+            Assert.assertTrue(conn.ping(1000));
+            Assert.assertEquals(conn.getConnectionManager().getTotalStats().getAvailable(), 1);
+            Thread.sleep(200L);
+            Assert.assertTrue(conn.ping(1000));
+            Assert.assertEquals(clientPorts.size(), 2, "Idle socket should have been evicted");
+            Assert.assertEquals(conn.getConnectionManager().getTotalStats().getAvailable(), 1);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseInputStream;
 import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseOutputStream;
 import com.clickhouse.client.ClickHouseProtocol;
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.data.ClickHouseExternalTable;
@@ -25,8 +26,8 @@ public class ClickHouseHttpConnectionTest {
 
         @Override
         protected ClickHouseHttpResponse post(String query, ClickHouseInputStream data,
-                List<ClickHouseExternalTable> tables, String url, Map<String, String> headers, ClickHouseConfig config,
-                Runnable postAction) throws IOException {
+                List<ClickHouseExternalTable> tables, ClickHouseOutputStream output, String url,
+                Map<String, String> headers, ClickHouseConfig config, Runnable postAction) throws IOException {
             return null;
         }
 
@@ -0,0 +1,102 @@
+package com.clickhouse.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.sun.net.httpserver.HttpServer;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class FileUploadConnectionTest {
+    private HttpServer httpServer;
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ClickHouseInputStream.pipe(in, out, 1024);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @BeforeClass(groups = { "unit" })
+    public void startServer() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/", exchange -> {
+            String body = read(exchange.getRequestBody());
+            String query = exchange.getRequestURI().getQuery();
+            byte[] bytes = new StringBuilder().append(query).append('|')
+                    .append(exchange.getRequestHeaders().getFirst("X-Test")).append('|').append(body).toString()
+                    .getBytes(StandardCharsets.UTF_8);
+            // zero length means chunked
+            exchange.sendResponseHeaders(query.contains("error") ? 500 : 200,
+                    query.contains("chunked") ? 0 : bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        httpServer.start();
+    }
+
+    @AfterClass(groups = { "unit" })
+    public void stopServer() {
+        if (httpServer != null) {
+            httpServer.stop(0);
+        }
+    }
+
+    private FileUploadConnection upload(String query, File file) throws IOException {
+        FileUploadConnection conn = new FileUploadConnection(
+                new URL("http://localhost:" + httpServer.getAddress().getPort() + "/?" + query), file);
+        conn.setConnectTimeout(1000);
+        conn.setReadTimeout(1000);
+        conn.setRequestProperty("X-Test", "x");
+        conn.send();
+        return conn;
+    }
+
+    @Test(groups = { "unit" })
+    public void testIsSupported() {
+        ClickHouseConfig config = new ClickHouseConfig();
+        Assert.assertTrue(FileUploadConnection.isSupported(config, "http://localhost:8123/"));
+        Assert.assertFalse(FileUploadConnection.isSupported(config, "https://localhost:8443/"));
+        Assert.assertFalse(FileUploadConnection.isSupported(
+                new ClickHouseConfig(Collections.singletonMap(ClickHouseClientOption.SSL, true), null, null, null),
+                "http://localhost:8123/"));
+    }
+
+    @Test(groups = { "unit" })
+    public void testUpload() throws IOException {
+        File file = File.createTempFile("upload_", ".tsv");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write("1\n2\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        for (String query : new String[] { "fixed", "chunked" }) {
+            FileUploadConnection conn = upload(query, file);
+            Assert.assertEquals(conn.getResponseCode(), 200);
+            Assert.assertNull(conn.getErrorStream());
+            try (InputStream in = conn.getInputStream()) {
+                Assert.assertEquals(read(in), query + "|x|1\n2\n");
+            }
+        }
+
+        FileUploadConnection conn = upload("error", file);
+        Assert.assertEquals(conn.getResponseCode(), 500);
+        try (InputStream in = conn.getErrorStream()) {
+            Assert.assertEquals(read(in), "error|x|1\n2\n");
+        }
+    }
+}
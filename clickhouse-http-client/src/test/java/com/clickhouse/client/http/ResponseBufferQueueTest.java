@@ -0,0 +1,98 @@
+package com.clickhouse.client.http;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseByteBuffer;
+import com.clickhouse.client.ClickHouseInputStream;
+
+public class ResponseBufferQueueTest {
+    @Test(groups = { "unit" })
+    public void testDemand() throws Exception {
+        AtomicLong requested = new AtomicLong();
+        ResponseBufferQueue queue = new ResponseBufferQueue(2);
+        queue.deliver(Collections.singletonList(ByteBuffer.allocate(1)));
+        Assert.assertEquals(requested.get(), 0L, "Should not request before started");
+
+        queue.start(requested::addAndGet);
+        Assert.assertEquals(requested.get(), 1L);
+        Assert.assertTrue(queue.isRequested());
+        queue.poll();
+        Assert.assertEquals(requested.get(), 1L, "Should have at most one outstanding request");
+
+        queue.deliver(Arrays.asList(ByteBuffer.allocate(1), ByteBuffer.allocate(1)));
+        Assert.assertEquals(requested.get(), 1L, "Should not request when queue is full");
+        Assert.assertFalse(queue.isRequested());
+        queue.take();
+        Assert.assertEquals(requested.get(), 2L);
+
+        queue.stop();
+        queue.deliver(Collections.singletonList(ByteBuffer.allocate(1)));
+        queue.poll(1L, TimeUnit.MILLISECONDS);
+        queue.poll();
+        Assert.assertEquals(requested.get(), 2L, "Should not request after stopped");
+
+        requested.set(0L);
+        queue = new ResponseBufferQueue(0);
+        queue.start(requested::addAndGet);
+        Assert.assertEquals(requested.get(), Long.MAX_VALUE);
+    }
+
+    @Test(groups = { "unit" })
+    public void testSlowReader() throws Exception {
+        final int maxBuffers = 4;
+        final int batchSize = 2;
+        final int bufferSize = 1024;
+        final int batches = 1000;
+
+        ResponseBufferQueue queue = new ResponseBufferQueue(maxBuffers);
+        Semaphore demand = new Semaphore(0);
+        AtomicInteger maxQueued = new AtomicInteger();
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (int i = 0; i < batches; i++) {
+                    Assert.assertTrue(demand.tryAcquire(10L, TimeUnit.SECONDS), "Demand was never signaled");
+                    ByteBuffer[] batch = new ByteBuffer[batchSize];
+                    for (int j = 0; j < batchSize; j++) {
+                        batch[j] = ByteBuffer.wrap(new byte[bufferSize]);
+                    }
+                    queue.deliver(Arrays.asList(batch));
+                    maxQueued.accumulateAndGet(queue.size(), Math::max);
+                }
+                // end of stream
+                queue.offer(ClickHouseByteBuffer.EMPTY_BUFFER);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        });
+        queue.start(n -> demand.release((int) n));
+
+        long count = 0L;
+        try (ClickHouseInputStream in = ClickHouseInputStream.of(queue, 10000)) {
+            byte[] bytes = new byte[bufferSize / 2];
+            int read;
+            int i = 0;
+            while ((read = in.read(bytes)) != -1) {
+                count += read;
+                if (++i % 200 == 0) {
+                    Thread.sleep(5L); // deliberately slow
+                }
+            }
+        }
+        producer.get();
+
+        Assert.assertEquals(count, (long) batches * batchSize * bufferSize);
+        Assert.assertTrue(maxQueued.get() <= maxBuffers + batchSize,
+                "Queued " + maxQueued.get() + " buffers, which exceeds the limit");
+    }
+}
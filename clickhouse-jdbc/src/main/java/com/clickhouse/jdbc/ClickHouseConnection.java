@@ -248,6 +248,15 @@ public interface ClickHouseConnection extends Connection {
      */
     String newQueryId();
 
+    /**
+     * Invalidates cached columns of the given table, which are used for preparing
+     * insert statements, and marks its database in schema snapshot as expired.
+     *
+     * @param database database name, null or empty string means current database
+     * @param table    table name, null means all tables
+     */
+    void invalidateTableColumns(String database, String table);
+
     /**
      * Parses the given sql.
      *
@@ -21,6 +21,8 @@ import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseDataType;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseParameterizedQuery;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValues;
 import com.clickhouse.client.config.ClickHouseClientOption;
@@ -29,6 +31,7 @@ import com.clickhouse.client.data.ClickHouseRecordTransformer;
 import com.clickhouse.client.data.ClickHouseSimpleResponse;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.jdbc.internal.SchemaSnapshot;
 
 public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseMetaData {
     private static final Logger log = LoggerFactory.getLogger(ClickHouseDatabaseMetaData.class);
@@ -39,16 +42,28 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
     private static final String[] TABLE_TYPES = new String[] { "DICTIONARY", "LOG TABLE", "MEMORY TABLE",
             "REMOTE TABLE", "TABLE", "VIEW", "SYSTEM TABLE", "TEMPORARY TABLE" };
 
+    // column indexes of rows returned by getTables and getColumns
+    private static final int INDEX_TABLE_NAME = 2;
+    private static final int INDEX_TABLE_TYPE = 3;
+    private static final int INDEX_COLUMN_NAME = 3;
+    private static final int INDEX_DATA_TYPE = 4;
+    private static final int INDEX_TYPE_NAME = 5;
+
     private final ClickHouseConnection connection;
     private final Map<String, Class<?>> typeMaps;
+    private final SchemaSnapshot snapshot;
 
     protected ResultSet empty(String columns) throws SQLException {
         return fixed(columns, null);
     }
 
     protected ResultSet fixed(String columns, Object[][] values) throws SQLException {
+        return fixed(ClickHouseColumn.parse(columns), values);
+    }
+
+    protected ResultSet fixed(List<ClickHouseColumn> columns, Object[][] values) throws SQLException {
         return new ClickHouseResultSet("", "", connection.createStatement(),
-                ClickHouseSimpleResponse.of(connection.getConfig(), ClickHouseColumn.parse(columns), values));
+                ClickHouseSimpleResponse.of(connection.getConfig(), columns, values));
     }
 
     protected ResultSet query(String sql) throws SQLException {
@@ -66,13 +81,7 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
     protected ResultSet query(String sql, ClickHouseRecordTransformer func, boolean ignoreError) throws SQLException {
         SQLException error = null;
         try (ClickHouseStatement stmt = connection.createStatement()) {
-            stmt.setLargeMaxRows(0L);
-            return new ClickHouseResultSet("", "", stmt,
-                    // load everything into memory
-                    ClickHouseSimpleResponse.of(stmt.getRequest()
-                            .format(ClickHouseFormat.RowBinaryWithNamesAndTypes)
-                            .option(ClickHouseClientOption.RENAME_RESPONSE_COLUMN, ClickHouseRenameMethod.NONE)
-                            .query(sql).executeAndWait(), func));
+            return new ClickHouseResultSet("", "", stmt, load(stmt, sql, func));
         } catch (Exception e) {
             error = SqlExceptionUtils.handle(e);
         }
@@ -84,9 +93,28 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
         }
     }
 
+    protected ClickHouseResponse load(ClickHouseStatement stmt, String sql, ClickHouseRecordTransformer func)
+            throws SQLException {
+        stmt.setLargeMaxRows(0L);
+        try {
+            // load everything into memory
+            return ClickHouseSimpleResponse.of(stmt.getRequest()
+                    .format(ClickHouseFormat.RowBinaryWithNamesAndTypes)
+                    .option(ClickHouseClientOption.RENAME_RESPONSE_COLUMN, ClickHouseRenameMethod.NONE)
+                    .query(sql).executeAndWait(), func);
+        } catch (Exception e) {
+            throw SqlExceptionUtils.handle(e);
+        }
+    }
+
     public ClickHouseDatabaseMetaData(ClickHouseConnection connection) throws SQLException {
+        this(connection, null);
+    }
+
+    public ClickHouseDatabaseMetaData(ClickHouseConnection connection, SchemaSnapshot snapshot) throws SQLException {
         this.connection = ClickHouseChecker.nonNull(connection, "Connection");
         this.typeMaps = connection.getTypeMap();
+        this.snapshot = snapshot;
     }
 
     @Override
@@ -726,13 +754,259 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
                 + "CHAR_OCTET_LENGTH Int32, ORDINAL_POSITION Int32, IS_NULLABLE String, SPECIFIC_NAME String");
     }
 
+    private String getTablesQuery(Map<String, String> params, String extraColumns, String condition) {
+        params.put("comment", connection.getServerVersion().check("[21.6,)") ? "t.comment" : "''");
+        return ClickHouseParameterizedQuery
+                .apply("select null as TABLE_CAT, t.database as TABLE_SCHEM, t.name as TABLE_NAME, "
+                        + "case when t.engine like '%Log' then 'LOG TABLE' "
+                        + "when t.engine in ('Buffer', 'Memory', 'Set') then 'MEMORY TABLE' "
+                        + "when t.is_temporary != 0 then 'TEMPORARY TABLE' "
+                        + "when t.engine like '%View' then 'VIEW' when t.engine = 'Dictionary' then 'DICTIONARY' "
+                        + "when t.engine like 'Async%' or t.engine like 'System%' then 'SYSTEM TABLE' "
+                        + "when empty(t.data_paths) then 'REMOTE TABLE' else 'TABLE' end as TABLE_TYPE, "
+                        + ":comment as REMARKS, null as TYPE_CAT, d.engine as TYPE_SCHEM, "
+                        + "t.engine as TYPE_NAME, null as SELF_REFERENCING_COL_NAME, null as REF_GENERATION"
+                        + extraColumns + "\n"
+                        + "from system.tables t inner join system.databases d on t.database = d.name\n"
+                        + "where " + condition + " order by t.database, t.name", params);
+    }
+
+    private String getColumnsQuery(Map<String, String> params, String condition) {
+        params.put("comment", connection.getServerVersion().check("[18.16,)") ? "comment" : "''");
+        params.put("defaultNullable", String.valueOf(DatabaseMetaData.typeNullable));
+        params.put("defaultNonNull", String.valueOf(DatabaseMetaData.typeNoNulls));
+        params.put("defaultType", String.valueOf(Types.OTHER));
+        return ClickHouseParameterizedQuery
+                .apply("select null as TABLE_CAT, database as TABLE_SCHEM, table as TABLE_NAME, "
+                        + "name as COLUMN_NAME, toInt32(:defaultType) as DATA_TYPE, type as TYPE_NAME, toInt32(0) as COLUMN_SIZE, "
+                        + "0 as BUFFER_LENGTH, cast(null as Nullable(Int32)) as DECIMAL_DIGITS, 10 as NUM_PREC_RADIX, "
+                        + "toInt32(position(type, 'Nullable(') >= 1 ? :defaultNullable : :defaultNonNull) as NULLABLE, :comment as REMARKS, default_expression as COLUMN_DEF, "
+                        + "0 as SQL_DATA_TYPE, 0 as SQL_DATETIME_SUB, cast(null as Nullable(Int32)) as CHAR_OCTET_LENGTH, position as ORDINAL_POSITION, "
+                        + "position(type, 'Nullable(') >= 1 ? 'YES' : 'NO' as IS_NULLABLE, null as SCOPE_CATALOG, null as SCOPE_SCHEMA, null as SCOPE_TABLE, "
+                        + "null as SOURCE_DATA_TYPE, 'NO' as IS_AUTOINCREMENT, 'NO' as IS_GENERATEDCOLUMN from system.columns "
+                        + "where " + condition, params);
+    }
+
+    private int toJdbcType(String typeName) {
+        try {
+            return JdbcTypeMapping.toJdbcType(typeMaps, ClickHouseColumn.of("", typeName));
+        } catch (Exception e) {
+            log.warn("Failed to read column: %s", typeName, e);
+            return Types.OTHER;
+        }
+    }
+
+    private void updateColumn(int rowIndex, ClickHouseRecord r) {
+        String typeName = r.getValue("TYPE_NAME").asString();
+        try {
+            ClickHouseColumn column = ClickHouseColumn.of("", typeName);
+            r.getValue("DATA_TYPE").update(JdbcTypeMapping.toJdbcType(typeMaps, column));
+            r.getValue("COLUMN_SIZE").update(
+                    column.getPrecision() > 0 ? column.getPrecision() : column.getDataType().getByteLength());
+            if (column.isNullable()) {
+                r.getValue("NULLABLE").update(DatabaseMetaData.typeNullable);
+                r.getValue("IS_NULLABLE").update("YES");
+            } else {
+                r.getValue("NULLABLE").update(DatabaseMetaData.typeNoNulls);
+                r.getValue("IS_NULLABLE").update("NO");
+            }
+
+            if (column.getDataType() == ClickHouseDataType.FixedString) {
+                r.getValue("CHAR_OCTET_LENGTH").update(column.getPrecision());
+            }
+
+            Class<?> clazz = column.getObjectClass();
+            if (column.getScale() > 0 || Number.class.isAssignableFrom(clazz) || Date.class.isAssignableFrom(clazz)
+                    || Temporal.class.isAssignableFrom(clazz)) {
+                r.getValue("DECIMAL_DIGITS").update(column.getScale());
+            } else {
+                r.getValue("DECIMAL_DIGITS").resetToNullOrEmpty();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read column: %s", typeName, e);
+        }
+    }
+
+    private static List<Object[]> toRows(ClickHouseResponse response, int size) {
+        List<Object[]> rows = new ArrayList<>();
+        for (ClickHouseRecord r : response.records()) {
+            Object[] row = new Object[size];
+            for (int i = 0; i < size; i++) {
+                row[i] = r.getValue(i).asObject();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<String> getSnapshotDatabases(String schemaPattern) throws SQLException {
+        List<String> databases = snapshot.getDatabases();
+        if (databases == null) {
+            databases = new ArrayList<>();
+            try (ResultSet rs = query("select name from system.databases order by name")) {
+                while (rs.next()) {
+                    databases.add(rs.getString(1));
+                }
+            }
+            snapshot.setDatabases(databases);
+        }
+
+        List<String> list = new ArrayList<>(databases.size());
+        for (String database : databases) {
+            if (SchemaSnapshot.like(database, schemaPattern)) {
+                list.add(database);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Gets database from schema snapshot. The whole database is loaded using one
+     * query against {@code system.tables} and one against {@code system.columns}
+     * at first time. When it's expired, only tables with different metadata
+     * modification time, or modified in or after the second it was loaded, will
+     * be reloaded.
+     *
+     * @param database non-null database name
+     * @return non-null database in snapshot
+     * @throws SQLException when failed to load the database
+     */
+    private SchemaSnapshot.Database getSnapshot(String database) throws SQLException {
+        SchemaSnapshot.Database db = snapshot.get(database);
+        if (db != null && !db.isExpired()) {
+            return db;
+        }
+
+        Map<String, String> params = new HashMap<>();
+        params.put("database", ClickHouseValues.convertToQuotedString(database));
+        Map<String, Long> times = new HashMap<>();
+        List<String> changed = null;
+        if (db != null) {
+            changed = new ArrayList<>();
+            try (ResultSet rs = query(ClickHouseParameterizedQuery.apply(
+                    "select name, toUnixTimestamp(metadata_modification_time) from system.tables "
+                            + "where database = :database",
+                    params))) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    long time = rs.getLong(2);
+                    times.put(name, time);
+                    if (db.isChanged(name, time)) {
+                        changed.add(name);
+                    }
+                }
+            }
+            if (changed.isEmpty()) {
+                return snapshot.update(db, times, Collections.emptyList());
+            }
+
+            StringBuilder builder = new StringBuilder();
+            for (String name : changed) {
+                builder.append(ClickHouseValues.convertToQuotedString(name)).append(',');
+            }
+            builder.setLength(builder.length() - 1);
+            params.put("tables", builder.toString());
+        }
+
+        Map<String, List<Object[]>> columns = new HashMap<>();
+        List<SchemaSnapshot.Table> tables = new ArrayList<>();
+        try (ClickHouseStatement stmt = connection.createStatement();
+                ClickHouseResponse tableResponse = load(stmt, getTablesQuery(new HashMap<>(params),
+                        ", toUnixTimestamp(t.metadata_modification_time) as MODIFICATION_TIME",
+                        changed == null ? "t.database = :database" : "t.database = :database and t.name in (:tables)"),
+                        null);
+                ClickHouseResponse columnResponse = load(stmt, getColumnsQuery(new HashMap<>(params),
+                        (changed == null ? "database = :database" : "database = :database and table in (:tables)")
+                                + " order by table, position"),
+                        this::updateColumn)) {
+            List<ClickHouseColumn> columnColumns = columnResponse.getColumns();
+            for (Object[] row : toRows(columnResponse, columnColumns.size())) {
+                columns.computeIfAbsent((String) row[INDEX_TABLE_NAME], k -> new ArrayList<>()).add(row);
+            }
+
+            List<ClickHouseColumn> tableColumns = tableResponse.getColumns();
+            int size = tableColumns.size() - 1;
+            for (ClickHouseRecord r : tableResponse.records()) {
+                Object[] row = new Object[size];
+                for (int i = 0; i < size; i++) {
+                    row[i] = r.getValue(i).asObject();
+                }
+                String name = (String) row[INDEX_TABLE_NAME];
+                tables.add(new SchemaSnapshot.Table(name, r.getValue(size).asLong(), row,
+                        columns.getOrDefault(name, Collections.emptyList())));
+            }
+
+            if (snapshot.getTableColumns() == null) {
+                snapshot.setColumns(Collections.unmodifiableList(new ArrayList<>(tableColumns.subList(0, size))),
+                        columnColumns);
+            }
+        }
+
+        if (db == null) {
+            return snapshot.put(database, tables);
+        }
+        return snapshot.update(db, times, tables);
+    }
+
+    private ResultSet getTablesFromSnapshot(String schemaPattern, String tableNamePattern, String[] types)
+            throws SQLException {
+        List<Object[]> rows = new ArrayList<>();
+        for (String database : getSnapshotDatabases(schemaPattern)) {
+            for (SchemaSnapshot.Table t : getSnapshot(database).getTables()) {
+                Object[] row = t.getRow();
+                if (SchemaSnapshot.like(t.getName(), tableNamePattern)) {
+                    for (String type : types) {
+                        if (type.equals(row[INDEX_TABLE_TYPE])) {
+                            rows.add(row);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        List<ClickHouseColumn> columns = snapshot.getTableColumns();
+        return columns != null ? fixed(columns, rows.toArray(new Object[0][])) : null;
+    }
+
+    private ResultSet getColumnsFromSnapshot(String schemaPattern, String tableNamePattern, String columnNamePattern)
+            throws SQLException {
+        // snapshot is shared among connections, but type mappings are not
+        Map<String, Integer> dataTypes = new HashMap<>();
+        List<Object[]> rows = new ArrayList<>();
+        for (String database : getSnapshotDatabases(schemaPattern)) {
+            for (SchemaSnapshot.Table t : getSnapshot(database).getTables()) {
+                if (SchemaSnapshot.like(t.getName(), tableNamePattern)) {
+                    for (Object[] row : t.getColumns()) {
+                        if (SchemaSnapshot.like((String) row[INDEX_COLUMN_NAME], columnNamePattern)) {
+                            Object[] copy = row.clone();
+                            copy[INDEX_DATA_TYPE] = dataTypes.computeIfAbsent((String) row[INDEX_TYPE_NAME],
+                                    this::toJdbcType);
+                            rows.add(copy);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<ClickHouseColumn> columns = snapshot.getColumnColumns();
+        return columns != null ? fixed(columns, rows.toArray(new Object[0][])) : null;
+    }
+
     @Override
     public ResultSet getTables(String catalog, String schemaPattern, String tableNamePattern, String[] types)
             throws SQLException {
-        StringBuilder builder = new StringBuilder();
         if (types == null || types.length == 0) {
             types = TABLE_TYPES;
         }
+        if (snapshot != null) {
+            ResultSet rs = getTablesFromSnapshot(schemaPattern, tableNamePattern, types);
+            if (rs != null) {
+                return rs;
+            }
+        }
+
+        StringBuilder builder = new StringBuilder();
         for (String type : types) {
             builder.append('\'').append(ClickHouseUtils.escape(type, '\'')).append('\'').append(',');
         }
@@ -758,25 +1032,12 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
         List<ResultSet> results = new ArrayList<>(databases.size());
         for (String database : databases) {
             Map<String, String> params = new HashMap<>();
-            params.put("comment", connection.getServerVersion().check("[21.6,)") ? "t.comment" : "''");
             params.put("database", ClickHouseValues.convertToQuotedString(database));
             params.put("table", ClickHouseChecker.isNullOrEmpty(tableNamePattern) ? "'%'"
                     : ClickHouseValues.convertToQuotedString(tableNamePattern));
             params.put("types", builder.toString());
-            String sql = ClickHouseParameterizedQuery
-                    .apply("select null as TABLE_CAT, t.database as TABLE_SCHEM, t.name as TABLE_NAME, "
-                            + "case when t.engine like '%Log' then 'LOG TABLE' "
-                            + "when t.engine in ('Buffer', 'Memory', 'Set') then 'MEMORY TABLE' "
-                            + "when t.is_temporary != 0 then 'TEMPORARY TABLE' "
-                            + "when t.engine like '%View' then 'VIEW' when t.engine = 'Dictionary' then 'DICTIONARY' "
-                            + "when t.engine like 'Async%' or t.engine like 'System%' then 'SYSTEM TABLE' "
-                            + "when empty(t.data_paths) then 'REMOTE TABLE' else 'TABLE' end as TABLE_TYPE, "
-                            + ":comment as REMARKS, null as TYPE_CAT, d.engine as TYPE_SCHEM, "
-                            + "t.engine as TYPE_NAME, null as SELF_REFERENCING_COL_NAME, null as REF_GENERATION\n"
-                            + "from system.tables t inner join system.databases d on t.database = d.name\n"
-                            + "where t.database like :database and t.name like :table and TABLE_TYPE in (:types) "
-                            + "order by t.database, t.name", params);
-            results.add(query(sql, true));
+            results.add(query(getTablesQuery(params, "",
+                    "t.database like :database and t.name like :table and TABLE_TYPE in (:types)"), true));
         }
         return new CombinedResultSet(results);
     }
@@ -806,56 +1067,22 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
     @Override
     public ResultSet getColumns(String catalog, String schemaPattern, String tableNamePattern, String columnNamePattern)
             throws SQLException {
+        if (snapshot != null) {
+            ResultSet rs = getColumnsFromSnapshot(schemaPattern, tableNamePattern, columnNamePattern);
+            if (rs != null) {
+                return rs;
+            }
+        }
+
         Map<String, String> params = new HashMap<>();
-        params.put("comment", connection.getServerVersion().check("[18.16,)") ? "comment" : "''");
         params.put("database", ClickHouseChecker.isNullOrEmpty(schemaPattern) ? "'%'"
                 : ClickHouseValues.convertToQuotedString(schemaPattern));
         params.put("table", ClickHouseChecker.isNullOrEmpty(tableNamePattern) ? "'%'"
                 : ClickHouseValues.convertToQuotedString(tableNamePattern));
         params.put("column", ClickHouseChecker.isNullOrEmpty(columnNamePattern) ? "'%'"
                 : ClickHouseValues.convertToQuotedString(columnNamePattern));
-        params.put("defaultNullable", String.valueOf(DatabaseMetaData.typeNullable));
-        params.put("defaultNonNull", String.valueOf(DatabaseMetaData.typeNoNulls));
-        params.put("defaultType", String.valueOf(Types.OTHER));
-        String sql = ClickHouseParameterizedQuery
-                .apply("select null as TABLE_CAT, database as TABLE_SCHEM, table as TABLE_NAME, "
-                        + "name as COLUMN_NAME, toInt32(:defaultType) as DATA_TYPE, type as TYPE_NAME, toInt32(0) as COLUMN_SIZE, "
-                        + "0 as BUFFER_LENGTH, cast(null as Nullable(Int32)) as DECIMAL_DIGITS, 10 as NUM_PREC_RADIX, "
-                        + "toInt32(position(type, 'Nullable(') >= 1 ? :defaultNullable : :defaultNonNull) as NULLABLE, :comment as REMARKS, default_expression as COLUMN_DEF, "
-                        + "0 as SQL_DATA_TYPE, 0 as SQL_DATETIME_SUB, cast(null as Nullable(Int32)) as CHAR_OCTET_LENGTH, position as ORDINAL_POSITION, "
-                        + "position(type, 'Nullable(') >= 1 ? 'YES' : 'NO' as IS_NULLABLE, null as SCOPE_CATALOG, null as SCOPE_SCHEMA, null as SCOPE_TABLE, "
-                        + "null as SOURCE_DATA_TYPE, 'NO' as IS_AUTOINCREMENT, 'NO' as IS_GENERATEDCOLUMN from system.columns "
-                        + "where database like :database and table like :table and name like :column", params);
-        return query(sql, (i, r) -> {
-            String typeName = r.getValue("TYPE_NAME").asString();
-            try {
-                ClickHouseColumn column = ClickHouseColumn.of("", typeName);
-                r.getValue("DATA_TYPE").update(JdbcTypeMapping.toJdbcType(typeMaps, column));
-                r.getValue("COLUMN_SIZE").update(
-                        column.getPrecision() > 0 ? column.getPrecision() : column.getDataType().getByteLength());
-                if (column.isNullable()) {
-                    r.getValue("NULLABLE").update(DatabaseMetaData.typeNullable);
-                    r.getValue("IS_NULLABLE").update("YES");
-                } else {
-                    r.getValue("NULLABLE").update(DatabaseMetaData.typeNoNulls);
-                    r.getValue("IS_NULLABLE").update("NO");
-                }
-
-                if (column.getDataType() == ClickHouseDataType.FixedString) {
-                    r.getValue("CHAR_OCTET_LENGTH").update(column.getPrecision());
-                }
-
-                Class<?> clazz = column.getObjectClass();
-                if (column.getScale() > 0 || Number.class.isAssignableFrom(clazz) || Date.class.isAssignableFrom(clazz)
-                        || Temporal.class.isAssignableFrom(clazz)) {
-                    r.getValue("DECIMAL_DIGITS").update(column.getScale());
-                } else {
-                    r.getValue("DECIMAL_DIGITS").resetToNullOrEmpty();
-                }
-            } catch (Exception e) {
-                log.warn("Failed to read column: %s", typeName, e);
-            }
-        });
+        return query(getColumnsQuery(params, "database like :database and table like :table and name like :column"),
+                this::updateColumn);
     }
 
     @Override
@@ -1045,7 +1272,7 @@ public class ClickHouseDatabaseMetaData extends JdbcWrapper implements DatabaseM
 
     @Override
     public boolean supportsResultSetType(int type) throws SQLException {
-        return ResultSet.TYPE_FORWARD_ONLY == type;
+        return ResultSet.TYPE_FORWARD_ONLY == type || ResultSet.TYPE_SCROLL_INSENSITIVE == type;
     }
 
     @Override
@@ -29,7 +29,6 @@ import java.time.LocalTime;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.GregorianCalendar;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
@@ -42,11 +41,11 @@ import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
 
 public class ClickHouseResultSet extends AbstractResultSet {
-    private ClickHouseRecord currentRow;
-    private Iterator<ClickHouseRecord> rowCursor;
-    private int rowNumber;
-    private int lastReadColumn; // 1-based
+    protected ClickHouseRecord currentRow;
+    protected int rowNumber;
+    protected int lastReadColumn; // 1-based
     private int fetchSize;
+    private ClickHouseRowPrefetcher prefetcher;
 
     protected final String database;
     protected final String table;
@@ -79,8 +78,6 @@ public class ClickHouseResultSet extends AbstractResultSet {
         try {
             this.columns = response.getColumns();
             this.metaData = new ClickHouseResultSetMetaData(database, table, columns, defaultTypeMap);
-
-            this.rowCursor = response.records().iterator();
         } catch (Exception e) {
             throw new IllegalStateException(e);
         }
@@ -116,8 +113,6 @@ public class ClickHouseResultSet extends AbstractResultSet {
         try {
             this.columns = response.getColumns();
             this.metaData = new ClickHouseResultSetMetaData(database, table, columns, defaultTypeMap);
-
-            this.rowCursor = response.records().iterator();
         } catch (Exception e) {
             throw SqlExceptionUtils.handle(e);
         }
@@ -157,6 +152,19 @@ public class ClickHouseResultSet extends AbstractResultSet {
         return v;
     }
 
+    /**
+     * Gets prefetcher for reading rows in background. Prefetcher is only created
+     * before reading the first row, when fetch size is greater than zero.
+     *
+     * @return prefetcher, could be null
+     */
+    private ClickHouseRowPrefetcher getPrefetcher() {
+        if (prefetcher == null && fetchSize > 0 && rowNumber == 0 && currentRow == null) {
+            prefetcher = new ClickHouseRowPrefetcher(response, columns, fetchSize, maxRows);
+        }
+        return prefetcher;
+    }
+
     /**
      * Check if there is another row.
      *
@@ -165,8 +173,13 @@ public class ClickHouseResultSet extends AbstractResultSet {
      * @throws SQLException if something goes wrong
      */
     protected boolean hasNext() throws SQLException {
+        ClickHouseRowPrefetcher p = getPrefetcher();
+        if (p != null) {
+            return p.hasNext();
+        }
+
         try {
-            return (maxRows == 0 || rowNumber < maxRows) && rowCursor.hasNext();
+            return (maxRows == 0 || rowNumber < maxRows) && response.hasNext();
         } catch (Exception e) {
             throw SqlExceptionUtils.handle(e);
         }
@@ -191,6 +204,9 @@ public class ClickHouseResultSet extends AbstractResultSet {
 
     @Override
     public void close() throws SQLException {
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
         this.response.close();
     }
 
@@ -368,7 +384,14 @@ public class ClickHouseResultSet extends AbstractResultSet {
 
     @Override
     public double getDouble(int columnIndex) throws SQLException {
-        return getValue(columnIndex).asDouble();
+        if (nullAsDefault || prefetcher != null) {
+            return getValue(columnIndex).asDouble();
+        }
+
+        ensureRead(columnIndex);
+
+        lastReadColumn = columnIndex;
+        return response.getDouble(columnIndex - 1);
     }
 
     @Override
@@ -395,7 +418,14 @@ public class ClickHouseResultSet extends AbstractResultSet {
 
     @Override
     public int getInt(int columnIndex) throws SQLException {
-        return getValue(columnIndex).asInteger();
+        if (nullAsDefault || prefetcher != null) {
+            return getValue(columnIndex).asInteger();
+        }
+
+        ensureRead(columnIndex);
+
+        lastReadColumn = columnIndex;
+        return response.getInt(columnIndex - 1);
     }
 
     @Override
@@ -405,7 +435,14 @@ public class ClickHouseResultSet extends AbstractResultSet {
 
     @Override
     public long getLong(int columnIndex) throws SQLException {
-        return getValue(columnIndex).asLong();
+        if (nullAsDefault || prefetcher != null) {
+            return getValue(columnIndex).asLong();
+        }
+
+        ensureRead(columnIndex);
+
+        lastReadColumn = columnIndex;
+        return response.getLong(columnIndex - 1);
     }
 
     @Override
@@ -711,7 +748,14 @@ public class ClickHouseResultSet extends AbstractResultSet {
         boolean hasNext = true;
         if (hasNext()) {
             try {
-                currentRow = rowCursor.next();
+                ClickHouseRowPrefetcher p = getPrefetcher();
+                if (p != null ? !p.next() : !response.next()) {
+                    currentRow = null;
+                    return false;
+                }
+                ClickHouseRecord r = p != null ? p.currentRecord() : response.currentRecord();
+                // cursor always updates the record in place
+                currentRow = config == null || config.isReuseValueWrapper() ? r : r.copy();
             } catch (UncheckedIOException e) {
                 throw SqlExceptionUtils.handle(e);
             }
@@ -0,0 +1,320 @@
+package com.clickhouse.jdbc;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseThreadFactory;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseDefaults;
+import com.clickhouse.client.data.ClickHouseSimpleRecord;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Prefetcher reads rows from response in a background thread, so that network,
+ * decompression and deserialization overlap with processing of rows in current
+ * thread. Rows are copied into two reusable batches: one is being consumed
+ * while the other is being filled.
+ */
+final class ClickHouseRowPrefetcher implements AutoCloseable {
+    static final class Batch {
+        private final List<ClickHouseColumn> columns;
+        private final ClickHouseValue[][] values;
+        private final ClickHouseRecord[] records;
+
+        private int size;
+        private boolean last;
+        private Throwable error;
+
+        Batch(List<ClickHouseColumn> columns, int capacity) {
+            this.columns = columns;
+            this.values = new ClickHouseValue[capacity][];
+            this.records = new ClickHouseRecord[capacity];
+        }
+
+        boolean isFull() {
+            return size >= records.length;
+        }
+
+        void add(ClickHouseRecord r) {
+            ClickHouseValue[] v = values[size];
+            if (v == null) {
+                v = new ClickHouseValue[columns.size()];
+                for (int i = 0; i < v.length; i++) {
+                    v[i] = r.getValue(i).copy();
+                }
+                values[size] = v;
+                records[size] = ClickHouseSimpleRecord.of(columns, v);
+            } else {
+                for (int i = 0; i < v.length; i++) {
+                    ClickHouseValue value = r.getValue(i);
+                    if (value.isNullOrEmpty()) {
+                        v[i].resetToNullOrEmpty();
+                    } else {
+                        v[i].update(value);
+                    }
+                }
+            }
+            size++;
+        }
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseRowPrefetcher.class);
+
+    /**
+     * Maximum time in milliseconds to wait for the background task to complete
+     * after the response is closed.
+     */
+    static final long CLOSE_TIMEOUT = 5000L;
+
+    private static final ExecutorService executor;
+
+    static {
+        // prefetching blocks until rows are consumed, so it should not occupy
+        // threads of the shared and usually bounded client executor
+        String owner = ClickHouseRowPrefetcher.class.getSimpleName();
+        ExecutorService e = (boolean) ClickHouseDefaults.USE_VIRTUAL_THREADS.getEffectiveDefaultValue()
+                ? ClickHouseUtils.newVirtualThreadPerTaskExecutor(owner)
+                : null;
+        executor = e != null ? e : Executors.newCachedThreadPool(new ClickHouseThreadFactory(owner));
+    }
+
+    private final ClickHouseResponse response;
+    private final int maxRows;
+    private final BlockingQueue<Batch> free;
+    private final BlockingQueue<Batch> full;
+    private final ReentrantLock workerLock;
+    private final CountDownLatch done;
+
+    private volatile boolean closed;
+    private volatile Thread worker;
+
+    private Batch current;
+    private Batch pending;
+    private int index;
+
+    /**
+     * Default constructor.
+     *
+     * @param response  non-null response
+     * @param columns   non-null columns
+     * @param batchSize number of rows to prefetch, must be greater than zero
+     * @param maxRows   maximum number of rows to read, zero means no limit
+     */
+    ClickHouseRowPrefetcher(ClickHouseResponse response, List<ClickHouseColumn> columns, int batchSize,
+            int maxRows) {
+        this.response = response;
+        this.maxRows = maxRows;
+        this.free = new ArrayBlockingQueue<>(2);
+        this.full = new ArrayBlockingQueue<>(2);
+        this.free.add(new Batch(columns, batchSize));
+        this.free.add(new Batch(columns, batchSize));
+
+        this.workerLock = new ReentrantLock();
+        this.done = new CountDownLatch(1);
+
+        this.closed = false;
+        this.worker = null;
+        executor.execute(this::prefetch);
+    }
+
+    private void prefetch() {
+        worker = Thread.currentThread();
+        Batch batch = null;
+        int count = 0;
+        try {
+            boolean hasMore = true;
+            while (hasMore && !closed) {
+                batch = free.take();
+                batch.size = 0;
+                while (!batch.isFull()) {
+                    if ((maxRows > 0 && count >= maxRows) || !response.next()) {
+                        hasMore = false;
+                        break;
+                    }
+                    batch.add(response.currentRecord());
+                    count++;
+                }
+                batch.last = !hasMore;
+                full.put(batch);
+                batch = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) { // NOSONAR
+            // consumer must be notified even on error, otherwise it will wait forever
+            if (!closed) {
+                if (batch == null) {
+                    batch = new Batch(Collections.emptyList(), 0);
+                }
+                batch.last = true;
+                batch.error = e;
+                try {
+                    full.put(batch);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            workerLock.lock();
+            try {
+                worker = null;
+                // clear interruption caused by close()
+                Thread.interrupted(); // NOSONAR
+            } finally {
+                workerLock.unlock();
+            }
+            done.countDown();
+        }
+    }
+
+    private boolean ensureNext() throws SQLException {
+        if (current != null && (index < current.size || current.last)) {
+            if (index < current.size) {
+                return true;
+            } else if (current.error != null) {
+                throw SqlExceptionUtils.handle(current.error);
+            }
+            return false;
+        }
+
+        while (true) {
+            if (pending == null) {
+                try {
+                    pending = full.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw SqlExceptionUtils.handle(e);
+                }
+            }
+
+            if (pending.size > 0) {
+                return true;
+            } else if (pending.last) {
+                if (pending.error != null) {
+                    throw SqlExceptionUtils.handle(pending.error);
+                }
+                return false;
+            }
+            free.offer(pending);
+            pending = null;
+        }
+    }
+
+    /**
+     * Checks whether there's more row.
+     *
+     * @return true if there's more row; false otherwise
+     * @throws SQLException when failed to read rows
+     */
+    boolean hasNext() throws SQLException {
+        return ensureNext();
+    }
+
+    /**
+     * Moves cursor to next row.
+     *
+     * @return true if moved to next row; false when there's no more row
+     * @throws SQLException when failed to read rows
+     */
+    boolean next() throws SQLException {
+        if (!ensureNext()) {
+            return false;
+        }
+
+        if (current == null || index >= current.size) {
+            if (current != null) {
+                free.offer(current);
+            }
+            current = pending;
+            pending = null;
+            index = 0;
+        }
+        index++;
+        return true;
+    }
+
+    /**
+     * Gets current row, which will be overwritten after {@link #next()}.
+     *
+     * @return current row
+     */
+    ClickHouseRecord currentRecord() {
+        return current.records[index - 1];
+    }
+
+    /**
+     * Closes the input stream of the response, so that the background task
+     * blocked in reading is woken up, which is not possible by interruption. The
+     * stream is closed as is, without reading remaining data like
+     * {@link ClickHouseResponse#close()} does, as it's still being read by the
+     * background task.
+     */
+    private void abort() {
+        ClickHouseInputStream in = null;
+        try {
+            in = response.getInputStream();
+        } catch (UnsupportedOperationException e) {
+            // in-memory response
+        }
+
+        if (in == null) {
+            response.close();
+            return;
+        }
+        try {
+            in.close();
+        } catch (IOException e) {
+            log.debug("Failed to close input stream due to: %s", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops prefetching and closes the response. It waits at most
+     * {@link #CLOSE_TIMEOUT} milliseconds for the background task to complete.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+        abort();
+        workerLock.lock();
+        try {
+            Thread t = worker;
+            if (t != null) {
+                // in case it's waiting for a free batch
+                t.interrupt();
+            }
+        } finally {
+            workerLock.unlock();
+        }
+
+        try {
+            if (!done.await(CLOSE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                log.warn("Prefetching did not stop in %d ms after closing the response", CLOSE_TIMEOUT);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        response.close();
+    }
+}
@@ -1,75 +1,357 @@
 package com.clickhouse.jdbc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Arrays;
 
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
 import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+import com.clickhouse.client.data.ClickHouseSimpleRecord;
 
+/**
+ * Scrollable result set, which keeps recently fetched rows in a bounded
+ * in-memory window, and spills older rows to a temporary file in RowBinary
+ * format. Offset of each spilled row is indexed, so moving the cursor to any
+ * fetched row takes constant time regardless of the direction. Rows not yet
+ * fetched are read from the response on demand, for example, {@link #last()}
+ * has to fetch all remaining rows for the first time.
+ */
 public class ClickHouseScrollableResultSet extends ClickHouseResultSet {
+    static final int DEFAULT_WINDOW_SIZE = 1000;
 
-	private final List<byte[]> records;
-
-	public ClickHouseScrollableResultSet(String database, String table, ClickHouseStatement statement,
-			ClickHouseResponse response) throws SQLException {
-		super(database, table, statement, response);
-
-		this.records = new LinkedList<>();
-	}
-
-	@Override
-	public int getType() throws SQLException {
-		return TYPE_SCROLL_INSENSITIVE;
-	}
-
-	@Override
-	public void beforeFirst() throws SQLException {
-		absolute(0);
-	}
-
-	@Override
-	public void afterLast() throws SQLException {
-		absolute(-1);
-		next();
-	}
-
-	@Override
-	public boolean first() throws SQLException {
-		return absolute(1);
-	}
-
-	@Override
-	public boolean last() throws SQLException {
-		return absolute(-1);
-	}
-
-	@Override
-	public boolean absolute(int row) throws SQLException {
-		return false;
-		// TODO implemetation
-		/*
-		 * if (row == 0) { rowNumber = 0; values = null; return false; } else if (row >
-		 * 0) { if (row <= lines.size()) { rowNumber = row; values = lines.get(row - 1);
-		 * return true; } absolute(lines.size()); while (getRow() < row && hasNext()) {
-		 * next(); } if (row == getRow()) { return true; } else { next(); return false;
-		 * } } else { // We have to check the number of total rows while (hasNext()) {
-		 * next(); } if (-row > lines.size()) { // there is not so many rows // Put the
-		 * cursor before the first row return absolute(0); } return
-		 * absolute(lines.size() + 1 + row); }
-		 */
-	}
-
-	@Override
-	public boolean relative(int rows) throws SQLException {
-		int r = getRow() + rows;
-		if (r < 0) {
-			r = 0;
-		}
-		return absolute(r);
-	}
-
-	@Override
-	public boolean previous() throws SQLException {
-		return relative(-1);
-	}
+    private final ClickHouseConfig rowConfig;
+    private final ClickHouseColumn[] rowColumns;
+    private final ClickHouseDeserializer<ClickHouseValue>[] deserializers;
+    private final ByteArrayOutputStream rowBuffer;
+    private final ClickHouseOutputStream rowOutput;
+    // rows from spilledRows + 1 to fetchedRows
+    private final byte[][] window;
+
+    private int fetchDirection;
+    private int fetchedRows;
+    private boolean fetchedAll;
+
+    // offsets[i] is start offset of row i + 1 in the file
+    private long[] offsets;
+    private int spilledRows;
+    private FileChannel spillFile;
+
+    // only for testing purpose
+    ClickHouseScrollableResultSet(String database, String table, ClickHouseResponse response, int windowSize) {
+        super(database, table, response);
+
+        this.rowConfig = new ClickHouseConfig();
+        this.rowColumns = columns.toArray(new ClickHouseColumn[0]);
+        this.deserializers = ClickHouseRowBinaryProcessor.getMappedFunctions().compile(rowColumns);
+        this.rowBuffer = new ByteArrayOutputStream();
+        this.rowOutput = ClickHouseOutputStream.of(rowBuffer, 1024);
+        this.window = new byte[windowSize > 0 ? windowSize : DEFAULT_WINDOW_SIZE][];
+
+        this.fetchDirection = ResultSet.FETCH_FORWARD;
+        this.offsets = new long[16];
+    }
+
+    public ClickHouseScrollableResultSet(String database, String table, ClickHouseStatement statement,
+            ClickHouseResponse response) throws SQLException {
+        super(database, table, statement, response);
+
+        this.rowConfig = config;
+        this.rowColumns = columns.toArray(new ClickHouseColumn[0]);
+        this.deserializers = ClickHouseRowBinaryProcessor.getMappedFunctions().compile(rowColumns);
+        this.rowBuffer = new ByteArrayOutputStream();
+        this.rowOutput = ClickHouseOutputStream.of(rowBuffer, 1024);
+        this.window = new byte[getFetchSize() > 0 ? getFetchSize() : DEFAULT_WINDOW_SIZE][];
+
+        this.fetchDirection = ResultSet.FETCH_FORWARD;
+        this.offsets = new long[16];
+    }
+
+    /**
+     * Writes the given row to the end of the temporary file.
+     *
+     * @param bytes non-null row in RowBinary format
+     * @throws IOException when failed to write the row
+     */
+    private void spill(byte[] bytes) throws IOException {
+        if (spillFile == null) {
+            spillFile = FileChannel.open(Files.createTempFile("clickhouse-jdbc-", ".bin"), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        if (spilledRows + 1 >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+
+        long position = offsets[spilledRows];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += spillFile.write(buffer, position);
+        }
+        offsets[++spilledRows] = position;
+    }
+
+    /**
+     * Fetches next row from the response and adds it into the window, which
+     * may cause the oldest row in the window being spilled.
+     *
+     * @return true if a row was fetched; false if there's no more row
+     * @throws SQLException when failed to fetch the row
+     */
+    private boolean fetch() throws SQLException {
+        if (fetchedAll) {
+            return false;
+        }
+
+        try {
+            if ((maxRows > 0 && fetchedRows >= maxRows) || !response.next()) {
+                fetchedAll = true;
+                return false;
+            }
+
+            ClickHouseRecord r = response.currentRecord();
+            ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+            for (int i = 0; i < rowColumns.length; i++) {
+                m.serialize(r.getValue(i), rowConfig, rowColumns[i], rowOutput);
+            }
+            rowOutput.flush();
+
+            int index = fetchedRows % window.length;
+            if (fetchedRows >= window.length) {
+                spill(window[index]);
+            }
+            window[index] = rowBuffer.toByteArray();
+            rowBuffer.reset();
+            fetchedRows++;
+        } catch (Exception e) {
+            throw SqlExceptionUtils.handle(e);
+        }
+        return true;
+    }
+
+    private void fetchAll() throws SQLException {
+        while (fetch()) {
+            // continue
+        }
+    }
+
+    private byte[] getRowBytes(int row) throws IOException {
+        if (row > spilledRows) {
+            return window[(row - 1) % window.length];
+        }
+
+        long position = offsets[row - 1];
+        ByteBuffer buffer = ByteBuffer.allocate((int) (offsets[row] - position));
+        while (buffer.hasRemaining()) {
+            int read = spillFile.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Failed to read row " + row + " from temporary file");
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Moves the cursor to the given fetched row.
+     *
+     * @param row row number between 1 and {@link #fetchedRows}
+     * @throws SQLException when failed to read the row
+     */
+    private void moveTo(int row) throws SQLException {
+        try (ClickHouseInputStream in = ClickHouseInputStream.of(getRowBytes(row))) {
+            ClickHouseValue[] values = new ClickHouseValue[rowColumns.length];
+            for (int i = 0; i < rowColumns.length; i++) {
+                values[i] = deserializers[i].deserialize(null, rowConfig, rowColumns[i], in);
+            }
+            currentRow = ClickHouseSimpleRecord.of(columns, values);
+        } catch (Exception e) {
+            throw SqlExceptionUtils.handle(e);
+        }
+        rowNumber = row;
+        lastReadColumn = 0;
+    }
+
+    @Override
+    protected boolean hasNext() throws SQLException {
+        return rowNumber < fetchedRows || fetch();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            super.close();
+        } finally {
+            if (spillFile != null) {
+                try {
+                    spillFile.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+                spillFile = null;
+            }
+        }
+    }
+
+    // current row is not the one in response, so typed accessors of the response
+    // cannot be used
+
+    @Override
+    public double getDouble(int columnIndex) throws SQLException {
+        return getValue(columnIndex).asDouble();
+    }
+
+    @Override
+    public int getInt(int columnIndex) throws SQLException {
+        return getValue(columnIndex).asInteger();
+    }
+
+    @Override
+    public long getLong(int columnIndex) throws SQLException {
+        return getValue(columnIndex).asLong();
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        ensureOpen();
+
+        return TYPE_SCROLL_INSENSITIVE;
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        ensureOpen();
+
+        return fetchDirection;
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        ensureOpen();
+
+        if (direction != ResultSet.FETCH_FORWARD && direction != ResultSet.FETCH_REVERSE
+                && direction != ResultSet.FETCH_UNKNOWN) {
+            throw SqlExceptionUtils.clientError("Unsupported fetch direction: " + direction);
+        }
+        this.fetchDirection = direction;
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        ensureOpen();
+
+        return currentRow == null ? 0 : rowNumber;
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        ensureOpen();
+
+        return rowNumber == 0 && (fetchedRows > 0 || fetch());
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        ensureOpen();
+
+        return currentRow == null && rowNumber > fetchedRows && fetchedRows > 0;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        ensureOpen();
+
+        return currentRow != null && rowNumber == 1;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        ensureOpen();
+
+        return currentRow != null && rowNumber >= fetchedRows && !fetch();
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        absolute(0);
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        ensureOpen();
+
+        fetchAll();
+        if (fetchedRows > 0) {
+            currentRow = null;
+            rowNumber = fetchedRows + 1;
+            lastReadColumn = 0;
+        }
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return absolute(1);
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return absolute(-1);
+    }
+
+    @Override
+    public boolean absolute(int row) throws SQLException {
+        ensureOpen();
+
+        if (row < 0) {
+            fetchAll();
+            row = Math.max(fetchedRows + 1 + row, 0);
+        }
+
+        while (fetchedRows < row && fetch()) {
+            // fetch until the row is available
+        }
+
+        currentRow = null;
+        lastReadColumn = 0;
+        if (row == 0) {
+            rowNumber = 0;
+            return false;
+        } else if (row > fetchedRows) {
+            rowNumber = fetchedRows + 1;
+            return false;
+        }
+
+        moveTo(row);
+        return true;
+    }
+
+    @Override
+    public boolean relative(int rows) throws SQLException {
+        ensureOpen();
+
+        int row = rowNumber + rows;
+        return absolute(row < 0 ? 0 : row);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        return relative(1);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return relative(-1);
+    }
 }
@@ -21,12 +21,19 @@ public class JdbcConfig {
     private static final Logger log = LoggerFactory.getLogger(JdbcConfig.class);
 
     public static final String PROP_AUTO_COMMIT = "autoCommit";
+    public static final String PROP_BATCH_FLUSH_BYTES = "batchFlushBytes";
+    public static final String PROP_BATCH_FLUSH_ROWS = "batchFlushRows";
     public static final String PROP_CREATE_DATABASE = "createDatabaseIfNotExist";
     public static final String PROP_CONTINUE_BATCH = "continueBatchOnError";
     public static final String PROP_FETCH_SIZE = "fetchSize";
     public static final String PROP_JDBC_COMPLIANT = "jdbcCompliant";
+    public static final String PROP_METADATA_CACHE_TTL = "metadataCacheTtl";
     public static final String PROP_NAMED_PARAM = "namedParameter";
     public static final String PROP_NULL_AS_DEFAULT = "nullAsDefault";
+    public static final String PROP_PARSE_CACHE_SIZE = "parseCacheSize";
+    public static final String PROP_STREAM_BATCH = "streamBatch";
+    public static final String PROP_SCHEMA_CACHE_TTL = "schemaCacheTtl";
+    public static final String PROP_SCHEMA_CACHE_DDL = "invalidateSchemaCacheOnDdl";
     public static final String PROP_TX_SUPPORT = "transactionSupport";
     public static final String PROP_TYPE_MAP = "typeMappings";
     public static final String PROP_WRAPPER_OBJ = "wrapperObject";
@@ -35,12 +42,19 @@ public class JdbcConfig {
     private static final String BOOLEAN_TRUE = "true";
 
     private static final String DEFAULT_AUTO_COMMIT = BOOLEAN_TRUE;
+    private static final String DEFAULT_BATCH_FLUSH_BYTES = "0";
+    private static final String DEFAULT_BATCH_FLUSH_ROWS = "0";
     private static final String DEFAULT_CREATE_DATABASE = BOOLEAN_FALSE;
     private static final String DEFAULT_CONTINUE_BATCH = BOOLEAN_FALSE;
     private static final String DEFAULT_FETCH_SIZE = "0";
     private static final String DEFAULT_JDBC_COMPLIANT = BOOLEAN_TRUE;
+    private static final String DEFAULT_METADATA_CACHE_TTL = "0";
     private static final String DEFAULT_NAMED_PARAM = BOOLEAN_FALSE;
     private static final String DEFAULT_NULL_AS_DEFAULT = "0";
+    private static final String DEFAULT_PARSE_CACHE_SIZE = "50";
+    private static final String DEFAULT_STREAM_BATCH = BOOLEAN_FALSE;
+    private static final String DEFAULT_SCHEMA_CACHE_TTL = "0";
+    private static final String DEFAULT_SCHEMA_CACHE_DDL = BOOLEAN_TRUE;
     private static final String DEFAULT_TX_SUPPORT = BOOLEAN_FALSE;
     private static final String DEFAULT_TYPE_MAP = "";
     private static final String DEFAULT_WRAPPER_OBJ = BOOLEAN_FALSE;
@@ -105,6 +119,14 @@ public class JdbcConfig {
         info.description = "Whether to automatically create database when it does not exist.";
         list.add(info);
 
+        info = new DriverPropertyInfo(PROP_BATCH_FLUSH_BYTES, DEFAULT_BATCH_FLUSH_BYTES);
+        info.description = "Maximum bytes of serialized rows sent in one insert when streaming batch is enabled, zero or negative number means no limit.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_BATCH_FLUSH_ROWS, DEFAULT_BATCH_FLUSH_ROWS);
+        info.description = "Maximum number of rows sent in one insert when streaming batch is enabled, zero or negative number means no limit.";
+        list.add(info);
+
         info = new DriverPropertyInfo(PROP_CONTINUE_BATCH, DEFAULT_CONTINUE_BATCH);
         info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
         info.description = "Whether to continue batch process when error occurred.";
@@ -119,6 +141,10 @@ public class JdbcConfig {
         info.description = "Whether to enable JDBC-compliant features like fake transaction and standard UPDATE and DELETE statements.";
         list.add(info);
 
+        info = new DriverPropertyInfo(PROP_METADATA_CACHE_TTL, DEFAULT_METADATA_CACHE_TTL);
+        info.description = "Seconds to serve database metadata like tables and columns from a schema snapshot shared by connections of the same data source, zero or negative number to always query the server.";
+        list.add(info);
+
         info = new DriverPropertyInfo(PROP_NAMED_PARAM, DEFAULT_NAMED_PARAM);
         info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
         info.description = "Whether to use named parameter(e.g. :ts(DateTime64(6)) or :value etc.) instead of standard JDBC question mark placeholder.";
@@ -128,6 +154,24 @@ public class JdbcConfig {
         info.description = "Default approach to handle null value, sets to 0 or negative number to throw exception when target column is not nullable, 1 to disable the null-check, and 2 or higher to replace null to default value of corresponding data type.";
         list.add(info);
 
+        info = new DriverPropertyInfo(PROP_PARSE_CACHE_SIZE, DEFAULT_PARSE_CACHE_SIZE);
+        info.description = "Maximum number of parsed SQL statements cached per connection, zero or negative number to disable the cache.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_SCHEMA_CACHE_TTL, DEFAULT_SCHEMA_CACHE_TTL);
+        info.description = "Seconds to cache table columns for preparing insert statements, zero or negative number to disable the cache.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_SCHEMA_CACHE_DDL, DEFAULT_SCHEMA_CACHE_DDL);
+        info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
+        info.description = "Whether to invalidate cached table columns after executing DDL statements like ALTER, CREATE, DROP and RENAME.";
+        list.add(info);
+
+        info = new DriverPropertyInfo(PROP_STREAM_BATCH, DEFAULT_STREAM_BATCH);
+        info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
+        info.description = "Whether to start insert on first addBatch and stream rows to server while adding more, only works for insert using input function. Rows already sent cannot be discarded by clearBatch.";
+        list.add(info);
+
         info = new DriverPropertyInfo(PROP_TX_SUPPORT, DEFAULT_TX_SUPPORT);
         info.choices = new String[] { BOOLEAN_TRUE, BOOLEAN_FALSE };
         info.description = "Whether to enable transaction support or not.";
@@ -146,12 +190,19 @@ public class JdbcConfig {
     }
 
     private final boolean autoCommit;
+    private final int batchFlushBytes;
+    private final int batchFlushRows;
     private final boolean createDb;
     private final boolean continueBatch;
     private final int fetchSize;
     private final boolean jdbcCompliant;
+    private final int metadataCacheTtl;
     private final boolean namedParameter;
     private final int nullAsDefault;
+    private final int parseCacheSize;
+    private final int schemaCacheTtl;
+    private final boolean schemaCacheDdl;
+    private final boolean streamBatch;
     private final boolean txSupport;
     private final Map<String, Class<?>> typeMap;
     private final boolean wrapperObject;
@@ -166,12 +217,19 @@ public class JdbcConfig {
         }
 
         this.autoCommit = extractBooleanValue(props, PROP_AUTO_COMMIT, DEFAULT_AUTO_COMMIT);
+        this.batchFlushBytes = extractIntValue(props, PROP_BATCH_FLUSH_BYTES, DEFAULT_BATCH_FLUSH_BYTES);
+        this.batchFlushRows = extractIntValue(props, PROP_BATCH_FLUSH_ROWS, DEFAULT_BATCH_FLUSH_ROWS);
         this.createDb = extractBooleanValue(props, PROP_CREATE_DATABASE, DEFAULT_CREATE_DATABASE);
         this.continueBatch = extractBooleanValue(props, PROP_CONTINUE_BATCH, DEFAULT_CONTINUE_BATCH);
         this.fetchSize = extractIntValue(props, PROP_FETCH_SIZE, DEFAULT_FETCH_SIZE);
         this.jdbcCompliant = extractBooleanValue(props, PROP_JDBC_COMPLIANT, DEFAULT_JDBC_COMPLIANT);
+        this.metadataCacheTtl = extractIntValue(props, PROP_METADATA_CACHE_TTL, DEFAULT_METADATA_CACHE_TTL);
         this.namedParameter = extractBooleanValue(props, PROP_NAMED_PARAM, DEFAULT_NAMED_PARAM);
         this.nullAsDefault = extractIntValue(props, PROP_NULL_AS_DEFAULT, DEFAULT_NULL_AS_DEFAULT);
+        this.parseCacheSize = extractIntValue(props, PROP_PARSE_CACHE_SIZE, DEFAULT_PARSE_CACHE_SIZE);
+        this.schemaCacheTtl = extractIntValue(props, PROP_SCHEMA_CACHE_TTL, DEFAULT_SCHEMA_CACHE_TTL);
+        this.schemaCacheDdl = extractBooleanValue(props, PROP_SCHEMA_CACHE_DDL, DEFAULT_SCHEMA_CACHE_DDL);
+        this.streamBatch = extractBooleanValue(props, PROP_STREAM_BATCH, DEFAULT_STREAM_BATCH);
         this.txSupport = extractBooleanValue(props, PROP_TX_SUPPORT, DEFAULT_TX_SUPPORT);
         this.typeMap = extractTypeMapValue(props, PROP_TYPE_MAP, DEFAULT_TYPE_MAP);
         this.wrapperObject = extractBooleanValue(props, PROP_WRAPPER_OBJ, DEFAULT_WRAPPER_OBJ);
@@ -197,6 +255,27 @@ public class JdbcConfig {
         return createDb;
     }
 
+    /**
+     * Gets maximum bytes of serialized rows sent in one insert when streaming
+     * batch is enabled.
+     *
+     * @return maximum bytes in one insert, zero or negative number means no limit
+     */
+    public int getBatchFlushBytes() {
+        return batchFlushBytes;
+    }
+
+    /**
+     * Gets maximum number of rows sent in one insert when streaming batch is
+     * enabled.
+     *
+     * @return maximum number of rows in one insert, zero or negative number means
+     *         no limit
+     */
+    public int getBatchFlushRows() {
+        return batchFlushRows;
+    }
+
     /**
      * Checks whether batch processing should continue when error occurred.
      *
@@ -252,6 +331,57 @@ public class JdbcConfig {
         return nullAsDefault;
     }
 
+    /**
+     * Gets maximum number of parsed SQL statements cached in a connection.
+     *
+     * @return maximum number of parsed SQL statements, zero or negative number
+     *         means cache is disabled
+     */
+    public int getParseCacheSize() {
+        return parseCacheSize;
+    }
+
+    /**
+     * Gets seconds to serve database metadata from schema snapshot.
+     *
+     * @return seconds to serve database metadata from schema snapshot, zero or
+     *         negative number means snapshot is disabled
+     */
+    public int getMetadataCacheTtl() {
+        return metadataCacheTtl;
+    }
+
+    /**
+     * Gets seconds to cache table columns for preparing insert statements.
+     *
+     * @return seconds to cache table columns, zero or negative number means cache
+     *         is disabled
+     */
+    public int getSchemaCacheTtl() {
+        return schemaCacheTtl;
+    }
+
+    /**
+     * Checks whether cached table columns should be invalidated after executing
+     * DDL statements.
+     *
+     * @return true if cached table columns should be invalidated on DDL; false
+     *         otherwise
+     */
+    public boolean isInvalidateSchemaCacheOnDdl() {
+        return schemaCacheDdl;
+    }
+
+    /**
+     * Checks whether insert should start on first {@code addBatch} and stream rows
+     * to server while adding more.
+     *
+     * @return true if batch should be streamed; false otherwise
+     */
+    public boolean isStreamBatch() {
+        return streamBatch;
+    }
+
     /**
      * Checks whether named parameter should be used instead of JDBC standard
      * question mark placeholder.
@@ -23,6 +23,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.clickhouse.client.ClickHouseCache;
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseClientBuilder;
@@ -113,6 +114,11 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
     private final ClickHouseClient client;
     private final ClickHouseRequest<?> clientRequest;
+    // parsed statements keyed by SQL, null when the cache is disabled
+    private final ClickHouseCache<String, ClickHouseSqlStatement[]> parseCache;
+    // table columns for preparing insert statements, null when the cache is disabled
+    private final TableColumnsCache schemaCache;
+    private final SchemaSnapshot schemaSnapshot;
 
     private boolean autoCommit;
     private boolean closed;
@@ -206,6 +212,15 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
             throw SqlExceptionUtils.clientError("Failed to extract table and columns from the query");
         }
 
+        String db = ClickHouseChecker.isNullOrEmpty(dbName) ? database : dbName;
+        if (schemaCache != null) {
+            List<ClickHouseColumn> list = schemaCache.get(db, tableName, columns);
+            if (list != null) {
+                return list;
+            }
+        }
+
+        String cols = columns;
         if (columns.isEmpty()) {
             columns = "*";
         } else {
@@ -225,6 +240,10 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
         } catch (Exception e) {
             throw SqlExceptionUtils.handle(e);
         }
+
+        if (schemaCache != null) {
+            schemaCache.put(db, tableName, cols, list);
+        }
         return list;
     }
 
@@ -352,6 +371,22 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
         this.serverVersion = version;
         this.typeMap = new HashMap<>(jdbcConf.getTypeMap());
         this.txRef = new AtomicReference<>(this.autoCommit ? null : createTransaction());
+
+        int cacheSize = jdbcConf.getParseCacheSize();
+        // parse result only depends on the SQL and the handler, which never changes
+        // in the same connection
+        this.parseCache = cacheSize > 0
+                ? ClickHouseCache.create(cacheSize, 3600L, this::parseWithoutCache)
+                : null;
+        this.schemaCache = jdbcConf.getSchemaCacheTtl() > 0
+                ? new TableColumnsCache(TimeUnit.SECONDS.toMillis(jdbcConf.getSchemaCacheTtl()))
+                : null;
+        this.schemaSnapshot = connInfo.getSchemaSnapshot();
+    }
+
+    private ClickHouseSqlStatement[] parseWithoutCache(String sql) {
+        return ClickHouseSqlParser.parse(sql, clientRequest.getConfig(),
+                jdbcConf.isJdbcCompliant() ? JdbcParseHandler.INSTANCE : null);
     }
 
     @Override
@@ -470,7 +505,7 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
 
     @Override
     public DatabaseMetaData getMetaData() throws SQLException {
-        return new ClickHouseDatabaseMetaData(this);
+        return new ClickHouseDatabaseMetaData(this, schemaSnapshot);
     }
 
     @Override
@@ -1021,16 +1056,32 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
         return tx != null ? tx.newQuery(queryId) : queryId;
     }
 
+    @Override
+    public void invalidateTableColumns(String database, String table) {
+        String db = ClickHouseChecker.isNullOrEmpty(database) ? this.database : database;
+        if (schemaCache != null) {
+            schemaCache.invalidate(db, table);
+        }
+        if (schemaSnapshot != null) {
+            schemaSnapshot.invalidate(table != null ? db : null);
+        }
+    }
+
     @Override
     public ClickHouseSqlStatement[] parse(String sql, ClickHouseConfig config) {
-        return ClickHouseSqlParser.parse(sql, config != null ? config : clientRequest.getConfig(),
-                jdbcConf.isJdbcCompliant() ? JdbcParseHandler.INSTANCE : null);
+        if (parseCache == null || sql == null) {
+            return ClickHouseSqlParser.parse(sql, config != null ? config : clientRequest.getConfig(),
+                    jdbcConf.isJdbcCompliant() ? JdbcParseHandler.INSTANCE : null);
+        }
+
+        // statements are immutable but the array is not
+        return parseCache.get(sql).clone();
     }
 
     @Override
     public boolean isWrapperFor(Class<?> iface) throws SQLException {
         return iface == ClickHouseClient.class || iface == ClickHouseRequest.class
-                || super.isWrapperFor(iface);
+                || (iface == ClickHouseCache.class && parseCache != null) || super.isWrapperFor(iface);
     }
 
     @Override
@@ -1039,6 +1090,8 @@ public class ClickHouseConnectionImpl extends JdbcWrapper implements ClickHouseC
             return iface.cast(client);
         } else if (iface == ClickHouseRequest.class) {
             return iface.cast(clientRequest);
+        } else if (iface == ClickHouseCache.class && parseCache != null) {
+            return iface.cast(parseCache);
         }
 
         return super.unwrap(iface);
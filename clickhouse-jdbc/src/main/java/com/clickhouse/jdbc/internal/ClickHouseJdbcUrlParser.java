@@ -3,6 +3,7 @@ package com.clickhouse.jdbc.internal;
 import java.net.URISyntaxException;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 import com.clickhouse.client.ClickHouseChecker;
 import com.clickhouse.client.ClickHouseCredentials;
@@ -22,6 +23,7 @@ public class ClickHouseJdbcUrlParser {
         private final ClickHouseNodes nodes;
         private final JdbcConfig jdbcConf;
         private final Properties props;
+        private final SchemaSnapshot snapshot;
 
         protected ConnectionInfo(String cacheKey, ClickHouseNodes nodes, Properties props) {
             this.cacheKey = cacheKey;
@@ -38,6 +40,9 @@ public class ClickHouseJdbcUrlParser {
                 }
             }
             this.credentials = c;
+            this.snapshot = jdbcConf.getMetadataCacheTtl() > 0
+                    ? new SchemaSnapshot(TimeUnit.SECONDS.toMillis(jdbcConf.getMetadataCacheTtl()))
+                    : null;
         }
 
         public ClickHouseCredentials getDefaultCredentials() {
@@ -72,6 +77,15 @@ public class ClickHouseJdbcUrlParser {
         public Properties getProperties() {
             return props;
         }
+
+        /**
+         * Gets schema snapshot shared by connections created using this object.
+         *
+         * @return schema snapshot, or null when it's disabled
+         */
+        public SchemaSnapshot getSchemaSnapshot() {
+            return snapshot;
+        }
     }
 
     // URL pattern:
@@ -11,6 +11,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -19,12 +20,14 @@ import com.clickhouse.client.ClickHouseClient;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseDataStreamFactory;
 import com.clickhouse.client.ClickHouseDeserializer;
+import com.clickhouse.client.ClickHouseException;
 import com.clickhouse.client.ClickHouseFormat;
 import com.clickhouse.client.ClickHouseNode;
 import com.clickhouse.client.ClickHouseRequest;
 import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseResponseSummary;
 import com.clickhouse.client.ClickHouseSerializer;
+import com.clickhouse.client.ClickHouseTransaction;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
 import com.clickhouse.client.ClickHouseValues;
@@ -37,6 +40,7 @@ import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
 import com.clickhouse.jdbc.ClickHouseConnection;
 import com.clickhouse.jdbc.ClickHouseResultSet;
+import com.clickhouse.jdbc.ClickHouseScrollableResultSet;
 import com.clickhouse.jdbc.ClickHouseStatement;
 import com.clickhouse.jdbc.SqlExceptionUtils;
 import com.clickhouse.jdbc.JdbcWrapper;
@@ -100,11 +104,14 @@ public class ClickHouseStatementImpl extends JdbcWrapper
             } finally {
                 if (response == null) {
                     // something went wrong
-                } else if (i + 1 < len) {
-                    response.close();
-                    response = null;
                 } else {
-                    updateResult(stmt, response);
+                    onExecuted(stmt);
+                    if (i + 1 < len) {
+                        response.close();
+                        response = null;
+                    } else {
+                        updateResult(stmt, response);
+                    }
                 }
             }
         }
@@ -166,6 +173,26 @@ public class ClickHouseStatementImpl extends JdbcWrapper
         }
     }
 
+    protected void onExecuted(ClickHouseSqlStatement stmt) {
+        if (!connection.getJdbcConfig().isInvalidateSchemaCacheOnDdl()) {
+            return;
+        }
+
+        switch (stmt.getStatementType()) {
+            case ALTER:
+            case ATTACH:
+            case CREATE:
+            case DETACH:
+            case DROP:
+            case RENAME:
+                // statements like RENAME and EXCHANGE may change more than one table
+                connection.invalidateTableColumns(null, null);
+                break;
+            default:
+                break;
+        }
+    }
+
     protected ClickHouseResponse executeStatement(ClickHouseSqlStatement stmt,
             Map<ClickHouseOption, Serializable> options, List<ClickHouseExternalTable> tables,
             Map<String, String> settings) throws SQLException {
@@ -187,6 +214,44 @@ public class ClickHouseStatementImpl extends JdbcWrapper
         return (int) currentUpdateCount;
     }
 
+    /**
+     * Starts to execute insert query asynchronously, so that the caller can keep
+     * writing data into the given input stream at the same time.
+     *
+     * @param sql   non-null insert query
+     * @param input non-null input stream
+     * @return non-null future to get response
+     * @throws SQLException when failed to start the execution
+     */
+    protected CompletableFuture<ClickHouseResponse> executeInsertAsync(String sql, InputStream input)
+            throws SQLException {
+        final boolean autoTx = connection.getAutoCommit() && connection.isTransactionSupported();
+        final boolean implicitTx = autoTx && connection.isImplicitTransactionSupported();
+        final Mutation req = request.write().query(sql, queryId = connection.newQueryId()).data(input);
+        try {
+            if (!autoTx) {
+                return req.transaction(connection.getTransaction()).execute();
+            } else if (implicitTx) {
+                return req.set(ClickHouseTransaction.SETTING_IMPLICIT_TRANSACTION, 1).transaction(null).execute();
+            }
+
+            // same as executeWithinTransaction(false) but without blocking, the
+            // transaction will be committed when the response is fully consumed
+            final ClickHouseTransaction tx = req.getManager().createImplicitTransaction(req);
+            return req.transaction(tx).execute().whenComplete((r, e) -> {
+                if (e != null) {
+                    try {
+                        tx.rollback();
+                    } catch (Exception ex) {
+                        // ignore
+                    }
+                }
+            });
+        } catch (ClickHouseException e) {
+            throw SqlExceptionUtils.handle(e);
+        }
+    }
+
     protected ClickHouseSqlStatement getLastStatement() {
         ClickHouseSqlStatement stmt = null;
 
@@ -221,8 +286,10 @@ public class ClickHouseStatementImpl extends JdbcWrapper
     protected ResultSet updateResult(ClickHouseSqlStatement stmt, ClickHouseResponse response) throws SQLException {
         if (stmt.isQuery() || !response.getColumns().isEmpty()) {
             currentUpdateCount = -1L;
-            currentResult = new ClickHouseResultSet(stmt.getDatabaseOrDefault(getConnection().getCurrentDatabase()),
-                    stmt.getTable(), this, response);
+            String database = stmt.getDatabaseOrDefault(getConnection().getCurrentDatabase());
+            currentResult = resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE
+                    ? new ClickHouseScrollableResultSet(database, stmt.getTable(), this, response)
+                    : new ClickHouseResultSet(database, stmt.getTable(), this, response);
         } else {
             response.close();
             currentUpdateCount = stmt.isDDL() ? 0L
@@ -242,7 +309,8 @@ public class ClickHouseStatementImpl extends JdbcWrapper
         this.request = request.setChangeListener(this);
 
         // TODO validate resultSet attributes
-        this.resultSetType = ResultSet.TYPE_FORWARD_ONLY;
+        this.resultSetType = resultSetType == ResultSet.TYPE_SCROLL_INSENSITIVE ? resultSetType
+                : ResultSet.TYPE_FORWARD_ONLY;
         this.resultSetConcurrency = ResultSet.CONCUR_READ_ONLY;
         this.resultSetHoldability = ResultSet.CLOSE_CURSORS_AT_COMMIT;
 
@@ -604,6 +672,7 @@ public class ClickHouseStatementImpl extends JdbcWrapper
             int i = 0;
             for (ClickHouseSqlStatement s : batchStmts) {
                 try (ClickHouseResponse r = executeStatement(s, null, null, null); ResultSet rs = updateResult(s, r)) {
+                    onExecuted(s);
                     if (currentResult != null) {
                         throw SqlExceptionUtils.queryInBatchError(results);
                     }
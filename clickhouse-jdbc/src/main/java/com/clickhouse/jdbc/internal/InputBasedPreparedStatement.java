@@ -18,23 +18,42 @@ import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import com.clickhouse.client.ClickHouseColumn;
 import com.clickhouse.client.ClickHouseConfig;
 import com.clickhouse.client.ClickHouseDataStreamFactory;
+import com.clickhouse.client.ClickHouseOutputStream;
 import com.clickhouse.client.ClickHousePipedOutputStream;
 import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.ClickHouseResponse;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.ClickHouseValue;
 import com.clickhouse.client.ClickHouseValues;
 import com.clickhouse.client.logging.Logger;
 import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.stream.MeteredOutputStream;
 import com.clickhouse.jdbc.ClickHousePreparedStatement;
+import com.clickhouse.jdbc.JdbcConfig;
 import com.clickhouse.jdbc.SqlExceptionUtils;
+import com.clickhouse.jdbc.parser.ClickHouseSqlStatement;
+import com.clickhouse.jdbc.parser.StatementType;
 
 public class InputBasedPreparedStatement extends AbstractPreparedStatement implements ClickHousePreparedStatement {
     private static final Logger log = LoggerFactory.getLogger(InputBasedPreparedStatement.class);
 
+    static final class Chunk {
+        final int rows;
+        final boolean failed;
+
+        Chunk(int rows, boolean failed) {
+            this.rows = rows;
+            this.failed = failed;
+        }
+    }
+
     private final Calendar defaultCalendar;
     private final ZoneId timeZoneForDate;
     private final ZoneId timeZoneForTs;
@@ -44,8 +63,20 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
     private final ClickHouseParameterMetaData paramMetaData;
     private final boolean[] flags;
 
+    private final boolean streaming;
+    private final int flushBytes;
+    private final int flushRows;
+    private final List<Chunk> chunks;
+
     private int counter;
     private ClickHousePipedOutputStream stream;
+    private ClickHouseOutputStream output;
+
+    // only used in streaming mode
+    private int pendingRows;
+    private MeteredOutputStream meter;
+    private CompletableFuture<ClickHouseResponse> pending;
+    private Exception lastError;
 
     protected InputBasedPreparedStatement(ClickHouseConnectionImpl connection, ClickHouseRequest<?> request,
             List<ClickHouseColumn> columns, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
@@ -75,10 +106,152 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
         paramMetaData = new ClickHouseParameterMetaData(Collections.unmodifiableList(list));
         flags = new boolean[size];
 
+        JdbcConfig jdbcConfig = connection.getJdbcConfig();
+        streaming = jdbcConfig.isStreamBatch();
+        flushBytes = jdbcConfig.getBatchFlushBytes();
+        flushRows = jdbcConfig.getBatchFlushRows();
+        chunks = new ArrayList<>();
+
         counter = 0;
-        // it's important to make sure the queue has unlimited length
-        stream = ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config.getWriteBufferSize(), 0,
-                config.getSocketTimeout(), null);
+        resetStream();
+    }
+
+    protected void resetStream() {
+        pendingRows = 0;
+        meter = null;
+        pending = null;
+
+        if (streaming) {
+            // insert will be started on first addBatch
+            stream = null;
+            output = null;
+        } else {
+            ClickHouseConfig config = getConfig();
+            // it's important to make sure the queue has unlimited length
+            stream = ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config.getWriteBufferSize(), 0,
+                    config.getSocketTimeout(), null);
+            output = stream;
+        }
+    }
+
+    protected void startInsert() throws SQLException {
+        ClickHouseConfig config = getConfig();
+        // queue length is limited as server is consuming data at the same time
+        stream = ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config, null);
+        if (flushBytes > 0) {
+            meter = new MeteredOutputStream(stream);
+            output = ClickHouseOutputStream.of(meter, config.getWriteBufferSize());
+        } else {
+            output = stream;
+        }
+        pending = executeInsertAsync(getRequest().getStatements(false).get(0), stream.getInputStream());
+    }
+
+    /**
+     * Closes the stream and waits until the insert started by
+     * {@link #startInsert()} is completed.
+     *
+     * @param cause error occurred when writing data, could be null
+     * @return error occurred, null means success
+     */
+    protected Exception finishInsert(Exception cause) {
+        Exception error = cause;
+        if (cause != null) {
+            // closing the stream ends the data normally, so the query must be killed
+            // first to prevent server from inserting rows written so far
+            try {
+                cancel();
+            } catch (Exception e) {
+                // ignore
+            }
+            pending.cancel(true);
+        }
+        try {
+            output.close();
+        } catch (Exception e) {
+            if (error == null) {
+                error = e;
+            }
+        } finally {
+            try {
+                stream.close();
+            } catch (Exception e) {
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+
+        ClickHouseSqlStatement stmt = new ClickHouseSqlStatement(getRequest().getStatements(false).get(0),
+                StatementType.INSERT);
+        try (ClickHouseResponse resp = pending.get()) {
+            updateResult(stmt, resp);
+        } catch (CancellationException e) {
+            // error is the cause
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (error == null) {
+                error = e;
+            }
+        } catch (ExecutionException e) {
+            if (error == null) {
+                error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        } catch (Exception e) {
+            if (error == null) {
+                error = e;
+            }
+        }
+
+        chunks.add(new Chunk(pendingRows, error != null));
+        if (error != null) {
+            lastError = error;
+        }
+        resetStream();
+        return error;
+    }
+
+    protected long[] getBatchResults() {
+        long[] results = new long[counter];
+        int index = 0;
+        for (Chunk c : chunks) {
+            int end = Math.min(index + c.rows, counter);
+            Arrays.fill(results, index, end, c.failed ? EXECUTE_FAILED : 1L);
+            index = end;
+        }
+        return results;
+    }
+
+    protected long[] executeStreaming(boolean asBatch) throws SQLException {
+        boolean continueOnError = false;
+        if (asBatch) {
+            if (counter < 1) {
+                return ClickHouseValues.EMPTY_LONG_ARRAY;
+            }
+            continueOnError = getConnection().getJdbcConfig().isContinueBatchOnError();
+        } else {
+            if (counter != 0) {
+                throw SqlExceptionUtils.undeterminedExecutionError();
+            }
+            addBatch();
+        }
+
+        if (pending != null) {
+            finishInsert(null);
+        }
+        long[] results = getBatchResults();
+        Exception error = lastError;
+        clearBatch();
+
+        if (error != null) {
+            if (!asBatch) {
+                throw SqlExceptionUtils.handle(error);
+            } else if (!continueOnError) {
+                throw SqlExceptionUtils.batchUpdateError(error, results);
+            }
+            log.error("Failed to execute batch insert of %d records", results.length, error);
+        }
+        return results;
     }
 
     protected void ensureParams() throws SQLException {
@@ -97,6 +270,10 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
     @Override
     protected long[] executeAny(boolean asBatch) throws SQLException {
         ensureOpen();
+        if (streaming) {
+            return executeStreaming(asBatch);
+        }
+
         boolean continueOnError = false;
         if (asBatch) {
             if (counter < 1) {
@@ -319,6 +496,12 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
                 throw SqlExceptionUtils
                         .clientError(ClickHouseUtils.format("Missing value for parameter #%d [%s]", i + 1, columns[i]));
             }
+        }
+
+        if (streaming && pending == null) {
+            startInsert();
+        }
+        for (int i = 0, len = values.length; i < len; i++) {
             ClickHouseColumn col = columns[i];
             ClickHouseValue val = values[i];
             if (!col.isNestedType() && !col.isNullable() && (val == null || val.isNullOrEmpty())) {
@@ -330,32 +513,74 @@ public class InputBasedPreparedStatement extends AbstractPreparedStatement imple
                 }
             }
             try {
-                serializer.serialize(val, config, col, stream);
+                serializer.serialize(val, config, col, output);
             } catch (IOException e) {
-                // should not happen
-                throw SqlExceptionUtils.handle(e);
+                if (!streaming) {
+                    // should not happen
+                    throw SqlExceptionUtils.handle(e);
+                }
+
+                counter++;
+                pendingRows++;
+                clearParameters();
+                onChunkFailure(finishInsert(e));
+                return;
             }
         }
 
         counter++;
         clearParameters();
+
+        if (streaming) {
+            pendingRows++;
+            if ((flushRows > 0 && pendingRows >= flushRows) || (meter != null && meter.getCount() >= flushBytes)) {
+                onChunkFailure(finishInsert(null));
+            }
+        }
+    }
+
+    protected void onChunkFailure(Exception error) throws SQLException {
+        if (error == null) {
+            return;
+        } else if (getConnection().getJdbcConfig().isContinueBatchOnError()) {
+            log.error("Failed to insert %d records", chunks.get(chunks.size() - 1).rows, error);
+            return;
+        }
+
+        long[] results = getBatchResults();
+        clearBatch();
+        throw SqlExceptionUtils.batchUpdateError(error, results);
     }
 
     @Override
     public void clearBatch() throws SQLException {
         ensureOpen();
 
-        // just in case
-        try {
-            stream.close();
-        } catch (Exception e) {
-            // ignore
+        if (pending != null) {
+            // rows already sent to server cannot be discarded
+            finishInsert(null);
+        } else if (stream != null) {
+            // just in case
+            try {
+                stream.close();
+            } catch (Exception e) {
+                // ignore
+            }
         }
         counter = 0;
+        chunks.clear();
+        lastError = null;
 
-        ClickHouseConfig config = getConfig();
-        stream = ClickHouseDataStreamFactory.getInstance().createPipedOutputStream(config.getWriteBufferSize(), 0,
-                config.getSocketTimeout(), null);
+        resetStream();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!isClosed() && pending != null) {
+            finishInsert(null);
+        }
+
+        super.close();
     }
 
     @Override
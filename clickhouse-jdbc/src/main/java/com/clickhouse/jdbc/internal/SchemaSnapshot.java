@@ -0,0 +1,324 @@
+package com.clickhouse.jdbc.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+
+/**
+ * Snapshot of tables and columns for serving database metadata, so that
+ * connections created by the same data source do not have to query system
+ * tables over and over again. Each database is loaded as a whole, and expires
+ * after given milliseconds since it was loaded or last checked. When refreshing
+ * an expired database, only tables with different metadata modification time,
+ * or modified in or after the second the database was loaded, need to be
+ * reloaded. Invalidated database will be fully reloaded.
+ */
+public final class SchemaSnapshot {
+    /**
+     * Table in the snapshot.
+     */
+    public static final class Table {
+        private final String name;
+        private final long modificationTime;
+        private final Object[] row;
+        private final List<Object[]> columns;
+
+        /**
+         * Default constructor.
+         *
+         * @param name             non-null table name
+         * @param modificationTime metadata modification time
+         * @param row              non-null row returned by
+         *                         {@link java.sql.DatabaseMetaData#getTables}
+         * @param columns          non-null rows returned by
+         *                         {@link java.sql.DatabaseMetaData#getColumns},
+         *                         in which {@code DATA_TYPE} should be derived
+         *                         from {@code TYPE_NAME} using type mappings of
+         *                         the connection being served
+         */
+        public Table(String name, long modificationTime, Object[] row, List<Object[]> columns) {
+            this.name = name;
+            this.modificationTime = modificationTime;
+            this.row = row;
+            this.columns = Collections.unmodifiableList(columns);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getModificationTime() {
+            return modificationTime;
+        }
+
+        public Object[] getRow() {
+            return row;
+        }
+
+        public List<Object[]> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * Immutable database in the snapshot.
+     */
+    public static final class Database {
+        private final String name;
+        private final Map<String, Table> tables;
+        private final long loadTime;
+        private final long expireAt;
+
+        Database(String name, Map<String, Table> tables, long loadTime, long expireAt) {
+            this.name = name;
+            this.tables = tables;
+            this.loadTime = loadTime;
+            this.expireAt = expireAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets table by name.
+         *
+         * @param table non-null table name
+         * @return table, or null when it does not exist
+         */
+        public Table getTable(String table) {
+            return tables.get(table);
+        }
+
+        /**
+         * Gets all tables sorted by name.
+         *
+         * @return non-null tables
+         */
+        public Collection<Table> getTables() {
+            return Collections.unmodifiableCollection(tables.values());
+        }
+
+        /**
+         * Checks whether the given table should be reloaded. Since metadata
+         * modification time is in seconds, a table modified in the same second
+         * the database was loaded is considered as changed, because it's unknown
+         * whether the change happened before or after loading.
+         *
+         * @param table            non-null table name
+         * @param modificationTime current metadata modification time in seconds
+         * @return true if the table should be reloaded; false otherwise
+         */
+        public boolean isChanged(String table, long modificationTime) {
+            Table t = tables.get(table);
+            return t == null || t.getModificationTime() != modificationTime || modificationTime >= loadTime;
+        }
+
+        /**
+         * Checks whether the database should be refreshed.
+         *
+         * @return true if the database is expired; false otherwise
+         */
+        public boolean isExpired() {
+            return expireAt <= System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Checks whether the given value matches SQL {@code LIKE} pattern, in which
+     * {@code %} matches any sequence of characters, {@code _} matches one
+     * character, and backslash is used for escaping.
+     *
+     * @param value   non-null value to check
+     * @param pattern pattern, null or empty string matches everything
+     * @return true if the value matches the pattern; false otherwise
+     */
+    public static boolean like(String value, String pattern) {
+        if (ClickHouseChecker.isNullOrEmpty(pattern) || "%".equals(pattern)) {
+            return true;
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0, len = pattern.length(); i < len; i++) {
+            char ch = pattern.charAt(i);
+            if (ch == '\\' && i + 1 < len) {
+                builder.append(Pattern.quote(String.valueOf(pattern.charAt(++i))));
+            } else if (ch == '%') {
+                builder.append(".*");
+            } else if (ch == '_') {
+                builder.append('.');
+            } else {
+                builder.append(Pattern.quote(String.valueOf(ch)));
+            }
+        }
+        return Pattern.compile(builder.toString(), Pattern.DOTALL).matcher(value).matches();
+    }
+
+    private final long ttl;
+    private final Map<String, Database> databases;
+
+    private volatile List<String> databaseNames;
+    private volatile long databaseNamesExpireAt;
+    private volatile List<ClickHouseColumn> tableColumns;
+    private volatile List<ClickHouseColumn> columnColumns;
+
+    /**
+     * Default constructor.
+     *
+     * @param ttl milliseconds to expire after load, must be greater than zero
+     */
+    public SchemaSnapshot(long ttl) {
+        if (ttl <= 0L) {
+            throw new IllegalArgumentException("TTL must be greater than zero");
+        }
+
+        this.ttl = ttl;
+        this.databases = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets database names.
+     *
+     * @return database names, or null when it's not loaded or expired
+     */
+    public List<String> getDatabases() {
+        return databaseNamesExpireAt > System.currentTimeMillis() ? databaseNames : null;
+    }
+
+    /**
+     * Sets database names.
+     *
+     * @param names non-null database names
+     */
+    public void setDatabases(List<String> names) {
+        databaseNames = Collections.unmodifiableList(new ArrayList<>(names));
+        databaseNamesExpireAt = System.currentTimeMillis() + ttl;
+    }
+
+    /**
+     * Gets columns of result set returned by
+     * {@link java.sql.DatabaseMetaData#getTables}.
+     *
+     * @return columns, or null when no database has been loaded
+     */
+    public List<ClickHouseColumn> getTableColumns() {
+        return tableColumns;
+    }
+
+    /**
+     * Gets columns of result set returned by
+     * {@link java.sql.DatabaseMetaData#getColumns}.
+     *
+     * @return columns, or null when no database has been loaded
+     */
+    public List<ClickHouseColumn> getColumnColumns() {
+        return columnColumns;
+    }
+
+    /**
+     * Sets columns of result sets for tables and columns.
+     *
+     * @param tableColumns  non-null columns of tables
+     * @param columnColumns non-null columns of columns
+     */
+    public void setColumns(List<ClickHouseColumn> tableColumns, List<ClickHouseColumn> columnColumns) {
+        this.tableColumns = tableColumns;
+        this.columnColumns = columnColumns;
+    }
+
+    /**
+     * Gets database, which may or may not be expired.
+     *
+     * @param database non-null database name
+     * @return database, or null when it's not loaded
+     */
+    public Database get(String database) {
+        return databases.get(database);
+    }
+
+    /**
+     * Puts fully loaded database into the snapshot.
+     *
+     * @param database non-null database name
+     * @param tables   non-null tables in the database
+     * @return non-null database in the snapshot
+     */
+    public Database put(String database, Collection<Table> tables) {
+        Map<String, Table> map = new TreeMap<>();
+        for (Table t : tables) {
+            map.put(t.getName(), t);
+        }
+        long now = System.currentTimeMillis();
+        Database db = new Database(database, map, now / 1000L, now + ttl);
+        databases.put(database, db);
+        return db;
+    }
+
+    /**
+     * Updates database in the snapshot. Tables not in {@code times} are removed,
+     * and unchanged tables are copied from {@code database}.
+     *
+     * @param database non-null database to update
+     * @param times    non-null metadata modification time of all tables
+     * @param tables   non-null reloaded tables
+     * @return non-null database in the snapshot
+     */
+    public Database update(Database database, Map<String, Long> times, Collection<Table> tables) {
+        Map<String, Table> reloaded = new TreeMap<>();
+        for (Table t : tables) {
+            reloaded.put(t.getName(), t);
+        }
+
+        Map<String, Table> map = new TreeMap<>();
+        for (Map.Entry<String, Long> e : times.entrySet()) {
+            String name = e.getKey();
+            Table t = reloaded.get(name);
+            if (t == null) {
+                if (database.isChanged(name, e.getValue())) {
+                    // created or changed after the reload
+                    continue;
+                }
+                t = database.getTable(name);
+            }
+            map.put(name, t);
+        }
+        long now = System.currentTimeMillis();
+        Database db = new Database(database.getName(), map, now / 1000L, now + ttl);
+        databases.put(db.getName(), db);
+        return db;
+    }
+
+    /**
+     * Removes the given database from the snapshot, so that it will be fully
+     * reloaded next time. Unlike expiration, it does not rely on metadata
+     * modification time, which is not precise enough to detect all changes.
+     *
+     * @param database database name, null means all databases
+     */
+    public void invalidate(String database) {
+        if (database == null) {
+            databaseNamesExpireAt = 0L;
+            databases.clear();
+        } else {
+            databases.remove(database);
+        }
+    }
+
+    /**
+     * Gets number of loaded databases, including expired ones but not the
+     * invalidated.
+     *
+     * @return number of loaded databases
+     */
+    public int size() {
+        return databases.size();
+    }
+}
@@ -0,0 +1,155 @@
+package com.clickhouse.jdbc.internal;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.clickhouse.client.ClickHouseColumn;
+
+/**
+ * Cache of table columns for preparing insert statements, so that only the
+ * first preparation needs to query the server. Entries expire after given
+ * milliseconds since they were written.
+ */
+public final class TableColumnsCache {
+    static final int MAX_ENTRIES = 1000;
+
+    static final class Key {
+        final String database;
+        final String table;
+        final String columns;
+
+        Key(String database, String table, String columns) {
+            this.database = database != null ? database : "";
+            this.table = table;
+            this.columns = columns != null ? columns : "";
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return database.equals(other.database) && Objects.equals(table, other.table)
+                    && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * (31 + database.hashCode()) + Objects.hashCode(table)) * 31 + columns.hashCode();
+        }
+    }
+
+    static final class Entry {
+        final List<ClickHouseColumn> columns;
+        final long expireAt;
+
+        Entry(List<ClickHouseColumn> columns, long expireAt) {
+            this.columns = columns;
+            this.expireAt = expireAt;
+        }
+    }
+
+    private final long ttl;
+    private final Map<Key, Entry> cache;
+
+    private void purge(long now) {
+        Iterator<Entry> it = cache.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().expireAt <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param ttl milliseconds to expire after write, must be greater than zero
+     */
+    public TableColumnsCache(long ttl) {
+        if (ttl <= 0L) {
+            throw new IllegalArgumentException("TTL must be greater than zero");
+        }
+
+        this.ttl = ttl;
+        this.cache = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets cached columns.
+     *
+     * @param database database name, null or empty string means current database
+     * @param table    non-null table name
+     * @param columns  columns defined in the query, could be null or empty
+     * @return cached columns, or null when it's not in cache or expired
+     */
+    public List<ClickHouseColumn> get(String database, String table, String columns) {
+        Key key = new Key(database, table, columns);
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        } else if (entry.expireAt <= System.currentTimeMillis()) {
+            cache.remove(key, entry);
+            return null;
+        }
+        return entry.columns;
+    }
+
+    /**
+     * Puts columns into cache.
+     *
+     * @param database     database name, null or empty string means current
+     *                     database
+     * @param table        non-null table name
+     * @param columns      columns defined in the query, could be null or empty
+     * @param tableColumns non-null columns returned from server
+     */
+    public void put(String database, String table, String columns, List<ClickHouseColumn> tableColumns) {
+        long now = System.currentTimeMillis();
+        if (cache.size() >= MAX_ENTRIES) {
+            purge(now);
+            if (cache.size() >= MAX_ENTRIES) {
+                cache.clear();
+            }
+        }
+        cache.put(new Key(database, table, columns), new Entry(tableColumns, now + ttl));
+    }
+
+    /**
+     * Invalidates cached columns of the given table.
+     *
+     * @param database database name, null or empty string means current database
+     * @param table    table name, null means all tables
+     */
+    public void invalidate(String database, String table) {
+        if (table == null) {
+            cache.clear();
+            return;
+        }
+
+        String db = database != null ? database : "";
+        Iterator<Key> it = cache.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (key.database.equals(db) && key.table.equals(table)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets number of cached entries, including expired ones not yet removed.
+     *
+     * @return number of cached entries
+     */
+    public int size() {
+        return cache.size();
+    }
+}
@@ -9,6 +9,7 @@ import java.sql.Statement;
 import java.util.Properties;
 import java.util.UUID;
 
+import com.clickhouse.client.ClickHouseCache;
 import com.clickhouse.client.ClickHouseUtils;
 import com.clickhouse.client.config.ClickHouseClientOption;
 
@@ -29,6 +30,35 @@ public class ClickHouseConnectionTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = "integration")
+    public void testParseCache() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_PARSE_CACHE_SIZE, "0");
+        try (ClickHouseConnection conn = newConnection(props)) {
+            Assert.assertFalse(conn.isWrapperFor(ClickHouseCache.class));
+        }
+
+        try (ClickHouseConnection conn = newConnection(new Properties())) {
+            Assert.assertTrue(conn.isWrapperFor(ClickHouseCache.class));
+            ClickHouseCache<?, ?> cache = conn.unwrap(ClickHouseCache.class);
+            long misses = cache.getMissCount();
+            String sql = "select ? + 1";
+            Assert.assertEquals(conn.parse(sql, null).length, 1);
+            Assert.assertEquals(cache.getMissCount(), misses + 1L);
+            long hits = cache.getHitCount();
+            for (int i = 0; i < 3; i++) {
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setInt(1, i);
+                    ResultSet rs = ps.executeQuery();
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(rs.getInt(1), i + 1);
+                }
+            }
+            Assert.assertEquals(cache.getMissCount(), misses + 1L);
+            Assert.assertTrue(cache.getHitCount() >= hits + 3L);
+        }
+    }
+
     @Test // (groups = "integration")
     public void testAutoCommitMode() throws Exception {
         Properties props = new Properties();
@@ -1,8 +1,11 @@
 package com.clickhouse.jdbc;
 
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
+import java.util.Collections;
 import java.util.Locale;
 import java.util.Properties;
 
@@ -138,4 +141,57 @@ public class ClickHouseDatabaseMetaDataTest extends JdbcIntegrationTest {
             }
         }
     }
+
+    @Test(groups = "integration")
+    public void testSchemaSnapshot() throws SQLException {
+        String tableName = "test_schema_snapshot";
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_METADATA_CACHE_TTL, "60");
+        ClickHouseDataSource ds = newDataSource(props);
+        try (ClickHouseConnection conn = ds.getConnection(); Statement s = conn.createStatement()) {
+            s.execute(String.format(Locale.ROOT,
+                    "drop table if exists %1$s; create table %1$s(a Int32, b Nullable(String)) engine=Memory",
+                    tableName));
+            DatabaseMetaData md = conn.getMetaData();
+            try (ResultSet rs = md.getTables(null, conn.getSchema(), tableName, null)) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("TABLE_NAME"), tableName);
+                Assert.assertEquals(rs.getString("TABLE_TYPE"), "MEMORY TABLE");
+                Assert.assertFalse(rs.next());
+            }
+            try (ResultSet rs = md.getColumns(null, conn.getSchema(), tableName, "%")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "a");
+                Assert.assertEquals(rs.getInt("DATA_TYPE"), Types.INTEGER);
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "b");
+                Assert.assertEquals(rs.getString("IS_NULLABLE"), "YES");
+                Assert.assertFalse(rs.next());
+            }
+
+            // DDL marks the database as expired, and only changed table is reloaded
+            s.execute("alter table " + tableName + " add column c String");
+            try (ClickHouseConnection another = ds.getConnection();
+                    ResultSet rs = another.getMetaData().getColumns(null, conn.getSchema(), tableName, "c")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString("COLUMN_NAME"), "c");
+                Assert.assertFalse(rs.next());
+            }
+
+            // type mappings are specific to each connection
+            try (ClickHouseConnection another = ds.getConnection()) {
+                another.setTypeMap(Collections.singletonMap("Int32", Long.class));
+                try (ResultSet rs = another.getMetaData().getColumns(null, conn.getSchema(), tableName, "a")) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(rs.getInt("DATA_TYPE"), Types.BIGINT);
+                    Assert.assertFalse(rs.next());
+                }
+            }
+            try (ResultSet rs = conn.getMetaData().getColumns(null, conn.getSchema(), tableName, "a")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt("DATA_TYPE"), Types.INTEGER);
+                Assert.assertFalse(rs.next());
+            }
+        }
+    }
 }
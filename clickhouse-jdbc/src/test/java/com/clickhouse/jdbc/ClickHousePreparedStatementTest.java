@@ -822,6 +822,43 @@ public class ClickHousePreparedStatementTest extends JdbcIntegrationTest {
         }
     }
 
+    @Test(groups = "integration")
+    public void testStreamBatchInput() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_STREAM_BATCH, "true");
+        props.setProperty(JdbcConfig.PROP_BATCH_FLUSH_ROWS, "300");
+        try (ClickHouseConnection conn = newConnection(props);
+                Statement s = conn.createStatement();
+                PreparedStatement stmt = conn.prepareStatement(
+                        "insert into test_stream_batch_input select id, name from input('id Int32, name String')")) {
+            s.execute("drop table if exists test_stream_batch_input;"
+                    + "create table test_stream_batch_input(id Int32, name String)engine=Memory");
+            int rows = 1000;
+            for (int i = 0; i < rows; i++) {
+                stmt.setInt(1, i);
+                stmt.setString(2, "name" + i);
+                stmt.addBatch();
+            }
+            int[] results = stmt.executeBatch();
+            Assert.assertEquals(results.length, rows);
+            for (int result : results) {
+                Assert.assertEquals(result, 1);
+            }
+            try (ResultSet rs = s.executeQuery("select count(1) from test_stream_batch_input")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), rows);
+            }
+
+            stmt.setInt(1, -1);
+            stmt.setString(2, "single");
+            Assert.assertEquals(stmt.executeUpdate(), 1);
+            try (ResultSet rs = s.executeQuery("select count(1) from test_stream_batch_input")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), rows + 1);
+            }
+        }
+    }
+
     @Test(groups = "integration")
     public void testBatchQuery() throws SQLException {
         try (ClickHouseConnection conn = newConnection(new Properties());
@@ -0,0 +1,211 @@
+package com.clickhouse.jdbc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseRowPrefetcherTest {
+    private ClickHouseResponse newResponse(int rows) {
+        Object[][] values = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            values[i] = new Object[] { i + 1, i % 3 == 0 ? null : "row" + (i + 1) };
+        }
+        return ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                ClickHouseColumn.parse("i Nullable(Int32), s Nullable(String)"), values);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPrefetch() throws SQLException {
+        for (int batchSize : new int[] { 1, 3, 10, 100 }) {
+            ClickHouseResponse response = newResponse(10);
+            try (ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(response, response.getColumns(), batchSize,
+                    0)) {
+                for (int i = 1; i <= 10; i++) {
+                    Assert.assertTrue(p.hasNext());
+                    Assert.assertTrue(p.next());
+                    ClickHouseRecord r = p.currentRecord();
+                    Assert.assertEquals(r.getValue(0).asInteger(), i);
+                    if ((i - 1) % 3 == 0) {
+                        Assert.assertTrue(r.getValue(1).isNullOrEmpty());
+                    } else {
+                        Assert.assertEquals(r.getValue(1).asString(), "row" + i);
+                    }
+                }
+                Assert.assertFalse(p.hasNext());
+                Assert.assertFalse(p.next());
+            }
+        }
+
+        ClickHouseResponse response = newResponse(0);
+        try (ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(response, response.getColumns(), 5, 0)) {
+            Assert.assertFalse(p.hasNext());
+            Assert.assertFalse(p.next());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testMaxRows() throws SQLException {
+        ClickHouseResponse response = newResponse(10);
+        try (ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(response, response.getColumns(), 3, 4)) {
+            for (int i = 1; i <= 4; i++) {
+                Assert.assertTrue(p.next());
+                Assert.assertEquals(p.currentRecord().getValue(0).asInteger(), i);
+            }
+            Assert.assertFalse(p.next());
+        }
+    }
+
+    @Test(groups = { "unit" }, timeOut = 10000L)
+    public void testError() throws SQLException {
+        ClickHouseResponse response = newResponse(10);
+        ClickHouseResponse failed = new ClickHouseResponse() {
+            @Override
+            public List<ClickHouseColumn> getColumns() {
+                return response.getColumns();
+            }
+
+            @Override
+            public ClickHouseResponseSummary getSummary() {
+                return response.getSummary();
+            }
+
+            @Override
+            public ClickHouseInputStream getInputStream() {
+                return null;
+            }
+
+            @Override
+            public Iterable<ClickHouseRecord> records() {
+                return response.records();
+            }
+
+            @Override
+            public boolean next() {
+                throw new StackOverflowError("should not hang");
+            }
+
+            @Override
+            public void close() {
+                response.close();
+            }
+
+            @Override
+            public boolean isClosed() {
+                return response.isClosed();
+            }
+        };
+        try (ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(failed, failed.getColumns(), 3, 0)) {
+            SQLException e = Assert.expectThrows(SQLException.class, p::next);
+            Assert.assertTrue(e.getCause() instanceof StackOverflowError, "Should have the error as cause");
+        }
+    }
+
+    @Test(groups = { "unit" }, timeOut = 10000L)
+    public void testClose() throws SQLException {
+        ClickHouseResponse response = newResponse(10);
+        ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(response, response.getColumns(), 1, 0);
+        Assert.assertTrue(p.next());
+        // background task is blocked until a batch is consumed
+        p.close();
+        p.close();
+    }
+
+    @Test(groups = { "unit" }, timeOut = 10000L)
+    public void testCloseBlockedReading() throws Exception {
+        ClickHouseResponse response = newResponse(10);
+        try (ServerSocket server = new ServerSocket(0);
+                Socket socket = new Socket("localhost", server.getLocalPort());
+                Socket peer = server.accept()) {
+            // server never sends anything, so reading blocks until the stream is closed
+            ClickHouseInputStream in = ClickHouseInputStream.of(socket.getInputStream());
+            AtomicBoolean closed = new AtomicBoolean(false);
+            ClickHouseResponse blocked = new ClickHouseResponse() {
+                @Override
+                public List<ClickHouseColumn> getColumns() {
+                    return response.getColumns();
+                }
+
+                @Override
+                public ClickHouseResponseSummary getSummary() {
+                    return response.getSummary();
+                }
+
+                @Override
+                public ClickHouseInputStream getInputStream() {
+                    return in;
+                }
+
+                @Override
+                public Iterable<ClickHouseRecord> records() {
+                    return response.records();
+                }
+
+                @Override
+                public boolean next() {
+                    try {
+                        return in.read() >= 0;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void close() {
+                    closed.set(true);
+                }
+
+                @Override
+                public boolean isClosed() {
+                    return closed.get();
+                }
+            };
+
+            ClickHouseRowPrefetcher p = new ClickHouseRowPrefetcher(blocked, blocked.getColumns(), 3, 0);
+            Thread.sleep(100L);
+            long startTime = System.currentTimeMillis();
+            p.close();
+            Assert.assertTrue(System.currentTimeMillis() - startTime < ClickHouseRowPrefetcher.CLOSE_TIMEOUT,
+                    "Should not wait until timed out");
+            Assert.assertTrue(in.isClosed());
+            Assert.assertTrue(blocked.isClosed());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testResultSet() throws SQLException {
+        try (ClickHouseResultSet rs = new ClickHouseResultSet("", "", newResponse(10))) {
+            rs.setFetchSize(4);
+            for (int i = 1; i <= 10; i++) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getRow(), i);
+                Assert.assertEquals(rs.getInt(1), i);
+                Assert.assertEquals(rs.getLong(1), i);
+                Assert.assertEquals(rs.getDouble(1), i);
+                if ((i - 1) % 3 == 0) {
+                    Assert.assertNull(rs.getString(2));
+                    Assert.assertTrue(rs.wasNull());
+                } else {
+                    Assert.assertEquals(rs.getString(2), "row" + i);
+                }
+            }
+            Assert.assertTrue(rs.isLast());
+            Assert.assertFalse(rs.next());
+            Assert.assertTrue(rs.isAfterLast());
+        }
+    }
+}
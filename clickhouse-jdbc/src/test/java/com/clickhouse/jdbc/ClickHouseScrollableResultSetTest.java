@@ -0,0 +1,112 @@
+package com.clickhouse.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.data.ClickHouseSimpleResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClickHouseScrollableResultSetTest {
+    private ClickHouseScrollableResultSet newResultSet(int rows, int windowSize) {
+        Object[][] values = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            values[i] = new Object[] { i + 1, i % 3 == 0 ? null : "row" + (i + 1) };
+        }
+        return new ClickHouseScrollableResultSet("", "", ClickHouseSimpleResponse.of(new ClickHouseConfig(),
+                ClickHouseColumn.parse("i Int32, s Nullable(String)"), values), windowSize);
+    }
+
+    private void checkRow(ResultSet rs, int row) throws SQLException {
+        Assert.assertEquals(rs.getRow(), row);
+        Assert.assertEquals(rs.getInt(1), row);
+        if ((row - 1) % 3 == 0) {
+            Assert.assertNull(rs.getString(2));
+            Assert.assertTrue(rs.wasNull());
+        } else {
+            Assert.assertEquals(rs.getString(2), "row" + row);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testEmpty() throws SQLException {
+        try (ClickHouseScrollableResultSet rs = newResultSet(0, 3)) {
+            Assert.assertEquals(rs.getType(), ResultSet.TYPE_SCROLL_INSENSITIVE);
+            Assert.assertFalse(rs.isBeforeFirst());
+            Assert.assertFalse(rs.next());
+            Assert.assertFalse(rs.isAfterLast());
+            Assert.assertFalse(rs.first());
+            Assert.assertFalse(rs.last());
+            Assert.assertFalse(rs.previous());
+            Assert.assertEquals(rs.getRow(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testForward() throws SQLException {
+        try (ClickHouseScrollableResultSet rs = newResultSet(10, 3)) {
+            Assert.assertTrue(rs.isBeforeFirst());
+            for (int i = 1; i <= 10; i++) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.isFirst(), i == 1);
+                Assert.assertEquals(rs.isLast(), i == 10);
+                checkRow(rs, i);
+            }
+            Assert.assertFalse(rs.next());
+            Assert.assertTrue(rs.isAfterLast());
+            Assert.assertEquals(rs.getRow(), 0);
+            Assert.assertFalse(rs.next());
+            Assert.assertThrows(SQLException.class, () -> rs.getInt(1));
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testScroll() throws SQLException {
+        try (ClickHouseScrollableResultSet rs = newResultSet(10, 3)) {
+            Assert.assertTrue(rs.absolute(5));
+            checkRow(rs, 5);
+            Assert.assertTrue(rs.last());
+            checkRow(rs, 10);
+            Assert.assertTrue(rs.isLast());
+
+            // read spilled rows backward
+            for (int i = 9; i > 0; i--) {
+                Assert.assertTrue(rs.previous());
+                checkRow(rs, i);
+            }
+            Assert.assertFalse(rs.previous());
+            Assert.assertTrue(rs.isBeforeFirst());
+
+            Assert.assertTrue(rs.first());
+            checkRow(rs, 1);
+            Assert.assertTrue(rs.relative(6));
+            checkRow(rs, 7);
+            Assert.assertTrue(rs.relative(-4));
+            checkRow(rs, 3);
+            Assert.assertTrue(rs.absolute(-2));
+            checkRow(rs, 9);
+            Assert.assertFalse(rs.absolute(-11));
+            Assert.assertTrue(rs.isBeforeFirst());
+            Assert.assertFalse(rs.absolute(11));
+            Assert.assertTrue(rs.isAfterLast());
+            Assert.assertTrue(rs.previous());
+            checkRow(rs, 10);
+
+            rs.afterLast();
+            Assert.assertTrue(rs.isAfterLast());
+            Assert.assertTrue(rs.relative(-10));
+            checkRow(rs, 1);
+            rs.beforeFirst();
+            Assert.assertTrue(rs.isBeforeFirst());
+            Assert.assertTrue(rs.next());
+            checkRow(rs, 1);
+
+            rs.setFetchDirection(ResultSet.FETCH_REVERSE);
+            Assert.assertEquals(rs.getFetchDirection(), ResultSet.FETCH_REVERSE);
+            Assert.assertThrows(SQLException.class, () -> rs.setFetchDirection(-1));
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.clickhouse.jdbc.internal;
 
 import java.sql.SQLException;
 import java.sql.Savepoint;
+import java.util.List;
+import java.util.Properties;
+
+import com.clickhouse.client.ClickHouseColumn;
 
 import com.clickhouse.jdbc.ClickHouseConnection;
 import com.clickhouse.jdbc.ClickHouseStatement;
+import com.clickhouse.jdbc.JdbcConfig;
 import com.clickhouse.jdbc.JdbcIntegrationTest;
 
 import org.testng.Assert;
@@ -207,4 +212,27 @@ public class ClickHouseConnectionImplTest extends JdbcIntegrationTest {
             Assert.assertEquals(conn.getAutoCommit(), false);
         }
     }
+
+    @Test(groups = "integration")
+    public void testSchemaCache() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(JdbcConfig.PROP_SCHEMA_CACHE_TTL, "60");
+        try (ClickHouseConnectionImpl conn = (ClickHouseConnectionImpl) newConnection(props);
+                ClickHouseStatement stmt = conn.createStatement()) {
+            stmt.execute("drop table if exists test_schema_cache; "
+                    + "create table test_schema_cache(a Int32, b String) engine=Memory");
+            List<ClickHouseColumn> columns = conn.getTableColumns(null, "test_schema_cache", "");
+            Assert.assertEquals(columns.size(), 2);
+            Assert.assertSame(conn.getTableColumns(null, "test_schema_cache", ""), columns);
+            Assert.assertSame(conn.getTableColumns(conn.getCurrentDatabase(), "test_schema_cache", ""), columns);
+            Assert.assertEquals(conn.getTableColumns(null, "test_schema_cache", "(a").size(), 1);
+
+            stmt.execute("alter table test_schema_cache add column c Int8");
+            Assert.assertEquals(conn.getTableColumns(null, "test_schema_cache", "").size(), 3);
+
+            columns = conn.getTableColumns(null, "test_schema_cache", "");
+            conn.invalidateTableColumns(null, "test_schema_cache");
+            Assert.assertNotSame(conn.getTableColumns(null, "test_schema_cache", ""), columns);
+        }
+    }
 }
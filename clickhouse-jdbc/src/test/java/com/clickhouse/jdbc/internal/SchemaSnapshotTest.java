@@ -0,0 +1,112 @@
+package com.clickhouse.jdbc.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SchemaSnapshotTest {
+    private SchemaSnapshot.Table newTable(String name, long time) {
+        return new SchemaSnapshot.Table(name, time, new Object[] { null, "db", name },
+                Collections.singletonList(new Object[] { null, "db", name, "c" }));
+    }
+
+    @Test(groups = { "unit" })
+    public void testLike() {
+        Assert.assertTrue(SchemaSnapshot.like("abc", null));
+        Assert.assertTrue(SchemaSnapshot.like("abc", ""));
+        Assert.assertTrue(SchemaSnapshot.like("abc", "%"));
+        Assert.assertTrue(SchemaSnapshot.like("abc", "abc"));
+        Assert.assertTrue(SchemaSnapshot.like("abc", "a%"));
+        Assert.assertTrue(SchemaSnapshot.like("abc", "%c"));
+        Assert.assertTrue(SchemaSnapshot.like("abc", "a_c"));
+        Assert.assertTrue(SchemaSnapshot.like("a.c", "a.c"));
+        Assert.assertTrue(SchemaSnapshot.like("a_c", "a\\_c"));
+        Assert.assertTrue(SchemaSnapshot.like("a\nc", "a%"));
+        Assert.assertFalse(SchemaSnapshot.like("abc", "ab"));
+        Assert.assertFalse(SchemaSnapshot.like("abc", "a\\_c"));
+        Assert.assertFalse(SchemaSnapshot.like("abc", "a.c"));
+        Assert.assertFalse(SchemaSnapshot.like("abc", "ABC"));
+    }
+
+    @Test(groups = { "unit" })
+    public void testDatabases() throws Exception {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new SchemaSnapshot(0L));
+
+        SchemaSnapshot snapshot = new SchemaSnapshot(200L);
+        Assert.assertNull(snapshot.getDatabases());
+        snapshot.setDatabases(Arrays.asList("db1", "db2"));
+        Assert.assertEquals(snapshot.getDatabases(), Arrays.asList("db1", "db2"));
+        snapshot.invalidate(null);
+        Assert.assertNull(snapshot.getDatabases());
+
+        snapshot.setDatabases(Arrays.asList("db1"));
+        Thread.sleep(300L);
+        Assert.assertNull(snapshot.getDatabases());
+    }
+
+    @Test(groups = { "unit" })
+    public void testPutAndUpdate() throws Exception {
+        SchemaSnapshot snapshot = new SchemaSnapshot(60000L);
+        Assert.assertNull(snapshot.get("db"));
+
+        SchemaSnapshot.Database db = snapshot.put("db", Arrays.asList(newTable("t2", 1L), newTable("t1", 1L)));
+        Assert.assertFalse(db.isExpired());
+        Assert.assertEquals(snapshot.get("db"), db);
+        Assert.assertEquals(snapshot.size(), 1);
+        Assert.assertEquals(db.getTables().size(), 2);
+        Assert.assertEquals(db.getTables().iterator().next().getName(), "t1");
+
+        // t1 unchanged, t2 dropped, t3 created, t4 created after reloading
+        Map<String, Long> times = new HashMap<>();
+        times.put("t1", 1L);
+        times.put("t3", 2L);
+        times.put("t4", 2L);
+        SchemaSnapshot.Database updated = snapshot.update(db, times,
+                Collections.singletonList(newTable("t3", 2L)));
+        Assert.assertFalse(updated.isExpired());
+        Assert.assertEquals(snapshot.get("db"), updated);
+        Assert.assertEquals(updated.getTables().size(), 2);
+        Assert.assertEquals(updated.getTable("t1"), db.getTable("t1"));
+        Assert.assertNull(updated.getTable("t2"));
+        Assert.assertEquals(updated.getTable("t3").getModificationTime(), 2L);
+        Assert.assertEquals(updated.getTable("t3").getColumns().size(), 1);
+        Assert.assertNull(updated.getTable("t4"));
+
+        // invalidated database must be fully reloaded
+        snapshot.invalidate("db");
+        Assert.assertNull(snapshot.get("db"));
+        Assert.assertEquals(snapshot.size(), 0);
+        snapshot.put("db", Arrays.asList(newTable("t1", 1L)));
+        snapshot.put("db2", Arrays.asList(newTable("t1", 1L)));
+        snapshot.invalidate(null);
+        Assert.assertEquals(snapshot.size(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testChanged() throws Exception {
+        SchemaSnapshot snapshot = new SchemaSnapshot(60000L);
+        long now = System.currentTimeMillis() / 1000L;
+        SchemaSnapshot.Database db = snapshot.put("db",
+                Arrays.asList(newTable("t1", now - 10L), newTable("t2", now), newTable("t3", now + 1L)));
+        Assert.assertFalse(db.isChanged("t1", now - 10L));
+        Assert.assertTrue(db.isChanged("t1", now - 5L));
+        Assert.assertTrue(db.isChanged("t4", now - 10L));
+        // modified in the same second as loading, which may or may not be loaded
+        Assert.assertTrue(db.isChanged("t2", now));
+        Assert.assertTrue(db.isChanged("t3", now + 1L));
+
+        Map<String, Long> times = new HashMap<>();
+        times.put("t1", now - 10L);
+        times.put("t2", now);
+        times.put("t3", now + 1L);
+        // t2 and t3 are not reloaded, so they should not be copied as is
+        SchemaSnapshot.Database updated = snapshot.update(db, times, Collections.emptyList());
+        Assert.assertEquals(updated.getTable("t1"), db.getTable("t1"));
+        Assert.assertNull(updated.getTable("t2"));
+        Assert.assertNull(updated.getTable("t3"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.clickhouse.jdbc.internal;
+
+import java.util.List;
+
+import com.clickhouse.client.ClickHouseColumn;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TableColumnsCacheTest {
+    @Test(groups = { "unit" })
+    public void testGetAndPut() throws Exception {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new TableColumnsCache(0L));
+
+        TableColumnsCache cache = new TableColumnsCache(200L);
+        Assert.assertNull(cache.get("db", "t", ""));
+
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Int32, b String");
+        cache.put("db", "t", "", columns);
+        Assert.assertEquals(cache.get("db", "t", ""), columns);
+        Assert.assertEquals(cache.get("db", "t", null), columns);
+        Assert.assertNull(cache.get("db", "t", "(a"));
+        Assert.assertNull(cache.get("db2", "t", ""));
+        Assert.assertNull(cache.get(null, "t", ""));
+
+        Thread.sleep(300L);
+        Assert.assertNull(cache.get("db", "t", ""));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testInvalidate() {
+        TableColumnsCache cache = new TableColumnsCache(60000L);
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Int32");
+        cache.put("db", "t1", "", columns);
+        cache.put("db", "t1", "(a", columns);
+        cache.put("db", "t2", "", columns);
+        cache.put("db2", "t1", "", columns);
+        Assert.assertEquals(cache.size(), 4);
+
+        cache.invalidate("db", "t1");
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get("db", "t1", ""));
+        Assert.assertNotNull(cache.get("db", "t2", ""));
+        Assert.assertNotNull(cache.get("db2", "t1", ""));
+
+        cache.invalidate(null, null);
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testMaxEntries() {
+        TableColumnsCache cache = new TableColumnsCache(60000L);
+        List<ClickHouseColumn> columns = ClickHouseColumn.parse("a Int32");
+        for (int i = 0; i <= TableColumnsCache.MAX_ENTRIES; i++) {
+            cache.put("db", "t" + i, "", columns);
+        }
+        Assert.assertTrue(cache.size() <= TableColumnsCache.MAX_ENTRIES);
+        Assert.assertNotNull(cache.get("db", "t" + TableColumnsCache.MAX_ENTRIES, ""));
+    }
+}
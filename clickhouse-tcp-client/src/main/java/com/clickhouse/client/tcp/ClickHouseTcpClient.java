@@ -0,0 +1,248 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.clickhouse.client.AbstractClient;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataProcessor;
+import com.clickhouse.client.ClickHouseDataStreamFactory;
+import com.clickhouse.client.ClickHouseException;
+import com.clickhouse.client.ClickHouseFile;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseRequest;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.config.ClickHouseOption;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.tcp.config.ClickHouseTcpOption;
+
+/**
+ * Client speaking ClickHouse native protocol. Data is always returned in
+ * {@link ClickHouseFormat#Native} format regardless of the format specified in
+ * request.
+ */
+public class ClickHouseTcpClient extends AbstractClient<ClickHouseTcpConnectionPool> {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseTcpClient.class);
+
+    static final List<ClickHouseProtocol> SUPPORTED = Collections.singletonList(ClickHouseProtocol.TCP);
+
+    /**
+     * Formats of data that can be decoded on client side and sent to server as
+     * data blocks. Server never parses data in other formats over native
+     * protocol.
+     */
+    static final List<ClickHouseFormat> BLOCK_INPUT_FORMATS = Collections.unmodifiableList(Arrays
+            .asList(ClickHouseFormat.RowBinary, ClickHouseFormat.RowBinaryWithNamesAndTypes, ClickHouseFormat.Native));
+
+    private static final Pattern INPUT_FORMAT = Pattern.compile("(?is).*\\bFORMAT\\s+(\\w+)\\s*;?\\s*$");
+
+    static ClickHouseConfig getConfig(ClickHouseConfig config, ClickHouseFormat format) {
+        if (config.getFormat() == format) {
+            return config;
+        }
+
+        Map<ClickHouseOption, Serializable> options = new HashMap<>();
+        options.putAll(config.getAllOptions());
+        options.put(ClickHouseClientOption.FORMAT, format);
+        return new ClickHouseConfig(options, config.getDefaultCredentials(), config.getNodeSelector(),
+                config.getMetricRegistry());
+    }
+
+    static ClickHouseConfig getResponseConfig(ClickHouseConfig config) {
+        return getConfig(config, ClickHouseFormat.Native);
+    }
+
+    /**
+     * Gets format of data to insert, if it can be decoded on client side and sent
+     * to server as blocks.
+     *
+     * @param sql non-null insert query
+     * @return one of {@link #BLOCK_INPUT_FORMATS}, or null when the format is not
+     *         supported or not specified
+     */
+    static ClickHouseFormat getBlockInputFormat(String sql) {
+        Matcher m = INPUT_FORMAT.matcher(sql);
+        if (m.matches()) {
+            String name = m.group(1);
+            for (ClickHouseFormat f : BLOCK_INPUT_FORMATS) {
+                if (f.name().equals(name)) {
+                    return f;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets input stream for decoding data to insert. Compressed file is
+     * decompressed on the fly, because server expects data blocks framed by the
+     * connection, instead of the file as is.
+     *
+     * @param config non-null configuration
+     * @param input  non-null input stream of the request
+     * @return non-null input stream producing uncompressed data
+     */
+    static ClickHouseInputStream getDataInputStream(ClickHouseConfig config, ClickHouseInputStream input) {
+        ClickHouseFile file = input.getUnderlyingFile();
+        if (!file.isAvailable() || !file.isCompressed()) {
+            return input;
+        }
+        return ClickHouseInputStream.wrap(file, input, config.getReadBufferSize(), null,
+                file.getCompressionAlgorithm(), file.getCompressionLevel());
+    }
+
+    static String getStatement(ClickHouseRequest<?> request) {
+        List<String> stmts = request.getStatements(false);
+        int size = stmts.size();
+        if (size == 0) {
+            throw new IllegalArgumentException("At least one SQL statement is required for execution");
+        } else if (size > 1) {
+            throw new IllegalArgumentException("Expect one SQL statement to execute but we got " + size);
+        }
+
+        String sql = stmts.get(0);
+        log.debug("Query: %s", sql);
+        return sql;
+    }
+
+    /**
+     * Decodes input of an insert query and sends it to server as data blocks.
+     * Server sends a header block describing the columns after receiving the
+     * query, and expects data blocks until an empty one.
+     *
+     * @param conn     non-null connection which just sent the query
+     * @param config   non-null configuration of the request
+     * @param format   non-null format of the input
+     * @param input    non-null input stream
+     * @param settings non-null settings
+     * @throws IOException when failed to decode the input or send data blocks
+     */
+    static void sendData(ClickHouseTcpConnection conn, ClickHouseConfig config, ClickHouseFormat format,
+            ClickHouseInputStream input, Map<String, Object> settings) throws IOException {
+        int blockSize = (int) config.getOption(ClickHouseTcpOption.INSERT_BLOCK_SIZE);
+        NativeBlockWriter block = new NativeBlockWriter(config,
+                conn.readInsertHeader(new ClickHouseResponseSummary(null, null)), blockSize);
+        List<ClickHouseColumn> columns = format.hasHeader() ? null : Arrays.asList(block.getColumns());
+        ClickHouseDataProcessor processor = ClickHouseDataStreamFactory.getInstance()
+                .getProcessor(getConfig(config, format), input, null, settings, columns);
+        if (columns == null) {
+            block = new NativeBlockWriter(config, processor.getColumns(), blockSize);
+        }
+
+        try {
+            for (ClickHouseRecord r : processor.records()) {
+                if (block.add(r)) {
+                    conn.sendData(block);
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (block.size() > 0) {
+            conn.sendData(block);
+        }
+        conn.sendEndOfData();
+    }
+
+    @Override
+    protected boolean checkHealth(ClickHouseNode server, int timeout) {
+        // use a dedicated connection, as the cached one might be in use
+        try (ClickHouseTcpConnection conn = new ClickHouseTcpConnection(server, connect(server).getConfig())) {
+            return conn.ping();
+        } catch (Exception e) {
+            log.debug("Failed to check health of %s due to: %s", server, e.getMessage());
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean checkConnection(ClickHouseTcpConnectionPool connection, ClickHouseNode requestServer,
+            ClickHouseNode currentServer, ClickHouseRequest<?> request) {
+        return connection != null && !connection.isClosed() && requestServer.equals(currentServer);
+    }
+
+    @Override
+    protected Collection<ClickHouseProtocol> getSupportedProtocols() {
+        return SUPPORTED;
+    }
+
+    @Override
+    protected ClickHouseTcpConnectionPool newConnection(ClickHouseTcpConnectionPool connection,
+            ClickHouseNode server, ClickHouseRequest<?> request) {
+        if (connection != null) {
+            connection.close();
+        }
+        // connections are created on demand when requests borrow them
+        return new ClickHouseTcpConnectionPool(server, request.getConfig());
+    }
+
+    @Override
+    protected void closeConnection(ClickHouseTcpConnectionPool connection, boolean force) {
+        connection.close(force);
+    }
+
+    @Override
+    protected ClickHouseResponse send(ClickHouseRequest<?> sealedRequest) throws ClickHouseException, IOException {
+        String sql = getStatement(sealedRequest);
+        byte[] query = sql.getBytes(StandardCharsets.UTF_8);
+        ClickHouseConfig config = sealedRequest.getConfig();
+        Optional<ClickHouseInputStream> input = sealedRequest.getInputStream();
+        ClickHouseFormat format = null;
+        if (input.isPresent() && (format = getBlockInputFormat(sql)) == null) {
+            input.get().close();
+            throw ClickHouseException.of(ClickHouseUtils.format(
+                    "Only %s can be used for inserting data over native protocol, please change format or use HTTP "
+                            + "protocol instead: %s",
+                    BLOCK_INPUT_FORMATS, sql), sealedRequest.getServer());
+        }
+
+        ClickHouseTcpConnection conn = getConnection(sealedRequest).acquire(config);
+
+        boolean success = false;
+        try {
+            if (format != null) {
+                try (ClickHouseInputStream in = getDataInputStream(config, input.get())) {
+                    conn.sendQuery(sealedRequest.getQueryId(), query, sealedRequest.getSettings());
+                    sendData(conn, config, format, in, sealedRequest.getSettings());
+                }
+            } else {
+                conn.sendQuery(sealedRequest.getQueryId(), query, sealedRequest.getSettings());
+            }
+            ClickHouseResponse response = new ClickHouseTcpResponse(getResponseConfig(config), conn,
+                    sealedRequest.getSettings());
+            success = true;
+            return response;
+        } finally {
+            if (!success) {
+                // server aborts the query, including partially sent insert, on disconnect
+                ClickHouseTcpConnectionPool.closeQuietly(conn);
+                conn.release();
+            }
+        }
+    }
+
+    @Override
+    public final Class<? extends ClickHouseOption> getOptionClass() {
+        return ClickHouseTcpOption.class;
+    }
+}
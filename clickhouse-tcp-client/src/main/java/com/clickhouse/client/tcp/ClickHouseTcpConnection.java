@@ -0,0 +1,571 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSocket;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseCredentials;
+import com.clickhouse.client.ClickHouseDnsResolver;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.ClickHouseSslContextProvider;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.config.ClickHouseSslMode;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.ClickHouseNativeProcessor;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.stream.Lz4InputStream;
+import com.clickhouse.client.stream.Lz4OutputStream;
+import com.clickhouse.client.tcp.config.ClickHouseTcpOption;
+
+/**
+ * Connection speaking ClickHouse native protocol. It's not thread-safe and can
+ * only serve one query at a time. Connection borrowed from
+ * {@link ClickHouseTcpConnectionPool} can be reused by next request only after
+ * it's released by the response.
+ */
+public class ClickHouseTcpConnection implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseTcpConnection.class);
+
+    /**
+     * Client revision. Keep it below 54454 so that server will not send custom
+     * serialization flags along with column types.
+     */
+    static final int CLIENT_REVISION = 54429;
+    static final int CLIENT_VERSION_MAJOR = 0;
+    static final int CLIENT_VERSION_MINOR = 3;
+    static final int CLIENT_VERSION_PATCH = 3;
+
+    static final int REVISION_WITH_SERVER_TIMEZONE = 54058;
+    static final int REVISION_WITH_QUOTA_KEY_IN_CLIENT_INFO = 54060;
+    static final int REVISION_WITH_SERVER_DISPLAY_NAME = 54372;
+    static final int REVISION_WITH_VERSION_PATCH = 54401;
+    static final int REVISION_WITH_CLIENT_WRITE_INFO = 54420;
+    static final int REVISION_WITH_SETTINGS_SERIALIZED_AS_STRINGS = 54429;
+
+    // client packets
+    static final int CLIENT_HELLO = 0;
+    static final int CLIENT_QUERY = 1;
+    static final int CLIENT_DATA = 2;
+    static final int CLIENT_PING = 4;
+
+    // server packets
+    static final int SERVER_HELLO = 0;
+    static final int SERVER_DATA = 1;
+    static final int SERVER_EXCEPTION = 2;
+    static final int SERVER_PROGRESS = 3;
+    static final int SERVER_PONG = 4;
+    static final int SERVER_END_OF_STREAM = 5;
+    static final int SERVER_PROFILE_INFO = 6;
+    static final int SERVER_TOTALS = 7;
+    static final int SERVER_EXTREMES = 8;
+    static final int SERVER_LOG = 10;
+    static final int SERVER_TABLE_COLUMNS = 11;
+
+    static final int QUERY_KIND_INITIAL = 1;
+    static final int INTERFACE_TCP = 1;
+    static final int STAGE_COMPLETE = 2;
+
+    private final ClickHouseNode server;
+    private final ClickHouseConfig config;
+    private final ClickHouseTcpConnectionPool pool;
+    private final Socket socket;
+    private final ClickHouseInputStream input;
+    private final ClickHouseOutputStream output;
+
+    private String serverName;
+    private String serverDisplayName;
+    private String serverTimeZone;
+    private int serverVersionMajor;
+    private int serverVersionMinor;
+    private int serverVersionPatch;
+    private int revision;
+
+    private ClickHouseInputStream blockInput;
+    private boolean compressed;
+    private boolean busy;
+
+    protected static Socket createSocket(ClickHouseNode server, ClickHouseConfig config) throws IOException {
+        final Socket socket = new Socket();
+        ClickHouseDnsResolver resolver = ClickHouseDnsResolver.getInstance();
+        InetSocketAddress address = resolver != null
+                ? resolver.resolve(ClickHouseProtocol.TCP, server.getHost(), server.getPort())
+                : new InetSocketAddress(server.getHost(), server.getPort());
+        try {
+            if (address.isUnresolved()) {
+                throw new UnknownHostException(address.getHostString());
+            }
+            socket.setKeepAlive(true);
+            socket.setTcpNoDelay((boolean) config.getOption(ClickHouseTcpOption.TCP_NO_DELAY));
+            socket.setSoTimeout(config.getSocketTimeout());
+            socket.connect(address, config.getConnectionTimeout());
+            if (config.isSsl()) {
+                return createSslSocket(socket, server, config);
+            }
+        } catch (IOException e) {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                // ignore
+            }
+            throw e;
+        }
+        return socket;
+    }
+
+    /**
+     * Layers TLS over the given connected socket. Host name of the server, instead
+     * of the resolved address, is used for SNI and, in strict mode, for hostname
+     * verification.
+     *
+     * @param socket non-null connected socket, which will be closed along with
+     *               the returned one
+     * @param server non-null server
+     * @param config non-null configuration
+     * @return non-null socket after handshake
+     * @throws IOException when failed to create SSL context or complete handshake
+     */
+    protected static Socket createSslSocket(Socket socket, ClickHouseNode server, ClickHouseConfig config)
+            throws IOException {
+        SSLContext sslContext = ClickHouseSslContextProvider.getProvider().getSslContext(SSLContext.class, config)
+                .orElse(null);
+        if (sslContext == null) {
+            throw new IOException("Failed to create SSL context");
+        }
+
+        SSLSocket sslSocket = (SSLSocket) sslContext.getSocketFactory().createSocket(socket, server.getHost(),
+                server.getPort(), true);
+        try {
+            if (config.getSslMode() == ClickHouseSslMode.STRICT) {
+                SSLParameters params = sslSocket.getSSLParameters();
+                params.setEndpointIdentificationAlgorithm("HTTPS");
+                sslSocket.setSSLParameters(params);
+            }
+            sslSocket.startHandshake();
+        } catch (IOException e) {
+            sslSocket.close();
+            throw e;
+        }
+        return sslSocket;
+    }
+
+    protected ClickHouseTcpConnection(ClickHouseNode server, ClickHouseConfig config) throws IOException {
+        this(server, config, null);
+    }
+
+    /**
+     * Creates a new connection.
+     *
+     * @param server non-null server to connect to
+     * @param config non-null configuration
+     * @param pool   optional pool the connection will be released to, null means
+     *               the connection will not be reused
+     * @throws IOException when failed to connect to server
+     */
+    protected ClickHouseTcpConnection(ClickHouseNode server, ClickHouseConfig config,
+            ClickHouseTcpConnectionPool pool) throws IOException {
+        this.server = ClickHouseChecker.nonNull(server, "server");
+        this.config = ClickHouseChecker.nonNull(config, "config");
+        this.pool = pool;
+
+        this.socket = createSocket(server, config);
+        boolean success = false;
+        try {
+            this.input = new SocketInputStream(socket.getInputStream(), config.getReadBufferSize());
+            this.output = ClickHouseOutputStream.of(socket.getOutputStream(), config.getWriteBufferSize());
+            hello();
+            success = true;
+        } finally {
+            if (!success) {
+                socket.close();
+            }
+        }
+    }
+
+    protected void hello() throws IOException {
+        ClickHouseCredentials credentials = server.getCredentials(config);
+        output.writeVarInt(CLIENT_HELLO).writeUnicodeString(config.getClientName()).writeVarInt(CLIENT_VERSION_MAJOR)
+                .writeVarInt(CLIENT_VERSION_MINOR).writeVarInt(CLIENT_REVISION)
+                .writeUnicodeString(server.getDatabase(config)).writeUnicodeString(credentials.getUserName())
+                .writeUnicodeString(credentials.getPassword());
+        output.flush();
+
+        int packet = input.readVarInt();
+        if (packet == SERVER_EXCEPTION) {
+            throw readException();
+        } else if (packet != SERVER_HELLO) {
+            throw new IOException(ClickHouseUtils.format("Expect server hello but we got packet %d", packet));
+        }
+
+        serverName = input.readUnicodeString();
+        serverVersionMajor = input.readVarInt();
+        serverVersionMinor = input.readVarInt();
+        revision = Math.min(input.readVarInt(), CLIENT_REVISION);
+        if (revision >= REVISION_WITH_SERVER_TIMEZONE) {
+            serverTimeZone = input.readUnicodeString();
+        }
+        if (revision >= REVISION_WITH_SERVER_DISPLAY_NAME) {
+            serverDisplayName = input.readUnicodeString();
+        }
+        if (revision >= REVISION_WITH_VERSION_PATCH) {
+            serverVersionPatch = input.readVarInt();
+        }
+        log.debug("Connected to %s %d.%d.%d(revision %d)", serverName, serverVersionMajor, serverVersionMinor,
+                serverVersionPatch, revision);
+    }
+
+    protected IOException readException() throws IOException {
+        int code = BinaryStreamUtils.readInt32(input);
+        String name = input.readUnicodeString();
+        String message = input.readUnicodeString();
+        input.readUnicodeString(); // stack trace
+        IOException nested = BinaryStreamUtils.readBoolean(input) ? readException() : null;
+        IOException e = new IOException(ClickHouseUtils.format("Code: %d. %s: %s", code, name, message));
+        if (nested != null) {
+            e.addSuppressed(nested);
+        }
+        busy = false;
+        return e;
+    }
+
+    protected void writeBlockInfo(ClickHouseOutputStream out) throws IOException {
+        out.writeVarInt(1); // is_overflows
+        BinaryStreamUtils.writeBoolean(out, false);
+        out.writeVarInt(2); // bucket_num
+        BinaryStreamUtils.writeInt32(out, -1);
+        out.writeVarInt(0);
+    }
+
+    protected void readBlockInfo(ClickHouseInputStream in) throws IOException {
+        int field;
+        while ((field = in.readVarInt()) != 0) {
+            if (field == 1) {
+                in.readByte();
+            } else if (field == 2) {
+                BinaryStreamUtils.readInt32(in);
+            } else {
+                throw new IOException(ClickHouseUtils.format("Unknown block info field: %d", field));
+            }
+        }
+    }
+
+    protected void writeEmptyBlock() throws IOException {
+        output.writeVarInt(CLIENT_DATA).writeUnicodeString("");
+        if (compressed) {
+            ClickHouseOutputStream out = new Lz4OutputStream(output, config.getWriteBufferSize(), null);
+            writeBlockInfo(out);
+            out.writeVarInt(0).writeVarInt(0);
+            out.flush();
+        } else {
+            writeBlockInfo(output);
+            output.writeVarInt(0).writeVarInt(0);
+        }
+        output.flush();
+    }
+
+    /**
+     * Reads and discards a block of server logs, which is never compressed.
+     *
+     * @throws IOException when failed to read the block
+     */
+    protected void skipLogBlock() throws IOException {
+        input.readUnicodeString(); // table name
+        readBlockInfo(input);
+        // the whole block is decoded in constructor
+        new ClickHouseNativeProcessor(config, input, null, null, null);
+    }
+
+    /**
+     * Reads header block sent by server after an insert query without inlined
+     * data. Server then expects data blocks until an empty one.
+     *
+     * @param summary non-null summary to update
+     * @return non-null columns of the table
+     * @throws IOException when failed to read the header or server returned error
+     */
+    public List<ClickHouseColumn> readInsertHeader(ClickHouseResponseSummary summary) throws IOException {
+        int packet = readPacket(summary);
+        if (packet != SERVER_DATA) {
+            throw new IOException(ClickHouseUtils.format("Expect header block but we got packet %d", packet));
+        }
+
+        int columnCount = blockInput.readVarInt();
+        blockInput.readVarInt(); // no rows in header
+        List<ClickHouseColumn> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String name = blockInput.readUnicodeString();
+            columns.add(ClickHouseColumn.of(name, blockInput.readUnicodeString()));
+        }
+        return columns;
+    }
+
+    /**
+     * Sends a data block of the insert query. An empty block must be sent at the
+     * end using {@link #sendEndOfData()}.
+     *
+     * @param block non-null block, which will be cleared after sending
+     * @throws IOException when failed to send the block
+     */
+    public void sendData(NativeBlockWriter block) throws IOException {
+        output.writeVarInt(CLIENT_DATA).writeUnicodeString("");
+        if (compressed) {
+            ClickHouseOutputStream out = new Lz4OutputStream(output, config.getWriteBufferSize(), null);
+            writeBlockInfo(out);
+            block.write(out);
+            out.flush();
+        } else {
+            writeBlockInfo(output);
+            block.write(output);
+        }
+        output.flush();
+    }
+
+    /**
+     * Sends an empty block to tell server there's no more data to insert.
+     *
+     * @throws IOException when failed to send the block
+     */
+    public void sendEndOfData() throws IOException {
+        writeEmptyBlock();
+    }
+
+    protected void writeSettings(Map<String, Object> settings) throws IOException {
+        if (revision >= REVISION_WITH_SETTINGS_SERIALIZED_AS_STRINGS) {
+            for (Entry<String, Object> s : settings.entrySet()) {
+                output.writeUnicodeString(s.getKey()).writeVarInt(0)
+                        .writeUnicodeString(String.valueOf(s.getValue()));
+            }
+        } else if (!settings.isEmpty()) {
+            log.warn("Settings %s are ignored as server revision %d is too low", settings.keySet(), revision);
+        }
+        output.writeUnicodeString("");
+    }
+
+    /**
+     * Sends query to server. Data of insert query, if any, should be sent as
+     * blocks afterwards using {@link #sendData(NativeBlockWriter)}.
+     *
+     * @param queryId  optional query id
+     * @param query    non-null query in UTF-8
+     * @param settings non-null settings
+     * @throws IOException when failed to send query
+     */
+    public void sendQuery(Optional<String> queryId, byte[] query, Map<String, Object> settings) throws IOException {
+        if (busy) {
+            throw new IllegalStateException("Connection is serving another query");
+        }
+
+        compressed = config.isResponseCompressed()
+                && config.getResponseCompressAlgorithm() == ClickHouseCompression.LZ4;
+        blockInput = compressed ? new Lz4InputStream(input) : input;
+
+        output.writeVarInt(CLIENT_QUERY).writeUnicodeString(queryId.orElseGet(() -> UUID.randomUUID().toString()));
+        // client info
+        String user = server.getCredentials(config).getUserName();
+        output.writeByte((byte) QUERY_KIND_INITIAL).writeUnicodeString(user).writeUnicodeString("")
+                .writeUnicodeString("0.0.0.0:0").writeByte((byte) INTERFACE_TCP)
+                .writeUnicodeString(System.getProperty("user.name", "")).writeUnicodeString(getLocalHostName())
+                .writeUnicodeString(config.getClientName()).writeVarInt(CLIENT_VERSION_MAJOR)
+                .writeVarInt(CLIENT_VERSION_MINOR).writeVarInt(CLIENT_REVISION);
+        if (revision >= REVISION_WITH_QUOTA_KEY_IN_CLIENT_INFO) {
+            output.writeUnicodeString((String) config.getOption(ClickHouseTcpOption.QUOTA_KEY));
+        }
+        if (revision >= REVISION_WITH_VERSION_PATCH) {
+            output.writeVarInt(CLIENT_VERSION_PATCH);
+        }
+        writeSettings(settings);
+        output.writeVarInt(STAGE_COMPLETE).writeVarInt(compressed ? 1 : 0);
+        output.writeVarInt(query.length).writeBytes(query);
+        // no external table
+        writeEmptyBlock();
+        busy = true;
+    }
+
+    /**
+     * Reads packets from server until it reaches a data block or end of the
+     * stream. Progress and statistics will be used to update the given summary.
+     *
+     * @param summary non-null summary to update
+     * @return {@link #SERVER_DATA}, {@link #SERVER_TOTALS},
+     *         {@link #SERVER_EXTREMES} when the block input stream is positioned
+     *         at the beginning of the block, or {@link #SERVER_END_OF_STREAM}
+     * @throws IOException when failed to read packet or server returned error
+     */
+    public int readPacket(ClickHouseResponseSummary summary) throws IOException {
+        try {
+            return readNextPacket(summary);
+        } catch (IOException e) {
+            // server stops sending packets after an exception, otherwise we lost
+            // track of the stream and the connection cannot be reused
+            if (busy) {
+                close();
+            }
+            throw e;
+        }
+    }
+
+    private int readNextPacket(ClickHouseResponseSummary summary) throws IOException {
+        while (true) {
+            int packet = input.readVarInt();
+            switch (packet) {
+                case SERVER_DATA:
+                case SERVER_TOTALS:
+                case SERVER_EXTREMES:
+                    input.readUnicodeString(); // table name
+                    readBlockInfo(blockInput);
+                    return packet;
+                case SERVER_EXCEPTION:
+                    throw readException();
+                case SERVER_PROGRESS:
+                    summary.update(new ClickHouseResponseSummary.Progress(input.readVarLong(), input.readVarLong(),
+                            input.readVarLong(), revision >= REVISION_WITH_CLIENT_WRITE_INFO ? input.readVarLong() : 0L,
+                            revision >= REVISION_WITH_CLIENT_WRITE_INFO ? input.readVarLong() : 0L));
+                    summary.update();
+                    break;
+                case SERVER_PROFILE_INFO:
+                    long rows = input.readVarLong();
+                    long blocks = input.readVarLong();
+                    long bytes = input.readVarLong();
+                    boolean appliedLimit = BinaryStreamUtils.readBoolean(input);
+                    long rowsBeforeLimit = input.readVarLong();
+                    BinaryStreamUtils.readBoolean(input); // calculated_rows_before_limit
+                    summary.update(new ClickHouseResponseSummary.Statistics(rows, blocks, bytes, appliedLimit,
+                            rowsBeforeLimit));
+                    break;
+                case SERVER_TABLE_COLUMNS:
+                    input.readUnicodeString(); // table name
+                    input.readUnicodeString(); // columns description
+                    break;
+                case SERVER_LOG:
+                    // sent when send_logs_level is set
+                    skipLogBlock();
+                    break;
+                case SERVER_END_OF_STREAM:
+                    busy = false;
+                    return packet;
+                default:
+                    throw new IOException(ClickHouseUtils.format("Unsupported packet %d from server", packet));
+            }
+        }
+    }
+
+    /**
+     * Sends ping packet to server and wait for pong.
+     *
+     * @return true if server responded pong; false otherwise
+     */
+    public boolean ping() {
+        if (busy) {
+            return false;
+        }
+
+        try {
+            output.writeVarInt(CLIENT_PING);
+            output.flush();
+            int packet;
+            while ((packet = input.readVarInt()) == SERVER_PROGRESS) {
+                input.readVarLong();
+                input.readVarLong();
+                input.readVarLong();
+                if (revision >= REVISION_WITH_CLIENT_WRITE_INFO) {
+                    input.readVarLong();
+                    input.readVarLong();
+                }
+            }
+            return packet == SERVER_PONG;
+        } catch (IOException e) {
+            log.debug("Failed to ping %s due to: %s", server, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Gets input stream for reading blocks, which may or may not be compressed.
+     *
+     * @return non-null input stream for reading blocks
+     */
+    public ClickHouseInputStream getBlockInputStream() {
+        return blockInput != null ? blockInput : input;
+    }
+
+    public ClickHouseNode getServer() {
+        return server;
+    }
+
+    public String getServerName() {
+        return serverName;
+    }
+
+    public String getServerDisplayName() {
+        return serverDisplayName;
+    }
+
+    public String getServerTimeZone() {
+        return serverTimeZone;
+    }
+
+    public int getServerRevision() {
+        return revision;
+    }
+
+    public boolean isBusy() {
+        return busy;
+    }
+
+    public boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    /**
+     * Releases the connection so that it can be reused by next request. The
+     * connection will be closed instead, if it does not belong to a pool or the
+     * query is still in progress.
+     */
+    public void release() {
+        if (pool != null) {
+            pool.release(this);
+        } else {
+            ClickHouseTcpConnectionPool.closeQuietly(this);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        busy = false;
+        socket.close();
+    }
+
+    static String getLocalHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append('(').append(server.getHost())
+                .append(':').append(server.getPort()).append(')').toString();
+    }
+}
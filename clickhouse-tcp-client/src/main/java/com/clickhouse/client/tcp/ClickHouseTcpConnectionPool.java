@@ -0,0 +1,159 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+import com.clickhouse.client.tcp.config.ClickHouseTcpOption;
+
+/**
+ * Connections to a node. Each request borrows a connection, which is either an
+ * idle one or a new one, and the connection will be given back by response
+ * when it's released. At most
+ * {@link ClickHouseTcpOption#CONNECTION_POOL_MAX_IDLE} idle connections are
+ * kept, and those idle for longer than
+ * {@link ClickHouseTcpOption#CONNECTION_POOL_IDLE_TIMEOUT} will be closed
+ * instead of being reused.
+ */
+public final class ClickHouseTcpConnectionPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseTcpConnectionPool.class);
+
+    static final class IdleConnection {
+        final ClickHouseTcpConnection connection;
+        final long since;
+
+        IdleConnection(ClickHouseTcpConnection connection) {
+            this.connection = connection;
+            this.since = System.currentTimeMillis();
+        }
+    }
+
+    static void closeQuietly(ClickHouseTcpConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.debug("Failed to close connection due to: %s", e.getMessage());
+        }
+    }
+
+    private final ClickHouseNode server;
+    private final int maxIdle;
+    private final long idleTimeout;
+    private final Deque<IdleConnection> idle;
+    private final Set<ClickHouseTcpConnection> leased;
+
+    private volatile boolean closed;
+
+    protected ClickHouseTcpConnectionPool(ClickHouseNode server, ClickHouseConfig config) {
+        this.server = ClickHouseChecker.nonNull(server, "server");
+        this.maxIdle = (int) ClickHouseChecker.nonNull(config, "config")
+                .getOption(ClickHouseTcpOption.CONNECTION_POOL_MAX_IDLE);
+        this.idleTimeout = (int) config.getOption(ClickHouseTcpOption.CONNECTION_POOL_IDLE_TIMEOUT);
+        this.idle = new LinkedBlockingDeque<>(Math.max(maxIdle, 1));
+        this.leased = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Borrows a connection, which must be released by calling
+     * {@link ClickHouseTcpConnection#release()} afterwards. Most recently used
+     * idle connection will be reused whenever possible.
+     *
+     * @param config non-null configuration for creating new connection
+     * @return non-null connection
+     * @throws IOException when failed to create new connection
+     */
+    public ClickHouseTcpConnection acquire(ClickHouseConfig config) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Connection pool has been closed");
+        }
+
+        long now = System.currentTimeMillis();
+        IdleConnection c;
+        while ((c = idle.pollFirst()) != null) {
+            ClickHouseTcpConnection conn = c.connection;
+            if (conn.isBusy() || conn.isClosed() || (idleTimeout > 0L && now - c.since > idleTimeout)) {
+                closeQuietly(conn);
+            } else {
+                leased.add(conn);
+                return conn;
+            }
+        }
+
+        ClickHouseTcpConnection conn = new ClickHouseTcpConnection(server, config, this);
+        leased.add(conn);
+        return conn;
+    }
+
+    /**
+     * Takes back the given connection for reuse. It will be closed instead when
+     * the query is still in progress, too many connections are idle, or the pool
+     * has been closed.
+     *
+     * @param connection non-null connection borrowed from this pool
+     */
+    void release(ClickHouseTcpConnection connection) {
+        leased.remove(connection);
+        if (closed || maxIdle <= 0 || connection.isBusy() || connection.isClosed()
+                || !idle.offerFirst(new IdleConnection(connection))) {
+            closeQuietly(connection);
+        } else if (closed && idle.removeIf(c -> c.connection == connection)) {
+            // lost the race with close()
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Gets number of idle connections.
+     *
+     * @return number of idle connections
+     */
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    public ClickHouseNode getServer() {
+        return server;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the pool along with idle connections. Borrowed connections will be
+     * closed when they're released, unless {@code force} is {@code true}.
+     *
+     * @param force whether to close borrowed connections immediately
+     */
+    public void close(boolean force) {
+        closed = true;
+
+        IdleConnection c;
+        while ((c = idle.pollFirst()) != null) {
+            closeQuietly(c.connection);
+        }
+        if (force) {
+            for (ClickHouseTcpConnection conn : leased) {
+                closeQuietly(conn);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        close(false);
+    }
+
+    @Override
+    public String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append('(').append(server.getHost())
+                .append(':').append(server.getPort()).append(')').toString();
+    }
+}
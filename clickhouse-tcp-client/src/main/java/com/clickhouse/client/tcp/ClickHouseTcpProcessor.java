@@ -0,0 +1,53 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.data.ClickHouseNativeProcessor;
+
+/**
+ * Native data processor reading blocks from server packets. Unlike
+ * {@link ClickHouseNativeProcessor}, each block is wrapped in a data packet
+ * and interleaved with progress and profile info packets, which will be used
+ * to update response summary.
+ */
+final class ClickHouseTcpProcessor extends ClickHouseNativeProcessor {
+    private final ClickHouseTcpConnection connection;
+    private final ClickHouseResponseSummary summary;
+    private final Runnable postEndAction;
+
+    @Override
+    protected Block readBlock(ClickHouseColumn[] expectedColumns) throws IOException {
+        // header block was positioned in ClickHouseTcpResponse before construction
+        if (connection == null) {
+            return super.readBlock(expectedColumns);
+        }
+
+        while (true) {
+            int packet = connection.readPacket(summary);
+            if (packet == ClickHouseTcpConnection.SERVER_END_OF_STREAM) {
+                postEndAction.run();
+                return null;
+            }
+
+            Block block = super.readBlock(expectedColumns);
+            if (packet == ClickHouseTcpConnection.SERVER_DATA) {
+                return block;
+            }
+            // totals and extremes are skipped for now
+        }
+    }
+
+    ClickHouseTcpProcessor(ClickHouseConfig config, ClickHouseTcpConnection connection,
+            ClickHouseResponseSummary summary, Map<String, Object> settings, Runnable postEndAction)
+            throws IOException {
+        super(config, connection.getBlockInputStream(), null, null, settings);
+
+        this.connection = connection;
+        this.summary = summary;
+        this.postEndAction = postEndAction;
+    }
+}
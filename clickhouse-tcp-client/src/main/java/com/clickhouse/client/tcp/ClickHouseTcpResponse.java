@@ -0,0 +1,182 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseFormat;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseResponseSummary;
+import com.clickhouse.client.data.ClickHouseNativeProcessor;
+import com.clickhouse.client.logging.Logger;
+import com.clickhouse.client.logging.LoggerFactory;
+
+/**
+ * Response of a query executed over native protocol. Blocks are decoded on
+ * demand, and the underlying connection will be released for reuse once end of
+ * the stream is reached. Closing the response before that will close the
+ * connection as well.
+ */
+public class ClickHouseTcpResponse implements ClickHouseResponse {
+    private static final Logger log = LoggerFactory.getLogger(ClickHouseTcpResponse.class);
+
+    private static final long serialVersionUID = -7316521829170254711L;
+
+    protected final ClickHouseConfig config;
+    protected final transient ClickHouseTcpConnection connection;
+    protected final transient ClickHouseNativeProcessor processor;
+    protected final List<ClickHouseColumn> columns;
+    protected final ClickHouseResponseSummary summary;
+
+    private boolean closed;
+    private boolean released;
+
+    protected ClickHouseTcpResponse(ClickHouseConfig config, ClickHouseTcpConnection connection,
+            Map<String, Object> settings) throws IOException {
+        if (config == null || connection == null) {
+            throw new IllegalArgumentException("Non-null configuration and connection are required");
+        }
+
+        this.config = config;
+        this.connection = connection;
+        this.summary = new ClickHouseResponseSummary(null, null);
+
+        boolean hasError = true;
+        try {
+            if (connection.readPacket(summary) == ClickHouseTcpConnection.SERVER_END_OF_STREAM) {
+                this.processor = null;
+                this.columns = Collections.emptyList();
+                release();
+            } else {
+                this.processor = new ClickHouseTcpProcessor(config, connection, summary, settings, this::release);
+                this.columns = processor.getColumns();
+            }
+            hasError = false;
+        } finally {
+            if (hasError) {
+                log.error("Failed to create tcp response, closing connection");
+                close();
+            }
+        }
+    }
+
+    /**
+     * Releases the connection, which will be closed when the query is still in
+     * progress.
+     */
+    protected void release() {
+        if (!released) {
+            released = true;
+            connection.release();
+        }
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        try {
+            release();
+        } finally {
+            closed = true;
+        }
+    }
+
+    @Override
+    public List<ClickHouseColumn> getColumns() {
+        return columns;
+    }
+
+    public ClickHouseFormat getFormat() {
+        return ClickHouseFormat.Native;
+    }
+
+    @Override
+    public ClickHouseResponseSummary getSummary() {
+        return summary;
+    }
+
+    /**
+     * Gets input stream for reading blocks. Please be aware that data blocks are
+     * wrapped in packets, so it's recommended to use {@link #records()} instead.
+     *
+     * @return non-null input stream
+     */
+    @Override
+    public ClickHouseInputStream getInputStream() {
+        return connection.getBlockInputStream();
+    }
+
+    @Override
+    public Iterable<ClickHouseRecord> records() {
+        return processor != null ? processor.records() : Collections.emptyList();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return processor != null && processor.hasNextRow();
+    }
+
+    @Override
+    public boolean next() {
+        return processor != null && processor.nextRow();
+    }
+
+    private ClickHouseNativeProcessor getCurrentProcessor() {
+        if (processor == null) {
+            throw new IllegalStateException("No current row available");
+        }
+        return processor;
+    }
+
+    @Override
+    public ClickHouseRecord currentRecord() {
+        return getCurrentProcessor().currentRow();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return getCurrentProcessor().isNull(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        return getCurrentProcessor().getInt(index);
+    }
+
+    @Override
+    public long getLong(int index) {
+        return getCurrentProcessor().getLong(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return getCurrentProcessor().getDouble(index);
+    }
+
+    @Override
+    public int getBytes(int index, byte[] target) {
+        return getCurrentProcessor().getBytes(index, target);
+    }
+
+    /**
+     * Gets decoded blocks.
+     *
+     * @return non-null iterable blocks
+     */
+    public Iterable<ClickHouseNativeProcessor.Block> blocks() {
+        return processor != null ? processor.blocks() : Collections.emptyList();
+    }
+}
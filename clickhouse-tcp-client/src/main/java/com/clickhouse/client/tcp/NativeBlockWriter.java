@@ -0,0 +1,215 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseDataType;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.ClickHouseValues;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.ClickHouseRowBinaryProcessor;
+
+/**
+ * Buffers rows and writes them as a block in Native format. Values of simple
+ * types are serialized in the same way as in RowBinary format, so only
+ * composite types need special handling. {@code LowCardinality} columns are
+ * written as ordinary ones, which will be converted by server.
+ */
+final class NativeBlockWriter {
+    private static final String KEYWORD_LOW_CARDINALITY = "LowCardinality(";
+    private static final String KEYWORD_NULLABLE = "Nullable(";
+
+    /**
+     * Removes all {@code LowCardinality} wrappers from the given type.
+     *
+     * @param type non-null data type
+     * @return non-null data type without {@code LowCardinality}
+     */
+    static String removeLowCardinality(String type) {
+        int index = type.indexOf(KEYWORD_LOW_CARDINALITY);
+        if (index < 0) {
+            return type;
+        }
+
+        int start = index + KEYWORD_LOW_CARDINALITY.length();
+        int depth = 1;
+        boolean quoted = false;
+        for (int i = start, len = type.length(); i < len; i++) {
+            char ch = type.charAt(i);
+            if (quoted) {
+                if (ch == '\\') {
+                    i++;
+                } else if (ch == '\'') {
+                    quoted = false;
+                }
+            } else if (ch == '\'') {
+                quoted = true;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                return removeLowCardinality(new StringBuilder().append(type, 0, index).append(type, start, i)
+                        .append(type, i + 1, len).toString());
+            }
+        }
+        throw new IllegalArgumentException("Unbalanced parentheses in data type: " + type);
+    }
+
+    private final ClickHouseConfig config;
+    private final ClickHouseColumn[] columns;
+    private final ClickHouseValue[][] values;
+    private final int capacity;
+
+    private int rows;
+
+    /**
+     * Default constructor.
+     *
+     * @param config   non-null configuration
+     * @param columns  non-null columns
+     * @param capacity maximum number of rows in the block, must be greater than
+     *                 zero
+     */
+    NativeBlockWriter(ClickHouseConfig config, List<ClickHouseColumn> columns, int capacity) {
+        this.config = ClickHouseChecker.nonNull(config, "config");
+        this.columns = new ClickHouseColumn[columns.size()];
+        for (int i = 0; i < this.columns.length; i++) {
+            ClickHouseColumn c = columns.get(i);
+            String type = c.getOriginalTypeName();
+            String newType = removeLowCardinality(type);
+            this.columns[i] = type.equals(newType) ? c : ClickHouseColumn.of(c.getColumnName(), newType);
+        }
+        this.capacity = ClickHouseChecker.between(capacity, "capacity", 1, Integer.MAX_VALUE);
+        this.values = new ClickHouseValue[this.columns.length][capacity];
+
+        this.rows = 0;
+    }
+
+    /**
+     * Gets columns of the block, which never contain {@code LowCardinality}.
+     *
+     * @return non-null columns
+     */
+    ClickHouseColumn[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Adds a copy of the given row into the block.
+     *
+     * @param r non-null row
+     * @return true if the block is full; false otherwise
+     */
+    boolean add(ClickHouseRecord r) {
+        for (int i = 0; i < columns.length; i++) {
+            ClickHouseValue v = values[i][rows];
+            if (v == null) {
+                values[i][rows] = r.getValue(i).copy();
+            } else if (r.getValue(i).isNullOrEmpty()) {
+                v.resetToNullOrEmpty();
+            } else {
+                v.update(r.getValue(i));
+            }
+        }
+        return ++rows >= capacity;
+    }
+
+    int size() {
+        return rows;
+    }
+
+    /**
+     * Writes buffered rows as a block, and clears the buffer afterwards. Block
+     * info is not included.
+     *
+     * @param out non-null output stream
+     * @throws IOException when failed to write the block
+     */
+    void write(ClickHouseOutputStream out) throws IOException {
+        out.writeVarInt(columns.length).writeVarInt(rows);
+        for (int i = 0; i < columns.length; i++) {
+            ClickHouseColumn column = columns[i];
+            out.writeUnicodeString(column.getColumnName()).writeUnicodeString(column.getOriginalTypeName());
+            List<ClickHouseValue> list = new ArrayList<>(rows);
+            for (int j = 0; j < rows; j++) {
+                list.add(values[i][j]);
+            }
+            writeColumn(out, column, list);
+        }
+        rows = 0;
+    }
+
+    private ClickHouseValue newValue(ClickHouseColumn column, Object obj) {
+        return ClickHouseValues.newValue(config, column).update(obj);
+    }
+
+    private void writeColumn(ClickHouseOutputStream out, ClickHouseColumn column, List<ClickHouseValue> list)
+            throws IOException {
+        if (column.isNullable()) {
+            String type = column.getOriginalTypeName();
+            ClickHouseColumn base = ClickHouseColumn.of(column.getColumnName(),
+                    type.substring(KEYWORD_NULLABLE.length(), type.length() - 1));
+            ClickHouseValue defaultValue = ClickHouseValues.newValue(config, base).resetToDefault();
+            List<ClickHouseValue> nonNulls = new ArrayList<>(list.size());
+            for (ClickHouseValue v : list) {
+                boolean isNull = v.isNullOrEmpty();
+                BinaryStreamUtils.writeBoolean(out, isNull);
+                nonNulls.add(isNull ? defaultValue : v);
+            }
+            writeColumn(out, base, nonNulls);
+        } else if (column.isArray()) {
+            ClickHouseColumn nested = column.getNestedColumns().get(0);
+            List<ClickHouseValue> elements = new ArrayList<>();
+            for (ClickHouseValue v : list) {
+                for (Object obj : v.asArray()) {
+                    elements.add(newValue(nested, obj));
+                }
+                BinaryStreamUtils.writeInt64(out, elements.size());
+            }
+            writeColumn(out, nested, elements);
+        } else if (column.isMap()) {
+            List<ClickHouseValue> keys = new ArrayList<>();
+            List<ClickHouseValue> vals = new ArrayList<>();
+            for (ClickHouseValue v : list) {
+                for (Entry<Object, Object> e : v.asMap().entrySet()) {
+                    keys.add(newValue(column.getKeyInfo(), e.getKey()));
+                    vals.add(newValue(column.getValueInfo(), e.getValue()));
+                }
+                BinaryStreamUtils.writeInt64(out, keys.size());
+            }
+            writeColumn(out, column.getKeyInfo(), keys);
+            writeColumn(out, column.getValueInfo(), vals);
+        } else if (column.isTuple()) {
+            List<ClickHouseColumn> nestedColumns = column.getNestedColumns();
+            List<List<Object>> tuples = new ArrayList<>(list.size());
+            for (ClickHouseValue v : list) {
+                tuples.add(v.asTuple());
+            }
+            for (int i = 0, len = nestedColumns.size(); i < len; i++) {
+                ClickHouseColumn c = nestedColumns.get(i);
+                List<ClickHouseValue> elements = new ArrayList<>(tuples.size());
+                for (List<Object> t : tuples) {
+                    elements.add(newValue(c, t.get(i)));
+                }
+                writeColumn(out, c, elements);
+            }
+        } else if (column.getDataType() == ClickHouseDataType.SimpleAggregateFunction) {
+            writeColumn(out, column.getNestedColumns().get(0), list);
+        } else if (column.getDataType().isNested()) { // Nested, AggregateFunction, geo types etc.
+            throw new IOException(ClickHouseUtils.format("Writing column [%s] of type %s in Native format is not "
+                    + "supported", column.getColumnName(), column.getOriginalTypeName()));
+        } else {
+            ClickHouseRowBinaryProcessor.MappedFunctions m = ClickHouseRowBinaryProcessor.getMappedFunctions();
+            for (ClickHouseValue v : list) {
+                m.serialize(v, config, column, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.clickhouse.client.tcp;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.ClickHouseUtils;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.stream.AbstractByteArrayInputStream;
+
+/**
+ * Buffered socket input stream. Unlike
+ * {@link com.clickhouse.client.stream.WrappedInputStream}, it does not wait for
+ * the buffer to be filled up, because server will not send more until it
+ * receives next packet from client.
+ */
+final class SocketInputStream extends AbstractByteArrayInputStream {
+    private final InputStream in;
+
+    @Override
+    protected int updateBuffer() throws IOException {
+        position = 0;
+
+        if (closed) {
+            return limit = 0;
+        }
+
+        int read = in.read(buffer, 0, buffer.length);
+        limit = read < 0 ? 0 : read;
+        if (copyTo != null && limit > 0) {
+            copyTo.write(buffer, 0, limit);
+        }
+        return limit;
+    }
+
+    SocketInputStream(InputStream input, int bufferSize) {
+        super(null, null, null);
+
+        in = ClickHouseChecker.nonNull(input, "InputStream");
+        buffer = new byte[ClickHouseUtils.getBufferSize(bufferSize,
+                (int) ClickHouseClientOption.BUFFER_SIZE.getDefaultValue(),
+                (int) ClickHouseClientOption.MAX_BUFFER_SIZE.getDefaultValue())];
+        position = 0;
+        limit = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        try {
+            in.close();
+        } finally {
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.clickhouse.client.tcp.config;
+
+import java.io.Serializable;
+
+import com.clickhouse.client.ClickHouseChecker;
+import com.clickhouse.client.config.ClickHouseOption;
+
+public enum ClickHouseTcpOption implements ClickHouseOption {
+    /**
+     * Idle timeout in milliseconds, after which idle connection will be closed
+     * instead of being reused. Zero or negative number means no timeout.
+     */
+    CONNECTION_POOL_IDLE_TIMEOUT("connection_pool_idle_timeout", 60000,
+            "Idle timeout in milliseconds, after which idle connection will be closed instead of being reused. It should be less than idle_connection_timeout on server, and zero or negative number means no timeout."),
+    /**
+     * Maximum number of idle connections kept per node for reuse.
+     */
+    CONNECTION_POOL_MAX_IDLE("connection_pool_max_idle", 5,
+            "Maximum number of idle connections kept per node for reuse. Zero or negative number disables connection reuse."),
+    /**
+     * Maximum number of rows in a data block sent to server for insertion.
+     */
+    INSERT_BLOCK_SIZE("insert_block_size", 65536,
+            "Maximum number of rows in a data block sent to server for insertion."),
+    /**
+     * Quota key sent to server along with client info.
+     */
+    QUOTA_KEY("quota_key", "", "Quota key sent to server along with client info."),
+    /**
+     * Whether to disable Nagle's algorithm or not.
+     */
+    TCP_NO_DELAY("tcp_no_delay", true, "Whether to disable Nagle's algorithm or not.");
+
+    private final String key;
+    private final Serializable defaultValue;
+    private final Class<? extends Serializable> clazz;
+    private final String description;
+
+    <T extends Serializable> ClickHouseTcpOption(String key, T defaultValue, String description) {
+        this.key = ClickHouseChecker.nonNull(key, "key");
+        this.defaultValue = ClickHouseChecker.nonNull(defaultValue, "defaultValue");
+        this.clazz = defaultValue.getClass();
+        this.description = ClickHouseChecker.nonNull(description, "description");
+    }
+
+    @Override
+    public Serializable getDefaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getKey() {
+        return key;
+    }
+
+    @Override
+    public Class<? extends Serializable> getValueType() {
+        return clazz;
+    }
+}
@@ -0,0 +1,8 @@
+module com.clickhouse.client.tcp {
+    exports com.clickhouse.client.tcp;
+    exports com.clickhouse.client.tcp.config;
+
+    provides com.clickhouse.client.ClickHouseClient with com.clickhouse.client.tcp.ClickHouseTcpClient;
+
+    requires transitive com.clickhouse.client;
+}
@@ -0,0 +1,448 @@
+package com.clickhouse.client.tcp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.clickhouse.client.ClickHouseClient;
+import com.clickhouse.client.ClickHouseColumn;
+import com.clickhouse.client.ClickHouseCompression;
+import com.clickhouse.client.ClickHouseConfig;
+import com.clickhouse.client.ClickHouseException;
+import com.clickhouse.client.ClickHouseFile;
+import com.clickhouse.client.ClickHouseInputStream;
+import com.clickhouse.client.ClickHouseNode;
+import com.clickhouse.client.ClickHouseOutputStream;
+import com.clickhouse.client.ClickHouseProtocol;
+import com.clickhouse.client.ClickHouseRecord;
+import com.clickhouse.client.ClickHouseResponse;
+import com.clickhouse.client.ClickHouseValue;
+import com.clickhouse.client.config.ClickHouseClientOption;
+import com.clickhouse.client.data.BinaryStreamUtils;
+import com.clickhouse.client.data.BinaryStreamUtilsTest;
+import com.clickhouse.client.data.ClickHouseSimpleRecord;
+import com.clickhouse.client.data.ClickHouseStringValue;
+import com.clickhouse.client.data.ClickHouseTupleValue;
+import com.clickhouse.client.data.array.ClickHouseByteArrayValue;
+import com.clickhouse.client.stream.Lz4InputStream;
+import com.clickhouse.client.stream.Lz4OutputStream;
+import com.clickhouse.client.tcp.config.ClickHouseTcpOption;
+
+public class ClickHouseTcpClientTest {
+    /**
+     * Fake server accepting one connection, which responds either an exception or
+     * two rows of {@code x Int32} for each query. Rows inserted into {@code x} by
+     * insert queries are collected as well.
+     */
+    static class FakeServer implements AutoCloseable {
+        private final ServerSocket server;
+        private final CompletableFuture<Void> future;
+        private final List<String> queries;
+        private final List<Integer> rows;
+
+        private static void writeBlockInfo(ClickHouseOutputStream out) throws IOException {
+            out.writeVarInt(1).writeByte((byte) 0).writeVarInt(2);
+            BinaryStreamUtils.writeInt32(out, -1);
+            out.writeVarInt(0);
+        }
+
+        private static void writeBlock(ClickHouseOutputStream out, int... values) throws IOException {
+            writeBlockInfo(out);
+            out.writeVarInt(1).writeVarInt(values.length).writeUnicodeString("x").writeUnicodeString("Int32");
+            for (int v : values) {
+                BinaryStreamUtils.writeInt32(out, v);
+            }
+        }
+
+        private static void writeData(ClickHouseOutputStream out, boolean compressed, int... values)
+                throws IOException {
+            out.writeVarInt(ClickHouseTcpConnection.SERVER_DATA).writeUnicodeString("");
+            if (compressed) {
+                ClickHouseOutputStream o = new Lz4OutputStream(out, 8192, null);
+                writeBlock(o, values);
+                o.flush();
+            } else {
+                writeBlock(out, values);
+            }
+        }
+
+        private static int readData(ClickHouseInputStream in, boolean compressed, List<Integer> values)
+                throws IOException {
+            Assert.assertEquals(in.readVarInt(), ClickHouseTcpConnection.CLIENT_DATA);
+            in.readUnicodeString();
+            ClickHouseInputStream blockIn = compressed ? new Lz4InputStream(in) : in;
+            Assert.assertEquals(blockIn.readBytes(8).length, 8); // block info
+            int columns = blockIn.readVarInt();
+            int count = blockIn.readVarInt();
+            for (int i = 0; i < columns; i++) {
+                Assert.assertEquals(blockIn.readUnicodeString(), "x");
+                Assert.assertEquals(blockIn.readUnicodeString(), "Int32");
+                for (int j = 0; j < count; j++) {
+                    values.add(BinaryStreamUtils.readInt32(blockIn));
+                }
+            }
+            return count;
+        }
+
+        FakeServer(boolean error, boolean sendLogs) throws IOException {
+            this(error, sendLogs, 1);
+        }
+
+        FakeServer(boolean error, boolean sendLogs, int connections) throws IOException {
+            server = new ServerSocket(0);
+            queries = Collections.synchronizedList(new ArrayList<>());
+            rows = Collections.synchronizedList(new ArrayList<>());
+            future = CompletableFuture.runAsync(() -> {
+                List<CompletableFuture<Void>> list = new ArrayList<>(connections);
+                for (int i = 0; i < connections; i++) {
+                    try {
+                        Socket socket = server.accept();
+                        list.add(CompletableFuture.runAsync(() -> serve(socket, error, sendLogs)));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                CompletableFuture.allOf(list.toArray(new CompletableFuture[0])).join();
+            });
+        }
+
+        private void serve(Socket s, boolean error, boolean sendLogs) {
+            try (Socket socket = s;
+                    ClickHouseInputStream in = new SocketInputStream(socket.getInputStream(), 8192);
+                    ClickHouseOutputStream out = ClickHouseOutputStream.of(socket.getOutputStream(), 8192)) {
+                // client hello
+                Assert.assertEquals(in.readVarInt(), ClickHouseTcpConnection.CLIENT_HELLO);
+                in.readUnicodeString();
+                in.readVarInt();
+                in.readVarInt();
+                Assert.assertEquals(in.readVarInt(), ClickHouseTcpConnection.CLIENT_REVISION);
+                in.readUnicodeString();
+                in.readUnicodeString();
+                in.readUnicodeString();
+                out.writeVarInt(ClickHouseTcpConnection.SERVER_HELLO).writeUnicodeString("ClickHouse")
+                        .writeVarInt(22).writeVarInt(8).writeVarInt(54460).writeUnicodeString("UTC")
+                        .writeUnicodeString("fake").writeVarInt(1);
+                out.flush();
+
+                // serve queries until client closed the connection
+                while (in.available() > 0) {
+                    Assert.assertEquals(in.readVarInt(), ClickHouseTcpConnection.CLIENT_QUERY);
+                    in.readUnicodeString(); // query id
+                    in.readByte();
+                    in.readUnicodeString();
+                    in.readUnicodeString();
+                    in.readUnicodeString();
+                    in.readByte();
+                    in.readUnicodeString();
+                    in.readUnicodeString();
+                    in.readUnicodeString();
+                    in.readVarInt();
+                    in.readVarInt();
+                    in.readVarInt();
+                    in.readUnicodeString(); // quota key
+                    in.readVarInt(); // patch
+                    while (!in.readUnicodeString().isEmpty()) {
+                        in.readVarInt();
+                        in.readUnicodeString();
+                    }
+                    Assert.assertEquals(in.readVarInt(), ClickHouseTcpConnection.STAGE_COMPLETE);
+                    boolean compressed = in.readVarInt() == 1;
+                    String query = in.readUnicodeString();
+                    queries.add(query);
+                    // empty block for external tables
+                    Assert.assertEquals(readData(in, compressed, rows), 0);
+
+                    if (error) {
+                        out.writeVarInt(ClickHouseTcpConnection.SERVER_EXCEPTION);
+                        BinaryStreamUtils.writeInt32(out, 60);
+                        out.writeUnicodeString("DB::Exception").writeUnicodeString("Table x doesn't exist")
+                                .writeUnicodeString("").writeByte((byte) 0);
+                        out.flush();
+                        continue;
+                    }
+
+                    if (sendLogs) {
+                        out.writeVarInt(ClickHouseTcpConnection.SERVER_LOG).writeUnicodeString("");
+                        writeBlockInfo(out);
+                        out.writeVarInt(2).writeVarInt(1).writeUnicodeString("priority")
+                                .writeUnicodeString("Int8").writeByte((byte) 6).writeUnicodeString("text")
+                                .writeUnicodeString("String").writeUnicodeString("Processed 2 rows");
+                    }
+                    if (query.startsWith("insert")) {
+                        // header block, then data blocks until an empty one
+                        writeData(out, compressed);
+                        out.flush();
+                        while (readData(in, compressed, rows) > 0) {
+                            // continue
+                        }
+                    } else {
+                        out.writeVarInt(ClickHouseTcpConnection.SERVER_PROGRESS).writeVarInt(2).writeVarInt(8)
+                                .writeVarInt(2).writeVarInt(0).writeVarInt(0);
+                        writeData(out, compressed);
+                        writeData(out, compressed, 1, 2);
+                        out.writeVarInt(ClickHouseTcpConnection.SERVER_PROFILE_INFO).writeVarInt(2)
+                                .writeVarInt(1).writeVarInt(8).writeByte((byte) 0).writeVarInt(0)
+                                .writeByte((byte) 0);
+                    }
+                    out.writeVarInt(ClickHouseTcpConnection.SERVER_END_OF_STREAM);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        ClickHouseNode getNode() {
+            return ClickHouseNode.of("localhost", ClickHouseProtocol.TCP, server.getLocalPort(), null);
+        }
+
+        List<String> getQueries() {
+            return queries;
+        }
+
+        List<Integer> getRows() {
+            return rows;
+        }
+
+        /**
+         * Waits until client closed the connection.
+         */
+        void await() {
+            future.join();
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testNewInstance() {
+        try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+            Assert.assertEquals(client.getOptionClass(), ClickHouseTcpOption.class);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testQuery() throws Exception {
+        for (boolean compress : new boolean[] { true, false }) {
+            try (FakeServer server = new FakeServer(false, false)) {
+                try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP);
+                        ClickHouseResponse response = client.connect(server.getNode())
+                                .option(ClickHouseClientOption.COMPRESS, compress).query("select x")
+                                .executeAndWait()) {
+                    Assert.assertEquals(response.getColumns().size(), 1);
+                    Assert.assertEquals(response.getColumns().get(0).getColumnName(), "x");
+                    List<Integer> list = new ArrayList<>();
+                    for (ClickHouseRecord r : response.records()) {
+                        list.add(r.getValue(0).asInteger());
+                    }
+                    Assert.assertEquals(list.size(), 2);
+                    Assert.assertEquals(list.get(0), 1);
+                    Assert.assertEquals(list.get(1), 2);
+                    Assert.assertEquals(response.getSummary().getReadRows(), 2L);
+                    Assert.assertEquals(response.getSummary().getStatistics().getRows(), 2L);
+                }
+                server.await();
+                Assert.assertEquals(server.getQueries(), Collections.singletonList("select x"));
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testReuseConnection() throws Exception {
+        try (FakeServer server = new FakeServer(false, true)) {
+            try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+                // fake server accepts only one connection
+                for (int i = 0; i < 3; i++) {
+                    try (ClickHouseResponse response = client.connect(server.getNode()).query("select " + i)
+                            .executeAndWait()) {
+                        int count = 0;
+                        for (ClickHouseRecord r : response.records()) {
+                            Assert.assertEquals(r.getValue(0).asInteger(), ++count);
+                        }
+                        Assert.assertEquals(count, 2);
+                    }
+                }
+            }
+            server.await();
+            Assert.assertEquals(server.getQueries(), Arrays.asList("select 0", "select 1", "select 2"));
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testConnectionPool() throws Exception {
+        try (FakeServer server = new FakeServer(false, false, 2)) {
+            try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+                for (int i = 0; i < 3; i++) {
+                    // concurrent queries use different connections, which are reused afterwards, or
+                    // next round times out as fake server accepts no more connection
+                    try (ClickHouseResponse r1 = client.connect(server.getNode())
+                            .option(ClickHouseClientOption.SOCKET_TIMEOUT, 3000).query("select 1").executeAndWait();
+                            ClickHouseResponse r2 = client.connect(server.getNode())
+                                    .option(ClickHouseClientOption.SOCKET_TIMEOUT, 3000).query("select 2")
+                                    .executeAndWait()) {
+                        int count = 0;
+                        for (ClickHouseRecord r : r2.records()) {
+                            Assert.assertEquals(r.getValue(0).asInteger(), ++count);
+                        }
+                        for (ClickHouseRecord r : r1.records()) {
+                            Assert.assertEquals(r.getValue(0).asInteger(), ++count - 2);
+                        }
+                        Assert.assertEquals(count, 4);
+                    }
+                }
+            }
+            server.await();
+            Assert.assertEquals(server.getQueries().size(), 6);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testInsertFile() throws Exception {
+        File file = File.createTempFile("tcp_", ".bin");
+        file.deleteOnExit();
+        try (ClickHouseOutputStream out = ClickHouseOutputStream.of(new FileOutputStream(file))) {
+            BinaryStreamUtils.writeInt32(out, 1);
+            BinaryStreamUtils.writeInt32(out, 2);
+        }
+        File compressedFile = File.createTempFile("tcp_", ".bin.lz4");
+        compressedFile.deleteOnExit();
+        try (ClickHouseOutputStream out = new Lz4OutputStream(new FileOutputStream(compressedFile), 8192, null)) {
+            BinaryStreamUtils.writeInt32(out, 3);
+            BinaryStreamUtils.writeInt32(out, 4);
+        }
+        File textFile = File.createTempFile("tcp_", ".tsv");
+        textFile.deleteOnExit();
+
+        try (FakeServer server = new FakeServer(false, false)) {
+            try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+                // data is sent as blocks after the query, instead of being inlined
+                try (ClickHouseResponse response = client.connect(server.getNode()).write()
+                        .query("insert into x format RowBinary").data(ClickHouseFile.of(file)).executeAndWait()) {
+                    Assert.assertEquals(response.getColumns().size(), 0);
+                }
+                try (ClickHouseResponse response = client.connect(server.getNode()).write()
+                        .query("insert into x format RowBinary")
+                        .data(ClickHouseFile.of(compressedFile, ClickHouseCompression.LZ4, 0, null))
+                        .executeAndWait()) {
+                    Assert.assertEquals(response.getColumns().size(), 0);
+                }
+                Assert.assertThrows(ClickHouseException.class, () -> client.connect(server.getNode()).write()
+                        .query("insert into x format TSV").data(ClickHouseFile.of(textFile)).executeAndWait());
+            }
+            server.await();
+            Assert.assertEquals(server.getQueries(),
+                    Arrays.asList("insert into x format RowBinary", "insert into x format RowBinary"));
+            Assert.assertEquals(server.getRows(), Arrays.asList(1, 2, 3, 4));
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testInsertStream() throws Exception {
+        for (boolean compress : new boolean[] { true, false }) {
+            try (FakeServer server = new FakeServer(false, false)) {
+                try (ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+                    // text formats are only parsed by server over HTTP
+                    ClickHouseException e = Assert.expectThrows(ClickHouseException.class,
+                            () -> client.connect(server.getNode()).write().query("insert into x format TSV")
+                                    .data(new ByteArrayInputStream("3\n4\n".getBytes(StandardCharsets.UTF_8)))
+                                    .executeAndWait());
+                    Assert.assertTrue(e.getMessage().contains("over native protocol"), e.getMessage());
+
+                    // sent as data blocks
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    try (ClickHouseOutputStream out = ClickHouseOutputStream.of(bytes)) {
+                        for (int i = 1; i <= 5; i++) {
+                            BinaryStreamUtils.writeInt32(out, i);
+                        }
+                    }
+                    try (ClickHouseResponse response = client.connect(server.getNode())
+                            .option(ClickHouseClientOption.COMPRESS, compress)
+                            .option(ClickHouseTcpOption.INSERT_BLOCK_SIZE, 2).write()
+                            .query("insert into x format RowBinary")
+                            .data(new ByteArrayInputStream(bytes.toByteArray())).executeAndWait()) {
+                        Assert.assertEquals(response.getColumns().size(), 0);
+                    }
+
+                    bytes = new ByteArrayOutputStream();
+                    try (ClickHouseOutputStream out = ClickHouseOutputStream.of(bytes)) {
+                        for (int i = 6; i <= 7; i++) {
+                            out.writeVarInt(1).writeVarInt(1).writeUnicodeString("x").writeUnicodeString("Int32");
+                            BinaryStreamUtils.writeInt32(out, i);
+                        }
+                    }
+                    try (ClickHouseResponse response = client.connect(server.getNode())
+                            .option(ClickHouseClientOption.COMPRESS, compress).write()
+                            .query("insert into x format Native")
+                            .data(new ByteArrayInputStream(bytes.toByteArray())).executeAndWait()) {
+                        Assert.assertEquals(response.getColumns().size(), 0);
+                    }
+                }
+                server.await();
+                Assert.assertEquals(server.getQueries(),
+                        Arrays.asList("insert into x format RowBinary", "insert into x format Native"));
+                Assert.assertEquals(server.getRows(), Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testBlockWriter() throws IOException {
+        Assert.assertEquals(NativeBlockWriter.removeLowCardinality("String"), "String");
+        Assert.assertEquals(NativeBlockWriter.removeLowCardinality("LowCardinality(Nullable(String))"),
+                "Nullable(String)");
+        Assert.assertEquals(NativeBlockWriter.removeLowCardinality(
+                "Map(LowCardinality(String), Array(LowCardinality(Enum8('a)' = 1))))"),
+                "Map(String, Array(Enum8('a)' = 1)))");
+
+        ClickHouseConfig config = new ClickHouseConfig();
+        List<ClickHouseColumn> columns = ClickHouseColumn
+                .parse("a LowCardinality(Nullable(String)), b Array(Int8), c Tuple(UInt8, Nullable(String))");
+        NativeBlockWriter block = new NativeBlockWriter(config, columns, 2);
+        Assert.assertFalse(block.add(ClickHouseSimpleRecord.of(columns, new ClickHouseValue[] {
+                ClickHouseStringValue.of("x"), ClickHouseByteArrayValue.of(new byte[] { 1, 2 }),
+                ClickHouseTupleValue.of((byte) 1, "y") })));
+        Assert.assertTrue(block.add(ClickHouseSimpleRecord.of(columns, new ClickHouseValue[] {
+                ClickHouseStringValue.ofNull(), ClickHouseByteArrayValue.of(new byte[0]),
+                ClickHouseTupleValue.of((byte) 2, null) })));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ClickHouseOutputStream out = ClickHouseOutputStream.of(bytes)) {
+            block.write(out);
+        }
+        Assert.assertEquals(block.size(), 0);
+        Assert.assertEquals(bytes.toByteArray(), BinaryStreamUtilsTest.generateBytes(3, 2,
+                1, 'a', 16, 'N', 'u', 'l', 'l', 'a', 'b', 'l', 'e', '(', 'S', 't', 'r', 'i', 'n', 'g', ')',
+                0, 1, 1, 'x', 0, // null map and values
+                1, 'b', 11, 'A', 'r', 'r', 'a', 'y', '(', 'I', 'n', 't', '8', ')',
+                2, 0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 0, 0, 0, 0, 1, 2, // offsets and elements
+                1, 'c', 30, 'T', 'u', 'p', 'l', 'e', '(', 'U', 'I', 'n', 't', '8', ',', ' ', 'N', 'u', 'l', 'l',
+                'a', 'b', 'l', 'e', '(', 'S', 't', 'r', 'i', 'n', 'g', ')', ')',
+                1, 2, 0, 1, 1, 'y', 0)); // first elements, then null map and values of second ones
+    }
+
+    @Test(groups = { "unit" })
+    public void testServerException() throws Exception {
+        try (FakeServer server = new FakeServer(true, false);
+                ClickHouseClient client = ClickHouseClient.newInstance(ClickHouseProtocol.TCP)) {
+            ClickHouseException e = Assert.expectThrows(ClickHouseException.class,
+                    () -> client.connect(server.getNode()).query("select * from x").executeAndWait());
+            Assert.assertEquals(e.getErrorCode(), 60);
+        }
+    }
+}